@@ -0,0 +1,79 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.AccountStore;
+import com.exemple.model.HeapAccountStore;
+import com.exemple.model.OffHeapAccountStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opérations sur les soldes selon le stockage des comptes: objets Account sur le tas
+ * ou cases hors du tas accédées par des vues. À lancer avec {@code -prof gc} pour
+ * comparer l'allocation par opération; {@code -t} fait varier la contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AccountStoreBenchmark {
+
+    @Param({"heap", "offheap"})
+    public String store;
+
+    @Param({"1000000"})
+    public int accountCount;
+
+    private AccountStore accounts;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        accounts = "offheap".equals(store) ? new OffHeapAccountStore() : new HeapAccountStore();
+        accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountNumbers[i] = String.format("CHK-%08d", i);
+            accounts.add(Account.ofMinorUnits(accountNumbers[i], "USR-" + (i % 1000), 1_000_000_000L, "CHECKING"));
+        }
+    }
+
+    private String randomAccount() {
+        return accountNumbers[ThreadLocalRandom.current().nextInt(accountCount)];
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long credit() {
+        Account account = accounts.get(randomAccount());
+        account.creditMinor(100L);
+        return account.getBalanceMinor();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean transfer() {
+        Account source = accounts.get(randomAccount());
+        Account destination = accounts.get(randomAccount());
+        if (source.equals(destination)) {
+            return false;
+        }
+        Account first = source.getAccountNumber().compareTo(destination.getAccountNumber()) < 0
+                ? source : destination;
+        Account second = first == source ? destination : source;
+        synchronized (first) {
+            synchronized (second) {
+                return source.tryTransferMinor(destination, 100L);
+            }
+        }
+    }
+
+    @Benchmark
+    public long readBalance() {
+        return accounts.get(randomAccount()).getBalanceMinor();
+    }
+}
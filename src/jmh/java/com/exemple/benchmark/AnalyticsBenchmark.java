@@ -0,0 +1,91 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.service.GroupStatistics;
+import com.exemple.service.TransactionAnalytics;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passage à l'échelle des rapports fork-join selon le nombre de threads du pool,
+ * comparé à la boucle séquentielle sur getAllTransactions(). L'historique est réparti
+ * sur 1000 comptes et trois types de transaction, à raison d'une transaction par minute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class AnalyticsBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final String[] TYPES = {"DEPOSIT", "WITHDRAW", "TRANSFER"};
+
+    @Param({"1000000"})
+    public int historySize;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private TransactionService transactionService;
+    private ForkJoinPool pool;
+    private TransactionAnalytics analytics;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        transactionService = new TransactionService();
+        LocalDateTime start = LocalDateTime.now().minusMinutes(historySize);
+        for (int i = 0; i < historySize; i++) {
+            String type = TYPES[i % TYPES.length];
+            String account = String.format("CHK-%08d", i % ACCOUNTS);
+            String counterpart = String.format("CHK-%08d", (i + 1) % ACCOUNTS);
+            transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-" + i, type,
+                    "DEPOSIT".equals(type) ? null : account,
+                    "WITHDRAW".equals(type) ? null : counterpart,
+                    1_000L + i % 10_000, start.plusMinutes(i), type));
+        }
+        pool = new ForkJoinPool(parallelism);
+        analytics = new TransactionAnalytics(transactionService, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, GroupStatistics> byAccount() {
+        return analytics.aggregate(TransactionAnalytics.GroupBy.ACCOUNT);
+    }
+
+    @Benchmark
+    public Map<String, GroupStatistics> byDay() {
+        return analytics.aggregate(TransactionAnalytics.GroupBy.DAY);
+    }
+
+    @Benchmark
+    public Map<String, GroupStatistics> byType() {
+        return analytics.aggregate(TransactionAnalytics.GroupBy.TYPE);
+    }
+
+    /**
+     * Référence: copie de l'historique et boucle sur un seul thread
+     * (indépendante du paramètre parallelism)
+     */
+    @Benchmark
+    public Map<String, Long> sequentialByType() {
+        Map<String, Long> sums = new HashMap<>();
+        for (Transaction transaction : transactionService.getAllTransactions()) {
+            sums.merge(transaction.getType(), transaction.getAmountMinor(), Long::sum);
+        }
+        return sums;
+    }
+}
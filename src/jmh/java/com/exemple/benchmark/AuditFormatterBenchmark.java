@@ -0,0 +1,61 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.pattern.observer.AuditFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une ligne d'audit: String.format puis encodage UTF-8, contre écriture
+ * directe dans un tampon réutilisé par AuditFormatter.
+ * Lancer avec {@code -prof gc} pour lire les allocations par ligne (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditFormatterBenchmark {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final AuditFormatter formatter = new AuditFormatter();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transaction = Transaction.ofMinorUnits("TRF-1700000000000-42", "TRANSFER", "CHK-00001001",
+                "SAV-00001002", 123_456L, LocalDateTime.now(), "Transfert effectué avec succès");
+    }
+
+    @Benchmark
+    public byte[] stringFormat() {
+        return String.format(
+                "[SUCCESS] %s | Type: %s | From: %s | To: %s | Amount: %.2f | ID: %s",
+                transaction.getTimestamp().format(DATE_FORMATTER),
+                transaction.getType(),
+                transaction.getSourceAccount(),
+                transaction.getDestinationAccount(),
+                transaction.getAmount(),
+                transaction.getTransactionId()
+        ).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int auditFormatter() {
+        if (buffer.remaining() < AuditFormatter.maxSuccessLength(transaction)) {
+            buffer.clear();
+        }
+        formatter.writeSuccess(transaction, buffer);
+        return buffer.position();
+    }
+}
@@ -0,0 +1,80 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.User;
+import com.exemple.pattern.factory.AccountFactory;
+import com.exemple.pattern.factory.UserFactory;
+import com.exemple.pattern.observer.AsyncAuditLogger;
+import com.exemple.pattern.observer.AuditLogger;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence d'une transaction avec l'audit synchrone (ouverture du fichier à chaque
+ * entrée) puis avec l'audit asynchrone par file circulaire.
+ * La sortie standard est neutralisée pour ne mesurer que l'écriture du fichier.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class AuditLoggerBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private Path auditFile;
+    private AsyncAuditLogger asyncLogger;
+    private TransactionService transactionService;
+    private DepositStrategy depositStrategy;
+    private Account account;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        auditFile = Files.createTempFile("audit-benchmark", ".log");
+        transactionService = new TransactionService();
+        if ("async".equals(mode)) {
+            asyncLogger = new AsyncAuditLogger(auditFile);
+            transactionService.addObserver(asyncLogger);
+        } else {
+            transactionService.addObserver(new AuditLogger(auditFile.toString()));
+        }
+
+        User user = UserFactory.createStandardUser("bench", "password123", "bench@email.com");
+        account = AccountFactory.createCheckingAccount(user, 0.0);
+        depositStrategy = new DepositStrategy();
+    }
+
+    @Benchmark
+    public Object executeDeposit() {
+        return transactionService.executeTransaction(depositStrategy, null, account, 10.0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (asyncLogger != null) {
+            asyncLogger.close();
+            originalOut.println("Audit asynchrone: " + asyncLogger.getWrittenCount() + " entrées, "
+                    + asyncLogger.getFlushCount() + " écritures, "
+                    + asyncLogger.getBackpressureCount() + " attentes, "
+                    + asyncLogger.getDroppedCount() + " perdues");
+        }
+        System.setOut(originalOut);
+        Files.deleteIfExists(auditFile);
+    }
+}
@@ -0,0 +1,80 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.User;
+import com.exemple.security.PasswordHasher;
+import com.exemple.service.BankingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coût de l'inscription, de la recherche par nom et de l'authentification avec une base
+ * d'utilisateurs existante. La base est remplie une fois par essai, avec un même hachage
+ * calculé une seule fois. Le coût PBKDF2 est réduit pour l'inscription; voir
+ * LoginBenchmark pour le hachage.
+ *
+ * L'authentification porte sur un sous-ensemble d'utilisateurs dont la connexion est
+ * mémorisée à la préparation: elle mesure le chemin de connexion (index, cache,
+ * mise à jour) sans l'attente du pool de vérification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Dfinance.password.iterations=1000"})
+public class BankingServiceBenchmark {
+
+    private static final String PASSWORD = "password123";
+    private static final int AUTHENTICATED_USERS = 1_000;
+
+    @Param({"10000", "1000000"})
+    public int existingUsers;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private BankingService bankingService;
+    private String[] usernames;
+    private String[] authenticatedUsernames;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        bankingService = new BankingService();
+        String hash = new PasswordHasher().hash(PASSWORD);
+        usernames = new String[existingUsers];
+        for (int i = 0; i < existingUsers; i++) {
+            usernames[i] = "existing" + i;
+            bankingService.restoreUser(new User("USR-EXISTING-" + i, usernames[i], hash,
+                    "existing" + i + "@email.com", "STANDARD"));
+        }
+
+        authenticatedUsernames = new String[Math.min(AUTHENTICATED_USERS, existingUsers)];
+        int step = existingUsers / authenticatedUsernames.length;
+        for (int i = 0; i < authenticatedUsernames.length; i++) {
+            authenticatedUsernames[i] = usernames[i * step];
+            bankingService.authenticate(authenticatedUsernames[i], PASSWORD);
+        }
+    }
+
+    @Benchmark
+    public User registerUser() {
+        long id = sequence.incrementAndGet();
+        return bankingService.registerUser("user" + id, PASSWORD,
+                "user" + id + "@email.com", "STANDARD");
+    }
+
+    @Benchmark
+    public User findUser() {
+        String username = usernames[ThreadLocalRandom.current().nextInt(usernames.length)];
+        return bankingService.getUserByUsername(username);
+    }
+
+    @Benchmark
+    public User authenticate() {
+        String username = authenticatedUsernames[
+                ThreadLocalRandom.current().nextInt(authenticatedUsernames.length)];
+        return bankingService.authenticate(username, PASSWORD);
+    }
+}
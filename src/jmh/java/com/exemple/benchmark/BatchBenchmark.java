@@ -0,0 +1,120 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.TransactionResult;
+import com.exemple.model.User;
+import com.exemple.pattern.factory.AccountFactory;
+import com.exemple.pattern.factory.UserFactory;
+import com.exemple.pattern.observer.NotificationService;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.persistence.Journal;
+import com.exemple.service.TransactionRequest;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit d'un lot de dépôts et de transferts: executeBatch contre une boucle sur
+ * executeTransaction, sans journal (chaque compte verrouillé une fois par tranche au
+ * lieu d'une fois par opération, une notification par lot) puis avec un journal
+ * durable (un fsync attendu par opération dans la boucle, un seul par lot avec
+ * executeBatch).
+ * Les scores sont exprimés par opération grâce à OperationsPerInvocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@OperationsPerInvocation(BatchBenchmark.BATCH_SIZE)
+public class BatchBenchmark {
+
+    static final int BATCH_SIZE = 1000;
+    private static final int ACCOUNTS = 16;
+
+    @Param({"none", "durable"})
+    public String journalMode;
+
+    private TransactionService transactionService;
+    private NotificationService notificationService;
+    private Journal journal;
+    private Path journalPath;
+    private List<TransactionRequest> requests;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        transactionService = new TransactionService();
+        notificationService = new NotificationService();
+        transactionService.addObserver(notificationService);
+        if ("durable".equals(journalMode)) {
+            journalPath = Files.createTempDirectory("batch-benchmark");
+            journal = Journal.open(journalPath, true);
+            transactionService.setJournal(journal);
+        }
+
+        User owner = UserFactory.createStandardUser("bench", "password123", "bench@email.com");
+        Account[] accounts = new Account[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = AccountFactory.createCheckingAccount(owner, 1_000_000_000.0);
+        }
+
+        DepositStrategy deposit = new DepositStrategy();
+        TransferStrategy transfer = new TransferStrategy();
+        requests = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Account account = accounts[i % ACCOUNTS];
+            if (i % 2 == 0) {
+                requests.add(new TransactionRequest(deposit, null, account, 10.0));
+            } else {
+                requests.add(new TransactionRequest(transfer, account, accounts[(i + 1) % ACCOUNTS], 5.0));
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistory() {
+        transactionService.clearHistory();
+        notificationService.clearNotifications();
+    }
+
+    @Benchmark
+    public List<TransactionResult> executeBatch() {
+        return transactionService.executeBatch(requests);
+    }
+
+    @Benchmark
+    public void loopExecuteTransaction(Blackhole blackhole) {
+        for (TransactionRequest request : requests) {
+            blackhole.consume(transactionService.executeTransaction(request.getStrategy(),
+                    request.getSource(), request.getDestination(), request.getAmount()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (journal != null) {
+            journal.close();
+            for (Path segment : Files.newDirectoryStream(journalPath)) {
+                Files.deleteIfExists(segment);
+            }
+            Files.deleteIfExists(journalPath);
+        }
+        System.setOut(originalOut);
+    }
+}
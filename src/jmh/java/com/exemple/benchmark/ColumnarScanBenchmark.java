@@ -0,0 +1,127 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.persistence.AccountFlows;
+import com.exemple.persistence.ColumnarSegment;
+import com.exemple.persistence.ColumnarStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Débit de parcours d'un segment colonnaire projeté en mémoire, comparé au parcours
+ * d'une liste de Transaction. Les résultats sont exprimés par ligne lue, sur un seul
+ * thread: le débit par cœur s'obtient directement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ColumnarScanBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final String[] TYPES = {"DEPOSIT", "WITHDRAW", "TRANSFER"};
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    private Path directory;
+    private ColumnarStore store;
+    private ColumnarSegment segment;
+    private List<Transaction> transactions;
+    private String account;
+
+    @Setup(Level.Trial)
+    public void populate() throws IOException {
+        transactions = new ArrayList<>(rows);
+        LocalDateTime start = LocalDateTime.now().minusSeconds(rows);
+        for (int i = 0; i < rows; i++) {
+            String type = TYPES[i % TYPES.length];
+            String source = String.format("CHK-%08d", i % ACCOUNTS);
+            String destination = String.format("CHK-%08d", (i + 1) % ACCOUNTS);
+            transactions.add(Transaction.ofMinorUnits("TXN-" + i, type,
+                    "DEPOSIT".equals(type) ? null : source,
+                    "WITHDRAW".equals(type) ? null : destination,
+                    1_000L + i % 10_000, start.plusSeconds(i), type));
+        }
+        account = String.format("CHK-%08d", 42);
+
+        directory = Files.createTempDirectory("columnar-bench");
+        store = ColumnarStore.open(directory);
+        segment = store.append(transactions);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Somme de tous les montants en lisant les colonnes projetées
+     */
+    @Benchmark
+    public long columnarSumAmounts(RowCount count) {
+        long[] total = new long[1];
+        segment.scan(null, null, (timestampNanos, amountMinor, sourceId, destinationId, typeCode, statusCode) ->
+                total[0] += amountMinor);
+        return total[0];
+    }
+
+    /**
+     * Flux net d'un compte (même agrégat que getTotalTransactionAmount), sur les colonnes
+     */
+    @Benchmark
+    public AccountFlows columnarAccountFlows(RowCount count) {
+        return store.accountFlows(account, null, null);
+    }
+
+    /**
+     * Même flux net en parcourant les objets Transaction en mémoire
+     */
+    @Benchmark
+    public long objectAccountFlows(RowCount count) {
+        long net = 0L;
+        for (Transaction transaction : transactions) {
+            if (!"COMPLETED".equals(transaction.getStatus())) {
+                continue;
+            }
+            if (account.equals(transaction.getDestinationAccount())) {
+                net += transaction.getAmountMinor();
+            }
+            if (account.equals(transaction.getSourceAccount())) {
+                net -= transaction.getAmountMinor();
+            }
+        }
+        return net;
+    }
+
+    /**
+     * Rapporte les résultats au nombre de lignes parcourues par invocation
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCount {
+        public long rowsScanned;
+
+        @Setup(Level.Invocation)
+        public void count(ColumnarScanBenchmark benchmark) {
+            rowsScanned += benchmark.rows;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.User;
+import com.exemple.service.BankingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de BankingService.createAccount sur 1 puis 8 threads. Les numéros de compte
+ * sont attribués par blocs par thread, sans verrou partagé.
+ * Les comptes sont répartis sur 10 000 utilisateurs recréés à chaque itération.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Dfinance.password.iterations=1000"})
+public class CreateAccountBenchmark {
+
+    private static final int USERS = 10_000;
+
+    private BankingService bankingService;
+    private String[] userIds;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bankingService = new BankingService();
+        userIds = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            User user = bankingService.registerUser("owner" + i, "password123",
+                    "owner" + i + "@email.com", "STANDARD");
+            userIds[i] = user.getUserId();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Account singleThread() {
+        return createAccount();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Account parallel() {
+        return createAccount();
+    }
+
+    private Account createAccount() {
+        String userId = userIds[ThreadLocalRandom.current().nextInt(USERS)];
+        return bankingService.createAccount(userId, 100.0, "CHECKING");
+    }
+}
@@ -0,0 +1,98 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.service.TransactionPage;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des requêtes d'historique selon la taille de l'historique.
+ * L'historique est réparti sur 1000 comptes et trois types de transaction, à raison
+ * d'une transaction par seconde; les pages portent sur les 20 dernières transactions
+ * d'un compte ou d'un type, ou sur une fenêtre de 24 heures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class HistoryQueryBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final String[] TYPES = {"DEPOSIT", "WITHDRAW", "TRANSFER"};
+    private static final int PAGE_SIZE = 20;
+    private static final int WINDOW_HOURS = 24;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int historySize;
+
+    private TransactionService transactionService;
+    private String[] transactionIds;
+    private String[] accountNumbers;
+    private LocalDateTime start;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        transactionService = new TransactionService();
+        transactionIds = new String[historySize];
+        accountNumbers = new String[ACCOUNTS];
+        for (int a = 0; a < ACCOUNTS; a++) {
+            accountNumbers[a] = String.format("CHK-%08d", a);
+        }
+
+        start = LocalDateTime.now().minusSeconds(historySize);
+        for (int i = 0; i < historySize; i++) {
+            String type = TYPES[i % TYPES.length];
+            String account = accountNumbers[i % ACCOUNTS];
+            String counterpart = accountNumbers[(i + 1) % ACCOUNTS];
+            transactionIds[i] = "TXN-" + i;
+            transactionService.restoreTransaction(Transaction.ofMinorUnits(transactionIds[i], type,
+                    "DEPOSIT".equals(type) ? null : account,
+                    "WITHDRAW".equals(type) ? null : counterpart,
+                    1_000L + i % 10_000, start.plusSeconds(i), type));
+        }
+    }
+
+    @Benchmark
+    public Transaction getTransaction() {
+        return transactionService.getTransaction(
+                transactionIds[ThreadLocalRandom.current().nextInt(historySize)]);
+    }
+
+    @Benchmark
+    public TransactionPage latestPage() {
+        return transactionService.getAccountTransactions(
+                accountNumbers[ThreadLocalRandom.current().nextInt(ACCOUNTS)], null, null, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public TransactionPage timeWindowPage() {
+        LocalDateTime from = start.plusSeconds(ThreadLocalRandom.current().nextInt(historySize));
+        return transactionService.getAccountTransactions(
+                accountNumbers[ThreadLocalRandom.current().nextInt(ACCOUNTS)],
+                from, from.plusHours(WINDOW_HOURS), PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public double getTotalTransactionAmount() {
+        return transactionService.getTotalTransactionAmount(
+                accountNumbers[ThreadLocalRandom.current().nextInt(ACCOUNTS)]);
+    }
+
+    @Benchmark
+    public TransactionPage typePage() {
+        return transactionService.getTransactionsByType(
+                TYPES[ThreadLocalRandom.current().nextInt(TYPES.length)], PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public int getSuccessfulTransactionCount() {
+        return transactionService.getSuccessfulTransactionCount();
+    }
+}
@@ -0,0 +1,74 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soixante-quatre threads déposent sur un même compte marchand.
+ *
+ * creditContended: passage automatique en mode chaud désactivé, tous les crédits se
+ * disputent le même solde. creditAutoPromoted: le compte passe en mode chaud dès que
+ * la contention est détectée. creditHot: compte chaud dès la préparation.
+ * creditHotWithDebits: un débit tous les 64 crédits, qui consolide les cellules.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(64)
+public class HotAccountBenchmark {
+
+    private static final long INITIAL_BALANCE_MINOR = 1_000_000_000L;
+
+    @State(Scope.Benchmark)
+    public static class Merchant {
+        Account account;
+
+        @Setup(Level.Iteration)
+        public void open() {
+            account = Account.ofMinorUnits("BUS-00000001", "USR-1", INITIAL_BALANCE_MINOR, "BUSINESS");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HotMerchant {
+        Account account;
+
+        @Setup(Level.Iteration)
+        public void open() {
+            account = Account.ofMinorUnits("BUS-00000002", "USR-1", INITIAL_BALANCE_MINOR, "BUSINESS");
+            account.promoteToHotAccount();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Counter {
+        int credits;
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-D" + Account.HOT_PROMOTION_PROPERTY + "=0"})
+    public void creditContended(Merchant merchant) {
+        merchant.account.creditMinor(100);
+    }
+
+    @Benchmark
+    public void creditAutoPromoted(Merchant merchant) {
+        merchant.account.creditMinor(100);
+    }
+
+    @Benchmark
+    public void creditHot(HotMerchant merchant) {
+        merchant.account.creditMinor(100);
+    }
+
+    @Benchmark
+    public boolean creditHotWithDebits(HotMerchant merchant, Counter counter) {
+        merchant.account.creditMinor(100);
+        return (++counter.credits & 63) == 0 && merchant.account.tryDebitMinor(50);
+    }
+}
@@ -0,0 +1,33 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.pattern.strategy.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Génération d'identifiants: ancien format (horloge + Math.random) contre
+ * SnowflakeIdGenerator, sur 8 threads. Lancer avec {@code -prof gc} pour les allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@Threads(8)
+public class IdGeneratorBenchmark {
+
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+    @Benchmark
+    public String legacy() {
+        return "DEP-" + System.currentTimeMillis() + "-" + (int) (Math.random() * 1000);
+    }
+
+    @Benchmark
+    public String snowflake() {
+        return generator.nextId("DEP");
+    }
+}
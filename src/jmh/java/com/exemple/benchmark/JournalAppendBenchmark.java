@@ -0,0 +1,56 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.persistence.Journal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit d'écriture du journal, avec et sans fsync.
+ * En mode durable, le group commit partage chaque fsync entre les threads en attente:
+ * lancer avec -t 1 puis -t 16 pour observer l'effet du regroupement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(16)
+public class JournalAppendBenchmark {
+
+    @Param({"false", "true"})
+    public boolean durable;
+
+    private Path journalPath;
+    private Journal journal;
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void openJournal() throws IOException {
+        journalPath = Files.createTempDirectory("append-benchmark");
+        journal = Journal.open(journalPath, durable);
+        transaction = Transaction.ofMinorUnits("DEP-1", "DEPOSIT", null, "CHK-00001001",
+                10_000L, LocalDateTime.now(), "Dépôt effectué avec succès");
+    }
+
+    @Benchmark
+    public void logTransaction() {
+        journal.logTransaction(transaction);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeJournal() throws IOException {
+        journal.close();
+        for (Path segment : Files.newDirectoryStream(journalPath)) {
+            Files.deleteIfExists(segment);
+        }
+        Files.deleteIfExists(journalPath);
+    }
+}
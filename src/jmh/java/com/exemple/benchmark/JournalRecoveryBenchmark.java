@@ -0,0 +1,89 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+import com.exemple.persistence.Journal;
+import com.exemple.persistence.JournalRecovery;
+import com.exemple.persistence.SnapshotManager;
+import com.exemple.service.BankingService;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure le temps de reconstruction des services à partir d'un journal de N transactions,
+ * soit par rejeu complet du journal, soit par chargement d'un snapshot qui le couvre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class JournalRecoveryBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+
+    @Param({"100000", "1000000", "10000000"})
+    public int entries;
+
+    @Param({"false", "true"})
+    public boolean snapshotted;
+
+    private Path journalPath;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        journalPath = Files.createTempDirectory("recovery-benchmark");
+
+        try (Journal journal = Journal.open(journalPath, false)) {
+            BankingService bankingService = new BankingService();
+            bankingService.setJournal(journal);
+
+            User user = bankingService.registerUser("bench", "password123",
+                    "bench@email.com", "STANDARD");
+            String[] accountNumbers = new String[ACCOUNTS];
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Account account = bankingService.createAccount(user.getUserId(), 0.0, "CHECKING");
+                accountNumbers[i] = account.getAccountNumber();
+            }
+
+            LocalDateTime timestamp = LocalDateTime.now();
+            for (int i = 0; i < entries; i++) {
+                journal.logTransaction(Transaction.ofMinorUnits("DEP-" + i, "DEPOSIT", null,
+                        accountNumbers[i % ACCOUNTS], 1000L + i % 100, timestamp,
+                        "Dépôt effectué avec succès"));
+            }
+
+            if (snapshotted) {
+                new SnapshotManager(journal).takeSnapshot();
+            }
+        }
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        BankingService bankingService = new BankingService();
+        TransactionService transactionService = new TransactionService();
+        JournalRecovery.recover(journalPath, bankingService, transactionService);
+        return transactionService.getTotalTransactionCount();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        try (Stream<Path> files = Files.walk(journalPath)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
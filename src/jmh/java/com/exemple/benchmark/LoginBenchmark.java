@@ -0,0 +1,64 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.User;
+import com.exemple.security.CredentialVerifier;
+import com.exemple.security.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connexions par seconde selon le coût PBKDF2, avec et sans cache des connexions
+ * (rempli à la préparation: toutes les connexions mesurées sont des reconnexions).
+ * Le pool de vérification a un thread: le score est le débit d'un cœur. Avec
+ * {@code -t}, les threads supplémentaires attendent le pool ou sont refusés, ce qui
+ * montre que les connexions n'occupent jamais plus d'un cœur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class LoginBenchmark {
+
+    private static final int USERS = 100;
+
+    @Param({"10000", "310000"})
+    public int iterations;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private CredentialVerifier verifier;
+    private User[] users;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        PasswordHasher hasher = new PasswordHasher(iterations, PasswordHasher.DEFAULT_SALT_BYTES,
+                PasswordHasher.DEFAULT_KEY_BITS);
+        verifier = new CredentialVerifier(hasher, 1, 1024,
+                cached ? Duration.ofMinutes(1) : Duration.ZERO, USERS);
+        users = new User[USERS];
+        String hash = hasher.hash("password123");
+        for (int i = 0; i < USERS; i++) {
+            users[i] = new User("USR-" + i, "user" + i, hash, "user" + i + "@email.com", "STANDARD");
+            if (cached) {
+                verifier.verify(users[i], "password123");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        verifier.close();
+    }
+
+    @Benchmark
+    public boolean login() {
+        return verifier.verify(users[ThreadLocalRandom.current().nextInt(USERS)], "password123");
+    }
+}
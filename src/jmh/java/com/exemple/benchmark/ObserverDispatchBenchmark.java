@@ -0,0 +1,100 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+import com.exemple.pattern.factory.AccountFactory;
+import com.exemple.pattern.factory.UserFactory;
+import com.exemple.pattern.observer.AsyncTransactionObserver;
+import com.exemple.pattern.observer.AsyncTransactionObserver.OverflowPolicy;
+import com.exemple.pattern.observer.AuditLogger;
+import com.exemple.pattern.observer.NotificationService;
+import com.exemple.pattern.observer.TransactionObserver;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence d'un dépôt lorsque AuditLogger (synchrone, un fichier ouvert par entrée)
+ * et NotificationService sont appelés directement, ou via AsyncTransactionObserver
+ * avec chacune des politiques de débordement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ObserverDispatchBenchmark {
+
+    @Param({"direct", "BLOCK", "DROP", "COALESCE"})
+    public String dispatch;
+
+    private TransactionService transactionService;
+    private NotificationService notificationService;
+    private AsyncTransactionObserver asyncAudit;
+    private AsyncTransactionObserver asyncNotifications;
+    private DepositStrategy strategy;
+    private Account account;
+    private Path auditFile;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        auditFile = Files.createTempFile("dispatch-benchmark", ".log");
+        TransactionObserver audit = new AuditLogger(auditFile.toString());
+        notificationService = new NotificationService();
+        transactionService = new TransactionService();
+
+        if ("direct".equals(dispatch)) {
+            transactionService.addObserver(audit);
+            transactionService.addObserver(notificationService);
+        } else {
+            OverflowPolicy policy = OverflowPolicy.valueOf(dispatch);
+            asyncAudit = new AsyncTransactionObserver(audit, 4096, policy);
+            asyncNotifications = new AsyncTransactionObserver(notificationService, 4096, policy);
+            transactionService.addObserver(asyncAudit);
+            transactionService.addObserver(asyncNotifications);
+        }
+
+        User owner = UserFactory.createStandardUser("bench", "password123", "bench@email.com");
+        account = AccountFactory.createCheckingAccount(owner, 0.0);
+        strategy = new DepositStrategy();
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistory() {
+        transactionService.clearHistory();
+        notificationService.clearNotifications();
+    }
+
+    @Benchmark
+    public Transaction deposit() {
+        return transactionService.executeTransaction(strategy, null, account, 10.0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (asyncAudit != null) {
+            asyncAudit.close();
+            asyncNotifications.close();
+            originalOut.println("Audit: profondeur max " + asyncAudit.getMaxQueueDepth()
+                    + ", perdus " + asyncAudit.getDroppedCount()
+                    + ", fusionnés " + asyncAudit.getCoalescedCount()
+                    + ", latence moyenne " + asyncAudit.getAverageHandlerLatencyNanos() + " ns");
+        }
+        System.setOut(originalOut);
+        Files.deleteIfExists(auditFile);
+    }
+}
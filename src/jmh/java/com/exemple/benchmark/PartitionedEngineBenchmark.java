@@ -0,0 +1,102 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.service.PartitionedTransactionEngine;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de virements entre comptes tirés au hasard, selon le nombre de partitions du
+ * moteur partitionné. Chaque appel soumet un lot de virements puis attend leurs
+ * résultats; les quatre threads producteurs ne font que déposer et attendre.
+ *
+ * partitions = 0 est la référence: executeTransaction avec TransferStrategy, verrous
+ * des deux comptes, sur les mêmes threads et les mêmes comptes. Dans les deux cas
+ * chaque virement est enregistré dans un TransactionService (sans journal), renouvelé
+ * à chaque itération pour borner la mémoire. Le gain par partition n'apparaît qu'avec
+ * au moins autant de cœurs libres que de partitions en plus des producteurs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(4)
+public class PartitionedEngineBenchmark {
+
+    private static final int ACCOUNTS = 1024;
+    private static final int BATCH = 256;
+    private static final double INITIAL_BALANCE = 1_000_000_000.0;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int partitions;
+
+    private Account[] accounts;
+    private String[] accountNumbers;
+    private PartitionedTransactionEngine engine;
+    private TransferStrategy strategy;
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, Account> byNumber = new HashMap<>();
+        accounts = new Account[ACCOUNTS];
+        accountNumbers = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = "ACC-" + i;
+            accounts[i] = new Account(accountNumbers[i], "USR-" + i, INITIAL_BALANCE, "CHECKING");
+            byNumber.put(accountNumbers[i], accounts[i]);
+        }
+        strategy = new TransferStrategy();
+        if (partitions > 0) {
+            engine = new PartitionedTransactionEngine(partitions, byNumber::get);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetHistory() {
+        transactionService = new TransactionService();
+        if (engine != null) {
+            engine.setTransactionService(transactionService);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object transfers() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (engine == null) {
+            Object last = null;
+            for (int i = 0; i < BATCH; i++) {
+                int from = random.nextInt(ACCOUNTS);
+                int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                last = transactionService.executeTransaction(strategy, accounts[from], accounts[to], 1.0);
+            }
+            return last;
+        }
+
+        CompletableFuture<?>[] results = new CompletableFuture<?>[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            int from = random.nextInt(ACCOUNTS);
+            int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            results[i] = engine.submitTransfer(accountNumbers[from], accountNumbers[to], 100);
+        }
+        return CompletableFuture.allOf(results).join();
+    }
+}
@@ -0,0 +1,105 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.User;
+import com.exemple.security.Session;
+import com.exemple.security.SessionManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validation de jetons et éviction avec un million de sessions ouvertes.
+ *
+ * validate: débit de validation d'un jeton tiré au hasard, sur quatre threads.
+ * openAndClose: ouverture et fermeture d'une session, table pleine.
+ * expire: un passage d'éviction après expiration de toutes les sessions (horloge
+ * fournie, la table est remplie avant chaque appel); le nombre de sessions évincées
+ * par seconde est le million divisé par le temps mesuré.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SessionBenchmark {
+
+    private static final int SESSIONS = 1_000_000;
+    private static final int USERS = 10_000;
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private static User[] users() {
+        User[] users = new User[USERS];
+        for (int i = 0; i < USERS; i++) {
+            users[i] = new User("USR-" + i, "user" + i, "hash", "user" + i + "@email.com", "STANDARD");
+        }
+        return users;
+    }
+
+    @State(Scope.Benchmark)
+    public static class OpenSessions {
+        SessionManager manager;
+        User[] users;
+        String[] tokens;
+
+        @Setup(Level.Trial)
+        public void populate() {
+            manager = new SessionManager(TTL, SessionManager.DEFAULT_TICK, SessionManager.DEFAULT_WHEEL_SIZE);
+            users = users();
+            tokens = new String[SESSIONS];
+            for (int i = 0; i < SESSIONS; i++) {
+                tokens[i] = manager.createSession(users[i % USERS]).getToken();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            manager.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExpiredSessions {
+        final AtomicLong clock = new AtomicLong();
+        final User[] users = users();
+        SessionManager manager;
+
+        @Setup(Level.Invocation)
+        public void populate() {
+            manager = new SessionManager(TTL, SessionManager.DEFAULT_TICK,
+                    SessionManager.DEFAULT_WHEEL_SIZE, clock::get);
+            for (int i = 0; i < SESSIONS; i++) {
+                manager.createSession(users[i % USERS]);
+                if (i % 1000 == 0) {
+                    clock.addAndGet(TTL.toNanos() / 1000);
+                }
+            }
+            clock.addAndGet(2 * TTL.toNanos());
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Session validate(OpenSessions state) {
+        return state.manager.validate(state.tokens[ThreadLocalRandom.current().nextInt(SESSIONS)]);
+    }
+
+    @Benchmark
+    public boolean openAndClose(OpenSessions state) {
+        Session session = state.manager.createSession(
+                state.users[ThreadLocalRandom.current().nextInt(USERS)]);
+        return state.manager.invalidate(session.getToken());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int expire(ExpiredSessions state) {
+        return state.manager.expireSessions();
+    }
+}
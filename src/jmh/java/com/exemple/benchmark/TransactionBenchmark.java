@@ -0,0 +1,139 @@
+package com.exemple.benchmark;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+import com.exemple.pattern.factory.AccountFactory;
+import com.exemple.pattern.factory.UserFactory;
+import com.exemple.pattern.observer.AsyncAuditLogger;
+import com.exemple.pattern.observer.NotificationService;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.pattern.strategy.TransactionStrategy;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.pattern.strategy.WithdrawStrategy;
+import com.exemple.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de TransactionService.executeTransaction pour chaque stratégie, sans
+ * observateur puis avec l'audit asynchrone et les notifications, sur un thread et
+ * sur huit threads se disputant les mêmes comptes.
+ * L'historique est vidé à chaque itération pour borner la mémoire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TransactionBenchmark {
+
+    private static final int ACCOUNTS = 4;
+    private static final double INITIAL_BALANCE = 1_000_000_000.0;
+    private static final double AMOUNT = 10.0;
+
+    @Param({"DEPOSIT", "WITHDRAW", "TRANSFER"})
+    public String operation;
+
+    @Param({"false", "true"})
+    public boolean observers;
+
+    private TransactionService transactionService;
+    private TransactionStrategy strategy;
+    private Account[] accounts;
+    private NotificationService notificationService;
+    private AsyncAuditLogger auditLogger;
+    private Path auditFile;
+    private PrintStream originalOut;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt(ACCOUNTS);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        transactionService = new TransactionService();
+        if (observers) {
+            auditFile = Files.createTempFile("transaction-benchmark", ".log");
+            auditLogger = new AsyncAuditLogger(auditFile);
+            notificationService = new NotificationService();
+            transactionService.addObserver(auditLogger);
+            transactionService.addObserver(notificationService);
+        }
+
+        switch (operation) {
+            case "DEPOSIT":
+                strategy = new DepositStrategy();
+                break;
+            case "WITHDRAW":
+                strategy = new WithdrawStrategy();
+                break;
+            default:
+                strategy = new TransferStrategy();
+        }
+
+        User owner = UserFactory.createStandardUser("bench", "password123", "bench@email.com");
+        accounts = new Account[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts[i] = AccountFactory.createCheckingAccount(owner, INITIAL_BALANCE);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearHistory() {
+        transactionService.clearHistory();
+        if (notificationService != null) {
+            notificationService.clearNotifications();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Transaction singleThread(Cursor cursor) {
+        return execute(cursor);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Transaction contended(Cursor cursor) {
+        return execute(cursor);
+    }
+
+    private Transaction execute(Cursor cursor) {
+        int index = cursor.next;
+        cursor.next = (index + 1) % ACCOUNTS;
+        Account account = accounts[index];
+
+        switch (operation) {
+            case "DEPOSIT":
+                return transactionService.executeTransaction(strategy, null, account, AMOUNT);
+            case "WITHDRAW":
+                return transactionService.executeTransaction(strategy, account, null, AMOUNT);
+            default:
+                return transactionService.executeTransaction(strategy, account,
+                        accounts[cursor.next], AMOUNT);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (auditLogger != null) {
+            auditLogger.close();
+            Files.deleteIfExists(auditFile);
+        }
+        System.setOut(originalOut);
+    }
+}
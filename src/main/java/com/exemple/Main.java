@@ -4,13 +4,20 @@ package com.exemple;
 
 import com.exemple.model.Account;
 import com.exemple.model.User;
-import com.exemple.pattern.observer.AuditLogger;
+import com.exemple.pattern.observer.AsyncAuditLogger;
 import com.exemple.pattern.observer.NotificationService;
 import com.exemple.pattern.strategy.*;
+import com.exemple.security.Session;
 import com.exemple.service.BankingService;
+import com.exemple.service.GroupStatistics;
+import com.exemple.service.TransactionPage;
+import com.exemple.service.TransactionAnalytics;
 import com.exemple.service.TransactionService;
+import com.exemple.service.TransactionStatistics;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -18,17 +25,28 @@ import java.util.Scanner;
  */
 public class Main {
 
+    private static final int HISTORY_PAGE_SIZE = 10;
+
     private static BankingService bankingService;
     private static TransactionService transactionService;
+    private static TransactionAnalytics transactionAnalytics;
     private static Scanner scanner;
+    private static String sessionToken;
     private static User currentUser;
+    private static AsyncAuditLogger auditLogger;
 
     public static void main(String[] args) {
         bankingService = new BankingService();
         transactionService = new TransactionService();
+        transactionAnalytics = new TransactionAnalytics(transactionService);
         scanner = new Scanner(System.in);
 
-        transactionService.addObserver(new AuditLogger());
+        try {
+            auditLogger = new AsyncAuditLogger();
+            transactionService.addObserver(auditLogger);
+        } catch (IOException e) {
+            System.err.println("Journal d'audit indisponible: " + e.getMessage());
+        }
         transactionService.addObserver(new NotificationService(500.0));
 
         initializeSampleData();
@@ -37,6 +55,18 @@ public class Main {
         mainLoop();
 
         scanner.close();
+        closeAuditLogger();
+    }
+
+    private static void closeAuditLogger() {
+        if (auditLogger == null) {
+            return;
+        }
+        try {
+            auditLogger.close();
+        } catch (IOException e) {
+            System.err.println("Erreur lors de la fermeture du journal d'audit: " + e.getMessage());
+        }
     }
 
     private static void initializeSampleData() {
@@ -68,7 +98,7 @@ public class Main {
 
         while (running) {
             try {
-                if (currentUser == null) {
+                if (sessionToken == null) {
                     showLoginMenu();
                 } else {
                     showMainMenu();
@@ -99,6 +129,7 @@ public class Main {
                     break;
                 case 0:
                     System.out.println("Au revoir!");
+                    closeAuditLogger();
                     System.exit(0);
                     break;
                 default:
@@ -111,6 +142,9 @@ public class Main {
     }
 
     private static void showMainMenu() {
+        if (!refreshSession()) {
+            return;
+        }
         System.out.println("\n=== Bienvenue " + currentUser.getUsername() + " ===");
         System.out.println("1. Afficher mes comptes");
         System.out.println("2. Déposer de l'argent");
@@ -125,6 +159,9 @@ public class Main {
         try {
             int choice = scanner.nextInt();
             scanner.nextLine();
+            if (!refreshSession()) {
+                return;
+            }
 
             switch (choice) {
                 case 1:
@@ -149,6 +186,8 @@ public class Main {
                     showStatistics();
                     break;
                 case 0:
+                    bankingService.logout(sessionToken);
+                    sessionToken = null;
                     currentUser = null;
                     System.out.println("Déconnexion réussie");
                     break;
@@ -161,6 +200,22 @@ public class Main {
         }
     }
 
+    /**
+     * Valide la session avant toute opération; une session expirée ramène au menu de
+     * connexion
+     */
+    private static boolean refreshSession() {
+        try {
+            currentUser = bankingService.requireSession(sessionToken);
+            return true;
+        } catch (IllegalStateException e) {
+            System.err.println("✗ " + e.getMessage() + ", veuillez vous reconnecter");
+            sessionToken = null;
+            currentUser = null;
+            return false;
+        }
+    }
+
     private static void handleLogin() {
         System.out.print("Nom d'utilisateur: ");
         String username = scanner.nextLine();
@@ -168,7 +223,9 @@ public class Main {
         String password = scanner.nextLine();
 
         try {
-            currentUser = bankingService.authenticate(username, password);
+            Session session = bankingService.login(username, password);
+            sessionToken = session.getToken();
+            currentUser = session.getUser();
             System.out.println("✓ Connexion réussie! Bienvenue " + currentUser.getUsername());
         } catch (Exception e) {
             System.err.println("✗ Échec de connexion: " + e.getMessage());
@@ -300,15 +357,26 @@ public class Main {
         System.out.println("\n=== Historique des Transactions ===");
         for (Account account : accounts) {
             System.out.println("\nCompte: " + account.getAccountNumber());
-            List<com.exemple.model.Transaction> transactions =
-                    transactionService.getAccountTransactions(account.getAccountNumber());
+            TransactionPage page = transactionService.getAccountTransactions(
+                    account.getAccountNumber(), null, null, HISTORY_PAGE_SIZE, null);
 
-            if (transactions.isEmpty()) {
+            if (page.getTransactions().isEmpty()) {
                 System.out.println("  Aucune transaction");
-            } else {
-                for (com.exemple.model.Transaction t : transactions) {
+                continue;
+            }
+            while (true) {
+                for (com.exemple.model.Transaction t : page.getTransactions()) {
                     System.out.println("  " + t.getFormattedTransaction());
                 }
+                if (!page.hasMore()) {
+                    break;
+                }
+                System.out.print("  Transactions plus anciennes? (o/n): ");
+                if (!scanner.nextLine().trim().equalsIgnoreCase("o")) {
+                    break;
+                }
+                page = transactionService.getAccountTransactions(
+                        account.getAccountNumber(), null, null, HISTORY_PAGE_SIZE, page.getNextCursor());
             }
         }
     }
@@ -335,7 +403,27 @@ public class Main {
         System.out.println("\n=== Statistiques ===");
         System.out.println("Utilisateurs actifs: " + bankingService.getActiveUsers().size());
         System.out.println("Comptes actifs: " + bankingService.getActiveAccounts().size());
-        System.out.println("Transactions totales: " + transactionService.getTotalTransactionCount());
-        System.out.println("Transactions réussies: " + transactionService.getSuccessfulTransactionCount());
+        System.out.println("Transactions totales: " + transactionService.getTotalTransactionCountAsLong());
+        System.out.println("Transactions réussies: " + transactionService.getSuccessfulTransactionCountAsLong());
+
+        TransactionStatistics global = transactionService.getGlobalStatistics();
+        System.out.printf("Montants crédités: %.2f | débités: %.2f\n", global.getInflow(), global.getOutflow());
+        System.out.println("Dépôts: " + global.getCountByType("DEPOSIT") +
+                " | Retraits: " + global.getCountByType("WITHDRAW") +
+                " | Virements: " + global.getCountByType("TRANSFER"));
+
+        Map<String, GroupStatistics> byType = transactionAnalytics.aggregate(TransactionAnalytics.GroupBy.TYPE);
+        for (Map.Entry<String, GroupStatistics> entry : byType.entrySet()) {
+            GroupStatistics group = entry.getValue();
+            System.out.printf("%s: volume %.2f | min %.2f | max %.2f\n",
+                    entry.getKey(), group.getSum(), group.getMin(), group.getMax());
+        }
+
+        for (Account account : bankingService.getUserAccounts(currentUser.getUserId())) {
+            TransactionStatistics statistics =
+                    transactionService.getAccountStatistics(account.getAccountNumber());
+            System.out.printf("Compte %s: %d transactions, flux net %.2f\n",
+                    account.getAccountNumber(), statistics.getTransactionCount(), statistics.getNetFlow());
+        }
     }
 }
\ No newline at end of file
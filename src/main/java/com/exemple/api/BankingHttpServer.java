@@ -0,0 +1,483 @@
+package com.exemple.api;
+
+
+import com.exemple.exception.InsufficientFundsException;
+import com.exemple.exception.ServiceOverloadedException;
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.pattern.strategy.TransactionStrategy;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.pattern.strategy.WithdrawStrategy;
+import com.exemple.security.Session;
+import com.exemple.service.BankingService;
+import com.exemple.service.TransactionPage;
+import com.exemple.service.TransactionService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API HTTP/JSON de BankingService et TransactionService, sur le serveur HTTP du JDK.
+ *
+ * Chaque requête est traitée par son propre thread virtuel: une requête qui attend
+ * (vérification du mot de passe, durabilité du journal) ne bloque pas de thread
+ * système. Les opérations sur les comptes exigent le jeton de session retourné par
+ * la connexion, dans l'en-tête {@code Authorization: Bearer <jeton>}.
+ *
+ * <pre>
+ * POST   /api/users                          inscription
+ * POST   /api/sessions                       connexion
+ * DELETE /api/sessions                       déconnexion
+ * GET    /api/accounts                       comptes de l'utilisateur
+ * POST   /api/accounts                       ouverture de compte
+ * POST   /api/accounts/{numéro}/deposits     dépôt
+ * POST   /api/accounts/{numéro}/withdrawals  retrait
+ * GET    /api/accounts/{numéro}/transactions historique (limit, cursor)
+ * POST   /api/transfers                      virement depuis un compte de l'utilisateur
+ * </pre>
+ *
+ * Les erreurs sont retournées sous la forme {@code {"error": "..."}}: 400 pour une
+ * requête invalide, 401 sans session valide ou pour des identifiants incorrects, 403
+ * pour le compte d'un autre utilisateur ou un utilisateur désactivé, 404 pour une
+ * ressource inconnue, 409 pour un refus métier (fonds insuffisants, compte désactivé),
+ * 503 avec {@code Retry-After} quand les vérifications de mot de passe sont saturées.
+ */
+public class BankingHttpServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_HISTORY_LIMIT = 20;
+
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int MAX_HISTORY_LIMIT = 500;
+    private static final int RETRY_AFTER_SECONDS = 1;
+    private static final String BEARER = "Bearer ";
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    static {
+        // Sans TCP_NODELAY, le corps envoyé après les en-têtes attend l'acquittement
+        // différé du client: environ 40 ms par requête. Lu une fois par le JDK, avant
+        // la création du premier serveur; une valeur explicite est respectée.
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+    }
+
+    private final BankingService bankingService;
+    private final TransactionService transactionService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+
+    /**
+     * @param port port d'écoute (0: port libre choisi par le système)
+     */
+    public BankingHttpServer(BankingService bankingService, TransactionService transactionService,
+                             int port) throws IOException {
+        if (bankingService == null || transactionService == null) {
+            throw new IllegalArgumentException("Les services ne peuvent pas être nuls");
+        }
+        this.bankingService = bankingService;
+        this.transactionService = transactionService;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/users", exchange -> handle(exchange, this::users));
+        server.createContext("/api/sessions", exchange -> handle(exchange, this::sessions));
+        server.createContext("/api/accounts", exchange -> handle(exchange, this::accounts));
+        server.createContext("/api/transfers", exchange -> handle(exchange, this::transfers));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        BankingHttpServer server = new BankingHttpServer(new BankingService(), new TransactionService(), port);
+        server.start();
+        System.out.println("✓ API bancaire démarrée sur le port " + server.getPort());
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Port d'écoute effectif
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Nombre de réponses 4xx
+     */
+    public long getClientErrorCount() {
+        return clientErrors.sum();
+    }
+
+    /**
+     * Nombre de réponses 5xx
+     */
+    public long getServerErrorCount() {
+        return serverErrors.sum();
+    }
+
+    /**
+     * Arrête d'accepter les connexions et attend la fin des requêtes en cours
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private Response users(HttpExchange exchange) throws IOException {
+        requireMethod(exchange, "POST");
+        requirePath(exchange, "/api/users");
+        Map<String, Object> body = readBody(exchange);
+        User user;
+        try {
+            user = bankingService.registerUser(Json.string(body, "username"), Json.string(body, "password"),
+                    Json.string(body, "email"), optionalString(body, "userType", "STANDARD"));
+        } catch (ServiceOverloadedException e) {
+            throw new HttpFailure(503, e.getMessage(), RETRY_AFTER_SECONDS);
+        }
+        return new Response(201, Json.object()
+                .put("userId", user.getUserId())
+                .put("username", user.getUsername())
+                .toString());
+    }
+
+    private Response sessions(HttpExchange exchange) throws IOException {
+        requirePath(exchange, "/api/sessions");
+        switch (exchange.getRequestMethod()) {
+            case "POST": {
+                Map<String, Object> body = readBody(exchange);
+                Session session = login(Json.string(body, "username"), Json.string(body, "password"));
+                return new Response(201, Json.object()
+                        .put("token", session.getToken())
+                        .put("userId", session.getUserId())
+                        .put("expiresInSeconds", bankingService.getSessionManager().getTtl().toSeconds())
+                        .toString());
+            }
+            case "DELETE":
+                authenticate(exchange);
+                bankingService.logout(token(exchange));
+                return Response.NO_CONTENT;
+            default:
+                throw new HttpFailure(405, "Méthode non autorisée");
+        }
+    }
+
+    /**
+     * Ouvre une session; chaque refus de connexion a son propre statut
+     */
+    private Session login(String username, String password) {
+        try {
+            return bankingService.login(username, password);
+        } catch (ServiceOverloadedException e) {
+            throw new HttpFailure(503, e.getMessage(), RETRY_AFTER_SECONDS);
+        } catch (IllegalArgumentException e) {
+            throw new HttpFailure(401, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new HttpFailure(403, e.getMessage());
+        }
+    }
+
+    private Response accounts(HttpExchange exchange) throws IOException {
+        User user = authenticate(exchange);
+        String[] path = exchange.getRequestURI().getPath().substring(1).split("/");
+        if (path.length == 2) {
+            return "GET".equals(exchange.getRequestMethod())
+                    ? listAccounts(user)
+                    : createAccount(exchange, user);
+        }
+        if (path.length != 4) {
+            throw new HttpFailure(404, "Ressource inconnue");
+        }
+        Account account = ownedAccount(user, path[2]);
+        switch (path[3]) {
+            case "deposits":
+                requireMethod(exchange, "POST");
+                return execute(new DepositStrategy(), null, account, Json.number(readBody(exchange), "amount"));
+            case "withdrawals":
+                requireMethod(exchange, "POST");
+                return execute(new WithdrawStrategy(), account, null, Json.number(readBody(exchange), "amount"));
+            case "transactions":
+                requireMethod(exchange, "GET");
+                return history(exchange, account);
+            default:
+                throw new HttpFailure(404, "Ressource inconnue");
+        }
+    }
+
+    private Response listAccounts(User user) {
+        List<String> accounts = new ArrayList<>();
+        for (Account account : bankingService.getUserAccounts(user.getUserId())) {
+            accounts.add(accountJson(account));
+        }
+        return new Response(200, Json.object().putArray("accounts", accounts).toString());
+    }
+
+    private Response createAccount(HttpExchange exchange, User user) throws IOException {
+        requireMethod(exchange, "POST");
+        Map<String, Object> body = readBody(exchange);
+        double initialBalance = body.containsKey("initialBalance") ? Json.number(body, "initialBalance") : 0.0;
+        Account account = bankingService.createAccount(user.getUserId(), initialBalance,
+                optionalString(body, "accountType", "CHECKING"));
+        return new Response(201, accountJson(account));
+    }
+
+    private Response transfers(HttpExchange exchange) throws IOException {
+        User user = authenticate(exchange);
+        requireMethod(exchange, "POST");
+        requirePath(exchange, "/api/transfers");
+        Map<String, Object> body = readBody(exchange);
+        Account source = ownedAccount(user, Json.string(body, "sourceAccount"));
+        Account destination = bankingService.getAccount(Json.string(body, "destinationAccount"));
+        if (destination == null) {
+            throw new HttpFailure(404, "Compte destination non trouvé");
+        }
+        return execute(new TransferStrategy(), source, destination, Json.number(body, "amount"));
+    }
+
+    private Response history(HttpExchange exchange, Account account) {
+        Map<String, String> query = query(exchange);
+        int limit = DEFAULT_HISTORY_LIMIT;
+        if (query.containsKey("limit")) {
+            try {
+                limit = Integer.parseInt(query.get("limit"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Le paramètre limit doit être un entier");
+            }
+        }
+        if (limit <= 0 || limit > MAX_HISTORY_LIMIT) {
+            throw new IllegalArgumentException("Le paramètre limit doit être compris entre 1 et " + MAX_HISTORY_LIMIT);
+        }
+        TransactionPage page = transactionService.getAccountTransactions(
+                account.getAccountNumber(), null, null, limit, query.get("cursor"));
+        List<String> transactions = new ArrayList<>(page.getTransactions().size());
+        for (Transaction transaction : page.getTransactions()) {
+            transactions.add(transactionJson(transaction));
+        }
+        return new Response(200, Json.object()
+                .putArray("transactions", transactions)
+                .put("nextCursor", page.getNextCursor())
+                .toString());
+    }
+
+    private Response execute(TransactionStrategy strategy, Account source, Account destination, double amount) {
+        Transaction transaction;
+        try {
+            transaction = transactionService.executeTransaction(strategy, source, destination, amount);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof InsufficientFundsException) {
+                throw new HttpFailure(409, e.getMessage());
+            }
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw new IllegalArgumentException(e.getMessage(), e);
+            }
+            throw e;
+        }
+        Account account = source != null ? source : destination;
+        return new Response(201, Json.object()
+                .put("transactionId", transaction.getTransactionId())
+                .put("type", transaction.getType())
+                .put("status", transaction.getStatus())
+                .putAmount("amount", transaction.getAmountMinor())
+                .putAmount("balance", account.getBalanceMinor())
+                .toString());
+    }
+
+    /**
+     * Utilisateur de la session présentée
+     */
+    private User authenticate(HttpExchange exchange) {
+        try {
+            return bankingService.requireSession(token(exchange));
+        } catch (IllegalStateException e) {
+            throw new HttpFailure(401, e.getMessage());
+        }
+    }
+
+    private static String token(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith(BEARER)) {
+            return null;
+        }
+        return authorization.substring(BEARER.length()).trim();
+    }
+
+    private Account ownedAccount(User user, String accountNumber) {
+        Account account = bankingService.getAccount(accountNumber);
+        if (account == null) {
+            throw new HttpFailure(404, "Compte non trouvé");
+        }
+        if (!account.getOwnerId().equals(user.getUserId())) {
+            throw new HttpFailure(403, "Ce compte n'appartient pas à l'utilisateur");
+        }
+        return account;
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        requests.increment();
+        Response response;
+        try {
+            response = route.handle(exchange);
+        } catch (HttpFailure e) {
+            response = Response.error(e.status, e.getMessage());
+            if (e.retryAfterSeconds > 0) {
+                exchange.getResponseHeaders().set("Retry-After", Integer.toString(e.retryAfterSeconds));
+            }
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (IllegalStateException e) {
+            response = Response.error(409, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Erreur de l'API sur " + exchange.getRequestURI() + ": " + e);
+            response = Response.error(500, "Erreur interne");
+        }
+
+        if (response.status >= 500) {
+            serverErrors.increment();
+        } else if (response.status >= 400) {
+            clientErrors.increment();
+        }
+        try (exchange) {
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+                return;
+            }
+            byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        byte[] bytes;
+        try (InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            throw new HttpFailure(413, "Corps de requête trop volumineux");
+        }
+        return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static String optionalString(Map<String, Object> body, String name, String defaultValue) {
+        return body.get(name) == null ? defaultValue : Json.string(body, name);
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!method.equals(exchange.getRequestMethod())) {
+            throw new HttpFailure(405, "Méthode non autorisée");
+        }
+    }
+
+    private static void requirePath(HttpExchange exchange, String path) {
+        if (!path.equals(exchange.getRequestURI().getPath())) {
+            throw new HttpFailure(404, "Ressource inconnue");
+        }
+    }
+
+    private static String accountJson(Account account) {
+        return Json.object()
+                .put("accountNumber", account.getAccountNumber())
+                .put("accountType", account.getAccountType())
+                .putAmount("balance", account.getBalanceMinor())
+                .put("active", account.isActive())
+                .toString();
+    }
+
+    private static String transactionJson(Transaction transaction) {
+        return Json.object()
+                .put("transactionId", transaction.getTransactionId())
+                .put("type", transaction.getType())
+                .put("sourceAccount", transaction.getSourceAccount())
+                .put("destinationAccount", transaction.getDestinationAccount())
+                .putAmount("amount", transaction.getAmountMinor())
+                .put("status", transaction.getStatus())
+                .put("timestamp", transaction.getTimestamp().toString())
+                .toString();
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private static final class Response {
+        static final Response NO_CONTENT = new Response(204, null);
+
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Json.object().put("error", message).toString());
+        }
+    }
+
+    /**
+     * Refus avec un statut HTTP précis
+     */
+    private static final class HttpFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+        final int retryAfterSeconds;
+
+        HttpFailure(int status, String message) {
+            this(status, message, 0);
+        }
+
+        HttpFailure(int status, String message, int retryAfterSeconds) {
+            super(message);
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.exemple.api;
+
+
+import com.exemple.model.Money;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lecture et écriture du JSON de l'API, sans dépendance.
+ *
+ * Les requêtes sont des objets plats: chaînes, nombres, booléens et null. Les
+ * nombres sont lus en double, comme les montants de TransactionService. Les
+ * montants écrits passent par {@link Money}: deux décimales exactes.
+ */
+final class Json {
+
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Lit un objet plat; un corps vide donne un objet vide
+     *
+     * @throws IllegalArgumentException si le JSON est invalide
+     */
+    static Map<String, Object> parseObject(String text) {
+        Map<String, Object> fields = new HashMap<>();
+        if (text == null || text.isBlank()) {
+            return fields;
+        }
+        Json parser = new Json(text);
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                String name = parser.readString();
+                parser.expect(':');
+                fields.put(name, parser.readValue());
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw parser.error("fin de document attendue");
+        }
+        return fields;
+    }
+
+    static String string(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Champ obligatoire manquant: " + name);
+        }
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("Le champ " + name + " doit être une chaîne");
+        }
+        return (String) value;
+    }
+
+    static double number(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Champ obligatoire manquant: " + name);
+        }
+        if (!(value instanceof Double)) {
+            throw new IllegalArgumentException("Le champ " + name + " doit être un nombre");
+        }
+        return (Double) value;
+    }
+
+    static Builder object() {
+        return new Builder();
+    }
+
+    /**
+     * Écrit un objet JSON champ par champ
+     */
+    static final class Builder {
+        private final StringBuilder json = new StringBuilder(128).append('{');
+
+        Builder put(String name, String value) {
+            name(name);
+            if (value == null) {
+                json.append("null");
+            } else {
+                quote(json, value);
+            }
+            return this;
+        }
+
+        Builder put(String name, long value) {
+            name(name);
+            json.append(value);
+            return this;
+        }
+
+        Builder put(String name, boolean value) {
+            name(name);
+            json.append(value);
+            return this;
+        }
+
+        /**
+         * Ajoute un montant en unités principales, avec un point décimal quelle que soit
+         * la locale par défaut
+         */
+        Builder putAmount(String name, long amountMinor) {
+            name(name);
+            json.append(BigDecimal.valueOf(amountMinor, Money.SCALE).toPlainString());
+            return this;
+        }
+
+        /**
+         * Ajoute un tableau d'éléments déjà écrits en JSON
+         */
+        Builder putArray(String name, Iterable<String> elements) {
+            name(name);
+            json.append('[');
+            boolean first = true;
+            for (String element : elements) {
+                if (!first) {
+                    json.append(',');
+                }
+                json.append(element);
+                first = false;
+            }
+            json.append(']');
+            return this;
+        }
+
+        private void name(String name) {
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            quote(json, name);
+            json.append(':');
+        }
+
+        @Override
+        public String toString() {
+            return json.toString() + '}';
+        }
+    }
+
+    static void quote(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("valeur attendue");
+        }
+        char c = text.charAt(position);
+        if (c == '"') {
+            return readString();
+        }
+        if (text.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        }
+        if (text.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        }
+        if (text.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            return readNumber();
+        }
+        throw error("valeur inattendue");
+    }
+
+    private Double readNumber() {
+        int start = position;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        try {
+            return Double.valueOf(text.substring(start, position));
+        } catch (NumberFormatException e) {
+            throw error("nombre invalide");
+        }
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            if (position >= text.length()) {
+                throw error("chaîne non terminée");
+            }
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                throw error("échappement incomplet");
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case '"':
+                case '\\':
+                case '/':
+                    value.append(escaped);
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("échappement incomplet");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("échappement invalide");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    throw error("échappement invalide");
+            }
+        }
+    }
+
+    private void expect(char expected) {
+        if (!consume(expected)) {
+            throw error("'" + expected + "' attendu");
+        }
+    }
+
+    private boolean consume(char expected) {
+        skipWhitespace();
+        if (position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String reason) {
+        return new IllegalArgumentException("JSON invalide à la position " + position + ": " + reason);
+    }
+}
@@ -0,0 +1,388 @@
+package com.exemple.api;
+
+
+import com.exemple.service.BankingService;
+import com.exemple.service.TransactionService;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Générateur de charge pour l'API HTTP: chaque client virtuel s'inscrit, se
+ * connecte, ouvre deux comptes puis enchaîne dépôts, retraits, virements et
+ * consultations d'historique sans temps de pause.
+ *
+ * Les latences de toutes les requêtes de la phase de mesure sont conservées: les
+ * percentiles sont exacts. Sans URL, un serveur est démarré dans le même processus
+ * sur un port libre.
+ *
+ * <pre>
+ * java -cp target/classes com.exemple.api.LoadGenerator [--url http://hôte:port]
+ *      [--clients 64] [--warmup 5] [--duration 30]
+ * </pre>
+ */
+public class LoadGenerator {
+
+    /** Opérations générées, avec leur poids dans le mélange */
+    enum Operation {
+        DEPOSIT(40), WITHDRAW(20), TRANSFER(25), HISTORY(15);
+
+        final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final int TOTAL_WEIGHT = Arrays.stream(Operation.values()).mapToInt(op -> op.weight).sum();
+
+    private final URI baseUri;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final HttpClient client;
+
+    public LoadGenerator(URI baseUri, int clients, Duration warmup, Duration duration) {
+        if (clients <= 0) {
+            throw new IllegalArgumentException("Le nombre de clients doit être positif");
+        }
+        if (warmup.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Durées de charge invalides");
+        }
+        this.baseUri = baseUri;
+        this.clients = clients;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int clients = 64;
+        int warmupSeconds = 5;
+        int durationSeconds = 30;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url":
+                    url = args[i + 1];
+                    break;
+                case "--clients":
+                    clients = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--warmup":
+                    warmupSeconds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--duration":
+                    durationSeconds = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Option inconnue: " + args[i]);
+            }
+        }
+
+        BankingHttpServer server = null;
+        if (url == null) {
+            server = new BankingHttpServer(new BankingService(), new TransactionService(), 0);
+            server.start();
+            url = "http://localhost:" + server.getPort();
+        }
+        try {
+            LoadGenerator generator = new LoadGenerator(URI.create(url), clients,
+                    Duration.ofSeconds(warmupSeconds), Duration.ofSeconds(durationSeconds));
+            System.out.println(generator.run().format());
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * Lance les clients, attend la fin de la mesure et retourne le rapport
+     */
+    public Report run() throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+
+        List<Recorder> recorders = new ArrayList<>(clients);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Recorder recorder = new Recorder();
+                recorders.add(recorder);
+                int clientNumber = i;
+                workers.submit(() -> runClient(clientNumber, recorder, measureFrom, measureUntil));
+            }
+        }
+        return new Report(recorders, duration);
+    }
+
+    private void runClient(int clientNumber, Recorder recorder, long measureFrom, long measureUntil) {
+        String name = "charge-" + ProcessHandle.current().pid() + "-" + System.nanoTime() + "-" + clientNumber;
+        String[] accounts = new String[2];
+        String token;
+        try {
+            send("POST", "/api/users", null, Json.object()
+                    .put("username", name)
+                    .put("password", "password123")
+                    .put("email", name + "@charge.local")
+                    .toString());
+            token = Json.string(send("POST", "/api/sessions", null, Json.object()
+                    .put("username", name)
+                    .put("password", "password123")
+                    .toString()), "token");
+            for (int i = 0; i < accounts.length; i++) {
+                accounts[i] = Json.string(send("POST", "/api/accounts", token, "{\"initialBalance\":1000}"),
+                        "accountNumber");
+            }
+        } catch (IOException | RuntimeException e) {
+            recorder.setupFailure = e.getMessage();
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Operation operation = pick(random.nextInt(TOTAL_WEIGHT));
+            int own = random.nextInt(accounts.length);
+            long begin = System.nanoTime();
+            if (begin - measureUntil >= 0) {
+                return;
+            }
+            boolean success;
+            try {
+                success = perform(operation, token, accounts[own], accounts[1 - own], random);
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+            if (begin - measureFrom >= 0) {
+                recorder.record(operation, end - begin, success);
+            }
+        }
+    }
+
+    private boolean perform(Operation operation, String token, String account, String other,
+                            ThreadLocalRandom random) throws IOException, InterruptedException {
+        String amount = "{\"amount\":" + (1 + random.nextInt(50)) + "}";
+        HttpResponse<String> response;
+        switch (operation) {
+            case DEPOSIT:
+                response = request("POST", "/api/accounts/" + account + "/deposits", token, amount);
+                break;
+            case WITHDRAW:
+                response = request("POST", "/api/accounts/" + account + "/withdrawals", token, amount);
+                break;
+            case TRANSFER:
+                response = request("POST", "/api/transfers", token, Json.object()
+                        .put("sourceAccount", account)
+                        .put("destinationAccount", other)
+                        .put("amount", 1 + random.nextInt(50))
+                        .toString());
+                break;
+            default:
+                response = request("GET", "/api/accounts/" + account + "/transactions?limit=10", token, null);
+        }
+        // Un refus pour fonds insuffisants est une réponse normale du service
+        return response.statusCode() < 400 || response.statusCode() == 409;
+    }
+
+    private static Operation pick(int draw) {
+        for (Operation operation : Operation.values()) {
+            draw -= operation.weight;
+            if (draw < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Poids des opérations incohérents");
+    }
+
+    /**
+     * Requête de préparation: un statut d'erreur interrompt le client
+     */
+    private Map<String, Object> send(String method, String path, String token, String body)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = request(method, path, token, body);
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(method + " " + path + ": " + response.statusCode() + " " + response.body());
+        }
+        return Json.parseObject(response.body());
+    }
+
+    private HttpResponse<String> request(String method, String path, String token, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Latences d'un client; écrit par son seul thread, lu après la fin des clients
+     */
+    static final class Recorder {
+        private final long[][] latencies = new long[Operation.values().length][];
+        private final int[] counts = new int[Operation.values().length];
+        private long errors;
+        private String setupFailure;
+
+        Recorder() {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new long[1024];
+            }
+        }
+
+        void record(Operation operation, long latencyNanos, boolean success) {
+            int index = operation.ordinal();
+            if (counts[index] == latencies[index].length) {
+                latencies[index] = Arrays.copyOf(latencies[index], counts[index] * 2);
+            }
+            latencies[index][counts[index]++] = latencyNanos;
+            if (!success) {
+                errors++;
+            }
+        }
+    }
+
+    /**
+     * Débit et percentiles de latence de la phase de mesure, par opération et au total
+     */
+    public static final class Report {
+        private final long[][] sorted = new long[Operation.values().length][];
+        private final long[] all;
+        private final long errors;
+        private final int failedClients;
+        private final String firstSetupFailure;
+        private final Duration duration;
+
+        Report(List<Recorder> recorders, Duration duration) {
+            this.duration = duration;
+            long errorCount = 0;
+            int failed = 0;
+            String failure = null;
+            int total = 0;
+            for (Operation operation : Operation.values()) {
+                int index = operation.ordinal();
+                int count = 0;
+                for (Recorder recorder : recorders) {
+                    count += recorder.counts[index];
+                }
+                long[] latencies = new long[count];
+                int offset = 0;
+                for (Recorder recorder : recorders) {
+                    System.arraycopy(recorder.latencies[index], 0, latencies, offset, recorder.counts[index]);
+                    offset += recorder.counts[index];
+                }
+                Arrays.sort(latencies);
+                sorted[index] = latencies;
+                total += count;
+            }
+            for (Recorder recorder : recorders) {
+                errorCount += recorder.errors;
+                if (recorder.setupFailure != null) {
+                    failed++;
+                    failure = failure == null ? recorder.setupFailure : failure;
+                }
+            }
+            this.all = new long[total];
+            int offset = 0;
+            for (long[] latencies : sorted) {
+                System.arraycopy(latencies, 0, all, offset, latencies.length);
+                offset += latencies.length;
+            }
+            Arrays.sort(all);
+            this.errors = errorCount;
+            this.failedClients = failed;
+            this.firstSetupFailure = failure;
+        }
+
+        public long getRequestCount() {
+            return all.length;
+        }
+
+        public long getErrorCount() {
+            return errors;
+        }
+
+        public int getFailedClientCount() {
+            return failedClients;
+        }
+
+        /**
+         * Requêtes mesurées par seconde
+         */
+        public double getThroughput() {
+            return all.length * 1e9 / duration.toNanos();
+        }
+
+        /**
+         * Latence du percentile demandé (0 à 100), toutes opérations confondues, en
+         * nanosecondes
+         */
+        public long getLatencyPercentile(double percentile) {
+            return percentile(all, percentile);
+        }
+
+        public long getLatencyPercentile(Operation operation, double percentile) {
+            return percentile(sorted[operation.ordinal()], percentile);
+        }
+
+        private static long percentile(long[] sortedLatencies, double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0L;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+            return sortedLatencies[Math.max(0, Math.min(sortedLatencies.length - 1, rank - 1))];
+        }
+
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("Requêtes: %d | Erreurs: %d | Débit: %.0f req/s\n",
+                    getRequestCount(), errors, getThroughput()));
+            report.append(String.format("Latence totale: p50 %.2f ms | p99 %.2f ms | max %.2f ms\n",
+                    millis(getLatencyPercentile(50)), millis(getLatencyPercentile(99)),
+                    millis(getLatencyPercentile(100))));
+            for (Operation operation : Operation.values()) {
+                report.append(String.format("  %-8s %8d req | p50 %.2f ms | p99 %.2f ms\n",
+                        operation, sorted[operation.ordinal()].length,
+                        millis(getLatencyPercentile(operation, 50)), millis(getLatencyPercentile(operation, 99))));
+            }
+            if (failedClients > 0) {
+                report.append("Clients en échec à la préparation: ").append(failedClients)
+                        .append(" (").append(firstSetupFailure).append(")\n");
+            }
+            return report.toString();
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
@@ -4,6 +4,8 @@ package com.exemple.exception;
  * Exception pour les fonds insuffisants
  */
 public class InsufficientFundsException extends Exception {
+    private static final long serialVersionUID = 1L;
+
     public InsufficientFundsException(String message) {
         super(message);
     }
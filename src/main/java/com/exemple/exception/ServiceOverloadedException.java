@@ -0,0 +1,13 @@
+package com.exemple.exception;
+
+/**
+ * Exception pour une demande refusée faute de capacité disponible; la même demande
+ * peut être renouvelée plus tard
+ */
+public class ServiceOverloadedException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
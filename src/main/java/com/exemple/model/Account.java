@@ -1,75 +1,307 @@
 package com.exemple.model;
 
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Modèle représentant un compte bancaire
+ * Modèle représentant un compte bancaire.
+ * Le solde est conservé en unités mineures (voir {@link Money}) et mis à jour par
+ * compare-and-set, sans verrou sur le compte.
+ *
+ * Un compte qui reçoit des crédits de nombreux threads à la fois (compte marchand)
+ * passe en mode « compte chaud »: les crédits s'ajoutent à des cellules réparties
+ * ({@link LongAdder}) au lieu de se disputer le même solde. Un débit consolide ces
+ * cellules dans le solde seulement quand le solde seul ne suffit pas. Le passage est
+ * automatique quand les compare-and-set des crédits échouent trop souvent, ou
+ * explicite par {@link #promoteToHotAccount()}; il est définitif. Le seuil se règle
+ * par la propriété système {@value #HOT_PROMOTION_PROPERTY} (0: pas de passage
+ * automatique).
  */
 public class Account {
 
+    private static final VarHandle BALANCE;
+
+    public static final String HOT_PROMOTION_PROPERTY = "finance.account.hotPromotionFailures";
+    public static final int DEFAULT_HOT_PROMOTION_FAILURES = 64;
+
+    /** Échecs de compare-and-set d'un crédit, dans une même fenêtre, qui déclenchent le mode chaud */
+    static final int HOT_PROMOTION_FAILURES =
+            Integer.getInteger(HOT_PROMOTION_PROPERTY, DEFAULT_HOT_PROMOTION_FAILURES);
+    private static final long CONTENTION_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    /** En mode chaud, la date de modification n'est réécrite qu'à cet intervalle */
+    private static final long HOT_TOUCH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    static {
+        try {
+            BALANCE = MethodHandles.lookup()
+                    .findVarHandle(Account.class, "balanceMinor", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String accountNumber;
     private String ownerId;
-    private double balance;
+    private volatile long balanceMinor;
     private String accountType;
     private LocalDateTime createdAt;
-    private LocalDateTime lastModified;
-    private boolean isActive;
+    private volatile LocalDateTime lastModified;
+    private volatile boolean isActive;
+
+    /** Crédits non consolidés; null tant que le compte n'est pas chaud */
+    private volatile LongAdder pendingCredits;
+    // Comptage approximatif: écrit sans synchronisation, seulement quand un crédit échoue
+    private int contentionFailures;
+    private long contentionWindowStart;
+    private long lastHotTouch;
 
     public Account(String accountNumber, String ownerId, double balance, String accountType) {
+        this(accountNumber, ownerId, toValidMinorUnits(balance), accountType);
+    }
+
+    private Account(String accountNumber, String ownerId, long balanceMinor, String accountType) {
         if (accountNumber == null || accountNumber.trim().isEmpty()) {
             throw new IllegalArgumentException("Le numéro de compte ne peut pas être vide");
         }
         if (ownerId == null || ownerId.trim().isEmpty()) {
             throw new IllegalArgumentException("L'ID du propriétaire ne peut pas être vide");
         }
-        if (balance < 0) {
+        if (balanceMinor < 0) {
             throw new IllegalArgumentException("Le solde ne peut pas être négatif");
         }
 
         this.accountNumber = accountNumber;
         this.ownerId = ownerId;
-        this.balance = balance;
+        this.balanceMinor = balanceMinor;
         this.accountType = accountType;
         this.createdAt = LocalDateTime.now();
         this.lastModified = LocalDateTime.now();
         this.isActive = true;
     }
 
-    public synchronized void credit(double amount) {
+    /**
+     * Constructeur des vues (voir {@link OffHeapAccount}): l'état du compte est porté
+     * ailleurs et tous les accesseurs sont redéfinis
+     */
+    protected Account() {
+    }
+
+    /**
+     * Crée un compte dont le solde est exprimé en unités mineures
+     */
+    public static Account ofMinorUnits(String accountNumber, String ownerId,
+                                       long balanceMinor, String accountType) {
+        return new Account(accountNumber, ownerId, balanceMinor, accountType);
+    }
+
+    private static long toValidMinorUnits(double balance) {
+        if (balance < 0) {
+            throw new IllegalArgumentException("Le solde ne peut pas être négatif");
+        }
+        return Money.toMinorUnits(balance);
+    }
+
+    public void credit(double amount) {
         if (amount <= 0) {
             throw new IllegalArgumentException("Le montant du crédit doit être positif");
         }
+        creditMinor(Money.toMinorUnits(amount));
+    }
+
+    public void debit(double amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Le montant du débit doit être positif");
+        }
+        debitMinor(Money.toMinorUnits(amount));
+    }
+
+    /**
+     * Crédite le compte d'un montant exprimé en unités mineures
+     */
+    public void creditMinor(long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant du crédit doit être positif");
+        }
         if (!isActive) {
             throw new IllegalStateException("Le compte est désactivé");
         }
 
-        this.balance += amount;
+        LongAdder stripes = pendingCredits;
+        if (stripes != null) {
+            stripes.add(amountMinor);
+            touchHot();
+            return;
+        }
+        long current = balanceMinor;
+        if (!BALANCE.compareAndSet(this, current, current + amountMinor)) {
+            onCreditContention();
+            BALANCE.getAndAdd(this, amountMinor);
+        }
         this.lastModified = LocalDateTime.now();
     }
 
-    public synchronized void debit(double amount) {
-        if (amount <= 0) {
+    /**
+     * Débite le compte d'un montant exprimé en unités mineures
+     */
+    public void debitMinor(long amountMinor) {
+        if (!tryDebitMinor(amountMinor)) {
+            throw new IllegalArgumentException("Solde insuffisant");
+        }
+    }
+
+    /**
+     * Vérifie le solde et débite de manière atomique.
+     * Retourne false, sans modifier le compte, si le solde est insuffisant.
+     */
+    public boolean tryDebitMinor(long amountMinor) {
+        if (amountMinor <= 0) {
             throw new IllegalArgumentException("Le montant du débit doit être positif");
         }
         if (!isActive) {
             throw new IllegalStateException("Le compte est désactivé");
         }
-        if (balance < amount) {
-            throw new IllegalArgumentException("Solde insuffisant");
+
+        if (!debitBalance(amountMinor)) {
+            LongAdder stripes = pendingCredits;
+            if (stripes == null) {
+                return false;
+            }
+            synchronized (stripes) {
+                consolidate(stripes);
+                if (!debitBalance(amountMinor)) {
+                    return false;
+                }
+            }
         }
 
-        this.balance -= amount;
         this.lastModified = LocalDateTime.now();
+        return true;
+    }
+
+    private boolean debitBalance(long amountMinor) {
+        long current;
+        do {
+            current = balanceMinor;
+            if (current < amountMinor) {
+                return false;
+            }
+        } while (!BALANCE.compareAndSet(this, current, current - amountMinor));
+        return true;
+    }
+
+    /**
+     * Verse les crédits en attente dans le solde; appelé sous le verrou des cellules,
+     * seul moment où le solde et les cellules ne sont pas cohérents
+     */
+    private void consolidate(LongAdder stripes) {
+        long pending = stripes.sumThenReset();
+        if (pending != 0) {
+            BALANCE.getAndAdd(this, pending);
+        }
+    }
+
+    /**
+     * Passe le compte en mode chaud: crédits répartis sur des cellules
+     *
+     * @return true si le compte est en mode chaud
+     */
+    public boolean promoteToHotAccount() {
+        if (pendingCredits == null) {
+            synchronized (this) {
+                if (pendingCredits == null) {
+                    pendingCredits = new LongAdder();
+                }
+            }
+        }
+        return true;
+    }
+
+    public boolean isHotAccount() {
+        return pendingCredits != null;
     }
 
-    public void deactivate() {
+    /**
+     * Compte les crédits qui ont perdu leur compare-and-set; au-delà du seuil dans une
+     * même fenêtre de temps, le compte passe en mode chaud
+     */
+    void onCreditContention() {
+        if (HOT_PROMOTION_FAILURES <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - contentionWindowStart > CONTENTION_WINDOW_NANOS) {
+            contentionWindowStart = now;
+            contentionFailures = 1;
+        } else if (++contentionFailures >= HOT_PROMOTION_FAILURES) {
+            promoteToHotAccount();
+        }
+    }
+
+    private void touchHot() {
+        long now = System.nanoTime();
+        if (now - lastHotTouch >= HOT_TOUCH_INTERVAL_NANOS) {
+            lastHotTouch = now;
+            this.lastModified = LocalDateTime.now();
+        }
+    }
+
+    /**
+     * Rend un montant débité par une opération abandonnée en cours de route. Le compte
+     * a pu être désactivé entre-temps: le montant lui est rendu quand même.
+     */
+    public void refundMinor(long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant à rendre doit être positif");
+        }
+        BALANCE.getAndAdd(this, amountMinor);
+        this.lastModified = LocalDateTime.now();
+    }
+
+    /**
+     * Reprend un montant crédité par une opération annulée (par exemple faute d'avoir
+     * pu la journaliser). L'appelant a crédité le montant et empêche qu'il soit dépensé
+     * entre-temps; le compte a pu être désactivé: le montant est repris quand même.
+     */
+    public void revertCreditMinor(long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant à reprendre doit être positif");
+        }
+        LongAdder stripes = pendingCredits;
+        if (stripes != null) {
+            synchronized (stripes) {
+                consolidate(stripes);
+                BALANCE.getAndAdd(this, -amountMinor);
+            }
+        } else {
+            BALANCE.getAndAdd(this, -amountMinor);
+        }
+        this.lastModified = LocalDateTime.now();
+    }
+
+    /**
+     * Débite ce compte et crédite la destination du même montant. L'appelant tient les
+     * verrous des deux comptes; retourne false, sans rien modifier, si le solde est
+     * insuffisant.
+     */
+    public boolean tryTransferMinor(Account destination, long amountMinor) {
+        if (!tryDebitMinor(amountMinor)) {
+            return false;
+        }
+        destination.creditMinor(amountMinor);
+        return true;
+    }
+
+    public synchronized void deactivate() {
         this.isActive = false;
         this.lastModified = LocalDateTime.now();
     }
 
-    public void activate() {
+    public synchronized void activate() {
         this.isActive = true;
         this.lastModified = LocalDateTime.now();
     }
@@ -83,7 +315,20 @@ public class Account {
     }
 
     public double getBalance() {
-        return balance;
+        return Money.toMajorUnits(getBalanceMinor());
+    }
+
+    /**
+     * Retourne le solde en unités mineures, crédits en attente d'un compte chaud compris
+     */
+    public long getBalanceMinor() {
+        LongAdder stripes = pendingCredits;
+        if (stripes == null) {
+            return balanceMinor;
+        }
+        synchronized (stripes) {
+            return balanceMinor + stripes.sum();
+        }
     }
 
     public String getAccountType() {
@@ -107,19 +352,19 @@ public class Account {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Account account = (Account) o;
-        return Objects.equals(accountNumber, account.accountNumber);
+        return Objects.equals(getAccountNumber(), account.getAccountNumber());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(accountNumber);
+        return Objects.hash(getAccountNumber());
     }
 
     @Override
     public String toString() {
         return String.format(
                 "Account{number='%s', type='%s', balance=%.2f, active=%s}",
-                accountNumber, accountType, balance, isActive
+                getAccountNumber(), getAccountType(), getBalance(), isActive()
         );
     }
 }
@@ -0,0 +1,122 @@
+package com.exemple.model;
+
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Dictionnaire des numéros de compte vers des identifiants entiers denses (0, 1, 2...),
+ * pour stocker et comparer des comptes sous forme d'int.
+ *
+ * La correspondance est une table à adressage ouvert de primitives (int): aucun objet
+ * n'est créé par entrée en dehors du numéro lui-même. Un identifiant attribué ne change
+ * plus. Les lectures sont sans verrou; seul l'enregistrement d'un nouveau compte est
+ * synchronisé.
+ */
+public class AccountDictionary {
+
+    /** Identifiant d'un compte absent (dépôt sans source, retrait sans destination) */
+    public static final int NO_ACCOUNT = -1;
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Case = identifiant + 1, 0 pour une case vide; remplie au plus à moitié */
+    private volatile int[] table = new int[2 * INITIAL_CAPACITY];
+    private volatile String[] accountNumbers = new String[INITIAL_CAPACITY];
+    private volatile int size;
+
+    /**
+     * Retourne l'identifiant du compte, en l'enregistrant s'il est nouveau.
+     * Un numéro null donne {@link #NO_ACCOUNT}.
+     */
+    public int register(String accountNumber) {
+        if (accountNumber == null) {
+            return NO_ACCOUNT;
+        }
+        int id = idOf(accountNumber);
+        return id != NO_ACCOUNT ? id : add(accountNumber);
+    }
+
+    /**
+     * Retourne l'identifiant du compte, ou {@link #NO_ACCOUNT} s'il n'est pas enregistré
+     */
+    public int idOf(String accountNumber) {
+        if (accountNumber == null) {
+            return NO_ACCOUNT;
+        }
+        int[] slots = table;
+        int mask = slots.length - 1;
+        for (int i = spread(accountNumber.hashCode()) & mask; ; i = (i + 1) & mask) {
+            int slot = (int) SLOTS.getAcquire(slots, i);
+            if (slot == 0) {
+                return NO_ACCOUNT;
+            }
+            if (accountNumber.equals(accountNumbers[slot - 1])) {
+                return slot - 1;
+            }
+        }
+    }
+
+    /**
+     * Retourne le numéro de compte d'un identifiant, ou null pour {@link #NO_ACCOUNT}
+     */
+    public String accountNumber(int id) {
+        if (id == NO_ACCOUNT) {
+            return null;
+        }
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("Identifiant de compte inconnu: " + id);
+        }
+        return accountNumbers[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Le numéro est publié avant sa case: un lecteur qui trouve la case trouve le numéro
+     */
+    private synchronized int add(String accountNumber) {
+        int existing = idOf(accountNumber);
+        if (existing != NO_ACCOUNT) {
+            return existing;
+        }
+        int id = size;
+        String[] numbers = accountNumbers;
+        if (id == numbers.length) {
+            numbers = Arrays.copyOf(numbers, id * 2);
+        }
+        numbers[id] = accountNumber;
+        accountNumbers = numbers;
+        size = id + 1;
+
+        int[] slots = table;
+        if (2 * (id + 1) > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int other = 0; other < id; other++) {
+                insert(slots, numbers[other], other);
+            }
+            insert(slots, accountNumber, id);
+            table = slots;
+        } else {
+            insert(slots, accountNumber, id);
+        }
+        return id;
+    }
+
+    private static void insert(int[] slots, String accountNumber, int id) {
+        int mask = slots.length - 1;
+        int i = spread(accountNumber.hashCode()) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        SLOTS.setRelease(slots, i, id + 1);
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+}
@@ -0,0 +1,28 @@
+package com.exemple.model;
+
+
+import java.util.function.Consumer;
+
+/**
+ * Stockage des comptes indexés par numéro, utilisé par BankingService
+ */
+public interface AccountStore {
+
+    /**
+     * Ajoute le compte (ou remplace un compte de même numéro) et retourne le compte
+     * tel qu'il est désormais stocké: le compte lui-même, ou une vue sur le stockage
+     */
+    Account add(Account account);
+
+    /**
+     * Retourne le compte, ou null s'il n'existe pas
+     */
+    Account get(String accountNumber);
+
+    int size();
+
+    /**
+     * Parcourt tous les comptes stockés
+     */
+    void forEach(Consumer<Account> action);
+}
@@ -0,0 +1,34 @@
+package com.exemple.model;
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Stockage par défaut: les objets Account dans une table concurrente
+ */
+public class HeapAccountStore implements AccountStore {
+
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+
+    @Override
+    public Account add(Account account) {
+        accounts.put(account.getAccountNumber(), account);
+        return account;
+    }
+
+    @Override
+    public Account get(String accountNumber) {
+        return accountNumber == null ? null : accounts.get(accountNumber);
+    }
+
+    @Override
+    public int size() {
+        return accounts.size();
+    }
+
+    @Override
+    public void forEach(Consumer<Account> action) {
+        accounts.values().forEach(action);
+    }
+}
@@ -0,0 +1,119 @@
+package com.exemple.model;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Représentation monétaire en virgule fixe: les montants sont stockés en unités
+ * mineures (centimes) dans un long, avec une échelle de deux décimales.
+ * Les méthodes sont statiques; les conversions et writeMajorUnits n'allouent aucun objet.
+ */
+public final class Money {
+
+    /**
+     * Nombre de décimales de la devise
+     */
+    public static final int SCALE = 2;
+
+    /**
+     * Nombre d'unités mineures dans une unité majeure
+     */
+    public static final long MINOR_UNITS_PER_MAJOR = 100L;
+
+    /**
+     * Longueur maximale d'un montant formaté par {@link #writeMajorUnits(long, char[])}
+     */
+    public static final int MAX_FORMATTED_LENGTH = 21;
+
+    private static volatile LocaleSymbols symbols =
+            LocaleSymbols.of(Locale.getDefault(Locale.Category.FORMAT));
+
+    private Money() {
+    }
+
+    /**
+     * Convertit un montant décimal en unités mineures (arrondi au centime le plus proche)
+     */
+    public static long toMinorUnits(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new IllegalArgumentException("Montant invalide: " + amount);
+        }
+        return Math.round(amount * MINOR_UNITS_PER_MAJOR);
+    }
+
+    /**
+     * Convertit un montant en unités mineures vers sa valeur décimale
+     */
+    public static double toMajorUnits(long amountMinor) {
+        return (double) amountMinor / MINOR_UNITS_PER_MAJOR;
+    }
+
+    /**
+     * Écrit le montant en unités majeures dans le tableau, comme le ferait
+     * {@code String.format("%.2f", toMajorUnits(amountMinor))} avec la locale par défaut
+     * (mêmes chiffres et même séparateur décimal), sans allocation.
+     * Retourne le nombre de caractères écrits.
+     */
+    public static int writeMajorUnits(long amountMinor, char[] destination) {
+        LocaleSymbols current = currentSymbols();
+        int end = MAX_FORMATTED_LENGTH;
+        int position = end;
+
+        long remaining = amountMinor < 0 ? amountMinor : -amountMinor;
+        for (int i = 0; i < SCALE; i++) {
+            destination[--position] = (char) (current.zeroDigit - (remaining % 10));
+            remaining /= 10;
+        }
+        destination[--position] = current.decimalSeparator;
+        do {
+            destination[--position] = (char) (current.zeroDigit - (remaining % 10));
+            remaining /= 10;
+        } while (remaining != 0);
+        if (amountMinor < 0) {
+            destination[--position] = '-';
+        }
+
+        int length = end - position;
+        System.arraycopy(destination, position, destination, 0, length);
+        return length;
+    }
+
+    /**
+     * Ajoute le montant formaté comme {@code %.2f} au StringBuilder
+     */
+    public static void appendMajorUnits(StringBuilder builder, long amountMinor) {
+        char[] digits = new char[MAX_FORMATTED_LENGTH];
+        builder.append(digits, 0, writeMajorUnits(amountMinor, digits));
+    }
+
+    private static LocaleSymbols currentSymbols() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleSymbols current = symbols;
+        if (current.locale != locale) {
+            current = LocaleSymbols.of(locale);
+            symbols = current;
+        }
+        return current;
+    }
+
+    /**
+     * Symboles de formatage d'une locale, relus seulement quand la locale par défaut change
+     */
+    private static final class LocaleSymbols {
+        final Locale locale;
+        final char zeroDigit;
+        final char decimalSeparator;
+
+        private LocaleSymbols(Locale locale, char zeroDigit, char decimalSeparator) {
+            this.locale = locale;
+            this.zeroDigit = zeroDigit;
+            this.decimalSeparator = decimalSeparator;
+        }
+
+        static LocaleSymbols of(Locale locale) {
+            DecimalFormatSymbols formatSymbols = DecimalFormatSymbols.getInstance(locale);
+            return new LocaleSymbols(locale, formatSymbols.getZeroDigit(),
+                    formatSymbols.getDecimalSeparator());
+        }
+    }
+}
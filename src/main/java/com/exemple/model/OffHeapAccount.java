@@ -0,0 +1,123 @@
+package com.exemple.model;
+
+
+import java.time.LocalDateTime;
+
+/**
+ * Vue sur un compte de {@link OffHeapAccountStore}: la vue ne porte que l'identifiant
+ * du compte, chaque lecture et modification s'applique au stockage. Deux vues d'un
+ * même compte sont égales.
+ */
+public class OffHeapAccount extends Account {
+
+    private final OffHeapAccountStore store;
+    private final int id;
+
+    OffHeapAccount(OffHeapAccountStore store, int id) {
+        this.store = store;
+        this.id = id;
+    }
+
+    /**
+     * Identifiant dense du compte dans son stockage
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Nombre de modifications du compte depuis son ajout au stockage
+     */
+    public long getVersion() {
+        return store.getVersion(id);
+    }
+
+    @Override
+    public void creditMinor(long amountMinor) {
+        store.creditMinor(id, amountMinor);
+    }
+
+    @Override
+    public boolean tryDebitMinor(long amountMinor) {
+        return store.tryDebitMinor(id, amountMinor);
+    }
+
+    @Override
+    public void refundMinor(long amountMinor) {
+        store.refundMinor(id, amountMinor);
+    }
+
+    @Override
+    public void revertCreditMinor(long amountMinor) {
+        store.revertCreditMinor(id, amountMinor);
+    }
+
+    /**
+     * Le stockage hors du tas n'a pas de mode compte chaud
+     */
+    @Override
+    public boolean promoteToHotAccount() {
+        return false;
+    }
+
+    /**
+     * Entre deux comptes du même stockage, le virement est une seule opération du stockage
+     */
+    @Override
+    public boolean tryTransferMinor(Account destination, long amountMinor) {
+        if (destination instanceof OffHeapAccount && ((OffHeapAccount) destination).store == store) {
+            return store.tryTransferMinor(id, ((OffHeapAccount) destination).id, amountMinor);
+        }
+        return super.tryTransferMinor(destination, amountMinor);
+    }
+
+    @Override
+    public void deactivate() {
+        store.setActive(id, false);
+    }
+
+    @Override
+    public void activate() {
+        store.setActive(id, true);
+    }
+
+    @Override
+    public String getAccountNumber() {
+        return store.accountNumber(id);
+    }
+
+    @Override
+    public String getOwnerId() {
+        return store.ownerId(id);
+    }
+
+    @Override
+    public double getBalance() {
+        return Money.toMajorUnits(store.getBalanceMinor(id));
+    }
+
+    @Override
+    public long getBalanceMinor() {
+        return store.getBalanceMinor(id);
+    }
+
+    @Override
+    public String getAccountType() {
+        return store.accountType(id);
+    }
+
+    @Override
+    public LocalDateTime getCreatedAt() {
+        return store.createdAt(id);
+    }
+
+    @Override
+    public LocalDateTime getLastModified() {
+        return store.lastModified(id);
+    }
+
+    @Override
+    public boolean isActive() {
+        return store.isActive(id);
+    }
+}
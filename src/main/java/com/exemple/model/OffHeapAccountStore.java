@@ -0,0 +1,356 @@
+package com.exemple.model;
+
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Stockage des comptes hors du tas: l'état de chaque compte (solde, indicateurs,
+ * version, dates, propriétaire et type) occupe une case de taille fixe dans des blocs
+ * de mémoire directe, indexée par l'identifiant dense du compte. Le numéro de compte
+ * est associé à son identifiant par un {@link AccountDictionary}.
+ *
+ * Le solde et les indicateurs sont mis à jour par compare-and-set sur la mémoire
+ * directe; chaque modification incrémente la version du compte. Comme pour Account,
+ * les crédits et débits sont sans verrou; un virement et un changement d'état prennent
+ * le bit de verrou des cases concernées, dans l'ordre des identifiants.
+ *
+ * Les comptes renvoyés sont des vues ({@link OffHeapAccount}) créées à la demande: le
+ * tas ne contient que les numéros de compte et les dictionnaires.
+ */
+public class OffHeapAccountStore implements AccountStore {
+
+    static final int SLOT_SIZE = 48;
+    private static final int BALANCE = 0;
+    private static final int FLAGS = 8;
+    private static final int VERSION = 16;
+    private static final int CREATED_AT = 24;
+    private static final int LAST_MODIFIED = 32;
+    private static final int OWNER = 40;
+    private static final int TYPE = 44;
+
+    private static final long ACTIVE = 1L;
+    private static final long LOCKED = 2L;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SLOTS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SLOTS - 1;
+
+    private static final VarHandle LONG =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INT =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final AccountDictionary accounts = new AccountDictionary();
+    private final AccountDictionary owners = new AccountDictionary();
+    private final AccountDictionary types = new AccountDictionary();
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+    /**
+     * Copie l'état du compte dans le stockage et retourne la vue correspondante
+     */
+    @Override
+    public synchronized Account add(Account account) {
+        int id = accounts.idOf(account.getAccountNumber());
+        long flags = account.isActive() ? ACTIVE : 0L;
+        if (id == AccountDictionary.NO_ACCOUNT) {
+            id = accounts.size();
+            ensureCapacity(id + 1);
+            ByteBuffer chunk = chunk(id);
+            int base = offset(id);
+            LONG.setVolatile(chunk, base + BALANCE, account.getBalanceMinor());
+            LONG.setVolatile(chunk, base + FLAGS, flags);
+            LONG.setVolatile(chunk, base + VERSION, 0L);
+            LONG.setVolatile(chunk, base + CREATED_AT, toMillis(account.getCreatedAt()));
+            LONG.setVolatile(chunk, base + LAST_MODIFIED, toMillis(account.getLastModified()));
+            INT.setVolatile(chunk, base + OWNER, owners.register(account.getOwnerId()));
+            INT.setVolatile(chunk, base + TYPE, types.register(account.getAccountType()));
+            if (accounts.register(account.getAccountNumber()) != id) {
+                throw new IllegalStateException("Identifiant de compte incohérent: " + id);
+            }
+        } else {
+            ByteBuffer chunk = chunk(id);
+            int base = offset(id);
+            lock(chunk, base);
+            LONG.setVolatile(chunk, base + BALANCE, account.getBalanceMinor());
+            INT.setVolatile(chunk, base + OWNER, owners.register(account.getOwnerId()));
+            INT.setVolatile(chunk, base + TYPE, types.register(account.getAccountType()));
+            touch(chunk, base);
+            LONG.setVolatile(chunk, base + FLAGS, flags | LOCKED);
+            unlock(chunk, base);
+        }
+        return new OffHeapAccount(this, id);
+    }
+
+    @Override
+    public Account get(String accountNumber) {
+        int id = accounts.idOf(accountNumber);
+        return id == AccountDictionary.NO_ACCOUNT ? null : new OffHeapAccount(this, id);
+    }
+
+    /**
+     * Retourne la vue du compte d'identifiant donné
+     */
+    public Account get(int id) {
+        checkId(id);
+        return new OffHeapAccount(this, id);
+    }
+
+    /**
+     * Identifiant dense du compte, ou {@link AccountDictionary#NO_ACCOUNT}
+     */
+    public int idOf(String accountNumber) {
+        return accounts.idOf(accountNumber);
+    }
+
+    @Override
+    public int size() {
+        return accounts.size();
+    }
+
+    @Override
+    public void forEach(Consumer<Account> action) {
+        int count = accounts.size();
+        for (int id = 0; id < count; id++) {
+            action.accept(new OffHeapAccount(this, id));
+        }
+    }
+
+    /**
+     * Mémoire directe réservée, en octets
+     */
+    public long getOffHeapBytes() {
+        return (long) chunks.length * CHUNK_SLOTS * SLOT_SIZE;
+    }
+
+    public long getBalanceMinor(int id) {
+        return (long) LONG.getVolatile(chunk(id), offset(id) + BALANCE);
+    }
+
+    public boolean isActive(int id) {
+        return ((long) LONG.getVolatile(chunk(id), offset(id) + FLAGS) & ACTIVE) != 0;
+    }
+
+    /**
+     * Nombre de modifications du compte depuis son ajout
+     */
+    public long getVersion(int id) {
+        return (long) LONG.getVolatile(chunk(id), offset(id) + VERSION);
+    }
+
+    /**
+     * Crédite le compte d'un montant en unités mineures
+     */
+    public void creditMinor(int id, long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant du crédit doit être positif");
+        }
+        ByteBuffer chunk = chunk(id);
+        int base = offset(id);
+        if (((long) LONG.getVolatile(chunk, base + FLAGS) & ACTIVE) == 0) {
+            throw new IllegalStateException("Le compte est désactivé");
+        }
+        LONG.getAndAdd(chunk, base + BALANCE, amountMinor);
+        touch(chunk, base);
+    }
+
+    /**
+     * Rend un montant débité par une opération abandonnée, même si le compte a été
+     * désactivé entre-temps
+     */
+    public void refundMinor(int id, long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant à rendre doit être positif");
+        }
+        ByteBuffer chunk = chunk(id);
+        int base = offset(id);
+        LONG.getAndAdd(chunk, base + BALANCE, amountMinor);
+        touch(chunk, base);
+    }
+
+    /**
+     * Reprend un montant crédité par une opération annulée, même si le compte a été
+     * désactivé entre-temps
+     */
+    public void revertCreditMinor(int id, long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant à reprendre doit être positif");
+        }
+        ByteBuffer chunk = chunk(id);
+        int base = offset(id);
+        LONG.getAndAdd(chunk, base + BALANCE, -amountMinor);
+        touch(chunk, base);
+    }
+
+    /**
+     * Vérifie le solde et débite de manière atomique; retourne false, sans modifier
+     * le compte, si le solde est insuffisant
+     */
+    public boolean tryDebitMinor(int id, long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant du débit doit être positif");
+        }
+        ByteBuffer chunk = chunk(id);
+        int base = offset(id);
+        if (((long) LONG.getVolatile(chunk, base + FLAGS) & ACTIVE) == 0) {
+            throw new IllegalStateException("Le compte est désactivé");
+        }
+        if (!debit(chunk, base, amountMinor)) {
+            return false;
+        }
+        touch(chunk, base);
+        return true;
+    }
+
+    /**
+     * Débite la source et crédite la destination en une seule étape: aucun changement
+     * d'état des deux comptes ne peut s'intercaler. Retourne false si le solde est
+     * insuffisant.
+     */
+    public boolean tryTransferMinor(int sourceId, int destinationId, long amountMinor) {
+        if (amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant du débit doit être positif");
+        }
+        if (sourceId == destinationId) {
+            throw new IllegalArgumentException("Impossible de transférer vers le même compte");
+        }
+        ByteBuffer source = chunk(sourceId);
+        int sourceBase = offset(sourceId);
+        ByteBuffer destination = chunk(destinationId);
+        int destinationBase = offset(destinationId);
+
+        boolean sourceFirst = sourceId < destinationId;
+        lock(sourceFirst ? source : destination, sourceFirst ? sourceBase : destinationBase);
+        lock(sourceFirst ? destination : source, sourceFirst ? destinationBase : sourceBase);
+        try {
+            if (((long) LONG.getVolatile(source, sourceBase + FLAGS) & ACTIVE) == 0
+                    || ((long) LONG.getVolatile(destination, destinationBase + FLAGS) & ACTIVE) == 0) {
+                throw new IllegalStateException("Le compte est désactivé");
+            }
+            if (!debit(source, sourceBase, amountMinor)) {
+                return false;
+            }
+            LONG.getAndAdd(destination, destinationBase + BALANCE, amountMinor);
+            touch(source, sourceBase);
+            touch(destination, destinationBase);
+            return true;
+        } finally {
+            unlock(destination, destinationBase);
+            unlock(source, sourceBase);
+        }
+    }
+
+    /**
+     * Active ou désactive le compte
+     */
+    public void setActive(int id, boolean active) {
+        ByteBuffer chunk = chunk(id);
+        int base = offset(id);
+        lock(chunk, base);
+        try {
+            LONG.setVolatile(chunk, base + FLAGS, (active ? ACTIVE : 0L) | LOCKED);
+            touch(chunk, base);
+        } finally {
+            unlock(chunk, base);
+        }
+    }
+
+    String accountNumber(int id) {
+        return accounts.accountNumber(id);
+    }
+
+    String ownerId(int id) {
+        return owners.accountNumber((int) INT.getVolatile(chunk(id), offset(id) + OWNER));
+    }
+
+    String accountType(int id) {
+        return types.accountNumber((int) INT.getVolatile(chunk(id), offset(id) + TYPE));
+    }
+
+    LocalDateTime createdAt(int id) {
+        return toDateTime((long) LONG.getVolatile(chunk(id), offset(id) + CREATED_AT));
+    }
+
+    LocalDateTime lastModified(int id) {
+        return toDateTime((long) LONG.getVolatile(chunk(id), offset(id) + LAST_MODIFIED));
+    }
+
+    private static boolean debit(ByteBuffer chunk, int base, long amountMinor) {
+        long current;
+        do {
+            current = (long) LONG.getVolatile(chunk, base + BALANCE);
+            if (current < amountMinor) {
+                return false;
+            }
+        } while (!LONG.compareAndSet(chunk, base + BALANCE, current, current - amountMinor));
+        return true;
+    }
+
+    private static void touch(ByteBuffer chunk, int base) {
+        LONG.getAndAdd(chunk, base + VERSION, 1L);
+        LONG.setRelease(chunk, base + LAST_MODIFIED, System.currentTimeMillis());
+    }
+
+    /**
+     * Bit de verrou de la case: tenu très brièvement, l'attente est active
+     */
+    private static void lock(ByteBuffer chunk, int base) {
+        while (true) {
+            long flags = (long) LONG.getVolatile(chunk, base + FLAGS);
+            if ((flags & LOCKED) == 0
+                    && LONG.compareAndSet(chunk, base + FLAGS, flags, flags | LOCKED)) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void unlock(ByteBuffer chunk, int base) {
+        LONG.getAndBitwiseAnd(chunk, base + FLAGS, ~LOCKED);
+    }
+
+    private ByteBuffer chunk(int id) {
+        return chunks[id >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(int id) {
+        return (id & CHUNK_MASK) * SLOT_SIZE;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= accounts.size()) {
+            throw new IllegalArgumentException("Identifiant de compte inconnu: " + id);
+        }
+    }
+
+    private void ensureCapacity(int slots) {
+        ByteBuffer[] current = chunks;
+        int needed = (slots + CHUNK_SLOTS - 1) >>> CHUNK_SHIFT;
+        if (needed <= current.length) {
+            return;
+        }
+        ByteBuffer[] grown = Arrays.copyOf(current, needed);
+        for (int i = current.length; i < needed; i++) {
+            grown[i] = ByteBuffer.allocateDirect(CHUNK_SLOTS * SLOT_SIZE + Long.BYTES - 1)
+                    .alignedSlice(Long.BYTES);
+        }
+        chunks = grown;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime == null
+                ? System.currentTimeMillis()
+                : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
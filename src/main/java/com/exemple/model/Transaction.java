@@ -5,18 +5,27 @@ import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 /**
- * Modèle représentant une transaction bancaire
+ * Modèle représentant une transaction bancaire.
+ * Le montant est conservé en unités mineures (voir {@link Money}).
+ *
+ * Le type et le statut sont stockés sous forme de codes d'un octet, et les comptes
+ * sous forme d'identifiants du dictionnaire partagé {@link #accountDictionary()}:
+ * une transaction ne porte pas ses propres chaînes de compte, de type ou de statut.
+ * Les accesseurs historiques renvoient les chaînes canoniques correspondantes.
  */
 public class Transaction {
 
+    private static final AccountDictionary ACCOUNTS = new AccountDictionary();
+
     private String transactionId;
-    private String type;
-    private String sourceAccount;
-    private String destinationAccount;
-    private double amount;
+    private final byte type;
+    private final int sourceAccount;
+    private final int destinationAccount;
+    private long amountMinor;
     private LocalDateTime timestamp;
     private String description;
-    private String status;
+    private volatile byte status;
+    private TransactionStatusListener statusListener;
 
     private static final DateTimeFormatter FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -24,21 +33,28 @@ public class Transaction {
     public Transaction(String transactionId, String type, String sourceAccount,
                        String destinationAccount, double amount,
                        LocalDateTime timestamp, String description) {
+        this(transactionId, type, sourceAccount, destinationAccount,
+                toValidMinorUnits(amount), timestamp, description);
+    }
+
+    private Transaction(String transactionId, String type, String sourceAccount,
+                        String destinationAccount, long amountMinor,
+                        LocalDateTime timestamp, String description) {
         if (transactionId == null || transactionId.trim().isEmpty()) {
             throw new IllegalArgumentException("L'ID de transaction ne peut pas être vide");
         }
-        if (amount <= 0) {
+        if (amountMinor <= 0) {
             throw new IllegalArgumentException("Le montant doit être positif");
         }
 
         this.transactionId = transactionId;
-        this.type = type;
-        this.sourceAccount = sourceAccount;
-        this.destinationAccount = destinationAccount;
-        this.amount = amount;
+        this.type = (byte) TransactionType.of(type).ordinal();
+        this.sourceAccount = ACCOUNTS.register(sourceAccount);
+        this.destinationAccount = ACCOUNTS.register(destinationAccount);
+        this.amountMinor = amountMinor;
         this.timestamp = timestamp;
         this.description = description;
-        this.status = "COMPLETED";
+        this.status = (byte) TransactionStatus.COMPLETED.ordinal();
     }
 
     public Transaction(String transactionId, String type, String sourceAccount,
@@ -46,20 +62,75 @@ public class Transaction {
                        LocalDateTime timestamp, String description, String status) {
         this(transactionId, type, sourceAccount, destinationAccount,
                 amount, timestamp, description);
-        this.status = status;
+        this.status = (byte) TransactionStatus.of(status).ordinal();
+    }
+
+    /**
+     * Crée une transaction dont le montant est exprimé en unités mineures
+     */
+    public static Transaction ofMinorUnits(String transactionId, String type,
+                                           String sourceAccount, String destinationAccount,
+                                           long amountMinor, LocalDateTime timestamp,
+                                           String description) {
+        return new Transaction(transactionId, type, sourceAccount, destinationAccount,
+                amountMinor, timestamp, description);
+    }
+
+    /**
+     * Crée une transaction en unités mineures avec un statut donné (relecture d'archive)
+     */
+    public static Transaction ofMinorUnits(String transactionId, String type,
+                                           String sourceAccount, String destinationAccount,
+                                           long amountMinor, LocalDateTime timestamp,
+                                           String description, String status) {
+        Transaction transaction = new Transaction(transactionId, type, sourceAccount,
+                destinationAccount, amountMinor, timestamp, description);
+        transaction.status = (byte) TransactionStatus.of(status).ordinal();
+        return transaction;
     }
 
-    public void markAsFailed(String reason) {
-        this.status = "FAILED";
+    /**
+     * Dictionnaire des numéros de compte partagé par toutes les transactions
+     */
+    public static AccountDictionary accountDictionary() {
+        return ACCOUNTS;
+    }
+
+    private static long toValidMinorUnits(double amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Le montant doit être positif");
+        }
+        return Money.toMinorUnits(amount);
+    }
+
+    public synchronized void markAsFailed(String reason) {
         this.description = description + " | Raison: " + reason;
+        changeStatus(TransactionStatus.FAILED);
     }
 
-    public void markAsCancelled() {
-        this.status = "CANCELLED";
+    public synchronized void markAsCancelled() {
+        changeStatus(TransactionStatus.CANCELLED);
+    }
+
+    /**
+     * Définit l'écouteur prévenu des changements de statut (null pour le retirer).
+     * Un appelant qui doit lire le statut courant sans manquer de changement le fait
+     * en tenant le verrou de la transaction.
+     */
+    public synchronized void setStatusListener(TransactionStatusListener statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    private void changeStatus(TransactionStatus newStatus) {
+        TransactionStatus previousStatus = getTransactionStatus();
+        status = (byte) newStatus.ordinal();
+        if (statusListener != null && newStatus != previousStatus) {
+            statusListener.onStatusChanged(this, previousStatus.name(), newStatus.name());
+        }
     }
 
     public boolean isSuccessful() {
-        return "COMPLETED".equals(status);
+        return status == TransactionStatus.COMPLETED.ordinal();
     }
 
     public String getTransactionId() {
@@ -67,19 +138,46 @@ public class Transaction {
     }
 
     public String getType() {
-        return type;
+        return getTransactionType().name();
+    }
+
+    public TransactionType getTransactionType() {
+        return TransactionType.ofCode(type);
     }
 
     public String getSourceAccount() {
-        return sourceAccount;
+        return ACCOUNTS.accountNumber(sourceAccount);
     }
 
     public String getDestinationAccount() {
+        return ACCOUNTS.accountNumber(destinationAccount);
+    }
+
+    /**
+     * Identifiant du compte source dans {@link #accountDictionary()}, ou
+     * {@link AccountDictionary#NO_ACCOUNT}
+     */
+    public int getSourceAccountId() {
+        return sourceAccount;
+    }
+
+    /**
+     * Identifiant du compte destination dans {@link #accountDictionary()}, ou
+     * {@link AccountDictionary#NO_ACCOUNT}
+     */
+    public int getDestinationAccountId() {
         return destinationAccount;
     }
 
     public double getAmount() {
-        return amount;
+        return Money.toMajorUnits(amountMinor);
+    }
+
+    /**
+     * Retourne le montant en unités mineures
+     */
+    public long getAmountMinor() {
+        return amountMinor;
     }
 
     public LocalDateTime getTimestamp() {
@@ -91,20 +189,27 @@ public class Transaction {
     }
 
     public String getStatus() {
-        return status;
+        return getTransactionStatus().name();
+    }
+
+    public TransactionStatus getTransactionStatus() {
+        return TransactionStatus.ofCode(status);
     }
 
     public String getFormattedTransaction() {
-        return String.format(
-                "[%s] %s | %s | Montant: %.2f | De: %s | Vers: %s | Statut: %s",
-                timestamp.format(FORMATTER),
-                transactionId,
-                type,
-                amount,
-                sourceAccount != null ? sourceAccount : "N/A",
-                destinationAccount != null ? destinationAccount : "N/A",
-                status
-        );
+        StringBuilder builder = new StringBuilder(128)
+                .append('[').append(timestamp.format(FORMATTER)).append("] ")
+                .append(transactionId)
+                .append(" | ").append(getType())
+                .append(" | Montant: ");
+        Money.appendMajorUnits(builder, amountMinor);
+        return builder
+                .append(" | De: ").append(sourceAccount != AccountDictionary.NO_ACCOUNT
+                        ? getSourceAccount() : "N/A")
+                .append(" | Vers: ").append(destinationAccount != AccountDictionary.NO_ACCOUNT
+                        ? getDestinationAccount() : "N/A")
+                .append(" | Statut: ").append(getStatus())
+                .toString();
     }
 
     @Override
@@ -0,0 +1,49 @@
+package com.exemple.model;
+
+
+/**
+ * Résultat d'une opération d'un lot: la transaction exécutée, ou la raison de l'échec
+ */
+public class TransactionResult {
+
+    private final Transaction transaction;
+    private final String failureReason;
+
+    private TransactionResult(Transaction transaction, String failureReason) {
+        this.transaction = transaction;
+        this.failureReason = failureReason;
+    }
+
+    public static TransactionResult success(Transaction transaction) {
+        return new TransactionResult(transaction, null);
+    }
+
+    public static TransactionResult failure(String reason) {
+        return new TransactionResult(null, reason);
+    }
+
+    public boolean isSuccessful() {
+        return failureReason == null;
+    }
+
+    /**
+     * Transaction exécutée, ou null si l'opération a échoué
+     */
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * Raison de l'échec, ou null si l'opération a réussi
+     */
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccessful()
+                ? "TransactionResult{" + transaction.getTransactionId() + "}"
+                : "TransactionResult{échec: " + failureReason + "}";
+    }
+}
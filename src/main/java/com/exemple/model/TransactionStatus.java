@@ -0,0 +1,30 @@
+package com.exemple.model;
+
+
+/**
+ * Statuts d'une transaction. Le nom de chaque constante est la valeur historique
+ * renvoyée par {@link Transaction#getStatus()}.
+ */
+public enum TransactionStatus {
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    private static final TransactionStatus[] VALUES = values();
+
+    /**
+     * Retourne le statut correspondant au nom
+     */
+    public static TransactionStatus of(String name) {
+        for (TransactionStatus status : VALUES) {
+            if (status.name().equals(name)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Statut de transaction inconnu: " + name);
+    }
+
+    static TransactionStatus ofCode(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,13 @@
+package com.exemple.model;
+
+
+/**
+ * Écouteur des changements de statut d'une transaction
+ */
+public interface TransactionStatusListener {
+
+    /**
+     * Méthode appelée après le changement de statut, sous le verrou de la transaction
+     */
+    void onStatusChanged(Transaction transaction, String previousStatus, String newStatus);
+}
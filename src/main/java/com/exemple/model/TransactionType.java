@@ -0,0 +1,30 @@
+package com.exemple.model;
+
+
+/**
+ * Types de transaction. Le nom de chaque constante est la valeur historique
+ * renvoyée par {@link Transaction#getType()}.
+ */
+public enum TransactionType {
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER;
+
+    private static final TransactionType[] VALUES = values();
+
+    /**
+     * Retourne le type correspondant au nom
+     */
+    public static TransactionType of(String name) {
+        for (TransactionType type : VALUES) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Type de transaction inconnu: " + name);
+    }
+
+    static TransactionType ofCode(int code) {
+        return VALUES[code];
+    }
+}
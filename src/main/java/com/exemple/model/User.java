@@ -11,7 +11,7 @@ public class User {
 
     private String userId;
     private String username;
-    private String passwordHash;
+    private volatile String passwordHash;
     private String email;
     private String userType;
     private LocalDateTime createdAt;
@@ -9,7 +9,7 @@ import com.exemple.model.User;
  */
 public class AccountFactory {
 
-    private static long accountCounter = 1000;
+    private static final IdBlockAllocator ACCOUNT_NUMBERS = new IdBlockAllocator(1000);
 
     /**
      * Crée un compte courant standard
@@ -59,15 +59,21 @@ public class AccountFactory {
     /**
      * Génère un numéro de compte unique
      */
-    private static synchronized String generateAccountNumber(String prefix) {
-        accountCounter++;
-        return prefix + "-" + String.format("%08d", accountCounter);
+    private static String generateAccountNumber(String prefix) {
+        return IdBlockAllocator.format(prefix, ACCOUNT_NUMBERS.next(), 8);
+    }
+
+    /**
+     * Avance le compteur au-delà d'une valeur déjà attribuée (reprise après redémarrage)
+     */
+    public static void advanceCounterPast(long issuedValue) {
+        ACCOUNT_NUMBERS.advancePast(issuedValue);
     }
 
     /**
      * Réinitialise le compteur (pour les tests)
      */
     public static void resetCounter() {
-        accountCounter = 1000;
+        ACCOUNT_NUMBERS.reset();
     }
 }
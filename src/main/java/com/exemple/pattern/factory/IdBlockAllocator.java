@@ -0,0 +1,108 @@
+package com.exemple.pattern.factory;
+
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Attribution de numéros séquentiels sans verrou, par blocs réservés pour chaque thread.
+ *
+ * Un thread réserve un bloc de numéros consécutifs par une seule opération atomique sur
+ * le compteur global, puis les consomme localement. La taille du bloc double à chaque
+ * réservation (1, 2, 4... jusqu'à 64): un thread qui ne crée qu'un identifiant ne
+ * gaspille aucun numéro, un thread très actif ne touche le compteur partagé qu'une fois
+ * sur 64. Les numéros d'un même thread sont consécutifs tant qu'aucun autre thread ne
+ * réserve entre deux blocs; les numéros restent uniques dans tous les cas.
+ */
+final class IdBlockAllocator {
+
+    private static final int MAX_BLOCK_SIZE = 64;
+
+    private final long initialValue;
+    private final AtomicLong lastReserved;
+    /**
+     * Incrémentée à chaque réinitialisation ou avance du compteur: les blocs réservés
+     * sous une génération précédente sont abandonnés
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    IdBlockAllocator(long initialValue) {
+        this.initialValue = initialValue;
+        this.lastReserved = new AtomicLong(initialValue);
+    }
+
+    /**
+     * Retourne le prochain numéro disponible pour le thread courant
+     */
+    long next() {
+        Block block = blocks.get();
+        int currentGeneration = generation.get();
+        if (block.generation != currentGeneration || block.next > block.end) {
+            reserve(block, currentGeneration);
+        }
+        return block.next++;
+    }
+
+    /**
+     * Garantit que les prochains numéros seront supérieurs à une valeur déjà attribuée
+     */
+    void advancePast(long issuedValue) {
+        lastReserved.accumulateAndGet(issuedValue, Math::max);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Revient à la valeur initiale (pour les tests)
+     */
+    void reset() {
+        lastReserved.set(initialValue);
+        generation.incrementAndGet();
+    }
+
+    private void reserve(Block block, int currentGeneration) {
+        int size = block.generation == currentGeneration
+                ? Math.min(block.size * 2, MAX_BLOCK_SIZE)
+                : 1;
+        long end = lastReserved.addAndGet(size);
+        block.next = end - size + 1;
+        block.end = end;
+        block.size = size;
+        block.generation = currentGeneration;
+    }
+
+    /**
+     * Formate PREFIXE-NNNN avec le numéro complété de zéros à gauche sur la largeur
+     * donnée, comme {@code String.format("%0<largeur>d")}, sans analyse de motif
+     */
+    static String format(String prefix, long value, int width) {
+        int digits = 1;
+        for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+        int padding = Math.max(0, width - digits);
+        byte[] encoded = new byte[prefix.length() + 1 + padding + digits];
+
+        int position = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            encoded[position++] = (byte) prefix.charAt(i);
+        }
+        encoded[position++] = '-';
+        for (int i = 0; i < padding; i++) {
+            encoded[position++] = '0';
+        }
+        for (int i = encoded.length - 1; i >= position; i--) {
+            encoded[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(encoded, StandardCharsets.ISO_8859_1);
+    }
+
+    private static final class Block {
+        long next = 1;
+        long end = 0;
+        int size;
+        int generation = -1;
+    }
+}
@@ -2,6 +2,8 @@ package com.exemple.pattern.factory;
 
 
 import com.exemple.model.User;
+import com.exemple.security.PasswordHasher;
+
 import java.util.regex.Pattern;
 
 /**
@@ -9,7 +11,8 @@ import java.util.regex.Pattern;
  */
 public class UserFactory {
 
-    private static long userCounter = 1000;
+    private static final IdBlockAllocator USER_IDS = new IdBlockAllocator(1000);
+    private static volatile PasswordHasher passwordHasher = new PasswordHasher();
     private static final Pattern EMAIL_PATTERN =
             Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
 
@@ -59,6 +62,39 @@ public class UserFactory {
         }
     }
 
+    /**
+     * Valide les données d'un nouvel utilisateur sans hacher son mot de passe
+     */
+    public static void validateUser(String username, String password, String email, String userType) {
+        validateUserData(username, password, email);
+        normalizeUserType(userType);
+    }
+
+    /**
+     * Crée un utilisateur dont le mot de passe est déjà haché (par exemple dans le pool
+     * de {@link com.exemple.security.CredentialVerifier}); les données sont validées
+     * au préalable par {@link #validateUser}
+     */
+    public static User createUserWithHash(String username, String passwordHash, String email,
+                                          String userType) {
+        if (passwordHash == null || passwordHash.isEmpty()) {
+            throw new IllegalArgumentException("Le hachage du mot de passe est obligatoire");
+        }
+        return new User(generateUserId(), username, passwordHash, email, normalizeUserType(userType));
+    }
+
+    private static String normalizeUserType(String userType) {
+        String normalized = userType.toUpperCase();
+        switch (normalized) {
+            case "STANDARD":
+            case "PREMIUM":
+            case "ADMIN":
+                return normalized;
+            default:
+                throw new IllegalArgumentException("Type d'utilisateur invalide: " + userType);
+        }
+    }
+
     /**
      * Valide les données de l'utilisateur
      */
@@ -85,24 +121,44 @@ public class UserFactory {
     }
 
     /**
-     * Hash simple du mot de passe
+     * Hache le mot de passe (PBKDF2, voir {@link PasswordHasher})
      */
     private static String hashPassword(String password) {
-        return "HASHED_" + password.hashCode();
+        return passwordHasher.hash(password);
+    }
+
+    public static PasswordHasher getPasswordHasher() {
+        return passwordHasher;
+    }
+
+    /**
+     * Remplace le hacheur des nouveaux utilisateurs (coût différent, tests)
+     */
+    public static void setPasswordHasher(PasswordHasher hasher) {
+        if (hasher == null) {
+            throw new IllegalArgumentException("Le hacheur ne peut pas être nul");
+        }
+        passwordHasher = hasher;
     }
 
     /**
      * Génère un ID utilisateur unique
      */
-    private static synchronized String generateUserId() {
-        userCounter++;
-        return "USR-" + String.format("%06d", userCounter);
+    private static String generateUserId() {
+        return IdBlockAllocator.format("USR", USER_IDS.next(), 6);
+    }
+
+    /**
+     * Avance le compteur au-delà d'une valeur déjà attribuée (reprise après redémarrage)
+     */
+    public static void advanceCounterPast(long issuedValue) {
+        USER_IDS.advancePast(issuedValue);
     }
 
     /**
      * Réinitialise le compteur (pour les tests)
      */
     public static void resetCounter() {
-        userCounter = 1000;
+        USER_IDS.reset();
     }
 }
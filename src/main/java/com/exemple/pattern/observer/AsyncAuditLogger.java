@@ -0,0 +1,355 @@
+package com.exemple.pattern.observer;
+
+
+import com.exemple.model.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Observer d'audit asynchrone: les threads appelants déposent les entrées dans une
+ * file circulaire bornée et un thread dédié les formate, les regroupe dans un tampon
+ * et les écrit sur un canal de fichier ouvert une seule fois.
+ *
+ * Les lignes sont formatées par {@link AuditFormatter} directement dans le tampon.
+ * Le tampon est vidé lorsqu'il dépasse un seuil de taille ou lorsque la plus ancienne
+ * entrée non écrite attend depuis plus que l'intervalle de vidage. Quand la file est
+ * pleine, l'appelant attend qu'une place se libère (contre-pression) ou l'entrée est
+ * abandonnée, selon la configuration. Les lignes produites sont identiques à celles
+ * d'{@link AuditLogger}.
+ *
+ * Une entrée copie au dépôt les champs de la transaction qu'elle écrira: la file ne
+ * retient pas les transactions vivantes. Après {@link #close()}, les dépôts sont
+ * abandonnés; la fermeture attend les dépôts en cours, de sorte que toute entrée
+ * acceptée est écrite.
+ *
+ * Sans entrée à écrire, le thread d'écriture reste parqué: jusqu'à l'échéance du vidage
+ * si le tampon contient des lignes, sinon jusqu'à ce qu'un producteur le réveille.
+ * Un producteur ne le réveille que s'il s'est déclaré inactif.
+ */
+public class AsyncAuditLogger implements TransactionObserver, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_FLUSH_THRESHOLD = 64 * 1024;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+    private static final int DRAIN_BATCH = 256;
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final RingBuffer<AuditEntry> entries;
+    private final boolean blockWhenFull;
+    private final long flushIntervalNanos;
+    private final FileChannel channel;
+    private final ByteBuffer writeBuffer;
+    private final AuditFormatter formatter = new AuditFormatter();
+    private final Consumer<AuditEntry> encoder = this::encode;
+    private final Thread writer;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final AtomicInteger activePublishers = new AtomicInteger();
+    private volatile long written;
+    private volatile long flushes;
+    private volatile long writeErrors;
+    private volatile boolean closed;
+    private volatile boolean stopping;
+    private volatile boolean writerIdle;
+
+    private long oldestPendingNanos;
+
+    public AsyncAuditLogger() throws IOException {
+        this(Path.of(AuditLogger.AUDIT_FILE));
+    }
+
+    public AsyncAuditLogger(Path auditFile) throws IOException {
+        this(auditFile, DEFAULT_CAPACITY, true, DEFAULT_FLUSH_THRESHOLD, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param capacity            nombre d'entrées en attente avant saturation
+     * @param blockWhenFull       si true, l'appelant attend une place libre; sinon l'entrée est abandonnée
+     * @param flushThresholdBytes taille du tampon d'écriture déclenchant un vidage
+     * @param flushIntervalMillis délai maximal avant qu'une entrée formatée soit écrite
+     */
+    public AsyncAuditLogger(Path auditFile, int capacity, boolean blockWhenFull,
+                            int flushThresholdBytes, long flushIntervalMillis) throws IOException {
+        if (flushThresholdBytes <= 0) {
+            throw new IllegalArgumentException("Le seuil de vidage doit être positif");
+        }
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("L'intervalle de vidage doit être positif");
+        }
+        this.entries = new RingBuffer<>(capacity);
+        this.blockWhenFull = blockWhenFull;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.channel = FileChannel.open(auditFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writeBuffer = ByteBuffer.allocateDirect(flushThresholdBytes);
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void onTransactionExecuted(Transaction transaction) {
+        publish(transaction, null, null);
+    }
+
+    @Override
+    public void onTransactionFailed(Transaction transaction, String reason) {
+        publish(transaction, reason, LocalDateTime.now());
+    }
+
+    @Override
+    public String getObserverName() {
+        return "AsyncAuditLogger";
+    }
+
+    /**
+     * Nombre d'entrées acceptées dans la file
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Nombre d'entrées abandonnées parce que la file était pleine (ou le logger fermé)
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Nombre de dépôts qui ont dû attendre une place libre dans la file
+     */
+    public long getBackpressureCount() {
+        return backpressureWaits.sum();
+    }
+
+    /**
+     * Nombre d'entrées écrites dans le fichier
+     */
+    public long getWrittenCount() {
+        return written;
+    }
+
+    /**
+     * Nombre d'écritures du tampon vers le fichier
+     */
+    public long getFlushCount() {
+        return flushes;
+    }
+
+    /**
+     * Nombre d'écritures de lot ayant échoué
+     */
+    public long getWriteErrorCount() {
+        return writeErrors;
+    }
+
+    /**
+     * Nombre d'entrées en attente dans la file
+     */
+    public int getQueueDepth() {
+        return entries.size();
+    }
+
+    /**
+     * Refuse les nouveaux dépôts, écrit toutes les entrées acceptées puis ferme le fichier
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Un dépôt commencé avant la fermeture finit d'être accepté ou abandonné avant
+        // que le thread d'écriture ne s'arrête
+        while (activePublishers.get() > 0) {
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        stopping = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private void publish(Transaction transaction, String reason, LocalDateTime failedAt) {
+        // Compté avant la lecture de closed: close() voit ce dépôt, ou ce dépôt voit closed
+        activePublishers.incrementAndGet();
+        try {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            offer(new AuditEntry(AuditEntry.copyOf(transaction), reason, failedAt));
+        } finally {
+            activePublishers.decrementAndGet();
+        }
+    }
+
+    private void offer(AuditEntry entry) {
+        if (entries.offer(entry)) {
+            published.increment();
+            wakeWriter();
+            return;
+        }
+        if (!blockWhenFull) {
+            dropped.increment();
+            return;
+        }
+
+        backpressureWaits.increment();
+        while (!entries.offer(entry)) {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        published.increment();
+        wakeWriter();
+    }
+
+    /**
+     * Réveille le thread d'écriture s'il s'est parqué. Il publie writerIdle avant de
+     * relire la file: soit il voit l'entrée déposée, soit le producteur le voit inactif.
+     */
+    private void wakeWriter() {
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Thread d'écriture, pour les tests
+     */
+    Thread writerThread() {
+        return writer;
+    }
+
+    /**
+     * Boucle du thread d'écriture: vide la file par lots et écrit le tampon
+     * selon les seuils de taille et de temps
+     */
+    private void writeLoop() {
+        while (true) {
+            int drained = entries.drain(encoder, DRAIN_BATCH);
+            if (drained > 0) {
+                continue;
+            }
+
+            if (writeBuffer.position() > 0
+                    && (stopping || System.nanoTime() - oldestPendingNanos >= flushIntervalNanos)) {
+                flush();
+            }
+            if (stopping && entries.size() == 0) {
+                if (writeBuffer.position() > 0) {
+                    flush();
+                }
+                return;
+            }
+
+            writerIdle = true;
+            if (entries.size() == 0 && !stopping) {
+                if (writeBuffer.position() > 0) {
+                    LockSupport.parkNanos(oldestPendingNanos + flushIntervalNanos - System.nanoTime());
+                } else {
+                    LockSupport.park(this);
+                }
+            }
+            writerIdle = false;
+        }
+    }
+
+    private void encode(AuditEntry entry) {
+        int maxLength = (entry.reason == null
+                ? AuditFormatter.maxSuccessLength(entry.transaction)
+                : AuditFormatter.maxFailureLength(entry.transaction, entry.reason))
+                + AuditLogger.LINE_SEPARATOR.length;
+
+        if (writeBuffer.remaining() < maxLength) {
+            flush();
+        }
+        ByteBuffer target = writeBuffer.capacity() >= maxLength
+                ? writeBuffer
+                : ByteBuffer.allocate(maxLength);
+        if (target == writeBuffer && writeBuffer.position() == 0) {
+            oldestPendingNanos = System.nanoTime();
+        }
+
+        if (entry.reason == null) {
+            formatter.writeSuccess(entry.transaction, target);
+        } else {
+            formatter.writeFailure(entry.transaction, entry.reason, entry.failedAt, target);
+        }
+        target.put(AuditLogger.LINE_SEPARATOR);
+
+        if (target != writeBuffer) {
+            target.flip();
+            writeFully(target);
+        }
+        written++;
+    }
+
+    private void flush() {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+        flushes++;
+    }
+
+    private void writeFully(ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        } catch (IOException e) {
+            writeErrors++;
+            System.err.println("Erreur lors de l'écriture du log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Entrée en attente d'écriture; reason est null pour une transaction réussie
+     */
+    private static final class AuditEntry {
+        final Transaction transaction;
+        final String reason;
+        final LocalDateTime failedAt;
+
+        AuditEntry(Transaction transaction, String reason, LocalDateTime failedAt) {
+            this.transaction = transaction;
+            this.reason = reason;
+            this.failedAt = failedAt;
+        }
+
+        /**
+         * Copie détachée des champs écrits dans la ligne d'audit (sans description ni
+         * abonné aux changements de statut)
+         */
+        static Transaction copyOf(Transaction transaction) {
+            if (transaction == null) {
+                return null;
+            }
+            return Transaction.ofMinorUnits(transaction.getTransactionId(), transaction.getType(),
+                    transaction.getSourceAccount(), transaction.getDestinationAccount(),
+                    transaction.getAmountMinor(), transaction.getTimestamp(), null);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.exemple.pattern.observer;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.model.TransactionResult;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Décorateur qui découple un observateur du thread de la transaction: les événements
+ * sont placés dans une file bornée propre à l'observateur et délivrés par un thread
+ * virtuel dédié.
+ *
+ * Un seul thread délivre les événements, dans l'ordre d'arrivée: l'ordre des
+ * événements d'un même compte est donc conservé. Quand la file est pleine, la
+ * politique de débordement choisit entre attendre (BLOCK), abandonner l'événement
+ * (DROP) ou ne garder que le dernier événement de chaque compte (COALESCE).
+ *
+ * Seul un événement qui ne concerne qu'un compte (dépôt, retrait) peut être fusionné;
+ * un virement, qui concerne deux comptes, un lot ou un échec sans transaction suivent
+ * la politique BLOCK. Un compte dont un événement attend d'être fusionné reste en mode
+ * fusion jusqu'à la livraison de cet événement. Chaque événement reçoit un numéro
+ * d'arrivée quand il entre en file ou est fusionné, et les deux sont délivrés dans
+ * l'ordre de ces numéros: un événement fusionné ne se fait pas doubler par un événement plus récent
+ * d'un de ses comptes.
+ */
+public class AsyncTransactionObserver implements TransactionObserver, AutoCloseable {
+
+    /**
+     * Comportement lorsque la file de l'observateur est pleine
+     */
+    public enum OverflowPolicy {
+        /** L'appelant attend qu'une place se libère */
+        BLOCK,
+        /** L'événement est abandonné et compté */
+        DROP,
+        /** Seul le dernier événement de chaque compte est conservé */
+        COALESCE
+    }
+
+    private final TransactionObserver delegate;
+    private final int capacity;
+    private final OverflowPolicy policy;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<Event> queue;
+    /** Événements fusionnés par compte, dans l'ordre croissant de leur numéro d'arrivée */
+    private final Map<String, Event> coalesced = new LinkedHashMap<>();
+    private final Thread worker;
+    private long nextSequence;
+    private boolean closed;
+    private boolean dispatching;
+    private int maxQueueDepth;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder blockedCount = new LongAdder();
+    private final LongAdder handlerErrors = new LongAdder();
+    private final LongAdder handlerNanos = new LongAdder();
+    private volatile long maxHandlerNanos;
+
+    public AsyncTransactionObserver(TransactionObserver delegate, int capacity, OverflowPolicy policy) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("L'observateur délégué ne peut pas être nul");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacité doit être positive");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("La politique de débordement ne peut pas être nulle");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+        this.worker = Thread.ofVirtual()
+                .name("observer-" + delegate.getObserverName())
+                .start(this::dispatchLoop);
+    }
+
+    @Override
+    public void onTransactionExecuted(Transaction transaction) {
+        enqueue(new Event(transaction, false, null, null, accountKey(transaction)));
+    }
+
+    @Override
+    public void onTransactionFailed(Transaction transaction, String reason) {
+        enqueue(new Event(transaction, true, reason, null, accountKey(transaction)));
+    }
+
+    /**
+     * Un lot est délivré d'un seul tenant; il n'est jamais fusionné
+     */
+    @Override
+    public void onBatchExecuted(List<TransactionResult> results) {
+        enqueue(new Event(null, false, null, results, null));
+    }
+
+    @Override
+    public String getObserverName() {
+        return delegate.getObserverName() + " (async)";
+    }
+
+    /**
+     * Retourne l'observateur décoré
+     */
+    public TransactionObserver getDelegate() {
+        return delegate;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return policy;
+    }
+
+    /**
+     * Nombre d'événements en attente, file et événements fusionnés compris
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size() + coalesced.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Profondeur maximale atteinte par la file
+     */
+    public int getMaxQueueDepth() {
+        lock.lock();
+        try {
+            return maxQueueDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nombre d'événements délivrés à l'observateur
+     */
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    /**
+     * Nombre d'événements abandonnés (politique DROP ou observateur fermé)
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Nombre d'événements remplacés par un événement plus récent du même compte
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Nombre de dépôts qui ont dû attendre une place libre
+     */
+    public long getBlockedCount() {
+        return blockedCount.sum();
+    }
+
+    /**
+     * Nombre d'exceptions levées par l'observateur
+     */
+    public long getHandlerErrorCount() {
+        return handlerErrors.sum();
+    }
+
+    /**
+     * Durée moyenne de traitement d'un événement par l'observateur, en nanosecondes
+     */
+    public long getAverageHandlerLatencyNanos() {
+        long count = delivered.sum();
+        return count == 0 ? 0L : handlerNanos.sum() / count;
+    }
+
+    /**
+     * Durée maximale de traitement d'un événement par l'observateur, en nanosecondes
+     */
+    public long getMaxHandlerLatencyNanos() {
+        return maxHandlerNanos;
+    }
+
+    /**
+     * Délivre les événements en attente puis arrête le thread de l'observateur
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Attend que tous les événements déposés jusqu'ici soient délivrés
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!queue.isEmpty() || !coalesced.isEmpty() || dispatching) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = notFull.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(Event event) {
+        lock.lock();
+        try {
+            if (closed) {
+                dropped.increment();
+                return;
+            }
+
+            if (event.accountKey != null && coalesced.remove(event.accountKey) != null) {
+                // Retiré puis réinséré: l'entrée passe en fin, à son nouveau numéro
+                event.sequence = nextSequence++;
+                coalesced.put(event.accountKey, event);
+                coalescedCount.increment();
+                return;
+            }
+
+            if (queue.size() >= capacity) {
+                OverflowPolicy effective = policy == OverflowPolicy.COALESCE && event.accountKey == null
+                        ? OverflowPolicy.BLOCK
+                        : policy;
+                switch (effective) {
+                    case DROP:
+                        dropped.increment();
+                        return;
+                    case COALESCE:
+                        event.sequence = nextSequence++;
+                        coalesced.put(event.accountKey, event);
+                        notEmpty.signal();
+                        return;
+                    default:
+                        blockedCount.increment();
+                        while (queue.size() >= capacity && !closed) {
+                            notFull.awaitUninterruptibly();
+                        }
+                        if (closed) {
+                            dropped.increment();
+                            return;
+                        }
+                }
+            }
+
+            event.sequence = nextSequence++;
+            queue.addLast(event);
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Boucle du thread virtuel: délivre, de la tête de file et du plus ancien
+     * événement fusionné, celui qui est arrivé le premier
+     */
+    private void dispatchLoop() {
+        while (true) {
+            Event event;
+            lock.lock();
+            try {
+                dispatching = false;
+                notFull.signalAll();
+                while (queue.isEmpty() && coalesced.isEmpty() && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                Iterator<Event> pending = coalesced.values().iterator();
+                Event parked = pending.hasNext() ? pending.next() : null;
+                Event head = queue.peekFirst();
+                if (head == null && parked == null) {
+                    return;
+                }
+                if (parked == null || (head != null && head.sequence < parked.sequence)) {
+                    event = queue.pollFirst();
+                } else {
+                    event = parked;
+                    pending.remove();
+                }
+                dispatching = true;
+            } finally {
+                lock.unlock();
+            }
+
+            deliver(event);
+        }
+    }
+
+    private void deliver(Event event) {
+        long start = System.nanoTime();
+        try {
+            if (event.batch != null) {
+                delegate.onBatchExecuted(event.batch);
+            } else if (event.failed) {
+                delegate.onTransactionFailed(event.transaction, event.reason);
+            } else {
+                delegate.onTransactionExecuted(event.transaction);
+            }
+        } catch (Exception e) {
+            handlerErrors.increment();
+            System.err.println("Erreur dans l'observateur " +
+                    delegate.getObserverName() + ": " + e.getMessage());
+        }
+        long elapsed = System.nanoTime() - start;
+        handlerNanos.add(elapsed);
+        if (elapsed > maxHandlerNanos) {
+            maxHandlerNanos = elapsed;
+        }
+        delivered.increment();
+    }
+
+    /**
+     * Compte d'un événement qui peut être fusionné, ou null si la transaction concerne
+     * deux comptes (ou aucun)
+     */
+    private static String accountKey(Transaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+        String source = transaction.getSourceAccount();
+        String destination = transaction.getDestinationAccount();
+        if (source == null) {
+            return destination;
+        }
+        return destination == null || destination.equals(source) ? source : null;
+    }
+
+    private static final class Event {
+        final Transaction transaction;
+        final boolean failed;
+        final String reason;
+        final List<TransactionResult> batch;
+        final String accountKey;
+        long sequence;
+
+        Event(Transaction transaction, boolean failed, String reason,
+              List<TransactionResult> batch, String accountKey) {
+            this.transaction = transaction;
+            this.failed = failed;
+            this.reason = reason;
+            this.batch = batch;
+            this.accountKey = accountKey;
+        }
+    }
+}
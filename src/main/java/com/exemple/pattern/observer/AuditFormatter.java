@@ -0,0 +1,205 @@
+package com.exemple.pattern.observer;
+
+
+import com.exemple.model.Money;
+import com.exemple.model.Transaction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Formate les lignes d'audit directement en UTF-8 dans un ByteBuffer, sans passer
+ * par String.format ni créer de chaînes intermédiaires.
+ *
+ * L'horodatage formaté est conservé pour la seconde courante et le montant est écrit
+ * chiffre par chiffre. Le texte produit est identique octet pour octet à
+ * {@code String.format("[SUCCESS] %s | Type: %s | ... | Amount: %.2f | ID: %s")}.
+ * Une instance n'est pas thread-safe: chaque thread d'écriture possède la sienne.
+ */
+public class AuditFormatter {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int TIMESTAMP_LENGTH = 19;
+
+    private static final byte[] SUCCESS_PREFIX = ascii("[SUCCESS] ");
+    private static final byte[] FAILED_PREFIX = ascii("[FAILED] ");
+    private static final byte[] TYPE_LABEL = ascii(" | Type: ");
+    private static final byte[] FROM_LABEL = ascii(" | From: ");
+    private static final byte[] TO_LABEL = ascii(" | To: ");
+    private static final byte[] AMOUNT_LABEL = ascii(" | Amount: ");
+    private static final byte[] ID_LABEL = ascii(" | ID: ");
+    private static final byte[] REASON_LABEL = ascii(" | Reason: ");
+
+    /**
+     * Octets maximum hors champs texte: libellés, horodatage et montant
+     */
+    private static final int FIXED_OVERHEAD = 160;
+
+    private final char[] amountChars = new char[Money.MAX_FORMATTED_LENGTH];
+    private byte[] timestamp = new byte[TIMESTAMP_LENGTH];
+    private long cachedSecond = Long.MIN_VALUE;
+
+    /**
+     * Taille maximale en octets de la ligne d'une transaction réussie
+     */
+    public static int maxSuccessLength(Transaction transaction) {
+        return FIXED_OVERHEAD + 3 * (length(transaction.getType())
+                + length(transaction.getSourceAccount())
+                + length(transaction.getDestinationAccount())
+                + length(transaction.getTransactionId()));
+    }
+
+    /**
+     * Taille maximale en octets de la ligne d'une transaction échouée
+     */
+    public static int maxFailureLength(Transaction transaction, String reason) {
+        int fields = length(reason);
+        if (transaction != null) {
+            fields += length(transaction.getType())
+                    + length(transaction.getSourceAccount())
+                    + length(transaction.getDestinationAccount());
+        }
+        return FIXED_OVERHEAD + 3 * fields;
+    }
+
+    /**
+     * Écrit la ligne d'une transaction réussie (sans fin de ligne).
+     * Le tampon doit disposer d'au moins {@link #maxSuccessLength(Transaction)} octets.
+     */
+    public void writeSuccess(Transaction transaction, ByteBuffer out) {
+        out.put(SUCCESS_PREFIX);
+        putTimestamp(transaction.getTimestamp(), out);
+        out.put(TYPE_LABEL);
+        putString(transaction.getType(), out);
+        out.put(FROM_LABEL);
+        putString(transaction.getSourceAccount() != null ? transaction.getSourceAccount() : "N/A", out);
+        out.put(TO_LABEL);
+        putString(transaction.getDestinationAccount() != null ? transaction.getDestinationAccount() : "N/A", out);
+        out.put(AMOUNT_LABEL);
+        putAmount(transaction.getAmountMinor(), out);
+        out.put(ID_LABEL);
+        putString(transaction.getTransactionId(), out);
+    }
+
+    /**
+     * Écrit la ligne d'une transaction échouée (sans fin de ligne).
+     * Le tampon doit disposer d'au moins {@link #maxFailureLength(Transaction, String)} octets.
+     */
+    public void writeFailure(Transaction transaction, String reason, LocalDateTime failedAt,
+                             ByteBuffer out) {
+        out.put(FAILED_PREFIX);
+        putTimestamp(failedAt, out);
+        out.put(TYPE_LABEL);
+        putString(transaction != null ? transaction.getType() : "UNKNOWN", out);
+        out.put(FROM_LABEL);
+        putString(transaction != null && transaction.getSourceAccount() != null ?
+                transaction.getSourceAccount() : "N/A", out);
+        out.put(TO_LABEL);
+        putString(transaction != null && transaction.getDestinationAccount() != null ?
+                transaction.getDestinationAccount() : "N/A", out);
+        out.put(AMOUNT_LABEL);
+        putAmount(transaction != null ? transaction.getAmountMinor() : 0L, out);
+        out.put(REASON_LABEL);
+        putString(reason, out);
+    }
+
+    private void putTimestamp(LocalDateTime dateTime, ByteBuffer out) {
+        long second = dateTime.toEpochSecond(ZoneOffset.UTC);
+        if (second != cachedSecond) {
+            formatTimestamp(dateTime);
+            cachedSecond = second;
+        }
+        out.put(timestamp);
+    }
+
+    /**
+     * Reformate l'horodatage en cache (yyyy-MM-dd HH:mm:ss); les années hors de
+     * 0..9999 passent par DateTimeFormatter, qui ajoute un signe
+     */
+    private void formatTimestamp(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            timestamp = dateTime.format(DATE_FORMATTER).getBytes(StandardCharsets.UTF_8);
+            return;
+        }
+        if (timestamp.length != TIMESTAMP_LENGTH) {
+            timestamp = new byte[TIMESTAMP_LENGTH];
+        }
+        writeDigits(timestamp, 0, year, 4);
+        timestamp[4] = '-';
+        writeDigits(timestamp, 5, dateTime.getMonthValue(), 2);
+        timestamp[7] = '-';
+        writeDigits(timestamp, 8, dateTime.getDayOfMonth(), 2);
+        timestamp[10] = ' ';
+        writeDigits(timestamp, 11, dateTime.getHour(), 2);
+        timestamp[13] = ':';
+        writeDigits(timestamp, 14, dateTime.getMinute(), 2);
+        timestamp[16] = ':';
+        writeDigits(timestamp, 17, dateTime.getSecond(), 2);
+    }
+
+    private static void writeDigits(byte[] target, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private void putAmount(long amountMinor, ByteBuffer out) {
+        int length = Money.writeMajorUnits(amountMinor, amountChars);
+        for (int i = 0; i < length; i++) {
+            putChar(amountChars[i], out);
+        }
+    }
+
+    /**
+     * Encode une chaîne en UTF-8 ("null" pour null, comme %s); un demi-caractère
+     * isolé devient '?' comme avec String.getBytes
+     */
+    private static void putString(String value, ByteBuffer out) {
+        if (value == null) {
+            value = "null";
+        }
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                putChar(c, out);
+            }
+        }
+    }
+
+    private static void putChar(char c, ByteBuffer out) {
+        if (c < 0x80) {
+            out.put((byte) c);
+        } else if (c < 0x800) {
+            out.put((byte) (0xC0 | (c >> 6)));
+            out.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+            out.put((byte) '?');
+        } else {
+            out.put((byte) (0xE0 | (c >> 12)));
+            out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            out.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private static int length(String value) {
+        return value == null ? 4 : value.length();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
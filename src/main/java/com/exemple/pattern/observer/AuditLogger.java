@@ -2,51 +2,49 @@ package com.exemple.pattern.observer;
 
 
 import com.exemple.model.Transaction;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.format.DateTimeFormatter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 
 /**
  * Observer qui enregistre toutes les transactions dans un fichier d'audit
  */
 public class AuditLogger implements TransactionObserver {
 
-    private static final String AUDIT_FILE = "transactions_audit.log";
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    static final String AUDIT_FILE = "transactions_audit.log";
+    static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final String auditFile;
+    private final AuditFormatter formatter = new AuditFormatter();
+    private ByteBuffer buffer = ByteBuffer.allocate(512);
+
+    public AuditLogger() {
+        this(AUDIT_FILE);
+    }
+
+    public AuditLogger(String auditFile) {
+        this.auditFile = auditFile;
+    }
 
     @Override
     public void onTransactionExecuted(Transaction transaction) {
-        String logEntry = String.format(
-                "[SUCCESS] %s | Type: %s | From: %s | To: %s | Amount: %.2f | ID: %s",
-                transaction.getTimestamp().format(DATE_FORMATTER),
-                transaction.getType(),
-                transaction.getSourceAccount() != null ? transaction.getSourceAccount() : "N/A",
-                transaction.getDestinationAccount() != null ? transaction.getDestinationAccount() : "N/A",
-                transaction.getAmount(),
-                transaction.getTransactionId()
-        );
-
-        writeToLog(logEntry);
+        synchronized (this) {
+            ByteBuffer line = lineBuffer(AuditFormatter.maxSuccessLength(transaction));
+            formatter.writeSuccess(transaction, line);
+            writeToLog(line);
+        }
         System.out.println("[AUDIT] Transaction enregistrée: " + transaction.getTransactionId());
     }
 
     @Override
     public void onTransactionFailed(Transaction transaction, String reason) {
-        String logEntry = String.format(
-                "[FAILED] %s | Type: %s | From: %s | To: %s | Amount: %.2f | Reason: %s",
-                java.time.LocalDateTime.now().format(DATE_FORMATTER),
-                transaction != null ? transaction.getType() : "UNKNOWN",
-                transaction != null && transaction.getSourceAccount() != null ?
-                        transaction.getSourceAccount() : "N/A",
-                transaction != null && transaction.getDestinationAccount() != null ?
-                        transaction.getDestinationAccount() : "N/A",
-                transaction != null ? transaction.getAmount() : 0.0,
-                reason
-        );
-
-        writeToLog(logEntry);
+        synchronized (this) {
+            ByteBuffer line = lineBuffer(AuditFormatter.maxFailureLength(transaction, reason));
+            formatter.writeFailure(transaction, reason, LocalDateTime.now(), line);
+            writeToLog(line);
+        }
         System.err.println("[AUDIT] Transaction échouée: " + reason);
     }
 
@@ -56,11 +54,24 @@ public class AuditLogger implements TransactionObserver {
     }
 
     /**
-     * Écrit une entrée dans le fichier de log
+     * Retourne le tampon de ligne réutilisable, vidé et agrandi si nécessaire
+     */
+    private ByteBuffer lineBuffer(int maxLength) {
+        if (buffer.capacity() < maxLength + LINE_SEPARATOR.length) {
+            buffer = ByteBuffer.allocate(maxLength + LINE_SEPARATOR.length);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Écrit une entrée dans le fichier de log (appelé sous le verrou de l'instance
+     * pour ne pas entrelacer les lignes)
      */
-    private void writeToLog(String entry) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(AUDIT_FILE, true))) {
-            writer.println(entry);
+    private void writeToLog(ByteBuffer line) {
+        line.put(LINE_SEPARATOR);
+        try (FileOutputStream out = new FileOutputStream(auditFile, true)) {
+            out.write(line.array(), 0, line.position());
         } catch (IOException e) {
             System.err.println("Erreur lors de l'écriture du log: " + e.getMessage());
         }
@@ -3,6 +3,7 @@ package com.exemple.pattern.observer;
 
 import com.exemple.model.Transaction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -14,12 +15,12 @@ public class NotificationService implements TransactionObserver {
     private double alertThreshold;
 
     public NotificationService() {
-        this.notifications = new ArrayList<>();
+        this.notifications = Collections.synchronizedList(new ArrayList<>());
         this.alertThreshold = 1000.0;
     }
 
     public NotificationService(double alertThreshold) {
-        this.notifications = new ArrayList<>();
+        this.notifications = Collections.synchronizedList(new ArrayList<>());
         this.alertThreshold = alertThreshold;
     }
 
@@ -27,8 +28,8 @@ public class NotificationService implements TransactionObserver {
     public void onTransactionExecuted(Transaction transaction) {
         String message;
 
-        switch (transaction.getType()) {
-            case "DEPOSIT":
+        switch (transaction.getTransactionType()) {
+            case DEPOSIT:
                 message = String.format(
                         "Dépôt de %.2f effectué sur le compte %s",
                         transaction.getAmount(),
@@ -36,7 +37,7 @@ public class NotificationService implements TransactionObserver {
                 );
                 break;
 
-            case "WITHDRAW":
+            case WITHDRAW:
                 message = String.format(
                         "Retrait de %.2f effectué depuis le compte %s",
                         transaction.getAmount(),
@@ -44,7 +45,7 @@ public class NotificationService implements TransactionObserver {
                 );
                 break;
 
-            case "TRANSFER":
+            case TRANSFER:
                 message = String.format(
                         "Transfert de %.2f du compte %s vers %s",
                         transaction.getAmount(),
@@ -96,7 +97,9 @@ public class NotificationService implements TransactionObserver {
      * Retourne toutes les notifications
      */
     public List<String> getNotifications() {
-        return new ArrayList<>(notifications);
+        synchronized (notifications) {
+            return new ArrayList<>(notifications);
+        }
     }
 
     /**
@@ -0,0 +1,91 @@
+package com.exemple.pattern.observer;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * File circulaire bornée, sans verrou, à producteurs multiples et consommateur unique.
+ *
+ * Chaque case porte un numéro de séquence qui indique si elle est libre pour le
+ * producteur du tour courant ou publiée pour le consommateur. Les producteurs
+ * réservent une case par compare-and-set sur la queue; le consommateur avance la
+ * tête sans synchronisation puisqu'il est seul.
+ */
+public class RingBuffer<T> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    public RingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("La capacité doit être au moins 2");
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Ajoute un élément sans bloquer. Retourne false si la file est pleine.
+     */
+    public boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Retire jusqu'à {@code maxElements} éléments et les passe au consommateur.
+     * Doit être appelé par un seul thread. Retourne le nombre d'éléments retirés.
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<T> consumer, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+
+            T element = (T) elements[index];
+            elements[index] = null;
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            drained++;
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    /**
+     * Nombre approximatif d'éléments en attente
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+}
@@ -2,6 +2,9 @@ package com.exemple.pattern.observer;
 
 
 import com.exemple.model.Transaction;
+import com.exemple.model.TransactionResult;
+
+import java.util.List;
 
 /**
  * Interface Observer pour le pattern Observer
@@ -18,6 +21,21 @@ public interface TransactionObserver {
      */
     void onTransactionFailed(Transaction transaction, String reason);
 
+    /**
+     * Méthode appelée une fois pour un lot exécuté, avec le résultat de chaque opération
+     * dans l'ordre du lot. Par défaut, chaque résultat est transmis à
+     * onTransactionExecuted ou onTransactionFailed.
+     */
+    default void onBatchExecuted(List<TransactionResult> results) {
+        for (TransactionResult result : results) {
+            if (result.isSuccessful()) {
+                onTransactionExecuted(result.getTransaction());
+            } else {
+                onTransactionFailed(result.getTransaction(), result.getFailureReason());
+            }
+        }
+    }
+
     /**
      * Retourne le nom de l'observateur
      */
@@ -2,6 +2,7 @@ package com.exemple.pattern.strategy;
 
 
 import com.exemple.model.Account;
+import com.exemple.model.Money;
 import com.exemple.model.Transaction;
 import java.time.LocalDateTime;
 
@@ -10,6 +11,19 @@ import java.time.LocalDateTime;
  */
 public class DepositStrategy implements TransactionStrategy {
 
+    private final TransactionIdGenerator idGenerator;
+
+    public DepositStrategy() {
+        this(SnowflakeIdGenerator.getDefault());
+    }
+
+    public DepositStrategy(TransactionIdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Le générateur d'identifiants ne peut pas être nul");
+        }
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     public Transaction execute(Account source, Account destination, double amount)
             throws IllegalArgumentException {
@@ -18,14 +32,15 @@ public class DepositStrategy implements TransactionStrategy {
             throw new IllegalArgumentException("Paramètres de dépôt invalides");
         }
 
-        destination.credit(amount);
+        long amountMinor = Money.toMinorUnits(amount);
+        destination.creditMinor(amountMinor);
 
-        Transaction transaction = new Transaction(
+        Transaction transaction = Transaction.ofMinorUnits(
                 generateTransactionId(),
                 "DEPOSIT",
                 null,
                 destination.getAccountNumber(),
-                amount,
+                amountMinor,
                 LocalDateTime.now(),
                 "Dépôt effectué avec succès"
         );
@@ -44,6 +59,6 @@ public class DepositStrategy implements TransactionStrategy {
     }
 
     private String generateTransactionId() {
-        return "DEP-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 1000);
+        return idGenerator.nextId("DEP");
     }
 }
@@ -0,0 +1,152 @@
+package com.exemple.pattern.strategy;
+
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur d'identifiants ordonnés dans le temps, sur le modèle « snowflake »:
+ * un identifiant de 64 bits composé des millisecondes écoulées depuis le 1er janvier
+ * 2024 (41 bits), du numéro de nœud (10 bits) et d'une séquence (12 bits).
+ *
+ * La partie temps et séquence est avancée par compare-and-set sur un seul AtomicLong:
+ * chaque identifiant est strictement supérieur au précédent, même si plus de 4096
+ * identifiants sont demandés dans la même milliseconde (la séquence déborde alors sur
+ * la milliseconde suivante) ou si l'horloge recule. Les identifiants sont encodés en
+ * 16 chiffres hexadécimaux: l'ordre alphabétique suit l'ordre chronologique.
+ */
+public class SnowflakeIdGenerator implements TransactionIdGenerator {
+
+    /**
+     * Origine des temps des identifiants: 2024-01-01T00:00:00Z
+     */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 16;
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Tampon d'encodage par thread: seule la chaîne finale est allouée
+     */
+    private static final ThreadLocal<byte[]> ENCODING_BUFFER =
+            ThreadLocal.withInitial(() -> new byte[32]);
+
+    private static final SnowflakeIdGenerator DEFAULT =
+            new SnowflakeIdGenerator(Integer.getInteger("finance.nodeId", 0));
+
+    private final long nodeBits;
+    /**
+     * Dernière valeur émise sans le numéro de nœud: (millisecondes << 12) | séquence
+     */
+    private final AtomicLong lastTick = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Le numéro de nœud doit être compris entre 0 et " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * Générateur partagé par les stratégies; le numéro de nœud est lu dans la
+     * propriété système finance.nodeId (0 par défaut)
+     */
+    public static SnowflakeIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public String nextId(String prefix) {
+        long id = nextLong();
+        int length = prefix.length() + 1 + ENCODED_LENGTH;
+        byte[] encoded = ENCODING_BUFFER.get();
+        if (encoded.length < length) {
+            encoded = new byte[length];
+        }
+        int position = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            encoded[position++] = (byte) prefix.charAt(i);
+        }
+        encoded[position++] = '-';
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            encoded[position++] = HEX_DIGITS[(int) (id >>> shift) & 0xF];
+        }
+        return new String(encoded, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Retourne un nouvel identifiant numérique
+     */
+    public long nextLong() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long previous = lastTick.get();
+            long next = Math.max(previous + 1, now);
+            if (lastTick.compareAndSet(previous, next)) {
+                return compose(next);
+            }
+        }
+    }
+
+    /**
+     * Garantit que les prochains identifiants seront supérieurs à un identifiant déjà
+     * émis (par exemple relu dans le journal après un redémarrage). Les identifiants
+     * d'un autre format sont ignorés.
+     */
+    public void advancePast(String transactionId) {
+        long id = parse(transactionId);
+        if (id < 0) {
+            return;
+        }
+        long tick = ((id >>> TIMESTAMP_SHIFT) << SEQUENCE_BITS) | (id & SEQUENCE_MASK);
+        lastTick.accumulateAndGet(tick, Math::max);
+    }
+
+    /**
+     * Date d'émission (millisecondes Unix) d'un identifiant, ou -1 s'il n'a pas ce format
+     */
+    public static long timestampMillis(String transactionId) {
+        long id = parse(transactionId);
+        return id < 0 ? -1L : (id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS;
+    }
+
+    /**
+     * Numéro de nœud d'un identifiant, ou -1 s'il n'a pas ce format
+     */
+    public static int nodeId(String transactionId) {
+        long id = parse(transactionId);
+        return id < 0 ? -1 : (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    private long compose(long tick) {
+        return ((tick >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (tick & SEQUENCE_MASK);
+    }
+
+    /**
+     * Décode la partie hexadécimale d'un identifiant PREFIXE-XXXXXXXXXXXXXXXX
+     */
+    private static long parse(String transactionId) {
+        if (transactionId == null) {
+            return -1L;
+        }
+        int separator = transactionId.lastIndexOf('-');
+        if (separator < 0 || transactionId.length() - separator - 1 != ENCODED_LENGTH) {
+            return -1L;
+        }
+        long id = 0L;
+        for (int i = separator + 1; i < transactionId.length(); i++) {
+            int digit = Character.digit(transactionId.charAt(i), 16);
+            if (digit < 0) {
+                return -1L;
+            }
+            id = (id << 4) | digit;
+        }
+        return id;
+    }
+}
@@ -0,0 +1,13 @@
+package com.exemple.pattern.strategy;
+
+
+/**
+ * Générateur d'identifiants de transaction utilisé par les stratégies
+ */
+public interface TransactionIdGenerator {
+
+    /**
+     * Retourne un nouvel identifiant unique, précédé du préfixe du type de transaction
+     */
+    String nextId(String prefix);
+}
@@ -3,6 +3,7 @@ package com.exemple.pattern.strategy;
 
 import com.exemple.exception.InsufficientFundsException;
 import com.exemple.model.Account;
+import com.exemple.model.Money;
 import com.exemple.model.Transaction;
 import java.time.LocalDateTime;
 
@@ -11,6 +12,19 @@ import java.time.LocalDateTime;
  */
 public class TransferStrategy implements TransactionStrategy {
 
+    private final TransactionIdGenerator idGenerator;
+
+    public TransferStrategy() {
+        this(SnowflakeIdGenerator.getDefault());
+    }
+
+    public TransferStrategy(TransactionIdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Le générateur d'identifiants ne peut pas être nul");
+        }
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     public Transaction execute(Account source, Account destination, double amount)
             throws IllegalArgumentException, InsufficientFundsException {
@@ -19,26 +33,34 @@ public class TransferStrategy implements TransactionStrategy {
             throw new IllegalArgumentException("Paramètres de transfert invalides");
         }
 
-        if (source.getBalance() < amount) {
-            throw new InsufficientFundsException(
-                    "Solde insuffisant pour le transfert. Disponible: " + source.getBalance() +
-                            ", Demandé: " + amount
-            );
-        }
-
         if (source.getAccountNumber().equals(destination.getAccountNumber())) {
             throw new IllegalArgumentException("Impossible de transférer vers le même compte");
         }
 
-        source.debit(amount);
-        destination.credit(amount);
+        long amountMinor = Money.toMinorUnits(amount);
+        Account first = lockOrder(source, destination);
+        Account second = first == source ? destination : source;
+
+        synchronized (first) {
+            synchronized (second) {
+                if (!destination.isActive()) {
+                    throw new IllegalStateException("Le compte est désactivé");
+                }
+                if (!source.tryTransferMinor(destination, amountMinor)) {
+                    throw new InsufficientFundsException(
+                            "Solde insuffisant pour le transfert. Disponible: " + source.getBalance() +
+                                    ", Demandé: " + amount
+                    );
+                }
+            }
+        }
 
-        Transaction transaction = new Transaction(
+        Transaction transaction = Transaction.ofMinorUnits(
                 generateTransactionId(),
                 "TRANSFER",
                 source.getAccountNumber(),
                 destination.getAccountNumber(),
-                amount,
+                amountMinor,
                 LocalDateTime.now(),
                 "Transfert de " + source.getAccountNumber() +
                         " vers " + destination.getAccountNumber()
@@ -57,7 +79,18 @@ public class TransferStrategy implements TransactionStrategy {
         return "TRANSFER";
     }
 
+    /**
+     * Détermine le premier compte à verrouiller: les verrous sont toujours pris dans
+     * l'ordre des numéros de compte, ce qui évite tout interblocage entre deux
+     * transferts croisés.
+     */
+    private Account lockOrder(Account source, Account destination) {
+        return source.getAccountNumber().compareTo(destination.getAccountNumber()) < 0
+                ? source
+                : destination;
+    }
+
     private String generateTransactionId() {
-        return "TRF-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 1000);
+        return idGenerator.nextId("TRF");
     }
 }
@@ -3,6 +3,7 @@ package com.exemple.pattern.strategy;
 
 import com.exemple.exception.InsufficientFundsException;
 import com.exemple.model.Account;
+import com.exemple.model.Money;
 import com.exemple.model.Transaction;
 import java.time.LocalDateTime;
 
@@ -11,6 +12,19 @@ import java.time.LocalDateTime;
  */
 public class WithdrawStrategy implements TransactionStrategy {
 
+    private final TransactionIdGenerator idGenerator;
+
+    public WithdrawStrategy() {
+        this(SnowflakeIdGenerator.getDefault());
+    }
+
+    public WithdrawStrategy(TransactionIdGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Le générateur d'identifiants ne peut pas être nul");
+        }
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     public Transaction execute(Account source, Account destination, double amount)
             throws IllegalArgumentException, InsufficientFundsException {
@@ -19,21 +33,20 @@ public class WithdrawStrategy implements TransactionStrategy {
             throw new IllegalArgumentException("Paramètres de retrait invalides");
         }
 
-        if (source.getBalance() < amount) {
+        long amountMinor = Money.toMinorUnits(amount);
+        if (!source.tryDebitMinor(amountMinor)) {
             throw new InsufficientFundsException(
                     "Solde insuffisant. Disponible: " + source.getBalance() +
                             ", Demandé: " + amount
             );
         }
 
-        source.debit(amount);
-
-        Transaction transaction = new Transaction(
+        Transaction transaction = Transaction.ofMinorUnits(
                 generateTransactionId(),
                 "WITHDRAW",
                 source.getAccountNumber(),
                 null,
-                amount,
+                amountMinor,
                 LocalDateTime.now(),
                 "Retrait effectué avec succès"
         );
@@ -52,6 +65,6 @@ public class WithdrawStrategy implements TransactionStrategy {
     }
 
     private String generateTransactionId() {
-        return "WTH-" + System.currentTimeMillis() + "-" + (int)(Math.random() * 1000);
+        return idGenerator.nextId("WTH");
     }
 }
@@ -0,0 +1,51 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Money;
+
+/**
+ * Totaux des flux réussis d'un compte, cumulés par les parcours de segments colonnaires
+ */
+public class AccountFlows {
+
+    private long inflowMinor;
+    private long outflowMinor;
+    private long transactionCount;
+
+    void add(long inflowMinor, long outflowMinor, long transactionCount) {
+        this.inflowMinor += inflowMinor;
+        this.outflowMinor += outflowMinor;
+        this.transactionCount += transactionCount;
+    }
+
+    public long getInflowMinor() {
+        return inflowMinor;
+    }
+
+    public long getOutflowMinor() {
+        return outflowMinor;
+    }
+
+    public long getNetFlowMinor() {
+        return inflowMinor - outflowMinor;
+    }
+
+    /**
+     * Flux net (reçu moins débité), en unités majeures
+     */
+    public double getNetFlow() {
+        return Money.toMajorUnits(getNetFlowMinor());
+    }
+
+    public long getTransactionCount() {
+        return transactionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "AccountFlows{transactions=" + transactionCount +
+                ", entrées=" + Money.toMajorUnits(inflowMinor) +
+                ", sorties=" + Money.toMajorUnits(outflowMinor) +
+                '}';
+    }
+}
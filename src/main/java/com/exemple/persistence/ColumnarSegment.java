@@ -0,0 +1,444 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.AccountDictionary;
+import com.exemple.model.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Segment immuable de transactions au format colonnaire, lu par projection mémoire.
+ *
+ * Les lignes sont triées par horodatage et chaque colonne est stockée d'un seul tenant
+ * (petit-boutiste): horodatage en nanosecondes depuis l'époque (UTC), montant en unités
+ * mineures, comptes source et destination (identifiants du dictionnaire du segment),
+ * code de type et code de statut. Les dictionnaires des comptes, des types et des
+ * statuts suivent les colonnes. Les ID et descriptions ne sont pas conservés: le format
+ * sert aux agrégats, pas à la relecture des transactions.
+ *
+ * Un parcours lit directement les colonnes projetées, sans créer d'objet par ligne.
+ */
+public final class ColumnarSegment implements AutoCloseable {
+
+    static final int MAGIC = 0x43545853;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    private static final int ROW_SIZE = 2 * Long.BYTES + 2 * Integer.BYTES + 2;
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    private static final String COMPLETED = "COMPLETED";
+
+    /**
+     * Reçoit les lignes d'un parcours; les identifiants et codes sont ceux du segment
+     */
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(long timestampNanos, long amountMinor, int sourceId, int destinationId,
+                   int typeCode, int statusCode);
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+    private final int rowCount;
+    private final long minTimestampNanos;
+    private final long maxTimestampNanos;
+    private final AccountDictionary accounts;
+    private final String[] types;
+    private final String[] statuses;
+
+    private final int timestampBase;
+    private final int amountBase;
+    private final int sourceBase;
+    private final int destinationBase;
+    private final int typeBase;
+    private final int statusBase;
+
+    private ColumnarSegment(Path file, FileChannel channel, MappedByteBuffer data) {
+        this.file = file;
+        this.channel = channel;
+        this.data = data;
+        data.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Segment colonnaire invalide: " + file);
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IllegalStateException("Version de segment non supportée: " + data.getInt(4));
+        }
+        this.rowCount = data.getInt(8);
+        int accountCount = data.getInt(12);
+        int typeCount = data.getInt(16);
+        int statusCount = data.getInt(20);
+        this.minTimestampNanos = data.getLong(24);
+        this.maxTimestampNanos = data.getLong(32);
+
+        this.timestampBase = HEADER_SIZE;
+        this.amountBase = timestampBase + rowCount * Long.BYTES;
+        this.sourceBase = amountBase + rowCount * Long.BYTES;
+        this.destinationBase = sourceBase + rowCount * Integer.BYTES;
+        this.typeBase = destinationBase + rowCount * Integer.BYTES;
+        this.statusBase = typeBase + rowCount;
+
+        ByteBuffer dictionary = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        dictionary.position((int) data.getLong(40));
+        this.accounts = new AccountDictionary();
+        for (int i = 0; i < accountCount; i++) {
+            accounts.register(readString(dictionary));
+        }
+        this.types = readStrings(dictionary, typeCount);
+        this.statuses = readStrings(dictionary, statusCount);
+    }
+
+    /**
+     * Écrit un segment contenant les transactions données. Le fichier est écrit à
+     * côté puis renommé: un segment visible est toujours complet.
+     */
+    public static void write(Path file, Collection<Transaction> transactions) throws IOException {
+        long maxRows = (Integer.MAX_VALUE - HEADER_SIZE) / (ROW_SIZE + 1L);
+        if (transactions.size() > maxRows) {
+            throw new IllegalArgumentException("Trop de transactions pour un segment: " + transactions.size());
+        }
+
+        Transaction[] rows = transactions.toArray(new Transaction[0]);
+        long[] timestamps = new long[rows.length];
+        int[] order = new int[rows.length];
+        boolean sorted = true;
+        for (int i = 0; i < rows.length; i++) {
+            timestamps[i] = toNanos(rows[i].getTimestamp());
+            order[i] = i;
+            sorted &= i == 0 || timestamps[i - 1] <= timestamps[i];
+        }
+        if (!sorted) {
+            order = IntStream.range(0, rows.length).boxed()
+                    .sorted(Comparator.comparingLong(i -> timestamps[i]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        AccountDictionary accounts = new AccountDictionary();
+        List<String> types = new ArrayList<>();
+        List<String> statuses = new ArrayList<>();
+        int[] sources = new int[rows.length];
+        int[] destinations = new int[rows.length];
+        byte[] typeCodes = new byte[rows.length];
+        byte[] statusCodes = new byte[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            Transaction transaction = rows[order[i]];
+            sources[i] = accounts.register(transaction.getSourceAccount());
+            destinations[i] = accounts.register(transaction.getDestinationAccount());
+            typeCodes[i] = code(types, transaction.getType());
+            statusCodes[i] = code(statuses, transaction.getStatus());
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            long dictionaryOffset = HEADER_SIZE + (long) rows.length * ROW_SIZE;
+            dictionaryOffset = (dictionaryOffset + 7) & ~7L;
+
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(rows.length).putInt(accounts.size())
+                    .putInt(types.size()).putInt(statuses.size())
+                    .putLong(rows.length == 0 ? 0L : timestamps[order[0]])
+                    .putLong(rows.length == 0 ? 0L : timestamps[order[rows.length - 1]])
+                    .putLong(dictionaryOffset);
+            buffer.position(HEADER_SIZE);
+
+            for (int i = 0; i < rows.length; i++) {
+                buffer = ensureRemaining(out, buffer, Long.BYTES);
+                buffer.putLong(timestamps[order[i]]);
+            }
+            for (int i = 0; i < rows.length; i++) {
+                buffer = ensureRemaining(out, buffer, Long.BYTES);
+                buffer.putLong(rows[order[i]].getAmountMinor());
+            }
+            for (int source : sources) {
+                buffer = ensureRemaining(out, buffer, Integer.BYTES);
+                buffer.putInt(source);
+            }
+            for (int destination : destinations) {
+                buffer = ensureRemaining(out, buffer, Integer.BYTES);
+                buffer.putInt(destination);
+            }
+            for (byte typeCode : typeCodes) {
+                buffer = ensureRemaining(out, buffer, 1);
+                buffer.put(typeCode);
+            }
+            for (byte statusCode : statusCodes) {
+                buffer = ensureRemaining(out, buffer, 1);
+                buffer.put(statusCode);
+            }
+            while ((out.position() + buffer.position()) % 8 != 0) {
+                buffer = ensureRemaining(out, buffer, 1);
+                buffer.put((byte) 0);
+            }
+
+            for (int id = 0; id < accounts.size(); id++) {
+                buffer = putString(out, buffer, accounts.accountNumber(id));
+            }
+            for (String type : types) {
+                buffer = putString(out, buffer, type);
+            }
+            for (String status : statuses) {
+                buffer = putString(out, buffer, status);
+            }
+            drain(out, buffer);
+            out.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Projette un segment en mémoire en lecture seule
+     */
+    public static ColumnarSegment open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Segment colonnaire trop grand: " + file);
+            }
+            return new ColumnarSegment(file, channel,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Horodatage de la plus ancienne ligne, ou null si le segment est vide
+     */
+    public LocalDateTime getMinTimestamp() {
+        return rowCount == 0 ? null : fromNanos(minTimestampNanos);
+    }
+
+    /**
+     * Horodatage de la plus récente ligne, ou null si le segment est vide
+     */
+    public LocalDateTime getMaxTimestamp() {
+        return rowCount == 0 ? null : fromNanos(maxTimestampNanos);
+    }
+
+    /**
+     * Dictionnaire des comptes du segment
+     */
+    public AccountDictionary getAccounts() {
+        return accounts;
+    }
+
+    public String typeName(int typeCode) {
+        return types[typeCode];
+    }
+
+    public String statusName(int statusCode) {
+        return statuses[statusCode];
+    }
+
+    /**
+     * Code d'un type dans ce segment, ou -1 s'il n'y figure pas
+     */
+    public int typeCode(String type) {
+        return indexOf(types, type);
+    }
+
+    /**
+     * Code d'un statut dans ce segment, ou -1 s'il n'y figure pas
+     */
+    public int statusCode(String status) {
+        return indexOf(statuses, status);
+    }
+
+    /**
+     * Parcourt les lignes dont l'horodatage est dans [from, to) (bornes nulles: non
+     * limitées), dans l'ordre chronologique
+     */
+    public void scan(LocalDateTime from, LocalDateTime to, RowVisitor visitor) {
+        scanRows(firstRowAtOrAfter(from), to == null ? rowCount : firstRowAtOrAfter(to), visitor);
+    }
+
+    /**
+     * Parcourt les lignes de {@code startRow} inclus à {@code endRow} exclu; permet de
+     * répartir un segment entre plusieurs threads
+     */
+    public void scanRows(int startRow, int endRow, RowVisitor visitor) {
+        if (startRow < 0 || endRow > rowCount || startRow > endRow) {
+            throw new IllegalArgumentException("Plage de lignes invalide: [" + startRow + ", " + endRow + ")");
+        }
+        for (int row = startRow; row < endRow; row++) {
+            visitor.visit(data.getLong(timestampBase + row * Long.BYTES),
+                    data.getLong(amountBase + row * Long.BYTES),
+                    data.getInt(sourceBase + row * Integer.BYTES),
+                    data.getInt(destinationBase + row * Integer.BYTES),
+                    data.get(typeBase + row),
+                    data.get(statusBase + row));
+        }
+    }
+
+    /**
+     * Ajoute aux totaux les flux réussis d'un compte sur [from, to) (bornes nulles: non
+     * limitées). Seules les colonnes des comptes sont lues pour les lignes étrangères
+     * au compte.
+     */
+    public void accumulateFlows(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                AccountFlows totals) {
+        int account = accounts.idOf(accountNumber);
+        int completed = statusCode(COMPLETED);
+        if (account == AccountDictionary.NO_ACCOUNT || completed < 0) {
+            return;
+        }
+
+        int end = to == null ? rowCount : firstRowAtOrAfter(to);
+        long inflow = 0L;
+        long outflow = 0L;
+        long count = 0L;
+        for (int row = firstRowAtOrAfter(from); row < end; row++) {
+            boolean outgoing = data.getInt(sourceBase + row * Integer.BYTES) == account;
+            boolean incoming = data.getInt(destinationBase + row * Integer.BYTES) == account;
+            if ((outgoing || incoming) && data.get(statusBase + row) == completed) {
+                long amount = data.getLong(amountBase + row * Long.BYTES);
+                if (outgoing) {
+                    outflow += amount;
+                }
+                if (incoming) {
+                    inflow += amount;
+                }
+                count++;
+            }
+        }
+        totals.add(inflow, outflow, count);
+    }
+
+    /**
+     * Libère le fichier; la projection est relâchée par le ramasse-miettes
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Première ligne dont l'horodatage est supérieur ou égal à la date (0 pour null)
+     */
+    public int firstRowAtOrAfter(LocalDateTime timestamp) {
+        return timestamp == null ? 0 : lowerBound(toNanos(timestamp));
+    }
+
+    private int lowerBound(long timestampNanos) {
+        int low = 0;
+        int high = rowCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (data.getLong(timestampBase + middle * Long.BYTES) < timestampNanos) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static long toNanos(LocalDateTime timestamp) {
+        try {
+            return Math.addExact(
+                    Math.multiplyExact(timestamp.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L),
+                    timestamp.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Horodatage hors de la plage du format colonnaire: " + timestamp);
+        }
+    }
+
+    static LocalDateTime fromNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static byte code(List<String> names, String name) {
+        String value = name != null ? name : "UNKNOWN";
+        int code = names.indexOf(value);
+        if (code < 0) {
+            if (names.size() == 127) {
+                throw new IllegalArgumentException("Trop de valeurs distinctes pour une colonne codée");
+            }
+            names.add(value);
+            code = names.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer ensureRemaining(FileChannel out, ByteBuffer buffer, int bytes)
+            throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        drain(out, buffer);
+        if (buffer.capacity() < bytes) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return buffer;
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer putString(FileChannel out, ByteBuffer buffer, String value)
+            throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = ensureRemaining(out, buffer, Integer.BYTES + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+        return buffer;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = readString(buffer);
+        }
+        return values;
+    }
+}
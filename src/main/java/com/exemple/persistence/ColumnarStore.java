@@ -0,0 +1,128 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Répertoire de segments colonnaires {@code columns-<numéro>.col}, projetés en mémoire.
+ * Chaque ajout écrit un nouveau segment immuable; les segments existants sont repris
+ * à l'ouverture. Les lectures peuvent être concurrentes aux ajouts.
+ */
+public class ColumnarStore implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "columns-";
+    private static final String SEGMENT_SUFFIX = ".col";
+
+    private final Path directory;
+    private final CopyOnWriteArrayList<ColumnarSegment> segments = new CopyOnWriteArrayList<>();
+    private int nextSegmentNumber;
+
+    private ColumnarStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Ouvre (ou crée) le répertoire et projette les segments existants
+     */
+    public static ColumnarStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ColumnarStore store = new ColumnarStore(directory);
+        try {
+            for (Path file : listSegments(directory)) {
+                store.segments.add(ColumnarSegment.open(file));
+                store.nextSegmentNumber = Math.max(store.nextSegmentNumber, segmentNumber(file) + 1);
+            }
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Écrit les transactions dans un nouveau segment et le rend visible aux lectures
+     */
+    public synchronized ColumnarSegment append(Collection<Transaction> transactions) throws IOException {
+        Path file = directory.resolve(String.format("%s%08d%s",
+                SEGMENT_PREFIX, nextSegmentNumber, SEGMENT_SUFFIX));
+        ColumnarSegment.write(file, transactions);
+        nextSegmentNumber++;
+        ColumnarSegment segment = ColumnarSegment.open(file);
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Segments projetés, dans l'ordre d'écriture
+     */
+    public List<ColumnarSegment> getSegments() {
+        return new ArrayList<>(segments);
+    }
+
+    public long getRowCount() {
+        long rows = 0L;
+        for (ColumnarSegment segment : segments) {
+            rows += segment.getRowCount();
+        }
+        return rows;
+    }
+
+    /**
+     * Totalise les flux réussis d'un compte sur [from, to) (bornes nulles: non limitées).
+     * Les segments hors de la période ne sont pas lus.
+     */
+    public AccountFlows accountFlows(String accountNumber, LocalDateTime from, LocalDateTime to) {
+        AccountFlows totals = new AccountFlows();
+        for (ColumnarSegment segment : segments) {
+            if (segment.getRowCount() == 0
+                    || (from != null && segment.getMaxTimestamp().isBefore(from))
+                    || (to != null && !segment.getMinTimestamp().isBefore(to))) {
+                continue;
+            }
+            segment.accumulateFlows(accountNumber, from, to, totals);
+        }
+        return totals;
+    }
+
+    /**
+     * Flux net des transactions réussies d'un compte, comme
+     * TransactionService.getTotalTransactionAmount
+     */
+    public double getTotalTransactionAmount(String accountNumber) {
+        return accountFlows(accountNumber, null, null).getNetFlow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (ColumnarSegment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
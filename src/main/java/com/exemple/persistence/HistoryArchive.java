@@ -0,0 +1,871 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Niveau froid de l'historique des transactions: les transactions sorties de la
+ * mémoire sont ajoutées à des segments {@code history-<numéro>.seg}, au format
+ * d'enregistrement du journal, avec leur statut.
+ *
+ * Seul un index compact reste en mémoire pour chaque segment: une table de hachage
+ * des ID vers la position de l'enregistrement, et les listes des positions par compte
+ * et par type. Les lectures par ID, par compte et par type lisent directement les
+ * enregistrements concernés. Une transaction ajoutée à nouveau (par exemple après un
+ * changement de statut) remplace la précédente: seul le dernier enregistrement d'un ID
+ * est lu, les plus anciens sont marqués remplacés dans l'index.
+ *
+ * Ouverte par {@link #open}, l'archive n'est qu'un cache du journal: elle est vidée à
+ * l'ouverture et n'est pas synchronisée sur disque. Ouverte par {@link #openDurable},
+ * elle garde l'historique que les snapshots retirent du journal
+ * ({@link SnapshotManager}): chaque ajout est synchronisé sur disque, les segments sont
+ * réindexés à l'ouverture (un enregistrement final incomplet est tronqué) et conservés
+ * à la fermeture.
+ */
+public class HistoryArchive implements AutoCloseable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getTimestamp)
+                    .thenComparing(Transaction::getTransactionId)
+                    .reversed();
+
+    private static final String SEGMENT_PREFIX = "history-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean durable;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Segment> segments = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+    private final LongAdder reads = new LongAdder();
+
+    private ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long transactionCount;
+    private long sizeBytes;
+    private int nextSegmentNumber;
+    private boolean closed;
+
+    private HistoryArchive(Path directory, long segmentBytes, boolean durable) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.durable = durable;
+    }
+
+    /**
+     * Ouvre l'archive du répertoire avec des segments de taille par défaut
+     */
+    public static HistoryArchive open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Ouvre l'archive du répertoire en supprimant les segments d'une exécution précédente
+     *
+     * @param segmentBytes taille à partir de laquelle un nouveau segment est commencé
+     */
+    public static HistoryArchive open(Path directory, long segmentBytes) throws IOException {
+        checkSegmentBytes(segmentBytes);
+        Files.createDirectories(directory);
+        for (Path segment : listSegments(directory)) {
+            Files.delete(segment);
+        }
+        return new HistoryArchive(directory, segmentBytes, false);
+    }
+
+    /**
+     * Ouvre l'archive durable du répertoire avec des segments de taille par défaut
+     */
+    public static HistoryArchive openDurable(Path directory) throws IOException {
+        return openDurable(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * Ouvre l'archive durable du répertoire en réindexant les segments existants
+     *
+     * @param segmentBytes taille à partir de laquelle un nouveau segment est commencé
+     */
+    public static HistoryArchive openDurable(Path directory, long segmentBytes) throws IOException {
+        checkSegmentBytes(segmentBytes);
+        Files.createDirectories(directory);
+        HistoryArchive archive = new HistoryArchive(directory, segmentBytes, true);
+        archive.load();
+        return archive;
+    }
+
+    private static void checkSegmentBytes(long segmentBytes) {
+        if (segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("La taille de segment doit être comprise entre 1 et "
+                    + Integer.MAX_VALUE + " octets");
+        }
+    }
+
+    /**
+     * Réindexe les segments existants; la fin d'un segment qui ne forme pas un
+     * enregistrement complet et intègre est tronquée
+     */
+    private void load() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Path path : listSegments(directory)) {
+                Segment segment = new Segment(path, FileChannel.open(path,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE));
+                segments.add(segment);
+                long size = segment.channel.size();
+                long valid = scan(segment, size, false, (offset, transaction) -> {
+                    supersede(transaction.getTransactionId());
+                    segment.index(transaction, offset);
+                    transactionCount++;
+                });
+                if (valid < size) {
+                    segment.channel.truncate(valid);
+                    segment.channel.force(true);
+                }
+                segment.size = valid;
+                sizeBytes += valid;
+                String name = path.getFileName().toString();
+                nextSegmentNumber = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())) + 1;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute des transactions à l'archive. Elles sont lisibles dès le retour de l'appel,
+     * et sur disque pour une archive durable.
+     */
+    public void append(List<Transaction> transactions) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("L'archive est fermée");
+            }
+            Segment segment = activeSegment();
+            List<Transaction> pending = new ArrayList<>();
+            IntList pendingOffsets = new IntList();
+            writeBuffer.clear();
+
+            for (Transaction transaction : transactions) {
+                byte[][] fields = JournalCodec.archivedTransactionFields(transaction);
+                long[] numbers = JournalCodec.transactionNumbers(transaction);
+                int recordSize = JournalCodec.recordSize(fields, numbers);
+
+                if (!pending.isEmpty()
+                        && segment.size + writeBuffer.position() + recordSize > segmentBytes) {
+                    writePending(segment, pending, pendingOffsets);
+                    segment = createSegment();
+                }
+                ensureCapacity(recordSize);
+                pendingOffsets.add((int) (segment.size + writeBuffer.position()));
+                pending.add(transaction);
+                JournalCodec.write(writeBuffer, crc, JournalCodec.TRANSACTION_ARCHIVED, fields, numbers);
+            }
+            if (!pending.isEmpty()) {
+                writePending(segment, pending, pendingOffsets);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute les transactions dont l'ID n'est pas encore archivé: une version déjà
+     * présente, archivée depuis la mémoire, est au moins aussi récente que celle du journal
+     */
+    public void appendMissing(List<Transaction> transactions) throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<Transaction> missing = new ArrayList<>(transactions.size());
+            for (Transaction transaction : transactions) {
+                if (locate(transaction.getTransactionId()) < 0) {
+                    missing.add(transaction);
+                }
+            }
+            append(missing);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Relit la dernière version archivée d'une transaction par son ID, ou null si elle
+     * n'est pas archivée
+     */
+    public Transaction find(String transactionId) {
+        long hash = hash(transactionId);
+        List<Segment> snapshot = segments();
+        for (int i = snapshot.size() - 1; i >= 0; i--) {
+            Segment segment = snapshot.get(i);
+            int[] candidates;
+            lock.readLock().lock();
+            try {
+                candidates = segment.live(segment.ids.find(hash));
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (int offset : candidates) {
+                Transaction transaction = read(segment, offset);
+                if (transactionId.equals(transaction.getTransactionId())) {
+                    return transaction;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Relit les transactions archivées d'un compte dont l'horodatage est compris entre
+     * {@code from} et {@code to} inclus (bornes nulles: non limitées) et qui satisfont
+     * le filtre, sans ordre garanti.
+     *
+     * Retourne au plus les {@code limit} plus récentes (par horodatage puis par ID): la
+     * mémoire utilisée est bornée par {@code limit}, quelle que soit la taille de
+     * l'archive. Les segments sont lus du plus récent au plus ancien, et la lecture
+     * s'arrête dès que les segments restants ne peuvent plus rien apporter.
+     */
+    public List<Transaction> findByAccount(String accountNumber, LocalDateTime from,
+                                           LocalDateTime to, Predicate<Transaction> filter,
+                                           int limit) {
+        List<Slice> slices = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments) {
+                IntList byAccount = segment.accounts.get(accountNumber);
+                if (byAccount == null
+                        || (from != null && segment.maxTimestamp.isBefore(from))
+                        || (to != null && segment.minTimestamp.isAfter(to))) {
+                    continue;
+                }
+                slices.add(new Slice(segment, segment.maxTimestamp, segment.live(byAccount.toArray())));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return findNewest(slices, from, to, filter, limit);
+    }
+
+    /**
+     * Relit les {@code limit} transactions archivées les plus récentes d'un type, sans
+     * ordre garanti, par l'index des types de chaque segment
+     */
+    public List<Transaction> findByType(String type, int limit) {
+        return findByType(type, null, null, t -> true, limit);
+    }
+
+    /**
+     * Relit les transactions archivées d'un type comprises entre {@code from} et
+     * {@code to} inclus et qui satisfont le filtre, au plus les {@code limit} plus
+     * récentes, comme {@link #findByAccount}
+     */
+    public List<Transaction> findByType(String type, LocalDateTime from, LocalDateTime to,
+                                        Predicate<Transaction> filter, int limit) {
+        List<Slice> slices = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments) {
+                IntList byType = segment.types.get(type);
+                if (byType == null
+                        || (from != null && segment.maxTimestamp.isBefore(from))
+                        || (to != null && segment.minTimestamp.isAfter(to))) {
+                    continue;
+                }
+                slices.add(new Slice(segment, segment.maxTimestamp, segment.live(byType.toArray())));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return findNewest(slices, from, to, filter, limit);
+    }
+
+    /**
+     * Garde les {@code limit} transactions les plus récentes des tranches, lues de la
+     * plus récente à la plus ancienne
+     */
+    private List<Transaction> findNewest(List<Slice> slices, LocalDateTime from, LocalDateTime to,
+                                         Predicate<Transaction> filter, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La limite doit être positive");
+        }
+        slices.sort(Comparator.comparing((Slice slice) -> slice.maxTimestamp).reversed());
+
+        PriorityQueue<Transaction> newest = new PriorityQueue<>(NEWEST_FIRST.reversed());
+        for (Slice slice : slices) {
+            if (newest.size() >= limit && slice.maxTimestamp.isBefore(newest.peek().getTimestamp())) {
+                break;
+            }
+            for (int offset : slice.offsets) {
+                Transaction transaction = read(slice.segment, offset);
+                LocalDateTime timestamp = transaction.getTimestamp();
+                if ((from == null || !timestamp.isBefore(from)) && (to == null || !timestamp.isAfter(to))
+                        && filter.test(transaction)) {
+                    newest.add(transaction);
+                    if (newest.size() > limit) {
+                        newest.poll();
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(newest);
+    }
+
+    /**
+     * Parcourt toutes les transactions archivées (dernière version de chacune), dans
+     * l'ordre d'archivage
+     */
+    public void forEach(Consumer<Transaction> consumer) {
+        forEachInSegments(0, Integer.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Parcourt, dans l'ordre d'archivage, les transactions des segments d'indice
+     * {@code from} inclus à {@code to} exclu; les indices au-delà du dernier segment
+     * sont ignorés. Des plages disjointes peuvent être parcourues en parallèle.
+     */
+    public void forEachInSegments(int from, int to, Consumer<Transaction> consumer) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Plage de segments invalide: " + from + ".." + to);
+        }
+        List<Segment> all = segments();
+        for (Segment segment : all.subList(Math.min(from, all.size()), Math.min(to, all.size()))) {
+            long size;
+            Set<Integer> superseded;
+            lock.readLock().lock();
+            try {
+                size = segment.size;
+                superseded = new HashSet<>(segment.superseded);
+            } finally {
+                lock.readLock().unlock();
+            }
+            scan(segment, size, true, (offset, transaction) -> {
+                if (!superseded.contains(offset)) {
+                    reads.increment();
+                    consumer.accept(transaction);
+                }
+            });
+        }
+    }
+
+    /**
+     * Nombre de transactions archivées, une transaction ajoutée plusieurs fois comptant
+     * une seule fois
+     */
+    public long getTransactionCount() {
+        lock.readLock().lock();
+        try {
+            return transactionCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Taille des segments sur disque, en octets
+     */
+    public long getSizeBytes() {
+        lock.readLock().lock();
+        try {
+            return sizeBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Nombre de transactions relues depuis le disque
+     */
+    public long getReadCount() {
+        return reads.sum();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Indique si l'archive a été ouverte par {@link #openDurable}
+     */
+    public boolean isDurable() {
+        return durable;
+    }
+
+    /**
+     * Supprime toutes les transactions archivées
+     */
+    public void clear() throws IOException {
+        lock.writeLock().lock();
+        try {
+            deleteAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ferme l'archive; ses segments sont supprimés, sauf pour une archive durable
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (!durable) {
+                deleteAll();
+                return;
+            }
+            for (Segment segment : segments) {
+                segment.channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void deleteAll() throws IOException {
+        for (Segment segment : segments) {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        }
+        segments.clear();
+        transactionCount = 0L;
+        sizeBytes = 0L;
+    }
+
+    private List<Segment> segments() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(segments);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Segment activeSegment() throws IOException {
+        if (segments.isEmpty() || segments.get(segments.size() - 1).size >= segmentBytes) {
+            return createSegment();
+        }
+        return segments.get(segments.size() - 1);
+    }
+
+    private Segment createSegment() throws IOException {
+        Path path = directory.resolve(String.format("%s%08d%s",
+                SEGMENT_PREFIX, nextSegmentNumber++, SEGMENT_SUFFIX));
+        Segment segment = new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Écrit le tampon en fin de segment puis indexe les transactions qu'il contient.
+     * En cas d'échec, rien n'est indexé et l'écriture suivante recouvre les octets écrits.
+     */
+    private void writePending(Segment segment, List<Transaction> pending, IntList offsets)
+            throws IOException {
+        writeBuffer.flip();
+        long position = segment.size;
+        while (writeBuffer.hasRemaining()) {
+            position += segment.channel.write(writeBuffer, position);
+        }
+        if (durable) {
+            segment.channel.force(false);
+        }
+        sizeBytes += position - segment.size;
+        segment.size = position;
+        writeBuffer.clear();
+
+        for (int i = 0; i < pending.size(); i++) {
+            Transaction transaction = pending.get(i);
+            supersede(transaction.getTransactionId());
+            segment.index(transaction, offsets.get(i));
+        }
+        transactionCount += pending.size();
+        pending.clear();
+        offsets.clear();
+    }
+
+    /**
+     * Marque remplacé l'enregistrement courant d'un ID avant l'indexation d'une nouvelle
+     * version; appelé sous le verrou d'écriture. Les hachages absents de l'index, cas
+     * courant, ne coûtent aucune lecture.
+     */
+    private void supersede(String transactionId) {
+        long location = locate(transactionId);
+        if (location >= 0) {
+            segments.get((int) (location >>> 32)).superseded.add((int) location);
+            transactionCount--;
+        }
+    }
+
+    /**
+     * Position de la version courante d'un ID (numéro de segment dans les 32 bits de
+     * poids fort, position dans le segment dans les autres), ou -1; appelé sous le verrou
+     * d'écriture
+     */
+    private long locate(String transactionId) {
+        long hash = hash(transactionId);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            if (!segment.ids.contains(hash)) {
+                continue;
+            }
+            for (int offset : segment.live(segment.ids.find(hash))) {
+                if (transactionId.equals(read(segment, offset).getTransactionId())) {
+                    return ((long) i << 32) | offset;
+                }
+            }
+        }
+        return -1L;
+    }
+
+    private void ensureCapacity(int recordSize) {
+        if (writeBuffer.remaining() >= recordSize) {
+            return;
+        }
+        int capacity = writeBuffer.capacity();
+        while (capacity - writeBuffer.position() < recordSize) {
+            capacity *= 2;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        writeBuffer.flip();
+        larger.put(writeBuffer);
+        writeBuffer = larger;
+    }
+
+    private Transaction read(Segment segment, int offset) {
+        try {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            readFully(segment.channel, header, offset);
+            int payloadSize = header.getInt(0);
+            ByteBuffer record = ByteBuffer.allocate(
+                    JournalCodec.HEADER_SIZE + payloadSize + JournalCodec.TRAILER_SIZE);
+            readFully(segment.channel, record, offset);
+            reads.increment();
+            return decode(record, 0, payloadSize, new CRC32());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture de l'archive impossible: " + segment.path, e);
+        }
+    }
+
+    /**
+     * Parcourt les enregistrements d'un segment jusqu'à {@code size} et retourne la fin du
+     * dernier enregistrement complet et intègre. Un enregistrement tronqué ou corrompu
+     * lève une exception en mode strict; sinon la lecture s'arrête avant lui.
+     */
+    private long scan(Segment segment, long size, boolean strict, RecordVisitor visitor) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SCAN_BUFFER_SIZE,
+                    Math.max(size, JournalCodec.HEADER_SIZE)));
+            CRC32 scanCrc = new CRC32();
+            long position = 0L;
+            while (position < size) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), size - position));
+                readFully(segment.channel, buffer, position);
+                buffer.flip();
+
+                int consumed = 0;
+                while (buffer.remaining() >= JournalCodec.HEADER_SIZE) {
+                    int start = buffer.position();
+                    int payloadSize = buffer.getInt(start);
+                    long recordSize = (long) JournalCodec.HEADER_SIZE + payloadSize + JournalCodec.TRAILER_SIZE;
+                    if (payloadSize < 0 || position + start + recordSize > size) {
+                        return damaged(segment, position + start, strict);
+                    }
+                    if (recordSize > buffer.remaining()) {
+                        break;
+                    }
+                    Transaction transaction;
+                    try {
+                        transaction = decode(buffer, start, payloadSize, scanCrc);
+                    } catch (IllegalStateException e) {
+                        if (strict) {
+                            throw e;
+                        }
+                        return position + start;
+                    }
+                    visitor.visit((int) (position + start), transaction);
+                    buffer.position(start + (int) recordSize);
+                    consumed += (int) recordSize;
+                }
+                if (consumed == 0) {
+                    if (size - position < JournalCodec.HEADER_SIZE) {
+                        return damaged(segment, position, strict);
+                    }
+                    int recordSize = buffer.getInt(0) + JournalCodec.HEADER_SIZE + JournalCodec.TRAILER_SIZE;
+                    buffer = ByteBuffer.allocate(Math.max(recordSize, buffer.capacity() * 2));
+                }
+                position += consumed;
+            }
+            return position;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture de l'archive impossible: " + segment.path, e);
+        }
+    }
+
+    private static long damaged(Segment segment, long offset, boolean strict) {
+        if (strict) {
+            throw new IllegalStateException("Enregistrement d'archive tronqué: " + segment.path);
+        }
+        return offset;
+    }
+
+    private static Transaction decode(ByteBuffer buffer, int start, int payloadSize, CRC32 crc) {
+        if (JournalCodec.checksum(buffer, crc, start, payloadSize)
+                != buffer.getInt(start + JournalCodec.HEADER_SIZE + payloadSize)) {
+            throw new IllegalStateException("Enregistrement d'archive corrompu à la position " + start);
+        }
+        ByteBuffer record = buffer.duplicate();
+        record.position(start + JournalCodec.HEADER_SIZE);
+        return JournalCodec.readArchivedTransaction(record);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Fin de segment inattendue");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Hachage FNV-1a sur 64 bits; 0 est réservé aux cases vides
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0L ? 1L : hash;
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(int offset, Transaction transaction);
+    }
+
+    /**
+     * Segment et son index en mémoire, protégés par le verrou de l'archive
+     */
+    private static final class Segment {
+        final Path path;
+        final FileChannel channel;
+        final OffsetTable ids = new OffsetTable();
+        final Map<String, IntList> accounts = new HashMap<>();
+        final Map<String, IntList> types = new HashMap<>();
+        /** Positions des versions remplacées; rares (changements de statut) */
+        final Set<Integer> superseded = new HashSet<>();
+        long size;
+        LocalDateTime minTimestamp = LocalDateTime.MAX;
+        LocalDateTime maxTimestamp = LocalDateTime.MIN;
+
+        Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        /**
+         * Positions qui ne sont pas remplacées par une version plus récente
+         */
+        int[] live(int[] offsets) {
+            if (superseded.isEmpty()) {
+                return offsets;
+            }
+            IntList live = new IntList();
+            for (int offset : offsets) {
+                if (!superseded.contains(offset)) {
+                    live.add(offset);
+                }
+            }
+            return live.toArray();
+        }
+
+        void index(Transaction transaction, int offset) {
+            ids.put(hash(transaction.getTransactionId()), offset);
+            String source = transaction.getSourceAccount();
+            String destination = transaction.getDestinationAccount();
+            if (source != null) {
+                accounts.computeIfAbsent(source, k -> new IntList()).add(offset);
+            }
+            if (destination != null && !destination.equals(source)) {
+                accounts.computeIfAbsent(destination, k -> new IntList()).add(offset);
+            }
+            if (transaction.getType() != null) {
+                types.computeIfAbsent(transaction.getType(), k -> new IntList()).add(offset);
+            }
+            LocalDateTime timestamp = transaction.getTimestamp() != null
+                    ? transaction.getTimestamp() : LocalDateTime.MIN;
+            if (timestamp.isBefore(minTimestamp)) {
+                minTimestamp = timestamp;
+            }
+            if (timestamp.isAfter(maxTimestamp)) {
+                maxTimestamp = timestamp;
+            }
+        }
+    }
+
+    /**
+     * Positions des transactions d'un compte ou d'un type dans un segment, copiées sous
+     * le verrou
+     */
+    private static final class Slice {
+        final Segment segment;
+        final LocalDateTime maxTimestamp;
+        final int[] offsets;
+
+        Slice(Segment segment, LocalDateTime maxTimestamp, int[] offsets) {
+            this.segment = segment;
+            this.maxTimestamp = maxTimestamp;
+            this.offsets = offsets;
+        }
+    }
+
+    /**
+     * Table à adressage ouvert des hachages d'ID vers les positions; plusieurs entrées
+     * peuvent partager un hachage, l'ID est vérifié à la relecture
+     */
+    private static final class OffsetTable {
+        private long[] hashes = new long[1024];
+        private int[] offsets = new int[1024];
+        private int size;
+
+        void put(long hash, int offset) {
+            if (2 * (size + 1) > hashes.length) {
+                grow();
+            }
+            insert(hashes, offsets, hash, offset);
+            size++;
+        }
+
+        boolean contains(long hash) {
+            int mask = hashes.length - 1;
+            for (int slot = slot(hash, mask); hashes[slot] != 0L; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int[] find(long hash) {
+            int mask = hashes.length - 1;
+            IntList found = new IntList();
+            for (int slot = slot(hash, mask); hashes[slot] != 0L; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash) {
+                    found.add(offsets[slot]);
+                }
+            }
+            return found.toArray();
+        }
+
+        private void grow() {
+            long[] newHashes = new long[hashes.length * 2];
+            int[] newOffsets = new int[offsets.length * 2];
+            for (int i = 0; i < hashes.length; i++) {
+                if (hashes[i] != 0L) {
+                    insert(newHashes, newOffsets, hashes[i], offsets[i]);
+                }
+            }
+            hashes = newHashes;
+            offsets = newOffsets;
+        }
+
+        private static void insert(long[] hashes, int[] offsets, long hash, int offset) {
+            int mask = hashes.length - 1;
+            int slot = slot(hash, mask);
+            while (hashes[slot] != 0L) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            offsets[slot] = offset;
+        }
+
+        private static int slot(long hash, int mask) {
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    /**
+     * Liste d'entiers sans boxing
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal binaire en ajout seul (write-ahead log) des créations d'utilisateurs et de
+ * comptes, des transactions exécutées et des changements d'état qui doivent survivre à
+ * un redémarrage: désactivations, changements de statut et de mot de passe.
+ *
+ * Le journal est un répertoire de segments {@code journal-<position>.log}; les
+ * positions sont globales et chaque segment porte dans son nom la position de son
+ * premier octet. Les appels d'écriture copient l'enregistrement dans un tampon
+ * mémoire; un thread dédié écrit les tampons accumulés et appelle fsync une seule
+ * fois par lot (group commit). En mode durable, chaque appelant attend que son
+ * enregistrement soit sur disque avant de rendre la main.
+ */
+public class Journal implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final boolean durable;
+    private final Object lock = new Object();
+    private final CRC32 crc = new CRC32();
+    private final Thread flusher;
+
+    private FileChannel channel;
+    private long segmentBase;
+    private ByteBuffer activeBuffer;
+    private ByteBuffer flushingBuffer;
+    private long appendedOffset;
+    private long durableOffset;
+    private boolean batchInFlight;
+    private boolean rollRequested;
+    private IOException failure;
+    private boolean closed;
+
+    private Journal(Path directory, boolean durable) throws IOException {
+        this.directory = directory;
+        this.durable = durable;
+
+        List<Path> segments = listSegments(directory);
+        this.segmentBase = segments.isEmpty() ? 0L : segmentBase(segments.get(segments.size() - 1));
+        this.channel = openSegment(directory, segmentBase);
+        this.activeBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        this.flushingBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        this.appendedOffset = segmentBase + channel.size();
+        this.durableOffset = appendedOffset;
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Ouvre (ou crée) le journal du répertoire et positionne l'écriture en fin du
+     * dernier segment. Le journal doit avoir été rejoué au préalable par
+     * {@link JournalRecovery}, qui tronque un éventuel enregistrement incomplet
+     * laissé par un crash.
+     *
+     * @param durable si true, chaque écriture attend le fsync de son lot
+     */
+    public static Journal open(Path directory, boolean durable) throws IOException {
+        Files.createDirectories(directory);
+        return new Journal(directory, durable);
+    }
+
+    /**
+     * Journalise la création d'un utilisateur
+     */
+    public void logUserCreated(User user) {
+        commit(append(JournalCodec.USER_CREATED, JournalCodec.userFields(user), null));
+    }
+
+    /**
+     * Journalise la création d'un compte avec son solde initial
+     */
+    public void logAccountCreated(Account account) {
+        commit(append(JournalCodec.ACCOUNT_CREATED, JournalCodec.accountFields(account),
+                new long[]{account.getBalanceMinor()}));
+    }
+
+    /**
+     * Journalise une transaction exécutée
+     */
+    public void logTransaction(Transaction transaction) {
+        commit(appendTransaction(transaction));
+    }
+
+    /**
+     * Journalise la désactivation (ou la fermeture) d'un compte
+     */
+    public void logAccountDeactivated(Account account) {
+        commit(append(JournalCodec.ACCOUNT_DEACTIVATED,
+                new byte[][]{JournalCodec.encode(account.getAccountNumber())}, null));
+    }
+
+    /**
+     * Journalise la désactivation d'un utilisateur (ses comptes sont journalisés à part)
+     */
+    public void logUserDeactivated(User user) {
+        commit(append(JournalCodec.USER_DEACTIVATED,
+                new byte[][]{JournalCodec.encode(user.getUserId())}, null));
+    }
+
+    /**
+     * Journalise le changement de statut d'une transaction journalisée
+     */
+    public void logTransactionStatus(Transaction transaction, String previousStatus) {
+        commit(append(JournalCodec.TRANSACTION_STATUS,
+                JournalCodec.statusFields(transaction, previousStatus),
+                JournalCodec.transactionNumbers(transaction)));
+    }
+
+    /**
+     * Journalise le nouveau hash du mot de passe d'un utilisateur
+     */
+    public void logPasswordChanged(User user) {
+        commit(append(JournalCodec.PASSWORD_CHANGED, new byte[][]{
+                JournalCodec.encode(user.getUserId()),
+                JournalCodec.encode(user.getPasswordHash())
+        }, null));
+    }
+
+    /**
+     * Ajoute une transaction au journal sans attendre sa durabilité.
+     * Retourne la position à passer à {@link #awaitDurable(long)}.
+     */
+    public long appendTransaction(Transaction transaction) {
+        return append(JournalCodec.TRANSACTION_EXECUTED,
+                JournalCodec.transactionFields(transaction),
+                JournalCodec.transactionNumbers(transaction));
+    }
+
+    /**
+     * Bloque jusqu'à ce que toutes les données jusqu'à la position donnée soient sur disque
+     */
+    public void awaitDurable(long offset) {
+        synchronized (lock) {
+            while (durableOffset < offset && failure == null) {
+                waitOnLock();
+            }
+            if (failure != null && durableOffset < offset) {
+                throw new UncheckedIOException("Écriture du journal impossible", failure);
+            }
+        }
+    }
+
+    /**
+     * Ferme le segment courant et en ouvre un nouveau.
+     * Tout ce qui précède la position retournée est durable et se trouve dans des
+     * segments fermés, qui peuvent être lus pendant que les écritures continuent.
+     * Les écrivains ne sont bloqués que le temps d'un fsync.
+     */
+    public long roll() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Le journal est fermé");
+            }
+            rollRequested = true;
+            try {
+                while (batchInFlight) {
+                    waitOnLock();
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+
+                activeBuffer.flip();
+                while (activeBuffer.hasRemaining()) {
+                    channel.write(activeBuffer);
+                }
+                activeBuffer.clear();
+                channel.force(false);
+                channel.close();
+
+                segmentBase = appendedOffset;
+                channel = openSegment(directory, segmentBase);
+                durableOffset = appendedOffset;
+                return segmentBase;
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            } finally {
+                rollRequested = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Supprime les segments entièrement situés avant la position donnée
+     * (couverts par un snapshot). Le segment courant n'est jamais supprimé.
+     */
+    public int deleteSegmentsBefore(long offset) throws IOException {
+        long currentBase;
+        synchronized (lock) {
+            currentBase = segmentBase;
+        }
+
+        List<Path> segments = listSegments(directory);
+        int deleted = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long base = segmentBase(segments.get(i));
+            long nextBase = i + 1 < segments.size()
+                    ? segmentBase(segments.get(i + 1))
+                    : Long.MAX_VALUE;
+            if (base < currentBase && nextBase <= offset) {
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Retourne la position de fin du journal (données acceptées, durables ou non)
+     */
+    public long getAppendedOffset() {
+        synchronized (lock) {
+            return appendedOffset;
+        }
+    }
+
+    /**
+     * Retourne le répertoire des segments
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Indique si les écritures attendent le fsync
+     */
+    public boolean isDurable() {
+        return durable;
+    }
+
+    /**
+     * Thread d'écriture des lots (visible pour les tests)
+     */
+    Thread flusherThread() {
+        return flusher;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (lock) {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Liste les segments d'un répertoire de journal, par position croissante
+     */
+    static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Journal::isSegment).sorted().forEach(segments::add);
+        }
+        return segments;
+    }
+
+    /**
+     * Position globale du premier octet d'un segment
+     */
+    static long segmentBase(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Crée un segment vide commençant à la position donnée
+     */
+    static void createSegment(Path directory, long base) throws IOException {
+        openSegment(directory, base).close();
+    }
+
+    private static FileChannel openSegment(Path directory, long base) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX));
+        FileChannel segmentChannel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        segmentChannel.position(segmentChannel.size());
+        return segmentChannel;
+    }
+
+    private void commit(long offset) {
+        if (durable) {
+            awaitDurable(offset);
+        }
+    }
+
+    private long append(byte type, byte[][] fields, long[] numbers) {
+        int recordSize = JournalCodec.recordSize(fields, numbers);
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Le journal est fermé");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Écriture du journal impossible", failure);
+            }
+
+            ensureCapacity(recordSize);
+            JournalCodec.write(activeBuffer, crc, type, fields, numbers);
+
+            appendedOffset += recordSize;
+            lock.notifyAll();
+            return appendedOffset;
+        }
+    }
+
+    private void ensureCapacity(int recordSize) {
+        if (activeBuffer.remaining() >= recordSize) {
+            return;
+        }
+        int capacity = activeBuffer.capacity();
+        while (capacity - activeBuffer.position() < recordSize) {
+            capacity *= 2;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(capacity);
+        activeBuffer.flip();
+        larger.put(activeBuffer);
+        activeBuffer = larger;
+    }
+
+    private void waitOnLock() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Attente du journal interrompue", e);
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture: échange les tampons, écrit le lot et le rend durable.
+     * Quelle que soit la cause de sa sortie, les données non écrites passent le journal
+     * en échec et les appelants en attente de durabilité sont réveillés.
+     */
+    private void flushLoop() {
+        try {
+            while (flushBatch()) {
+                // lot suivant
+            }
+        } catch (InterruptedException e) {
+            stopFlusher(new IOException("Thread d'écriture du journal interrompu", e));
+        } catch (RuntimeException | Error e) {
+            stopFlusher(new IOException("Thread d'écriture du journal arrêté", e));
+            throw e;
+        } finally {
+            stopFlusher(new IOException("Thread d'écriture du journal arrêté"));
+        }
+    }
+
+    /**
+     * Écrit un lot; retourne false quand le thread d'écriture doit s'arrêter
+     */
+    private boolean flushBatch() throws InterruptedException {
+        ByteBuffer batch;
+        FileChannel target;
+        long batchEnd;
+
+        synchronized (lock) {
+            while ((activeBuffer.position() == 0 || rollRequested) && !closed) {
+                lock.wait();
+            }
+            if (activeBuffer.position() == 0) {
+                return false;
+            }
+            batch = activeBuffer;
+            activeBuffer = flushingBuffer;
+            flushingBuffer = batch;
+            target = channel;
+            batchEnd = appendedOffset;
+            batchInFlight = true;
+        }
+
+        IOException error = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                target.write(batch);
+            }
+            if (durable) {
+                target.force(false);
+            }
+            batch.clear();
+        } catch (IOException e) {
+            error = e;
+        }
+
+        synchronized (lock) {
+            batchInFlight = false;
+            if (error != null) {
+                failure = error;
+            } else if (batchEnd > durableOffset) {
+                durableOffset = batchEnd;
+            }
+            lock.notifyAll();
+            return error == null;
+        }
+    }
+
+    /**
+     * Passe le journal en échec (sauf fermeture sans données en attente),
+     * puis réveille tous les appelants en attente
+     */
+    private void stopFlusher(IOException cause) {
+        synchronized (lock) {
+            batchInFlight = false;
+            if (failure == null && (!closed || durableOffset < appendedOffset)) {
+                failure = cause;
+            }
+            lock.notifyAll();
+        }
+    }
+}
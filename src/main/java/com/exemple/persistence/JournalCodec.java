@@ -0,0 +1,302 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Encodage binaire des enregistrements, partagé par le journal et les snapshots.
+ * Format d'un enregistrement: [int longueur][byte type][contenu][int crc32].
+ */
+final class JournalCodec {
+
+    static final byte USER_CREATED = 1;
+    static final byte ACCOUNT_CREATED = 2;
+    static final byte TRANSACTION_EXECUTED = 3;
+    /** Transaction déplacée vers l'archive de l'historique, avec son statut */
+    static final byte TRANSACTION_ARCHIVED = 4;
+    /** Agrégats d'un compte (ou globaux) dans un snapshot */
+    static final byte STATISTICS = 5;
+    /** Dernière transaction couverte par un snapshot */
+    static final byte LAST_TRANSACTION = 6;
+    static final byte ACCOUNT_DEACTIVATED = 7;
+    static final byte USER_DEACTIVATED = 8;
+    /** Changement de statut d'une transaction: statut précédent puis transaction à jour */
+    static final byte TRANSACTION_STATUS = 9;
+    static final byte PASSWORD_CHANGED = 10;
+
+    static final int HEADER_SIZE = Integer.BYTES + 1;
+    static final int TRAILER_SIZE = Integer.BYTES;
+
+    private JournalCodec() {
+    }
+
+    static byte[][] userFields(User user) {
+        return new byte[][]{
+                encode(user.getUserId()),
+                encode(user.getUsername()),
+                encode(user.getPasswordHash()),
+                encode(user.getEmail()),
+                encode(user.getUserType())
+        };
+    }
+
+    static byte[][] accountFields(String accountNumber, String ownerId, String accountType) {
+        return new byte[][]{encode(accountNumber), encode(ownerId), encode(accountType)};
+    }
+
+    static byte[][] accountFields(Account account) {
+        return accountFields(account.getAccountNumber(), account.getOwnerId(),
+                account.getAccountType());
+    }
+
+    static byte[][] transactionFields(Transaction transaction) {
+        return new byte[][]{
+                encode(transaction.getTransactionId()),
+                encode(transaction.getType()),
+                encode(transaction.getSourceAccount()),
+                encode(transaction.getDestinationAccount()),
+                encode(transaction.getDescription())
+        };
+    }
+
+    static byte[][] archivedTransactionFields(Transaction transaction) {
+        return new byte[][]{
+                encode(transaction.getTransactionId()),
+                encode(transaction.getType()),
+                encode(transaction.getSourceAccount()),
+                encode(transaction.getDestinationAccount()),
+                encode(transaction.getDescription()),
+                encode(transaction.getStatus())
+        };
+    }
+
+    static byte[][] statusFields(Transaction transaction, String previousStatus) {
+        byte[][] transactionFields = archivedTransactionFields(transaction);
+        byte[][] fields = new byte[transactionFields.length + 1][];
+        fields[0] = encode(previousStatus);
+        System.arraycopy(transactionFields, 0, fields, 1, transactionFields.length);
+        return fields;
+    }
+
+    /**
+     * Relit une transaction archivée; le tampon est positionné après l'octet de type
+     */
+    static Transaction readArchivedTransaction(ByteBuffer buffer) {
+        String transactionId = readString(buffer);
+        String type = readString(buffer);
+        String source = readString(buffer);
+        String destination = readString(buffer);
+        String description = readString(buffer);
+        String status = readString(buffer);
+        long amountMinor = buffer.getLong();
+        long epochSecond = buffer.getLong();
+        int nano = (int) buffer.getLong();
+        return Transaction.ofMinorUnits(transactionId, type, source, destination, amountMinor,
+                LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC), description, status);
+    }
+
+    static long[] transactionNumbers(Transaction transaction) {
+        LocalDateTime timestamp = transaction.getTimestamp();
+        return new long[]{
+                transaction.getAmountMinor(),
+                timestamp.toEpochSecond(ZoneOffset.UTC),
+                timestamp.getNano()
+        };
+    }
+
+    /**
+     * Taille totale de l'enregistrement, en-tête et CRC compris
+     */
+    static int recordSize(byte[][] fields, long[] numbers) {
+        return HEADER_SIZE + payloadSize(fields, numbers) + TRAILER_SIZE;
+    }
+
+    /**
+     * Écrit un enregistrement complet à la position courante du tampon
+     */
+    static void write(ByteBuffer buffer, CRC32 crc, byte type, byte[][] fields, long[] numbers) {
+        int payloadSize = payloadSize(fields, numbers);
+        int start = buffer.position();
+
+        buffer.putInt(payloadSize);
+        buffer.put(type);
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(field.length);
+                buffer.put(field);
+            }
+        }
+        if (numbers != null) {
+            for (long number : numbers) {
+                buffer.putLong(number);
+            }
+        }
+
+        buffer.putInt(checksum(buffer, crc, start, payloadSize));
+    }
+
+    /**
+     * Calcule le CRC du type et du contenu d'un enregistrement commençant à {@code start}
+     */
+    static int checksum(ByteBuffer buffer, CRC32 crc, int start, int payloadSize) {
+        ByteBuffer covered = buffer.duplicate();
+        covered.limit(start + HEADER_SIZE + payloadSize);
+        covered.position(start + Integer.BYTES);
+        crc.reset();
+        crc.update(covered);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Lit les enregistrements complets et valides à partir de la position courante.
+     * S'arrête (en laissant la position sur l'enregistrement fautif) au premier
+     * enregistrement incomplet ou corrompu. Retourne le nombre d'octets consommés.
+     */
+    static int readRecords(ByteBuffer buffer, CRC32 crc, JournalReader.Handler handler) {
+        int consumed = 0;
+        while (buffer.remaining() >= HEADER_SIZE) {
+            int start = buffer.position();
+            int payloadSize = buffer.getInt(start);
+            if (payloadSize < 0 ||
+                    (long) payloadSize + HEADER_SIZE + TRAILER_SIZE > buffer.remaining()) {
+                break;
+            }
+            int recordSize = HEADER_SIZE + payloadSize + TRAILER_SIZE;
+            if (checksum(buffer, crc, start, payloadSize) !=
+                    buffer.getInt(start + HEADER_SIZE + payloadSize)) {
+                break;
+            }
+
+            buffer.position(start + Integer.BYTES);
+            dispatch(buffer.get(), buffer, handler);
+            buffer.position(start + recordSize);
+            consumed += recordSize;
+        }
+        return consumed;
+    }
+
+    private static void dispatch(byte type, ByteBuffer buffer, JournalReader.Handler handler) {
+        switch (type) {
+            case USER_CREATED:
+                handler.onUserCreated(readString(buffer), readString(buffer),
+                        readString(buffer), readString(buffer), readString(buffer));
+                break;
+            case ACCOUNT_CREATED:
+                String accountNumber = readString(buffer);
+                String ownerId = readString(buffer);
+                String accountType = readString(buffer);
+                handler.onAccountCreated(accountNumber, ownerId, accountType, buffer.getLong());
+                break;
+            case TRANSACTION_EXECUTED:
+                String transactionId = readString(buffer);
+                String transactionType = readString(buffer);
+                String source = readString(buffer);
+                String destination = readString(buffer);
+                String description = readString(buffer);
+                long amountMinor = buffer.getLong();
+                long epochSecond = buffer.getLong();
+                int nano = (int) buffer.getLong();
+                handler.onTransaction(transactionId, transactionType, source, destination,
+                        description, amountMinor,
+                        LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+                break;
+            case STATISTICS:
+                String statisticsAccount = readString(buffer);
+                Map<String, Long> countByType = decodeCounts(readString(buffer));
+                Map<String, Long> countByStatus = decodeCounts(readString(buffer));
+                long transactionCount = buffer.getLong();
+                long inflowMinor = buffer.getLong();
+                handler.onStatistics(statisticsAccount, transactionCount, inflowMinor, buffer.getLong(),
+                        countByType, countByStatus);
+                break;
+            case LAST_TRANSACTION:
+                handler.onLastTransaction(readString(buffer));
+                break;
+            case ACCOUNT_DEACTIVATED:
+                handler.onAccountDeactivated(readString(buffer));
+                break;
+            case USER_DEACTIVATED:
+                handler.onUserDeactivated(readString(buffer));
+                break;
+            case TRANSACTION_STATUS:
+                String previousStatus = readString(buffer);
+                handler.onTransactionStatus(readArchivedTransaction(buffer), previousStatus);
+                break;
+            case PASSWORD_CHANGED:
+                String userId = readString(buffer);
+                handler.onPasswordChanged(userId, readString(buffer));
+                break;
+            default:
+                throw new IllegalStateException("Type d'enregistrement inconnu: " + type);
+        }
+    }
+
+    /**
+     * Encode des compteurs par clé sous la forme {@code CLE=n;CLE=n}; les clés sont des
+     * noms de type ou de statut, sans '=' ni ';'
+     */
+    static byte[] encodeCounts(Map<String, long[]> counts) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(';');
+            }
+            builder.append(entry.getKey()).append('=').append(entry.getValue()[0]);
+        }
+        return encode(builder.toString());
+    }
+
+    private static Map<String, Long> decodeCounts(String encoded) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return counts;
+        }
+        for (String entry : encoded.split(";")) {
+            int separator = entry.lastIndexOf('=');
+            counts.put(entry.substring(0, separator), Long.parseLong(entry.substring(separator + 1)));
+        }
+        return counts;
+    }
+
+    static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static int payloadSize(byte[][] fields, long[] numbers) {
+        int size = numbers == null ? 0 : numbers.length * Long.BYTES;
+        for (byte[] field : fields) {
+            size += Integer.BYTES + (field == null ? 0 : field.length);
+        }
+        return size;
+    }
+}
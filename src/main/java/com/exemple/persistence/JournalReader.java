@@ -0,0 +1,170 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Lecture séquentielle d'un journal produit par {@link Journal}.
+ * La lecture s'arrête au premier enregistrement incomplet ou corrompu,
+ * ce qui correspond à la fin valide du journal après un crash.
+ */
+public class JournalReader {
+
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Reçoit les enregistrements rejoués, dans l'ordre du journal
+     */
+    public interface Handler {
+
+        void onUserCreated(String userId, String username, String passwordHash,
+                           String email, String userType);
+
+        void onAccountCreated(String accountNumber, String ownerId, String accountType,
+                              long balanceMinor);
+
+        void onTransaction(String transactionId, String type, String sourceAccount,
+                           String destinationAccount, String description,
+                           long amountMinor, LocalDateTime timestamp);
+
+        /**
+         * Agrégats d'un compte (accountNumber nul: agrégats globaux), lus dans un snapshot
+         */
+        default void onStatistics(String accountNumber, long transactionCount, long inflowMinor,
+                                  long outflowMinor, Map<String, Long> countByType,
+                                  Map<String, Long> countByStatus) {
+        }
+
+        /**
+         * Dernière transaction couverte par un snapshot
+         */
+        default void onLastTransaction(String transactionId) {
+        }
+
+        default void onAccountDeactivated(String accountNumber) {
+        }
+
+        default void onUserDeactivated(String userId) {
+        }
+
+        /**
+         * Changement de statut d'une transaction déjà journalisée; la transaction porte
+         * son nouveau statut et sa description à jour
+         */
+        default void onTransactionStatus(Transaction transaction, String previousStatus) {
+        }
+
+        default void onPasswordChanged(String userId, String passwordHash) {
+        }
+    }
+
+    /**
+     * Rejoue les segments du journal à partir de la position globale donnée
+     * et jusqu'à la position {@code toOffset} exclue.
+     * Retourne la position de fin du dernier enregistrement valide lu.
+     */
+    public static long replay(Path directory, long fromOffset, long toOffset, Handler handler)
+            throws IOException {
+        List<Path> segments = Journal.listSegments(directory);
+        long validOffset = fromOffset;
+
+        for (int i = 0; i < segments.size(); i++) {
+            long base = Journal.segmentBase(segments.get(i));
+            long nextBase = i + 1 < segments.size()
+                    ? Journal.segmentBase(segments.get(i + 1))
+                    : Long.MAX_VALUE;
+            if (nextBase <= validOffset) {
+                continue;
+            }
+            if (base >= toOffset || base > validOffset) {
+                break;
+            }
+
+            long start = validOffset - base;
+            long end = Math.min(nextBase, toOffset) - base;
+            long read = replaySegment(segments.get(i), start, end, handler);
+            validOffset += read;
+            if (base + start + read < Math.min(nextBase, toOffset) && i + 1 < segments.size()) {
+                break;
+            }
+        }
+        return validOffset;
+    }
+
+    /**
+     * Rejoue tout le journal à partir de la position donnée
+     */
+    public static long replay(Path directory, long fromOffset, Handler handler) throws IOException {
+        return replay(directory, fromOffset, Long.MAX_VALUE, handler);
+    }
+
+    private static long replaySegment(Path segment, long start, long end, Handler handler)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long limit = Math.min(end, channel.size());
+            if (limit <= start) {
+                return 0L;
+            }
+            channel.position(start);
+
+            ByteBuffer buffer = ByteBuffer.allocate(
+                    (int) Math.min(READ_BUFFER_SIZE, Math.max(limit - start, JournalCodec.HEADER_SIZE)));
+            CRC32 crc = new CRC32();
+            long remainingInFile = limit - start;
+            long valid = 0L;
+
+            while (true) {
+                while (buffer.hasRemaining() && remainingInFile > 0) {
+                    if (buffer.remaining() > remainingInFile) {
+                        buffer.limit(buffer.position() + (int) remainingInFile);
+                    }
+                    int read = channel.read(buffer);
+                    if (read < 0) {
+                        remainingInFile = 0;
+                        break;
+                    }
+                    remainingInFile -= read;
+                }
+                buffer.flip();
+
+                valid += JournalCodec.readRecords(buffer, crc, handler);
+
+                if (remainingInFile == 0 || isCorrupt(buffer, remainingInFile)) {
+                    return valid;
+                }
+                if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact();
+                }
+            }
+        }
+    }
+
+    /**
+     * Indique si l'enregistrement en tête du tampon est invalide, et non simplement
+     * incomplet faute d'avoir été lu en entier
+     */
+    private static boolean isCorrupt(ByteBuffer buffer, long remainingInFile) {
+        if (buffer.remaining() < JournalCodec.HEADER_SIZE) {
+            return false;
+        }
+        int payloadSize = buffer.getInt(buffer.position());
+        long recordSize = (long) payloadSize + JournalCodec.HEADER_SIZE + JournalCodec.TRAILER_SIZE;
+        return payloadSize < 0 ||
+                recordSize <= buffer.remaining() ||
+                recordSize > buffer.remaining() + remainingInFile;
+    }
+}
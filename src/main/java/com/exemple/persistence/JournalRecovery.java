@@ -0,0 +1,268 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+import com.exemple.pattern.factory.AccountFactory;
+import com.exemple.pattern.factory.UserFactory;
+import com.exemple.pattern.strategy.SnowflakeIdGenerator;
+import com.exemple.service.BankingService;
+import com.exemple.service.TransactionService;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reconstruit l'état de BankingService et TransactionService à partir du dernier
+ * snapshot et de la fin du journal qu'il ne couvre pas.
+ *
+ * Le snapshot rétablit les comptes, les soldes et les agrégats, et les transactions de
+ * la fin du journal sont remises dans l'historique. Les transactions couvertes par le
+ * snapshot se lisent dans l'archive durable de TransactionService lorsqu'il en a une;
+ * sinon, les segments couverts, que {@link SnapshotManager} conserve alors, sont relus
+ * pour l'historique seul et les agrégats sont recalculés à partir de lui. Les
+ * désactivations, changements de statut et de mot de passe journalisés sont rejoués
+ * dans l'ordre du journal.
+ *
+ * Les transactions rejouées ne repassent pas par les stratégies: leurs montants sont
+ * cumulés par compte et les comptes sont créés à la fin avec leur solde final, ce qui
+ * évite les contrôles de solde intermédiaires lorsque l'ordre du journal diffère
+ * légèrement de l'ordre d'exécution.
+ */
+public class JournalRecovery {
+
+    /**
+     * Charge le dernier snapshot, rejoue la suite du journal et tronque un éventuel
+     * enregistrement incomplet. Retourne la position valide de fin du journal.
+     * Une archive durable doit être attachée à TransactionService avant l'appel.
+     */
+    public static long recover(Path journalDirectory, BankingService bankingService,
+                               TransactionService transactionService) throws IOException {
+        RecoveryHandler handler = new RecoveryHandler(bankingService, transactionService);
+
+        HistoryArchive archive = transactionService.getHistoryArchive();
+        List<Path> segments = Journal.listSegments(journalDirectory);
+        boolean replayCovered = (archive == null || !archive.isDurable())
+                && SnapshotManager.latestOffset(journalDirectory) > 0
+                && !segments.isEmpty() && Journal.segmentBase(segments.get(0)) == 0L;
+
+        handler.applyBalances = false;
+        handler.skipStatistics = replayCovered;
+        long snapshotOffset = SnapshotManager.loadLatest(journalDirectory, handler);
+        if (replayCovered) {
+            handler.historyOnly = true;
+            JournalReader.replay(journalDirectory, 0L, snapshotOffset, handler);
+            handler.historyOnly = false;
+        }
+        handler.skipStatistics = false;
+        handler.applyBalances = true;
+
+        long validOffset = JournalReader.replay(journalDirectory, snapshotOffset, handler);
+        handler.finish();
+        truncate(journalDirectory, validOffset);
+        return validOffset;
+    }
+
+    /**
+     * Supprime les octets situés après le dernier enregistrement valide et garantit
+     * qu'un segment commence au plus tard à cette position
+     */
+    static void truncate(Path journalDirectory, long validOffset) throws IOException {
+        List<Path> segments = Journal.listSegments(journalDirectory);
+        boolean covered = false;
+
+        for (Path segment : segments) {
+            long base = Journal.segmentBase(segment);
+            if (base > validOffset) {
+                Files.delete(segment);
+                continue;
+            }
+            covered = true;
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+                if (channel.size() > validOffset - base) {
+                    channel.truncate(validOffset - base);
+                    channel.force(true);
+                }
+            }
+        }
+
+        if (!covered) {
+            Files.createDirectories(journalDirectory);
+            Journal.createSegment(journalDirectory, validOffset);
+        }
+    }
+
+    /**
+     * Extrait la partie numérique d'un identifiant du type PREFIXE-000123
+     */
+    static long numericSuffix(String identifier) {
+        int separator = identifier.lastIndexOf('-');
+        try {
+            return Long.parseLong(identifier.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static class PendingAccount {
+        final String accountNumber;
+        final String ownerId;
+        final String accountType;
+        long balanceMinor;
+        boolean active = true;
+
+        PendingAccount(String accountNumber, String ownerId, String accountType,
+                       long balanceMinor) {
+            this.accountNumber = accountNumber;
+            this.ownerId = ownerId;
+            this.accountType = accountType;
+            this.balanceMinor = balanceMinor;
+        }
+    }
+
+    private static class RecoveryHandler implements JournalReader.Handler {
+
+        private final BankingService bankingService;
+        private final TransactionService transactionService;
+        private final Map<String, PendingAccount> pendingAccounts = new LinkedHashMap<>();
+        private final Map<String, long[]> orphanDeltas = new HashMap<>();
+        boolean applyBalances = true;
+        /** Agrégats du snapshot ignorés: ils sont recalculés à partir de l'historique relu */
+        boolean skipStatistics;
+        /** Relecture des segments couverts par le snapshot: seul l'historique est rétabli */
+        boolean historyOnly;
+
+        RecoveryHandler(BankingService bankingService, TransactionService transactionService) {
+            this.bankingService = bankingService;
+            this.transactionService = transactionService;
+        }
+
+        @Override
+        public void onUserCreated(String userId, String username, String passwordHash,
+                                  String email, String userType) {
+            if (historyOnly) {
+                return;
+            }
+            bankingService.restoreUser(new User(userId, username, passwordHash, email, userType));
+            UserFactory.advanceCounterPast(numericSuffix(userId));
+        }
+
+        @Override
+        public void onAccountCreated(String accountNumber, String ownerId, String accountType,
+                                     long balanceMinor) {
+            if (historyOnly) {
+                return;
+            }
+            pendingAccounts.put(accountNumber,
+                    new PendingAccount(accountNumber, ownerId, accountType, balanceMinor));
+            AccountFactory.advanceCounterPast(numericSuffix(accountNumber));
+        }
+
+        @Override
+        public void onTransaction(String transactionId, String type, String sourceAccount,
+                                  String destinationAccount, String description,
+                                  long amountMinor, LocalDateTime timestamp) {
+            transactionService.restoreTransaction(Transaction.ofMinorUnits(transactionId, type,
+                    sourceAccount, destinationAccount, amountMinor, timestamp, description));
+            SnowflakeIdGenerator.getDefault().advancePast(transactionId);
+
+            if (!applyBalances || historyOnly) {
+                return;
+            }
+            applyDelta(sourceAccount, -amountMinor);
+            applyDelta(destinationAccount, amountMinor);
+        }
+
+        @Override
+        public void onAccountDeactivated(String accountNumber) {
+            if (historyOnly) {
+                return;
+            }
+            PendingAccount pending = pendingAccounts.get(accountNumber);
+            if (pending != null) {
+                pending.active = false;
+            }
+        }
+
+        @Override
+        public void onUserDeactivated(String userId) {
+            if (historyOnly) {
+                return;
+            }
+            User user = bankingService.getUserById(userId);
+            if (user != null) {
+                user.deactivate();
+            }
+        }
+
+        @Override
+        public void onTransactionStatus(Transaction transaction, String previousStatus) {
+            transactionService.restoreStatus(transaction, previousStatus);
+        }
+
+        @Override
+        public void onPasswordChanged(String userId, String passwordHash) {
+            if (historyOnly) {
+                return;
+            }
+            User user = bankingService.getUserById(userId);
+            if (user != null) {
+                user.changePassword(passwordHash);
+            }
+        }
+
+        @Override
+        public void onStatistics(String accountNumber, long transactionCount, long inflowMinor,
+                                 long outflowMinor, Map<String, Long> countByType,
+                                 Map<String, Long> countByStatus) {
+            if (skipStatistics || historyOnly) {
+                return;
+            }
+            transactionService.restoreStatistics(accountNumber, transactionCount, inflowMinor,
+                    outflowMinor, countByType, countByStatus);
+        }
+
+        @Override
+        public void onLastTransaction(String transactionId) {
+            SnowflakeIdGenerator.getDefault().advancePast(transactionId);
+        }
+
+        private void applyDelta(String accountNumber, long deltaMinor) {
+            if (accountNumber == null) {
+                return;
+            }
+            PendingAccount pending = pendingAccounts.get(accountNumber);
+            if (pending != null) {
+                pending.balanceMinor += deltaMinor;
+            } else {
+                orphanDeltas.computeIfAbsent(accountNumber, k -> new long[1])[0] += deltaMinor;
+            }
+        }
+
+        /**
+         * Crée les comptes avec leur solde final et leur état
+         */
+        void finish() {
+            for (PendingAccount pending : pendingAccounts.values()) {
+                Account account = bankingService.restoreAccount(Account.ofMinorUnits(pending.accountNumber,
+                        pending.ownerId, pending.balanceMinor, pending.accountType));
+                if (!pending.active) {
+                    account.deactivate();
+                }
+            }
+            if (!orphanDeltas.isEmpty()) {
+                System.err.println("Journal: transactions ignorées pour " + orphanDeltas.size() +
+                        " compte(s) inconnu(s)");
+            }
+        }
+    }
+}
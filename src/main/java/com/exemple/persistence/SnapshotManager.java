@@ -0,0 +1,659 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.model.TransactionStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshots périodiques de l'état journalisé, pour un redémarrage rapide.
+ *
+ * Un snapshot {@code snapshot-<position>.snap} contient l'état obtenu après application
+ * du journal jusqu'à la position indiquée: les utilisateurs, les comptes avec leur
+ * solde et leur état, les agrégats de TransactionService (globaux et par compte) et la
+ * dernière transaction couverte. Il ne contient pas les transactions elles-mêmes: sa taille et
+ * son coût d'écriture dépendent du nombre de comptes, pas de la longueur de
+ * l'historique, et le redémarrage ne rejoue que la fin du journal qui le suit.
+ *
+ * Il est construit à partir du snapshot précédent et des segments de journal fermés
+ * depuis, et non de l'état vivant des services: l'exécution des transactions continue
+ * pendant sa construction, seul le basculement de segment ({@link Journal#roll()})
+ * bloque brièvement les écrivains.
+ *
+ * Les segments couverts restent la seule copie durable des transactions elles-mêmes.
+ * Avec une archive durable ({@link HistoryArchive#openDurable}), leurs transactions y
+ * sont copiées avec leur dernier statut avant l'écriture du snapshot, puis les segments
+ * sont supprimés. Sans archive, les segments couverts sont conservés et
+ * {@link JournalRecovery} en relit l'historique au redémarrage.
+ *
+ * Format: [int magic][int version][long position journal][long début agrégats]
+ * [long fin] puis des enregistrements au format du journal: utilisateurs (hash courant),
+ * comptes (solde courant), désactivations, agrégats, dernière transaction. Un snapshot de version 1 (section
+ * transactions complète à la place des agrégats) reste lisible.
+ */
+public class SnapshotManager implements AutoCloseable {
+
+    private static final int MAGIC = 0x534E4150;
+    private static final int VERSION = 2;
+    private static final int FULL_HISTORY_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 2 * Integer.BYTES + 3 * Long.BYTES;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+    private static final long MAP_WINDOW_SIZE = 256L * 1024 * 1024;
+    private static final String COMPLETED = TransactionStatus.COMPLETED.name();
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final int HISTORY_BATCH = 4096;
+
+    private final Journal journal;
+    private final Path directory;
+    private final HistoryArchive history;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Snapshots sans archive durable: les segments couverts sont conservés
+     */
+    public SnapshotManager(Journal journal) {
+        this.journal = journal;
+        this.directory = journal.getDirectory();
+        this.history = null;
+    }
+
+    /**
+     * Snapshots qui déplacent l'historique couvert dans une archive durable avant de
+     * supprimer les segments du journal
+     */
+    public SnapshotManager(Journal journal, HistoryArchive history) {
+        if (history == null || !history.isDurable()) {
+            throw new IllegalArgumentException(
+                    "L'historique doit être une archive durable (HistoryArchive.openDurable)");
+        }
+        this.journal = journal;
+        this.directory = journal.getDirectory();
+        this.history = history;
+    }
+
+    /**
+     * Prend un snapshot à intervalle régulier, en tâche de fond
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Erreur lors du snapshot: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Construit un snapshot couvrant tout le journal écrit jusqu'ici, puis supprime les
+     * snapshots devenus inutiles, et les segments couverts si l'historique a été archivé.
+     * Retourne la position du journal couverte par le snapshot.
+     */
+    public synchronized long takeSnapshot() throws IOException {
+        long boundary = journal.roll();
+
+        Path previous = latestSnapshot(directory);
+        long previousOffset = previous == null ? 0L : readOffset(previous);
+        if (previous != null && previousOffset >= boundary) {
+            return previousOffset;
+        }
+
+        SnapshotState state = new SnapshotState();
+        if (previous != null) {
+            try (FileChannel channel = FileChannel.open(previous, StandardOpenOption.READ)) {
+                long[] header = readHeader(channel, previous);
+                readMapped(channel, FILE_HEADER_SIZE, header[2], state, previous);
+            }
+        }
+        state.applyBalances = true;
+        JournalReader.replay(directory, previousOffset, boundary, state);
+        if (history != null) {
+            archiveHistory(boundary);
+        }
+
+        Path target = snapshotPath(directory, boundary);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        write(temporary, boundary, state);
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+
+        deleteSnapshotsBefore(boundary);
+        if (history != null) {
+            journal.deleteSegmentsBefore(boundary);
+        }
+        return boundary;
+    }
+
+    /**
+     * Copie dans l'archive durable les transactions de tous les segments encore présents
+     * avant {@code boundary}; celles déjà archivées depuis la mémoire ne sont pas réécrites
+     */
+    private void archiveHistory(long boundary) throws IOException {
+        List<Path> segments = Journal.listSegments(directory);
+        long from = segments.isEmpty() ? boundary : Journal.segmentBase(segments.get(0));
+        HistoryCollector collector = new HistoryCollector(history);
+        JournalReader.replay(directory, from, boundary, collector);
+        collector.finish();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Charge le snapshot le plus récent du répertoire (par mappage mémoire) dans le
+     * handler donné. Retourne la position du journal qu'il couvre, ou 0 s'il n'y en a pas.
+     */
+    public static long loadLatest(Path directory, JournalReader.Handler handler) throws IOException {
+        Path latest = latestSnapshot(directory);
+        if (latest == null) {
+            return 0L;
+        }
+
+        try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+            long[] header = readHeader(channel, latest);
+            readMapped(channel, FILE_HEADER_SIZE, header[2], handler, latest);
+            return header[0];
+        }
+    }
+
+    private void write(Path temporary, long boundary, SnapshotState state) throws IOException {
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            RecordWriter writer = new RecordWriter(out);
+            writer.position = FILE_HEADER_SIZE;
+            out.position(FILE_HEADER_SIZE);
+
+            for (byte[][] user : state.users.values()) {
+                writer.write(JournalCodec.USER_CREATED, user, null);
+            }
+            for (AccountState account : state.accounts.values()) {
+                writer.write(JournalCodec.ACCOUNT_CREATED,
+                        JournalCodec.accountFields(account.accountNumber, account.ownerId,
+                                account.accountType),
+                        new long[]{account.balanceMinor});
+            }
+            for (String userId : state.inactiveUsers) {
+                writer.write(JournalCodec.USER_DEACTIVATED, new byte[][]{JournalCodec.encode(userId)}, null);
+            }
+            for (AccountState account : state.accounts.values()) {
+                if (!account.active) {
+                    writer.write(JournalCodec.ACCOUNT_DEACTIVATED,
+                            new byte[][]{JournalCodec.encode(account.accountNumber)}, null);
+                }
+            }
+            writer.flush();
+            long statisticsStart = writer.position;
+
+            writer.writeStatistics(null, state.globalStatistics);
+            for (Map.Entry<String, StatisticsState> entry : state.accountStatistics.entrySet()) {
+                writer.writeStatistics(entry.getKey(), entry.getValue());
+            }
+            if (state.lastTransactionId != null) {
+                writer.write(JournalCodec.LAST_TRANSACTION,
+                        new byte[][]{JournalCodec.encode(state.lastTransactionId)}, null);
+            }
+            writer.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION)
+                    .putLong(boundary).putLong(statisticsStart).putLong(writer.position);
+            header.flip();
+            out.write(header, 0);
+            out.force(true);
+        }
+    }
+
+    /**
+     * Lit l'en-tête: position du journal, début de la section des agrégats (des
+     * transactions en version 1) et fin des enregistrements
+     */
+    private static long[] readHeader(FileChannel channel, Path snapshot) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Snapshot tronqué: " + snapshot);
+            }
+        }
+        int version = header.getInt(Integer.BYTES);
+        if (header.getInt(0) != MAGIC || (version != VERSION && version != FULL_HISTORY_VERSION)) {
+            throw new IOException("Snapshot invalide: " + snapshot);
+        }
+        return new long[]{
+                header.getLong(2 * Integer.BYTES),
+                header.getLong(2 * Integer.BYTES + Long.BYTES),
+                header.getLong(2 * Integer.BYTES + 2 * Long.BYTES)
+        };
+    }
+
+    /**
+     * Rejoue les enregistrements d'une plage du fichier, mappée en mémoire par fenêtres
+     */
+    private static void readMapped(FileChannel channel, long start, long end,
+                                   JournalReader.Handler handler, Path snapshot) throws IOException {
+        CRC32 crc = new CRC32();
+        long position = start;
+        while (position < end) {
+            long window = Math.min(MAP_WINDOW_SIZE, end - position);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            int consumed = JournalCodec.readRecords(mapped, crc, handler);
+            if (consumed == 0) {
+                if (window == MAP_WINDOW_SIZE) {
+                    throw new IOException("Enregistrement trop grand dans le snapshot: " + snapshot);
+                }
+                throw new IOException("Snapshot corrompu: " + snapshot);
+            }
+            position += consumed;
+        }
+    }
+
+    /**
+     * Position du journal couverte par le snapshot le plus récent, ou 0 s'il n'y en a pas
+     */
+    static long latestOffset(Path directory) throws IOException {
+        Path latest = latestSnapshot(directory);
+        return latest == null ? 0L : readOffset(latest);
+    }
+
+    private static long readOffset(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            return readHeader(channel, snapshot)[0];
+        }
+    }
+
+    private static Path latestSnapshot(Path directory) throws IOException {
+        List<Path> snapshots = listSnapshots(directory);
+        return snapshots.isEmpty() ? null : snapshots.get(snapshots.size() - 1);
+    }
+
+    private static List<Path> listSnapshots(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return snapshots;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    private void deleteSnapshotsBefore(long offset) throws IOException {
+        Path current = snapshotPath(directory, offset);
+        for (Path snapshot : listSnapshots(directory)) {
+            if (!snapshot.equals(current)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    private static Path snapshotPath(Path directory, long offset) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, offset, SNAPSHOT_SUFFIX));
+    }
+
+    /**
+     * Écriture tamponnée d'enregistrements dans le fichier de snapshot
+     */
+    private static class RecordWriter {
+        private final FileChannel out;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        long position;
+
+        RecordWriter(FileChannel out) {
+            this.out = out;
+        }
+
+        void write(byte type, byte[][] fields, long[] numbers) throws IOException {
+            int size = JournalCodec.recordSize(fields, numbers);
+            if (buffer.remaining() < size) {
+                flush();
+                if (buffer.capacity() < size) {
+                    buffer = ByteBuffer.allocate(size);
+                }
+            }
+            JournalCodec.write(buffer, crc, type, fields, numbers);
+        }
+
+        void writeStatistics(String accountNumber, StatisticsState statistics) throws IOException {
+            write(JournalCodec.STATISTICS,
+                    new byte[][]{
+                            JournalCodec.encode(accountNumber),
+                            JournalCodec.encodeCounts(statistics.countByType),
+                            JournalCodec.encodeCounts(statistics.countByStatus)
+                    },
+                    new long[]{statistics.transactionCount, statistics.inflowMinor, statistics.outflowMinor});
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += out.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static class AccountState {
+        final String accountNumber;
+        final String ownerId;
+        final String accountType;
+        long balanceMinor;
+        boolean active = true;
+
+        AccountState(String accountNumber, String ownerId, String accountType, long balanceMinor) {
+            this.accountNumber = accountNumber;
+            this.ownerId = ownerId;
+            this.accountType = accountType;
+            this.balanceMinor = balanceMinor;
+        }
+    }
+
+    /**
+     * Agrégats d'un compte ou globaux, au sens de TransactionStatistics
+     */
+    private static class StatisticsState {
+        long transactionCount;
+        long inflowMinor;
+        long outflowMinor;
+        final Map<String, long[]> countByType = new LinkedHashMap<>();
+        final Map<String, long[]> countByStatus = new LinkedHashMap<>();
+
+        void add(long count, long inflow, long outflow,
+                 Map<String, Long> byType, Map<String, Long> byStatus) {
+            transactionCount += count;
+            inflowMinor += inflow;
+            outflowMinor += outflow;
+            byType.forEach((key, value) -> increment(countByType, key, value));
+            byStatus.forEach((key, value) -> increment(countByStatus, key, value));
+        }
+
+        /**
+         * Compte une transaction journalisée, donc réussie; inflow et outflow indiquent
+         * si elle crédite ou débite le périmètre de ces agrégats
+         */
+        void addTransaction(String type, long amountMinor, boolean inflow, boolean outflow) {
+            transactionCount++;
+            increment(countByType, type != null ? type : UNKNOWN, 1);
+            increment(countByStatus, COMPLETED, 1);
+            if (inflow) {
+                inflowMinor += amountMinor;
+            }
+            if (outflow) {
+                outflowMinor += amountMinor;
+            }
+        }
+
+        /**
+         * Reporte un changement de statut, comme TransactionStatistics: les flux ne
+         * comptent que les transactions réussies
+         */
+        void changeStatus(String previousStatus, String newStatus, long amountMinor,
+                          boolean inflow, boolean outflow) {
+            increment(countByStatus, previousStatus != null ? previousStatus : UNKNOWN, -1);
+            increment(countByStatus, newStatus != null ? newStatus : UNKNOWN, 1);
+            boolean wasSuccessful = COMPLETED.equals(previousStatus);
+            boolean isSuccessful = COMPLETED.equals(newStatus);
+            if (wasSuccessful == isSuccessful) {
+                return;
+            }
+            long delta = isSuccessful ? amountMinor : -amountMinor;
+            if (inflow) {
+                inflowMinor += delta;
+            }
+            if (outflow) {
+                outflowMinor += delta;
+            }
+        }
+
+        private static void increment(Map<String, long[]> counts, String key, long value) {
+            counts.computeIfAbsent(key, k -> new long[1])[0] += value;
+        }
+    }
+
+    /**
+     * État reconstruit hors ligne à partir du snapshot précédent et du journal
+     */
+    private static class SnapshotState implements JournalReader.Handler {
+        final Map<String, byte[][]> users = new LinkedHashMap<>();
+        final Map<String, AccountState> accounts = new LinkedHashMap<>();
+        final StatisticsState globalStatistics = new StatisticsState();
+        final Map<String, StatisticsState> accountStatistics = new LinkedHashMap<>();
+        final Set<String> inactiveUsers = new LinkedHashSet<>();
+        String lastTransactionId;
+        boolean applyBalances;
+
+        @Override
+        public void onUserCreated(String userId, String username, String passwordHash,
+                                  String email, String userType) {
+            users.put(userId, new byte[][]{
+                    JournalCodec.encode(userId),
+                    JournalCodec.encode(username),
+                    JournalCodec.encode(passwordHash),
+                    JournalCodec.encode(email),
+                    JournalCodec.encode(userType)
+            });
+        }
+
+        @Override
+        public void onAccountCreated(String accountNumber, String ownerId, String accountType,
+                                     long balanceMinor) {
+            accounts.put(accountNumber,
+                    new AccountState(accountNumber, ownerId, accountType, balanceMinor));
+        }
+
+        /**
+         * Transaction du journal, ou de la section transactions d'un snapshot de
+         * version 1 (solde déjà compris dans celui du compte)
+         */
+        @Override
+        public void onTransaction(String transactionId, String type, String sourceAccount,
+                                  String destinationAccount, String description,
+                                  long amountMinor, LocalDateTime timestamp) {
+            lastTransactionId = transactionId;
+            globalStatistics.addTransaction(type, amountMinor,
+                    destinationAccount != null, sourceAccount != null);
+            if (sourceAccount != null) {
+                statisticsFor(sourceAccount).addTransaction(type, amountMinor,
+                        sourceAccount.equals(destinationAccount), true);
+            }
+            if (destinationAccount != null && !destinationAccount.equals(sourceAccount)) {
+                statisticsFor(destinationAccount).addTransaction(type, amountMinor, true, false);
+            }
+
+            if (!applyBalances) {
+                return;
+            }
+            adjust(sourceAccount, -amountMinor);
+            adjust(destinationAccount, amountMinor);
+        }
+
+        @Override
+        public void onAccountDeactivated(String accountNumber) {
+            AccountState account = accounts.get(accountNumber);
+            if (account != null) {
+                account.active = false;
+            }
+        }
+
+        @Override
+        public void onUserDeactivated(String userId) {
+            if (users.containsKey(userId)) {
+                inactiveUsers.add(userId);
+            }
+        }
+
+        @Override
+        public void onTransactionStatus(Transaction transaction, String previousStatus) {
+            String sourceAccount = transaction.getSourceAccount();
+            String destinationAccount = transaction.getDestinationAccount();
+            long amountMinor = transaction.getAmountMinor();
+            String newStatus = transaction.getStatus();
+            globalStatistics.changeStatus(previousStatus, newStatus, amountMinor,
+                    destinationAccount != null, sourceAccount != null);
+            if (sourceAccount != null) {
+                statisticsFor(sourceAccount).changeStatus(previousStatus, newStatus, amountMinor,
+                        sourceAccount.equals(destinationAccount), true);
+            }
+            if (destinationAccount != null && !destinationAccount.equals(sourceAccount)) {
+                statisticsFor(destinationAccount).changeStatus(previousStatus, newStatus, amountMinor,
+                        true, false);
+            }
+        }
+
+        @Override
+        public void onPasswordChanged(String userId, String passwordHash) {
+            byte[][] user = users.get(userId);
+            if (user != null) {
+                user[2] = JournalCodec.encode(passwordHash);
+            }
+        }
+
+        @Override
+        public void onStatistics(String accountNumber, long transactionCount, long inflowMinor,
+                                 long outflowMinor, Map<String, Long> countByType,
+                                 Map<String, Long> countByStatus) {
+            StatisticsState statistics = accountNumber == null
+                    ? globalStatistics
+                    : statisticsFor(accountNumber);
+            statistics.add(transactionCount, inflowMinor, outflowMinor, countByType, countByStatus);
+        }
+
+        @Override
+        public void onLastTransaction(String transactionId) {
+            lastTransactionId = transactionId;
+        }
+
+        private StatisticsState statisticsFor(String accountNumber) {
+            return accountStatistics.computeIfAbsent(accountNumber, k -> new StatisticsState());
+        }
+
+        private void adjust(String accountNumber, long deltaMinor) {
+            if (accountNumber == null) {
+                return;
+            }
+            AccountState account = accounts.get(accountNumber);
+            if (account != null) {
+                account.balanceMinor += deltaMinor;
+            }
+        }
+    }
+
+    /**
+     * Transactions d'une plage du journal copiées dans l'archive par lots, avec le
+     * dernier statut journalisé dans la plage
+     */
+    private static class HistoryCollector implements JournalReader.Handler {
+        private final HistoryArchive archive;
+        private final Map<String, Transaction> batch = new LinkedHashMap<>();
+        /** Changements de statut de transactions déjà passées dans un lot précédent */
+        private final Map<String, Transaction> laterStatuses = new LinkedHashMap<>();
+        /** Statut que porte l'archive tant qu'elle n'a pas vu ces changements */
+        private final Map<String, String> archivedStatuses = new HashMap<>();
+        private IOException failure;
+
+        HistoryCollector(HistoryArchive archive) {
+            this.archive = archive;
+        }
+
+        @Override
+        public void onUserCreated(String userId, String username, String passwordHash,
+                                  String email, String userType) {
+        }
+
+        @Override
+        public void onAccountCreated(String accountNumber, String ownerId, String accountType,
+                                     long balanceMinor) {
+        }
+
+        @Override
+        public void onTransaction(String transactionId, String type, String sourceAccount,
+                                  String destinationAccount, String description,
+                                  long amountMinor, LocalDateTime timestamp) {
+            batch.put(transactionId, Transaction.ofMinorUnits(transactionId, type, sourceAccount,
+                    destinationAccount, amountMinor, timestamp, description));
+            if (batch.size() >= HISTORY_BATCH) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onTransactionStatus(Transaction transaction, String previousStatus) {
+            String transactionId = transaction.getTransactionId();
+            if (batch.containsKey(transactionId)) {
+                batch.put(transactionId, transaction);
+            } else {
+                laterStatuses.put(transactionId, transaction);
+                archivedStatuses.putIfAbsent(transactionId, previousStatus);
+            }
+        }
+
+        private void flush() {
+            if (failure == null && !batch.isEmpty()) {
+                try {
+                    archive.appendMissing(new ArrayList<>(batch.values()));
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            batch.clear();
+        }
+
+        /**
+         * Écrit le dernier lot puis les changements de statut restants, sauf si l'archive
+         * porte déjà un statut plus récent, écrit depuis la mémoire
+         */
+        void finish() throws IOException {
+            flush();
+            if (failure != null) {
+                throw failure;
+            }
+            List<Transaction> updates = new ArrayList<>();
+            for (Transaction transaction : laterStatuses.values()) {
+                Transaction archived = archive.find(transaction.getTransactionId());
+                if (archived == null || archived.getStatus().equals(
+                        archivedStatuses.get(transaction.getTransactionId()))) {
+                    updates.add(transaction);
+                }
+            }
+            archive.append(updates);
+        }
+    }
+}
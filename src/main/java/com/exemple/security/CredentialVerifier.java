@@ -0,0 +1,278 @@
+package com.exemple.security;
+
+
+import com.exemple.exception.ServiceOverloadedException;
+import com.exemple.model.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vérification des identifiants de connexion.
+ *
+ * Le hachage d'un mot de passe est coûteux par construction: les vérifications
+ * s'exécutent dans un pool dédié de taille fixe, avec une file bornée. Une rafale de
+ * connexions occupe au plus ce pool et, file pleine, est refusée immédiatement au lieu
+ * de prendre le processeur aux threads des transactions.
+ *
+ * Une connexion réussie est mémorisée pendant une courte durée, sous une clé formée de
+ * l'ID utilisateur et d'une empreinte HMAC du mot de passe (la clé HMAC est tirée au
+ * hasard à la création): une reconnexion avec les mêmes identifiants évite le hachage.
+ * L'entrée n'est valable que si le hachage stocké de l'utilisateur n'a pas changé.
+ *
+ * Un mot de passe vérifié dont le hachage est à l'ancien format, ou d'un coût inférieur
+ * au coût configuré, est haché à nouveau. Les hachages des inscriptions passent par le
+ * même pool.
+ */
+public class CredentialVerifier implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(1);
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+    private static final long IDLE_THREAD_SECONDS = 30;
+
+    private final PasswordHasher hasher;
+    private final ThreadPoolExecutor executor;
+    private final long cacheTtlNanos;
+    private final int cacheMaxEntries;
+    private final ConcurrentHashMap<String, VerifiedLogin> cache = new ConcurrentHashMap<>();
+    private final ThreadLocal<Mac> fingerprints;
+
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder upgraded = new LongAdder();
+
+    public CredentialVerifier(PasswordHasher hasher) {
+        this(hasher, defaultThreads(), DEFAULT_QUEUE_CAPACITY, DEFAULT_CACHE_TTL, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param threads         nombre maximal de vérifications simultanées
+     * @param queueCapacity   vérifications en attente au-delà desquelles une connexion est refusée
+     * @param cacheTtl        durée de validité d'une connexion mémorisée (zéro: pas de cache)
+     * @param cacheMaxEntries nombre maximal de connexions mémorisées
+     */
+    public CredentialVerifier(PasswordHasher hasher, int threads, int queueCapacity,
+                              Duration cacheTtl, int cacheMaxEntries) {
+        if (hasher == null) {
+            throw new IllegalArgumentException("Le hacheur ne peut pas être nul");
+        }
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Le pool et la file doivent être de taille positive");
+        }
+        if (cacheTtl == null || cacheTtl.isNegative() || cacheMaxEntries < 0) {
+            throw new IllegalArgumentException("Paramètres de cache invalides");
+        }
+        this.hasher = hasher;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.cacheMaxEntries = cacheMaxEntries;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec key = new SecretKeySpec(secret, FINGERPRINT_ALGORITHM);
+        this.fingerprints = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Algorithme " + FINGERPRINT_ALGORITHM + " indisponible", e);
+            }
+        });
+    }
+
+    private static int defaultThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * Vérifie le mot de passe de l'utilisateur. Le thread appelant attend le résultat
+     * de la vérification.
+     *
+     * @throws ServiceOverloadedException si trop de vérifications sont déjà en attente
+     */
+    public boolean verify(User user, String password) {
+        if (user == null || password == null) {
+            return false;
+        }
+        String storedHash = user.getPasswordHash();
+        String key = cacheTtlNanos > 0 ? cacheKey(user.getUserId(), password) : null;
+        long now = System.nanoTime();
+        if (key != null) {
+            VerifiedLogin cached = cache.get(key);
+            if (cached != null && cached.expiresAt - now > 0 && cached.passwordHash.equals(storedHash)) {
+                cacheHits.increment();
+                return true;
+            }
+        }
+
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> check(user, password, storedHash));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Trop de connexions en cours, réessayez plus tard");
+        }
+
+        boolean verified = await(result);
+        if (verified && key != null) {
+            remember(key, user.getPasswordHash(), now);
+        }
+        return verified;
+    }
+
+    /**
+     * Hache le mot de passe d'un nouvel utilisateur dans le pool de vérification; le
+     * thread appelant attend le résultat
+     *
+     * @throws ServiceOverloadedException si trop de hachages sont déjà en attente
+     */
+    public String hash(String password) {
+        Future<String> result;
+        try {
+            result = executor.submit(() -> hasher.hash(password));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Trop d'opérations sur les mots de passe en cours, réessayez plus tard");
+        }
+        return await(result);
+    }
+
+    /**
+     * Oublie les connexions mémorisées d'un utilisateur (désactivation, changement de
+     * mot de passe)
+     */
+    public void invalidate(String userId) {
+        String prefix = userId + ':';
+        cache.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public PasswordHasher getHasher() {
+        return hasher;
+    }
+
+    /**
+     * Nombre de mots de passe vérifiés par hachage
+     */
+    public long getVerificationCount() {
+        return verifications.sum();
+    }
+
+    /**
+     * Nombre de connexions acceptées grâce au cache
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Nombre de connexions (et d'inscriptions) refusées parce que la file de
+     * vérification était pleine
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Nombre de hachages remplacés par un hachage au format et au coût courants
+     */
+    public long getUpgradedCount() {
+        return upgraded.sum();
+    }
+
+    /**
+     * Nombre de vérifications en attente d'un thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getCachedLoginCount() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private boolean check(User user, String password, String storedHash) {
+        verifications.increment();
+        if (!hasher.verify(password, storedHash)) {
+            return false;
+        }
+        if (hasher.needsRehash(storedHash)) {
+            user.changePassword(hasher.hash(password));
+            upgraded.increment();
+        }
+        return true;
+    }
+
+    private static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vérification du mot de passe interrompue");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Échec de la vérification du mot de passe", cause);
+        }
+    }
+
+    /**
+     * Au-delà de la taille maximale, les entrées expirées sont purgées; si le cache
+     * reste plein, la connexion n'est pas mémorisée
+     */
+    private void remember(String key, String passwordHash, long now) {
+        if (cache.size() >= cacheMaxEntries) {
+            cache.values().removeIf(login -> login.expiresAt - now <= 0);
+            if (cache.size() >= cacheMaxEntries) {
+                return;
+            }
+        }
+        cache.put(key, new VerifiedLogin(passwordHash, now + cacheTtlNanos));
+    }
+
+    private String cacheKey(String userId, String password) {
+        Mac mac = fingerprints.get();
+        mac.update(userId.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        byte[] fingerprint = mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        return userId + ':' + Base64.getEncoder().withoutPadding().encodeToString(fingerprint);
+    }
+
+    private static final class VerifiedLogin {
+        final String passwordHash;
+        final long expiresAt;
+
+        VerifiedLogin(String passwordHash, long expiresAt) {
+            this.passwordHash = passwordHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
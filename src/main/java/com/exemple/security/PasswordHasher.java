@@ -0,0 +1,146 @@
+package com.exemple.security;
+
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Hachage des mots de passe par PBKDF2 (HMAC-SHA256) avec un sel aléatoire.
+ *
+ * Le hachage produit est de la forme {@code PBKDF2$<itérations>$<sel>$<clé>} (sel et
+ * clé en Base64): le coût est conservé avec le hachage, ce qui permet d'augmenter le
+ * nombre d'itérations sans invalider les mots de passe existants. Les anciens hachages
+ * {@code HASHED_<hashCode>} restent vérifiables et sont signalés par
+ * {@link #needsRehash(String)} pour être remplacés à la connexion suivante.
+ *
+ * Le nombre d'itérations par défaut se règle par la propriété système
+ * {@value #ITERATIONS_PROPERTY}.
+ */
+public class PasswordHasher {
+
+    public static final String ITERATIONS_PROPERTY = "finance.password.iterations";
+    public static final int DEFAULT_ITERATIONS = 310_000;
+    public static final int DEFAULT_SALT_BYTES = 16;
+    public static final int DEFAULT_KEY_BITS = 256;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "PBKDF2$";
+    private static final String LEGACY_PREFIX = "HASHED_";
+
+    private final int iterations;
+    private final int saltBytes;
+    private final int keyBits;
+    private final SecureRandom random = new SecureRandom();
+
+    public PasswordHasher() {
+        this(Integer.getInteger(ITERATIONS_PROPERTY, DEFAULT_ITERATIONS), DEFAULT_SALT_BYTES, DEFAULT_KEY_BITS);
+    }
+
+    /**
+     * @param iterations nombre d'itérations PBKDF2 (coût d'un hachage et d'une vérification)
+     * @param saltBytes  taille du sel, en octets
+     * @param keyBits    taille de la clé dérivée, en bits (multiple de 8)
+     */
+    public PasswordHasher(int iterations, int saltBytes, int keyBits) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Le nombre d'itérations doit être positif");
+        }
+        if (saltBytes <= 0) {
+            throw new IllegalArgumentException("La taille du sel doit être positive");
+        }
+        if (keyBits <= 0 || keyBits % 8 != 0) {
+            throw new IllegalArgumentException("La taille de clé doit être un multiple positif de 8");
+        }
+        this.iterations = iterations;
+        this.saltBytes = saltBytes;
+        this.keyBits = keyBits;
+    }
+
+    /**
+     * Hache le mot de passe avec un nouveau sel
+     */
+    public String hash(String password) {
+        if (password == null) {
+            throw new IllegalArgumentException("Le mot de passe ne peut pas être nul");
+        }
+        byte[] salt = new byte[saltBytes];
+        random.nextBytes(salt);
+        byte[] key = derive(password, salt, iterations, keyBits);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + '$' + encoder.encodeToString(salt) + '$' + encoder.encodeToString(key);
+    }
+
+    /**
+     * Vérifie le mot de passe contre un hachage, au nouveau format ou à l'ancien.
+     * La comparaison est en temps constant; un hachage mal formé ne correspond à rien.
+     */
+    public boolean verify(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+        if (storedHash.startsWith(LEGACY_PREFIX)) {
+            return MessageDigest.isEqual(
+                    (LEGACY_PREFIX + password.hashCode()).getBytes(StandardCharsets.UTF_8),
+                    storedHash.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = split(storedHash);
+        if (parts == null) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            if (storedIterations <= 0 || expected.length == 0) {
+                return false;
+            }
+            return MessageDigest.isEqual(expected, derive(password, salt, storedIterations, expected.length * 8));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Indique si le hachage doit être recalculé: ancien format, ou coût inférieur au
+     * coût configuré
+     */
+    public boolean needsRehash(String storedHash) {
+        String[] parts = storedHash == null ? null : split(storedHash);
+        if (parts == null) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    private static String[] split(String storedHash) {
+        if (!storedHash.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] parts = storedHash.split("\\$");
+        return parts.length == 4 ? parts : null;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int keyBits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Algorithme " + ALGORITHM + " indisponible", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.exemple.security;
+
+
+import com.exemple.model.User;
+
+/**
+ * Session ouverte par une connexion réussie, identifiée par un jeton opaque.
+ *
+ * L'échéance glisse à chaque validation; elle est relue par la roue de
+ * temporisation du {@link SessionManager}, qui ne déplace pas la session à chaque
+ * accès.
+ */
+public final class Session {
+
+    private final String token;
+    private final User user;
+    private volatile long expiresAt;
+
+    /** Suivante dans le compartiment de la roue où la session est rangée */
+    Session next;
+
+    Session(String token, User user, long expiresAt) {
+        this.token = token;
+        this.user = user;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getUserId() {
+        return user.getUserId();
+    }
+
+    long getExpiresAt() {
+        return expiresAt;
+    }
+
+    void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Session{user=" + user.getUsername() + "}";
+    }
+}
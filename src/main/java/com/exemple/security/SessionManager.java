@@ -0,0 +1,353 @@
+package com.exemple.security;
+
+
+import com.exemple.model.User;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Sessions des utilisateurs connectés, indexées par jeton opaque.
+ *
+ * Un jeton est tiré au hasard (256 bits) et ne contient rien de l'utilisateur. La
+ * validation d'un jeton est une lecture dans une table concurrente, sans parcours
+ * des utilisateurs ni nouveau hachage du mot de passe. L'échéance d'une session
+ * glisse à chaque validation, par pas d'un tick au plus.
+ *
+ * Les sessions expirées sont évincées par une roue de temporisation: un tableau
+ * circulaire de compartiments, un par tick, chacun une liste chaînée sans verrou des
+ * sessions qui arrivent à échéance pendant ce tick. À chaque tick, un seul
+ * compartiment est vidé: les sessions expirées sont retirées, les autres (échéance
+ * prolongée entre-temps, ou au-delà d'un tour de roue) sont rangées à nouveau.
+ * L'éviction coûte donc le nombre de sessions échues, pas le nombre de sessions.
+ *
+ * Une session expirée que la roue n'a pas encore évincée est refusée et retirée à sa
+ * validation.
+ */
+public class SessionManager implements AutoCloseable {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+    public static final Duration DEFAULT_TICK = Duration.ofSeconds(1);
+    public static final int DEFAULT_WHEEL_SIZE = 2048;
+
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final long ttlNanos;
+    private final long tickNanos;
+    private final int mask;
+    private final AtomicReferenceArray<Session> wheel;
+    private final LongSupplier clock;
+    private final long origin;
+    private final boolean timerEnabled;
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /** Dernier tick dont le compartiment a été vidé */
+    private volatile long currentTick;
+    private volatile ScheduledFuture<?> timer;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private final LongAdder evictionRuns = new LongAdder();
+    private final LongAdder evictionNanos = new LongAdder();
+
+    public SessionManager() {
+        this(DEFAULT_TTL, DEFAULT_TICK, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * La roue est entraînée par un minuteur partagé, démarré à la première session
+     *
+     * @param ttl       durée d'inactivité au-delà de laquelle une session expire
+     * @param tick      granularité de l'éviction
+     * @param wheelSize nombre de compartiments de la roue (arrondi à une puissance de 2)
+     */
+    public SessionManager(Duration ttl, Duration tick, int wheelSize) {
+        this(ttl, tick, wheelSize, System::nanoTime, true);
+    }
+
+    /**
+     * Horloge fournie, en nanosecondes: aucun minuteur n'est démarré, l'éviction se
+     * fait par {@link #expireSessions()}
+     */
+    public SessionManager(Duration ttl, Duration tick, int wheelSize, LongSupplier clock) {
+        this(ttl, tick, wheelSize, clock, false);
+    }
+
+    private SessionManager(Duration ttl, Duration tick, int wheelSize,
+                           LongSupplier clock, boolean timerEnabled) {
+        if (ttl == null || tick == null || ttl.isNegative() || ttl.isZero()
+                || tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("La durée de session et le tick doivent être positifs");
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("Taille de roue invalide: " + wheelSize);
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("L'horloge ne peut pas être nulle");
+        }
+        int size = wheelSize == 1 ? 1 : Integer.highestOneBit(wheelSize - 1) << 1;
+        this.ttlNanos = ttl.toNanos();
+        this.tickNanos = tick.toNanos();
+        this.mask = size - 1;
+        this.wheel = new AtomicReferenceArray<>(size);
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.timerEnabled = timerEnabled;
+    }
+
+    /**
+     * Ouvre une session pour un utilisateur authentifié
+     */
+    public Session createSession(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("L'utilisateur ne peut pas être nul");
+        }
+        if (timerEnabled && timer == null) {
+            startTimer();
+        }
+        Session session;
+        do {
+            session = new Session(newToken(), user, clock.getAsLong() + ttlNanos);
+        } while (sessions.putIfAbsent(session.getToken(), session) != null);
+        schedule(session);
+        created.increment();
+        return session;
+    }
+
+    /**
+     * Retourne la session du jeton et prolonge son échéance, ou null si le jeton est
+     * inconnu, révoqué ou expiré
+     */
+    public Session validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        long expiresAt = session.getExpiresAt();
+        if (expiresAt - now <= 0) {
+            if (sessions.remove(token, session)) {
+                expired.increment();
+            }
+            return null;
+        }
+        long renewed = now + ttlNanos;
+        if (renewed - expiresAt >= tickNanos) {
+            session.setExpiresAt(renewed);
+        }
+        return session;
+    }
+
+    /**
+     * Révoque une session (déconnexion)
+     *
+     * @return true si la session existait
+     */
+    public boolean invalidate(String token) {
+        if (token == null || sessions.remove(token) == null) {
+            return false;
+        }
+        invalidated.increment();
+        return true;
+    }
+
+    /**
+     * Révoque toutes les sessions d'un utilisateur (désactivation, changement de mot
+     * de passe). Parcourt les sessions: opération rare.
+     *
+     * @return nombre de sessions révoquées
+     */
+    public int invalidateUser(String userId) {
+        int removed = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (session.getUserId().equals(userId) && sessions.remove(entry.getKey(), session)) {
+                removed++;
+            }
+        }
+        invalidated.add(removed);
+        return removed;
+    }
+
+    /**
+     * Vide les compartiments des ticks écoulés depuis le dernier passage. Appelée par
+     * le minuteur; un seul passage à la fois.
+     *
+     * @return nombre de sessions évincées
+     */
+    public synchronized int expireSessions() {
+        long now = clock.getAsLong();
+        long target = Math.floorDiv(now - origin, tickNanos);
+        long first = currentTick + 1;
+        if (target < first) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        currentTick = target;
+        long last = Math.min(target, first + mask);
+        int removed = 0;
+        for (long tick = first; tick <= last; tick++) {
+            removed += drain((int) (tick & mask), now);
+        }
+        evicted.add(removed);
+        expired.add(removed);
+        evictionRuns.increment();
+        evictionNanos.add(System.nanoTime() - start);
+        return removed;
+    }
+
+    /**
+     * Nombre de sessions ouvertes (les sessions expirées non encore évincées comprises)
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    /**
+     * Nombre de sessions expirées, évincées par la roue ou refusées à la validation
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    /**
+     * Nombre de sessions évincées par la roue
+     */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * Nombre de sessions révoquées explicitement
+     */
+    public long getInvalidatedCount() {
+        return invalidated.sum();
+    }
+
+    /**
+     * Nombre de passages d'éviction qui ont vidé au moins un compartiment
+     */
+    public long getEvictionRunCount() {
+        return evictionRuns.sum();
+    }
+
+    /**
+     * Temps total passé à vider les compartiments, en nanosecondes
+     */
+    public long getEvictionNanos() {
+        return evictionNanos.sum();
+    }
+
+    /**
+     * Sessions évincées par seconde de temps d'éviction
+     */
+    public double getEvictionThroughput() {
+        long nanos = evictionNanos.sum();
+        return nanos == 0 ? 0.0 : evicted.sum() * 1e9 / nanos;
+    }
+
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    /**
+     * Arrête le minuteur et révoque toutes les sessions
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+        sessions.clear();
+    }
+
+    private synchronized void startTimer() {
+        if (timer == null) {
+            timer = Ticker.EXECUTOR.scheduleAtFixedRate(this::tick, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void tick() {
+        try {
+            expireSessions();
+        } catch (RuntimeException e) {
+            System.err.println("Erreur lors de l'éviction des sessions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Range la session dans le compartiment de son échéance, au plus tôt le prochain
+     * tick. Une session rangée pendant que son compartiment est vidé attend un tour de
+     * roue; elle reste refusée à la validation si elle expire entre-temps.
+     */
+    private void schedule(Session session) {
+        long tick = Math.max(Math.ceilDiv(session.getExpiresAt() - origin, tickNanos), currentTick + 1);
+        int index = (int) (tick & mask);
+        Session head;
+        do {
+            head = wheel.get(index);
+            session.next = head;
+        } while (!wheel.compareAndSet(index, head, session));
+    }
+
+    private int drain(int index, long now) {
+        int removed = 0;
+        Session session = wheel.getAndSet(index, null);
+        while (session != null) {
+            Session next = session.next;
+            session.next = null;
+            String token = session.getToken();
+            if (sessions.get(token) == session) {
+                if (session.getExpiresAt() - now <= 0) {
+                    if (sessions.remove(token, session)) {
+                        removed++;
+                    }
+                } else {
+                    schedule(session);
+                }
+            }
+            session = next;
+        }
+        return removed;
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return TOKEN_ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * Minuteur commun à tous les gestionnaires, démarré au premier besoin
+     */
+    private static final class Ticker {
+        static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
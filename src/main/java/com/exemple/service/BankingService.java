@@ -1,46 +1,169 @@
 package com.exemple.service;
 
 
+import com.exemple.exception.ServiceOverloadedException;
 import com.exemple.model.Account;
+import com.exemple.model.AccountStore;
+import com.exemple.model.HeapAccountStore;
 import com.exemple.model.User;
 import com.exemple.pattern.factory.AccountFactory;
 import com.exemple.pattern.factory.UserFactory;
+import com.exemple.persistence.Journal;
+import com.exemple.security.CredentialVerifier;
+import com.exemple.security.Session;
+import com.exemple.security.SessionManager;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Service principal pour la gestion des comptes et utilisateurs
+ *
+ * Les utilisateurs sont indexés par nom d'utilisateur et par email dans des tables
+ * concurrentes: l'unicité est garantie par putIfAbsent, sans parcours ni verrou global.
+ *
+ * Les comptes sont conservés par un {@link AccountStore}: des objets Account par
+ * défaut, ou un stockage hors du tas dont les comptes sont des vues. Les comptes d'un
+ * utilisateur sont mémorisés par numéro et relus dans le stockage.
+ *
+ * Les mots de passe sont vérifiés par un {@link CredentialVerifier}: pool borné
+ * dédié au hachage et cache de courte durée des connexions réussies. Une connexion
+ * ouvre une session: les opérations suivantes présentent son jeton, validé par le
+ * {@link SessionManager} sans nouvelle authentification.
  */
 public class BankingService {
 
     private Map<String, User> users;
-    private Map<String, Account> accounts;
-    private Map<String, List<Account>> userAccounts;
+    private AccountStore accounts;
+    private Map<String, List<String>> userAccounts;
+    private Map<String, User> usersByUsername;
+    private Map<String, User> usersByEmail;
+    private final Set<String> pendingUsernames = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingEmails = ConcurrentHashMap.newKeySet();
+    private Journal journal;
+    private CredentialVerifier credentialVerifier;
+    private SessionManager sessionManager;
 
     public BankingService() {
-        this.users = new HashMap<>();
-        this.accounts = new HashMap<>();
-        this.userAccounts = new HashMap<>();
+        this(new HeapAccountStore());
+    }
+
+    public BankingService(AccountStore accountStore) {
+        if (accountStore == null) {
+            throw new IllegalArgumentException("Le stockage des comptes ne peut pas être nul");
+        }
+        this.users = new ConcurrentHashMap<>();
+        this.accounts = accountStore;
+        this.userAccounts = new ConcurrentHashMap<>();
+        this.usersByUsername = new ConcurrentHashMap<>();
+        this.usersByEmail = new ConcurrentHashMap<>();
+        this.credentialVerifier = new CredentialVerifier(UserFactory.getPasswordHasher());
+        this.sessionManager = new SessionManager();
+    }
+
+    /**
+     * Remplace le vérificateur des mots de passe (taille du pool, cache, coût)
+     */
+    public void setCredentialVerifier(CredentialVerifier credentialVerifier) {
+        if (credentialVerifier == null) {
+            throw new IllegalArgumentException("Le vérificateur ne peut pas être nul");
+        }
+        this.credentialVerifier = credentialVerifier;
+    }
+
+    public CredentialVerifier getCredentialVerifier() {
+        return credentialVerifier;
+    }
+
+    /**
+     * Remplace le gestionnaire des sessions (durée, granularité de l'éviction)
+     */
+    public void setSessionManager(SessionManager sessionManager) {
+        if (sessionManager == null) {
+            throw new IllegalArgumentException("Le gestionnaire de sessions ne peut pas être nul");
+        }
+        this.sessionManager = sessionManager;
+    }
+
+    public SessionManager getSessionManager() {
+        return sessionManager;
+    }
+
+    /**
+     * Active la journalisation des créations d'utilisateurs et de comptes, ainsi que
+     * de leurs désactivations
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
     }
 
     /**
-     * Enregistre un nouvel utilisateur
+     * Enregistre un nouvel utilisateur.
+     *
+     * Les données sont validées et le nom d'utilisateur et l'email réservés avant le
+     * hachage du mot de passe: un doublon est refusé sans hacher. Le hachage passe par
+     * le pool borné du {@link CredentialVerifier}, comme les connexions.
+     *
+     * @throws ServiceOverloadedException si le pool de hachage est saturé
      */
     public User registerUser(String username, String password, String email, String userType) {
-        for (User user : users.values()) {
-            if (user.getUsername().equals(username)) {
-                throw new IllegalArgumentException("Le nom d'utilisateur existe déjà");
-            }
-            if (user.getEmail().equals(email)) {
-                throw new IllegalArgumentException("L'email est déjà utilisé");
+        UserFactory.validateUser(username, password, email, userType);
+        reserveIdentity(username, email);
+        try {
+            String passwordHash = credentialVerifier.hash(password);
+            User newUser = UserFactory.createUserWithHash(username, passwordHash, email, userType);
+
+            users.put(newUser.getUserId(), newUser);
+            userAccounts.put(newUser.getUserId(), new CopyOnWriteArrayList<>());
+            usersByUsername.put(username, newUser);
+            usersByEmail.put(email, newUser);
+
+            if (journal != null) {
+                journal.logUserCreated(newUser);
             }
+
+            return newUser;
+        } finally {
+            pendingUsernames.remove(username);
+            pendingEmails.remove(email);
         }
+    }
 
-        User newUser = UserFactory.createUser(username, password, email, userType);
-        users.put(newUser.getUserId(), newUser);
-        userAccounts.put(newUser.getUserId(), new ArrayList<>());
+    /**
+     * Réinsère un utilisateur reconstruit depuis le journal, sans le journaliser à nouveau
+     */
+    public void restoreUser(User user) {
+        users.put(user.getUserId(), user);
+        usersByUsername.put(user.getUsername(), user);
+        usersByEmail.put(user.getEmail(), user);
+        userAccounts.putIfAbsent(user.getUserId(), new CopyOnWriteArrayList<>());
+    }
 
-        return newUser;
+    /**
+     * Réserve atomiquement le nom d'utilisateur puis l'email le temps de l'inscription;
+     * si l'email est déjà pris, la réservation du nom est annulée. La réservation précède
+     * la vérification des utilisateurs existants, qui sont inscrits avant que leur
+     * réservation soit rendue: deux inscriptions concurrentes ne peuvent donc pas
+     * obtenir le même nom ou le même email.
+     */
+    private void reserveIdentity(String username, String email) {
+        if (!pendingUsernames.add(username)) {
+            throw new IllegalArgumentException("Le nom d'utilisateur existe déjà");
+        }
+        if (usersByUsername.containsKey(username)) {
+            pendingUsernames.remove(username);
+            throw new IllegalArgumentException("Le nom d'utilisateur existe déjà");
+        }
+        if (!pendingEmails.add(email)) {
+            pendingUsernames.remove(username);
+            throw new IllegalArgumentException("L'email est déjà utilisé");
+        }
+        if (usersByEmail.containsKey(email)) {
+            pendingUsernames.remove(username);
+            pendingEmails.remove(email);
+            throw new IllegalArgumentException("L'email est déjà utilisé");
+        }
     }
 
     /**
@@ -55,21 +178,38 @@ public class BankingService {
             throw new IllegalStateException("L'utilisateur est désactivé");
         }
 
-        Account newAccount = AccountFactory.createAccount(user, initialBalance, accountType);
-        accounts.put(newAccount.getAccountNumber(), newAccount);
-        userAccounts.get(userId).add(newAccount);
+        Account newAccount = accounts.add(AccountFactory.createAccount(user, initialBalance, accountType));
+        userAccounts.get(userId).add(newAccount.getAccountNumber());
+
+        if (journal != null) {
+            journal.logAccountCreated(newAccount);
+        }
 
         return newAccount;
     }
 
+    /**
+     * Réinsère un compte reconstruit depuis le journal, sans le journaliser à nouveau
+     */
+    public Account restoreAccount(Account account) {
+        Account stored = accounts.add(account);
+        userAccounts.computeIfAbsent(account.getOwnerId(), k -> new CopyOnWriteArrayList<>())
+                .add(stored.getAccountNumber());
+        return stored;
+    }
+
     /**
      * Récupère un utilisateur par son username
      */
     public User getUserByUsername(String username) {
-        return users.values().stream()
-                .filter(u -> u.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return username == null ? null : usersByUsername.get(username);
+    }
+
+    /**
+     * Récupère un utilisateur par son email
+     */
+    public User getUserByEmail(String email) {
+        return email == null ? null : usersByEmail.get(email);
     }
 
     /**
@@ -90,11 +230,16 @@ public class BankingService {
      * Récupère tous les comptes d'un utilisateur
      */
     public List<Account> getUserAccounts(String userId) {
-        return userAccounts.getOrDefault(userId, new ArrayList<>());
+        List<Account> result = new ArrayList<>();
+        for (String accountNumber : userAccounts.getOrDefault(userId, Collections.emptyList())) {
+            result.add(accounts.get(accountNumber));
+        }
+        return result;
     }
 
     /**
-     * Authentifie un utilisateur
+     * Authentifie un utilisateur. Un hachage mis à niveau par la vérification est
+     * journalisé, pour ne pas revenir à l'ancien hachage après un redémarrage.
      */
     public User authenticate(String username, String password) {
         User user = getUserByUsername(username);
@@ -102,10 +247,13 @@ public class BankingService {
             throw new IllegalArgumentException("Nom d'utilisateur ou mot de passe incorrect");
         }
 
-        String hashedPassword = "HASHED_" + password.hashCode();
-        if (!user.verifyPassword(hashedPassword)) {
+        String storedHash = user.getPasswordHash();
+        if (!credentialVerifier.verify(user, password)) {
             throw new IllegalArgumentException("Nom d'utilisateur ou mot de passe incorrect");
         }
+        if (journal != null && !storedHash.equals(user.getPasswordHash())) {
+            journal.logPasswordChanged(user);
+        }
 
         if (!user.isActive()) {
             throw new IllegalStateException("Ce compte est désactivé");
@@ -116,7 +264,36 @@ public class BankingService {
     }
 
     /**
-     * Désactive un utilisateur et tous ses comptes
+     * Authentifie un utilisateur et ouvre une session dont le jeton sert aux
+     * opérations suivantes
+     */
+    public Session login(String username, String password) {
+        return sessionManager.createSession(authenticate(username, password));
+    }
+
+    /**
+     * Retourne l'utilisateur d'une session valide et prolonge la session
+     *
+     * @throws IllegalStateException si le jeton est inconnu, révoqué ou expiré
+     */
+    public User requireSession(String token) {
+        Session session = sessionManager.validate(token);
+        if (session == null || !session.getUser().isActive()) {
+            throw new IllegalStateException("Session invalide ou expirée");
+        }
+        return session.getUser();
+    }
+
+    /**
+     * Ferme la session du jeton
+     */
+    public void logout(String token) {
+        sessionManager.invalidate(token);
+    }
+
+    /**
+     * Désactive un utilisateur et tous ses comptes; chaque désactivation est journalisée
+     * avant d'être appliquée
      */
     public void deactivateUser(String userId) {
         User user = users.get(userId);
@@ -124,13 +301,18 @@ public class BankingService {
             throw new IllegalArgumentException("Utilisateur non trouvé");
         }
 
+        if (journal != null) {
+            journal.logUserDeactivated(user);
+        }
         user.deactivate();
+        credentialVerifier.invalidate(userId);
+        sessionManager.invalidateUser(userId);
 
-        List<Account> userAccountsList = userAccounts.get(userId);
-        if (userAccountsList != null) {
-            for (Account account : userAccountsList) {
-                account.deactivate();
+        for (Account account : getUserAccounts(userId)) {
+            if (journal != null) {
+                journal.logAccountDeactivated(account);
             }
+            account.deactivate();
         }
     }
 
@@ -150,6 +332,9 @@ public class BankingService {
             );
         }
 
+        if (journal != null) {
+            journal.logAccountDeactivated(account);
+        }
         account.deactivate();
     }
 
@@ -185,11 +370,11 @@ public class BankingService {
      */
     public List<Account> getActiveAccounts() {
         List<Account> activeAccounts = new ArrayList<>();
-        for (Account account : accounts.values()) {
+        accounts.forEach(account -> {
             if (account.isActive()) {
                 activeAccounts.add(account);
             }
-        }
+        });
         return activeAccounts;
     }
 }
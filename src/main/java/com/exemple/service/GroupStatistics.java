@@ -0,0 +1,86 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Money;
+
+/**
+ * Agrégats d'un groupe de transactions calculés par {@link TransactionAnalytics}:
+ * nombre, somme, minimum et maximum des montants.
+ *
+ * Chaque tâche de l'analyse remplit ses propres instances, fusionnées ensuite: aucune
+ * instance n'est partagée entre threads pendant le calcul.
+ */
+public class GroupStatistics {
+
+    private long count;
+    private long sumMinor;
+    private long minMinor = Long.MAX_VALUE;
+    private long maxMinor = Long.MIN_VALUE;
+
+    void add(long amountMinor) {
+        count++;
+        sumMinor += amountMinor;
+        minMinor = Math.min(minMinor, amountMinor);
+        maxMinor = Math.max(maxMinor, amountMinor);
+    }
+
+    void merge(GroupStatistics other) {
+        count += other.count;
+        sumMinor += other.sumMinor;
+        minMinor = Math.min(minMinor, other.minMinor);
+        maxMinor = Math.max(maxMinor, other.maxMinor);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumMinor() {
+        return sumMinor;
+    }
+
+    /**
+     * Plus petit montant, en unités mineures (0 pour un groupe vide)
+     */
+    public long getMinMinor() {
+        return count == 0 ? 0L : minMinor;
+    }
+
+    /**
+     * Plus grand montant, en unités mineures (0 pour un groupe vide)
+     */
+    public long getMaxMinor() {
+        return count == 0 ? 0L : maxMinor;
+    }
+
+    /**
+     * Somme des montants, en unités majeures
+     */
+    public double getSum() {
+        return Money.toMajorUnits(sumMinor);
+    }
+
+    public double getMin() {
+        return Money.toMajorUnits(getMinMinor());
+    }
+
+    public double getMax() {
+        return Money.toMajorUnits(getMaxMinor());
+    }
+
+    /**
+     * Montant moyen, en unités majeures
+     */
+    public double getAverage() {
+        return count == 0 ? 0.0 : Money.toMajorUnits(sumMinor) / count;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupStatistics{nombre=" + count +
+                ", somme=" + getSum() +
+                ", min=" + getMin() +
+                ", max=" + getMax() +
+                '}';
+    }
+}
@@ -0,0 +1,78 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Transaction;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Objects;
+
+/**
+ * Clé de l'index chronologique d'un compte: horodatage puis ID de transaction.
+ * L'ID départage les transactions de même horodatage, ce qui rend l'ordre total et
+ * stable. La clé sert aussi de curseur de pagination, sous la forme
+ * {@code <horodatage ISO>|<ID>}.
+ */
+final class HistoryKey implements Comparable<HistoryKey> {
+
+    private static final char CURSOR_SEPARATOR = '|';
+
+    private final LocalDateTime timestamp;
+    private final String transactionId;
+
+    HistoryKey(LocalDateTime timestamp, String transactionId) {
+        this.timestamp = timestamp != null ? timestamp : LocalDateTime.MIN;
+        this.transactionId = transactionId;
+    }
+
+    static HistoryKey of(Transaction transaction) {
+        return new HistoryKey(transaction.getTimestamp(), transaction.getTransactionId());
+    }
+
+    /**
+     * Plus petite clé possible pour un horodatage: les ID de transaction ne sont jamais vides
+     */
+    static HistoryKey lowest(LocalDateTime timestamp) {
+        return new HistoryKey(timestamp, "");
+    }
+
+    static HistoryKey parseCursor(String cursor) {
+        int separator = cursor.indexOf(CURSOR_SEPARATOR);
+        if (separator <= 0 || separator == cursor.length() - 1) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor);
+        }
+        try {
+            return new HistoryKey(LocalDateTime.parse(cursor.substring(0, separator)),
+                    cursor.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor, e);
+        }
+    }
+
+    LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    String toCursor() {
+        return timestamp.toString() + CURSOR_SEPARATOR + transactionId;
+    }
+
+    @Override
+    public int compareTo(HistoryKey other) {
+        int byTime = timestamp.compareTo(other.timestamp);
+        return byTime != 0 ? byTime : transactionId.compareTo(other.transactionId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HistoryKey other = (HistoryKey) o;
+        return timestamp.equals(other.timestamp) && transactionId.equals(other.transactionId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(timestamp, transactionId);
+    }
+}
@@ -0,0 +1,92 @@
+package com.exemple.service;
+
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Limites de l'historique conservé en mémoire par TransactionService: nombre de
+ * transactions, taille estimée et âge. Au-delà d'une limite, les transactions les plus
+ * anciennes sont déplacées vers l'archive. Une politique est immuable; chaque méthode
+ * {@code with...} retourne une nouvelle politique.
+ */
+public class HistoryRetentionPolicy {
+
+    private final long maxTransactions;
+    private final long maxBytes;
+    private final Duration maxAge;
+
+    private HistoryRetentionPolicy(long maxTransactions, long maxBytes, Duration maxAge) {
+        this.maxTransactions = maxTransactions;
+        this.maxBytes = maxBytes;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Politique sans limite: rien n'est archivé
+     */
+    public static HistoryRetentionPolicy unbounded() {
+        return new HistoryRetentionPolicy(Long.MAX_VALUE, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Nombre maximal de transactions en mémoire
+     */
+    public HistoryRetentionPolicy withMaxTransactions(long maxTransactions) {
+        if (maxTransactions <= 0) {
+            throw new IllegalArgumentException("Le nombre maximal de transactions doit être positif");
+        }
+        return new HistoryRetentionPolicy(maxTransactions, maxBytes, maxAge);
+    }
+
+    /**
+     * Taille mémoire maximale estimée de l'historique, index compris
+     */
+    public HistoryRetentionPolicy withMaxBytes(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("La taille maximale doit être positive");
+        }
+        return new HistoryRetentionPolicy(maxTransactions, maxBytes, maxAge);
+    }
+
+    /**
+     * Âge maximal, d'après l'horodatage, d'une transaction en mémoire
+     */
+    public HistoryRetentionPolicy withMaxAge(Duration maxAge) {
+        if (maxAge == null || maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("L'âge maximal doit être positif");
+        }
+        return new HistoryRetentionPolicy(maxTransactions, maxBytes, maxAge);
+    }
+
+    public long getMaxTransactions() {
+        return maxTransactions;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Âge maximal, ou null si l'âge n'est pas limité
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Horodatage en deçà duquel une transaction est trop ancienne, ou null
+     */
+    LocalDateTime ageCutoff(LocalDateTime now) {
+        return maxAge != null ? now.minus(maxAge) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "HistoryRetentionPolicy{transactions=" +
+                (maxTransactions == Long.MAX_VALUE ? "illimité" : maxTransactions) +
+                ", octets=" + (maxBytes == Long.MAX_VALUE ? "illimité" : maxBytes) +
+                ", âge=" + (maxAge != null ? maxAge : "illimité") +
+                '}';
+    }
+}
@@ -0,0 +1,555 @@
+package com.exemple.service;
+
+
+import com.exemple.exception.InsufficientFundsException;
+import com.exemple.model.Account;
+import com.exemple.model.Money;
+import com.exemple.model.Transaction;
+import com.exemple.pattern.observer.RingBuffer;
+import com.exemple.pattern.strategy.SnowflakeIdGenerator;
+import com.exemple.pattern.strategy.TransactionIdGenerator;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Moteur d'exécution alternatif à TransactionService.executeTransaction, sans verrou
+ * par compte.
+ *
+ * Les comptes sont répartis par hachage de leur numéro entre N partitions. Chaque
+ * partition a son propre thread, seul à modifier le solde de ses comptes: les
+ * opérations d'un compte sont exécutées une à une, dans l'ordre d'arrivée, et ne se
+ * disputent jamais un verrou. Les opérations sont déposées dans la file sans verrou
+ * de la partition du compte concerné ({@link RingBuffer}, bornée: une file pleine fait
+ * attendre l'appelant).
+ *
+ * Un virement entre deux partitions se fait en deux phases, par messages entre
+ * partitions: la partition source vérifie le solde et réserve le montant (le débite),
+ * la partition destination crédite puis confirme; sur confirmation la réservation est
+ * soldée, sur refus (compte destination inconnu ou désactivé) le montant est rendu à
+ * la source. Les messages entre partitions passent par une file non bornée, qu'une
+ * partition traite avant les nouvelles opérations: deux partitions qui s'écrivent
+ * ne peuvent pas se bloquer mutuellement.
+ *
+ * Avec un TransactionService, chaque opération, synchrone ou non, est journalisée,
+ * enregistrée et notifiée par le thread de sa partition avant que son résultat soit
+ * complété: une opération dont le résultat est connu survit à un redémarrage. La
+ * transaction est ajoutée au journal dès que ses soldes sont appliqués, par le thread
+ * qui vient de les modifier (celui de la destination pour un virement entre
+ * partitions); si l'ajout échoue, l'opération est annulée comme un refus.
+ *
+ * Un compte confié au moteur ne doit plus être modifié par les stratégies de
+ * TransactionService: le moteur suppose qu'il est le seul à écrire son solde.
+ */
+public class PartitionedTransactionEngine implements AutoCloseable {
+
+    public static final int DEFAULT_MAILBOX_CAPACITY = 4096;
+
+    private static final int DRAIN_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Partition[] partitions;
+    private final Function<String, Account> accountLookup;
+    private final TransactionIdGenerator idGenerator;
+    private volatile TransactionService transactionService;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder crossPartitionTransfers = new LongAdder();
+    private final LongAdder abortedTransfers = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+
+    /**
+     * @param accountLookup retrouve un compte par son numéro (par exemple
+     *                      {@code bankingService::getAccount}); appelé une fois par compte,
+     *                      par le thread de sa partition
+     */
+    public PartitionedTransactionEngine(int partitionCount, Function<String, Account> accountLookup) {
+        this(partitionCount, DEFAULT_MAILBOX_CAPACITY, accountLookup, SnowflakeIdGenerator.getDefault());
+    }
+
+    public PartitionedTransactionEngine(int partitionCount, int mailboxCapacity,
+                                        Function<String, Account> accountLookup,
+                                        TransactionIdGenerator idGenerator) {
+        if (partitionCount <= 0) {
+            throw new IllegalArgumentException("Le nombre de partitions doit être positif");
+        }
+        if (accountLookup == null || idGenerator == null) {
+            throw new IllegalArgumentException("La recherche des comptes et le générateur d'identifiants sont obligatoires");
+        }
+        this.accountLookup = accountLookup;
+        this.idGenerator = idGenerator;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, mailboxCapacity);
+        }
+        for (Partition partition : partitions) {
+            partition.worker.start();
+        }
+    }
+
+    /**
+     * Historique des opérations exécutées par le moteur: les transactions y sont
+     * enregistrées, journalisées et notifiées comme celles de executeTransaction, par
+     * le thread de la partition (un observateur lent ralentit donc la partition). À
+     * appeler quand aucune opération n'est en cours.
+     */
+    public void setTransactionService(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    /**
+     * Partition propriétaire d'un compte
+     */
+    public int partitionOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return Math.floorMod((hash ^ (hash >>> 16)) * 0x9E3779B9, partitions.length);
+    }
+
+    /**
+     * Dépose un montant; le résultat est complété par le thread de la partition, qui
+     * exécute aussi les étapes dépendantes non asynchrones: elles doivent être courtes
+     */
+    public CompletableFuture<Transaction> submitDeposit(String accountNumber, long amountMinor) {
+        return submit(new Operation(Phase.DEPOSIT, null, requireAccountNumber(accountNumber), amountMinor),
+                accountNumber);
+    }
+
+    public CompletableFuture<Transaction> submitWithdrawal(String accountNumber, long amountMinor) {
+        return submit(new Operation(Phase.WITHDRAW, requireAccountNumber(accountNumber), null, amountMinor),
+                accountNumber);
+    }
+
+    public CompletableFuture<Transaction> submitTransfer(String sourceAccount, String destinationAccount,
+                                                         long amountMinor) {
+        requireAccountNumber(sourceAccount);
+        requireAccountNumber(destinationAccount);
+        if (sourceAccount.equals(destinationAccount)) {
+            throw new IllegalArgumentException("Impossible de transférer vers le même compte");
+        }
+        return submit(new Operation(Phase.RESERVE, sourceAccount, destinationAccount, amountMinor), sourceAccount);
+    }
+
+    /**
+     * Dépôt synchrone, avec le contrat d'erreur de executeTransaction
+     */
+    public Transaction deposit(String accountNumber, double amount) {
+        return await(() -> submitDeposit(accountNumber, toMinorUnits(amount)));
+    }
+
+    public Transaction withdraw(String accountNumber, double amount) {
+        return await(() -> submitWithdrawal(accountNumber, toMinorUnits(amount)));
+    }
+
+    public Transaction transfer(String sourceAccount, String destinationAccount, double amount) {
+        return await(() -> submitTransfer(sourceAccount, destinationAccount, toMinorUnits(amount)));
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * Nombre d'opérations acceptées par le moteur
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * Nombre d'opérations exécutées par une partition
+     */
+    public long getProcessedCount(int partition) {
+        return partitions[partition].processed;
+    }
+
+    /**
+     * Nombre de virements dont les deux comptes sont dans des partitions différentes
+     */
+    public long getCrossPartitionTransferCount() {
+        return crossPartitionTransfers.sum();
+    }
+
+    /**
+     * Nombre de virements entre partitions refusés par la destination et rendus à la source
+     */
+    public long getAbortedTransferCount() {
+        return abortedTransfers.sum();
+    }
+
+    /**
+     * Nombre de réservations en attente de confirmation, toutes partitions confondues
+     */
+    public int getPendingReservationCount() {
+        int pending = 0;
+        for (Partition partition : partitions) {
+            pending += partition.pendingReservations;
+        }
+        return pending;
+    }
+
+    /**
+     * Nombre de dépôts d'opération qui ont dû attendre une place dans une file pleine
+     */
+    public long getBackpressureCount() {
+        return backpressureWaits.sum();
+    }
+
+    /**
+     * Nombre d'opérations en attente dans la file d'une partition
+     */
+    public int getQueueDepth(int partition) {
+        return partitions[partition].mailbox.size();
+    }
+
+    /**
+     * Termine les opérations déposées et les virements en cours puis arrête les
+     * partitions. À appeler quand plus aucune opération n'est soumise.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Partition partition : partitions) {
+            LockSupport.unpark(partition.worker);
+        }
+        for (Partition partition : partitions) {
+            try {
+                partition.worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private CompletableFuture<Transaction> submit(Operation operation, String accountNumber) {
+        if (operation.amountMinor <= 0) {
+            throw new IllegalArgumentException("Le montant doit être positif");
+        }
+        if (closed) {
+            throw new IllegalStateException("Le moteur de transactions est arrêté");
+        }
+        Partition partition = partitions[partitionOf(accountNumber)];
+        if (!partition.mailbox.offer(operation)) {
+            backpressureWaits.increment();
+            while (!partition.mailbox.offer(operation)) {
+                if (closed) {
+                    throw new IllegalStateException("Le moteur de transactions est arrêté");
+                }
+                LockSupport.unpark(partition.worker);
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            }
+        }
+        submitted.increment();
+        partition.wakeUp();
+        return operation.result;
+    }
+
+    private Transaction await(Supplier<CompletableFuture<Transaction>> operation) {
+        Transaction transaction;
+        try {
+            transaction = operation.get().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IllegalArgumentException || cause instanceof InsufficientFundsException) {
+                throw new RuntimeException("Échec de la transaction: " + cause.getMessage(), cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Échec de la transaction", cause);
+        } catch (IllegalArgumentException e) {
+            TransactionService service = transactionService;
+            if (service != null) {
+                service.failExecution(e.getMessage());
+            }
+            throw new RuntimeException("Échec de la transaction: " + e.getMessage(), e);
+        }
+        return transaction;
+    }
+
+    private static long toMinorUnits(double amount) {
+        if (!(amount > 0)) {
+            throw new IllegalArgumentException("Le montant doit être positif");
+        }
+        return Money.toMinorUnits(amount);
+    }
+
+    private static String requireAccountNumber(String accountNumber) {
+        if (accountNumber == null) {
+            throw new IllegalArgumentException("Le numéro de compte est obligatoire");
+        }
+        return accountNumber;
+    }
+
+    /**
+     * Étape d'une opération; un virement entre partitions passe par RESERVE, CREDIT
+     * puis COMMIT ou ABORT, en circulant d'une partition à l'autre
+     */
+    private enum Phase {
+        DEPOSIT, WITHDRAW, RESERVE, CREDIT, COMMIT, ABORT
+    }
+
+    /**
+     * Opération en cours; le même objet porte un virement à travers ses phases
+     */
+    private static final class Operation {
+        final String source;
+        final String destination;
+        final long amountMinor;
+        final CompletableFuture<Transaction> result = new CompletableFuture<>();
+        Phase phase;
+        Account reservedFrom;
+        RuntimeException failure;
+        Transaction transaction;
+        long journalOffset;
+
+        Operation(Phase phase, String source, String destination, long amountMinor) {
+            this.phase = phase;
+            this.source = source;
+            this.destination = destination;
+            this.amountMinor = amountMinor;
+        }
+    }
+
+    private final class Partition {
+        final RingBuffer<Operation> mailbox;
+        final ConcurrentLinkedQueue<Operation> messages = new ConcurrentLinkedQueue<>();
+        final Thread worker;
+        /** Comptes déjà résolus; lus et écrits par le seul thread de la partition */
+        final Map<String, Account> accounts = new HashMap<>();
+        volatile boolean idle;
+        volatile long processed;
+        volatile int pendingReservations;
+
+        Partition(int index, int mailboxCapacity) {
+            this.mailbox = new RingBuffer<>(mailboxCapacity);
+            this.worker = new Thread(this::run, "partition-" + index);
+            this.worker.setDaemon(true);
+        }
+
+        void wakeUp() {
+            if (idle) {
+                LockSupport.unpark(worker);
+            }
+        }
+
+        /**
+         * Message d'une autre partition (phases d'un virement)
+         */
+        void send(Operation operation) {
+            messages.add(operation);
+            wakeUp();
+        }
+
+        private void run() {
+            while (true) {
+                int work = 0;
+                Operation message;
+                while ((message = messages.poll()) != null) {
+                    process(message);
+                    work++;
+                }
+                work += mailbox.drain(this::process, DRAIN_BATCH);
+                if (work > 0) {
+                    continue;
+                }
+
+                idle = true;
+                if (mailbox.size() == 0 && messages.isEmpty()) {
+                    // Une autre partition peut encore envoyer la phase d'un virement
+                    if (closed && getPendingReservationCount() == 0) {
+                        return;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        }
+
+        private void process(Operation operation) {
+            processed++;
+            try {
+                switch (operation.phase) {
+                    case DEPOSIT:
+                        Account credited = resolve(operation.destination);
+                        credited.creditMinor(operation.amountMinor);
+                        journal(operation, "DEPOSIT", "DEP", "Dépôt effectué avec succès", null, credited);
+                        complete(operation);
+                        break;
+                    case WITHDRAW:
+                        Account debited = resolve(operation.source);
+                        if (!debited.tryDebitMinor(operation.amountMinor)) {
+                            throw insufficientFunds(operation);
+                        }
+                        journal(operation, "WITHDRAW", "WTH", "Retrait effectué avec succès", debited, null);
+                        complete(operation);
+                        break;
+                    case RESERVE:
+                        reserve(operation);
+                        break;
+                    case CREDIT:
+                        credit(operation);
+                        break;
+                    case COMMIT:
+                        pendingReservations--;
+                        complete(operation);
+                        break;
+                    case ABORT:
+                        pendingReservations--;
+                        operation.reservedFrom.refundMinor(operation.amountMinor);
+                        abortedTransfers.increment();
+                        fail(operation, operation.failure);
+                        break;
+                }
+            } catch (InsufficientFundsException | RuntimeException e) {
+                fail(operation, e);
+            }
+        }
+
+        /**
+         * Phase 1, partition source: débite la source. Si la destination est dans la
+         * même partition, le virement se termine ici.
+         */
+        private void reserve(Operation operation) throws InsufficientFundsException {
+            Account source = resolve(operation.source);
+            Partition target = partitions[partitionOf(operation.destination)];
+            if (target == this) {
+                Account destination = resolve(operation.destination);
+                if (!destination.isActive()) {
+                    throw new IllegalStateException("Le compte est désactivé");
+                }
+                debit(source, operation);
+                try {
+                    destination.creditMinor(operation.amountMinor);
+                } catch (RuntimeException e) {
+                    source.refundMinor(operation.amountMinor);
+                    throw e;
+                }
+                journalTransfer(operation, source, destination);
+                complete(operation);
+                return;
+            }
+
+            debit(source, operation);
+            operation.reservedFrom = source;
+            operation.phase = Phase.CREDIT;
+            pendingReservations++;
+            crossPartitionTransfers.increment();
+            target.send(operation);
+        }
+
+        /**
+         * Phase 2, partition destination: crédite, journalise puis rend la main à la
+         * source. Un crédit qui ne peut pas être journalisé est repris et le virement
+         * annulé.
+         */
+        private void credit(Operation operation) {
+            Partition origin = partitions[partitionOf(operation.source)];
+            try {
+                Account destination = resolve(operation.destination);
+                destination.creditMinor(operation.amountMinor);
+                journalTransfer(operation, null, destination);
+                operation.phase = Phase.COMMIT;
+            } catch (RuntimeException e) {
+                operation.failure = e;
+                operation.phase = Phase.ABORT;
+            }
+            origin.send(operation);
+        }
+
+        private void debit(Account source, Operation operation) throws InsufficientFundsException {
+            if (!source.tryDebitMinor(operation.amountMinor)) {
+                throw insufficientFunds(operation);
+            }
+        }
+
+        private void journalTransfer(Operation operation, Account debited, Account credited) {
+            journal(operation, "TRANSFER", "TRF",
+                    "Transfert de " + operation.source + " vers " + operation.destination,
+                    debited, credited);
+        }
+
+        /**
+         * Crée la transaction d'une opération appliquée et l'ajoute au journal; si l'ajout
+         * échoue, les montants débités (debited) et crédités (credited) par ce thread sont
+         * rétablis avant que l'erreur soit propagée
+         */
+        private void journal(Operation operation, String type, String prefix, String description,
+                             Account debited, Account credited) {
+            Transaction transaction = Transaction.ofMinorUnits(idGenerator.nextId(prefix), type,
+                    operation.source, operation.destination, operation.amountMinor,
+                    LocalDateTime.now(), description);
+            TransactionService service = transactionService;
+            if (service != null) {
+                try {
+                    operation.journalOffset = service.appendExecution(transaction);
+                } catch (RuntimeException e) {
+                    if (debited != null) {
+                        debited.refundMinor(operation.amountMinor);
+                    }
+                    if (credited != null) {
+                        credited.revertCreditMinor(operation.amountMinor);
+                    }
+                    throw e;
+                }
+            }
+            operation.transaction = transaction;
+        }
+
+        /**
+         * Enregistre et notifie une opération journalisée, puis complète son résultat
+         */
+        private void complete(Operation operation) {
+            TransactionService service = transactionService;
+            if (service != null) {
+                service.finishExecution(operation.transaction, operation.journalOffset);
+            }
+            operation.result.complete(operation.transaction);
+        }
+
+        /**
+         * Refus d'une opération; les refus métier sont notifiés comme ceux de
+         * executeTransaction
+         */
+        private void fail(Operation operation, Exception failure) {
+            TransactionService service = transactionService;
+            if (service != null && (failure instanceof IllegalArgumentException
+                    || failure instanceof InsufficientFundsException)) {
+                service.failExecution(failure.getMessage());
+            }
+            operation.result.completeExceptionally(failure);
+        }
+
+        private Account resolve(String accountNumber) {
+            Account account = accounts.get(accountNumber);
+            if (account == null) {
+                account = accountLookup.apply(accountNumber);
+                if (account == null) {
+                    throw new IllegalArgumentException("Compte non trouvé: " + accountNumber);
+                }
+                accounts.put(accountNumber, account);
+            }
+            return account;
+        }
+
+        private InsufficientFundsException insufficientFunds(Operation operation) {
+            return new InsufficientFundsException("Solde insuffisant. Disponible: "
+                    + Money.toMajorUnits(resolve(operation.source).getBalanceMinor())
+                    + ", Demandé: " + Money.toMajorUnits(operation.amountMinor));
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.persistence.HistoryArchive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Suivi du niveau chaud de l'historique et déplacement des transactions les plus
+ * anciennes vers l'archive lorsque la politique de rétention est dépassée.
+ *
+ * Dès qu'une limite de nombre ou de taille est franchie, l'archivage ramène le niveau
+ * chaud à 90 % de cette limite, pour ne pas archiver une transaction à chaque ajout.
+ * La limite d'âge est vérifiée au plus une fois par seconde lors des ajouts, ou à la
+ * demande. Les transactions sont écrites dans l'archive avant d'être retirées de la
+ * mémoire: une lecture les trouve toujours dans l'un des deux niveaux.
+ *
+ * Les ajouts ne font que programmer l'archivage: les écritures sur disque ont lieu
+ * dans un thread dédié, qui réécrit aussi les transactions archivées dont le statut a
+ * changé (la dernière version d'une transaction remplace la précédente dans l'archive).
+ */
+final class TieredHistory {
+
+    /**
+     * Estimation de l'empreinte d'une transaction en mémoire hors texte: objet,
+     * horodatage, en-têtes des chaînes et entrées des index
+     */
+    static final long ENTRY_OVERHEAD_BYTES = 512;
+
+    private static final int EVICTION_BATCH = 4096;
+    private static final long AGE_CHECK_INTERVAL_MILLIS = 1000;
+    private static final long IDLE_THREAD_SECONDS = 30;
+
+    private final HistoryArchive archive;
+    private final HistoryRetentionPolicy policy;
+    private final Consumer<List<Transaction>> removeFromMemory;
+    private final ConcurrentSkipListMap<HistoryKey, Transaction> byTime = new ConcurrentSkipListMap<>();
+    private final LongAdder hotCount = new LongAdder();
+    private final LongAdder hotBytes = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder evictionRuns = new LongAdder();
+    private final LongAdder archiveErrors = new LongAdder();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final ThreadPoolExecutor executor;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ConcurrentLinkedQueue<Transaction> statusUpdates = new ConcurrentLinkedQueue<>();
+    private volatile long nextAgeCheckMillis;
+
+    /**
+     * @param removeFromMemory retire des index en mémoire un lot déjà archivé
+     */
+    TieredHistory(HistoryArchive archive, HistoryRetentionPolicy policy,
+                  Consumer<List<Transaction>> removeFromMemory) {
+        this.archive = archive;
+        this.policy = policy;
+        this.removeFromMemory = removeFromMemory;
+        this.executor = new ThreadPoolExecutor(1, 1, IDLE_THREAD_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "history-eviction");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    HistoryArchive getArchive() {
+        return archive;
+    }
+
+    HistoryRetentionPolicy getPolicy() {
+        return policy;
+    }
+
+    void added(Transaction transaction) {
+        if (byTime.put(HistoryKey.of(transaction), transaction) == null) {
+            hotCount.increment();
+            hotBytes.add(estimateBytes(transaction));
+        }
+    }
+
+    void removed(Transaction transaction) {
+        if (byTime.remove(HistoryKey.of(transaction), transaction)) {
+            hotCount.decrement();
+            hotBytes.add(-estimateBytes(transaction));
+        }
+    }
+
+    /**
+     * Vérification rapide faite après chaque ajout
+     */
+    boolean needsEviction() {
+        if (hotCount.sum() > policy.getMaxTransactions() || hotBytes.sum() > policy.getMaxBytes()) {
+            return true;
+        }
+        if (policy.getMaxAge() == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now < nextAgeCheckMillis) {
+            return false;
+        }
+        nextAgeCheckMillis = now + AGE_CHECK_INTERVAL_MILLIS;
+        return true;
+    }
+
+    /**
+     * Programme un archivage dans le thread dédié; sans effet si un archivage est déjà
+     * programmé et n'a pas commencé
+     */
+    void scheduleEviction() {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                scheduled.set(false);
+                evict(false);
+            });
+        }
+    }
+
+    /**
+     * Réécrit en tâche de fond une transaction archivée dont le statut a changé
+     */
+    void statusChanged(Transaction transaction) {
+        statusUpdates.add(transaction);
+        scheduleEviction();
+    }
+
+    /**
+     * Archive immédiatement les transactions en excès, après l'archivage éventuellement
+     * en cours dans le thread dédié
+     */
+    void evict() {
+        evict(true);
+    }
+
+    /**
+     * Archive les transactions en excès puis les retire de la mémoire. Sans attente,
+     * sans effet si un autre thread archive déjà: celui-ci traite aussi les statuts en
+     * attente, sauf ceux arrivés après sa fin, pour lesquels un archivage est reprogrammé.
+     */
+    private void evict(boolean wait) {
+        if (wait) {
+            evictionLock.lock();
+        } else if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            evictBatches();
+            writeStatusUpdates();
+        } finally {
+            evictionLock.unlock();
+        }
+        if (!statusUpdates.isEmpty()) {
+            scheduleEviction();
+        }
+    }
+
+    private void evictBatches() {
+        evictionRuns.increment();
+        long countTarget = target(hotCount.sum(), policy.getMaxTransactions());
+        long bytesTarget = target(hotBytes.sum(), policy.getMaxBytes());
+        LocalDateTime cutoff = policy.ageCutoff(LocalDateTime.now());
+
+        while (true) {
+            List<Transaction> batch = selectBatch(countTarget, bytesTarget, cutoff);
+            if (batch.isEmpty()) {
+                return;
+            }
+            String[] statuses = new String[batch.size()];
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = batch.get(i).getStatus();
+            }
+            try {
+                archive.append(batch);
+            } catch (IOException | IllegalStateException e) {
+                archiveErrors.increment();
+                System.err.println("Archivage de l'historique impossible: " + e.getMessage());
+                return;
+            }
+            removeFromMemory.accept(batch);
+            evicted.add(batch.size());
+            // Un statut changé entre l'écriture et le retrait n'est pas encore archivé
+            for (int i = 0; i < statuses.length; i++) {
+                if (!statuses[i].equals(batch.get(i).getStatus())) {
+                    statusUpdates.add(batch.get(i));
+                }
+            }
+        }
+    }
+
+    private void writeStatusUpdates() {
+        List<Transaction> updates = new ArrayList<>();
+        for (Transaction transaction = statusUpdates.poll(); transaction != null;
+             transaction = statusUpdates.poll()) {
+            updates.add(transaction);
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            archive.append(updates);
+        } catch (IOException | IllegalStateException e) {
+            archiveErrors.increment();
+            System.err.println("Mise à jour de l'archive impossible: " + e.getMessage());
+        }
+    }
+
+    private List<Transaction> selectBatch(long countTarget, long bytesTarget, LocalDateTime cutoff) {
+        long count = hotCount.sum();
+        long bytes = hotBytes.sum();
+        List<Transaction> batch = new ArrayList<>();
+        for (Map.Entry<HistoryKey, Transaction> entry : byTime.entrySet()) {
+            boolean expired = cutoff != null && entry.getKey().getTimestamp().isBefore(cutoff);
+            if (!expired && count <= countTarget && bytes <= bytesTarget) {
+                break;
+            }
+            batch.add(entry.getValue());
+            count--;
+            bytes -= estimateBytes(entry.getValue());
+            if (batch.size() == EVICTION_BATCH) {
+                break;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Niveau à atteindre: 90 % de la limite si elle est dépassée, sinon aucun archivage
+     */
+    private static long target(long current, long limit) {
+        return current > limit ? limit - limit / 10 : Long.MAX_VALUE;
+    }
+
+    static long estimateBytes(Transaction transaction) {
+        return ENTRY_OVERHEAD_BYTES
+                + length(transaction.getTransactionId())
+                + length(transaction.getType())
+                + length(transaction.getSourceAccount())
+                + length(transaction.getDestinationAccount())
+                + length(transaction.getDescription());
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    long getHotBytes() {
+        return hotBytes.sum();
+    }
+
+    long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    long getEvictionRunCount() {
+        return evictionRuns.sum();
+    }
+
+    long getArchiveErrorCount() {
+        return archiveErrors.sum();
+    }
+
+    void clear() {
+        evictionLock.lock();
+        try {
+            byTime.clear();
+            statusUpdates.clear();
+            hotCount.reset();
+            hotBytes.reset();
+            archive.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Effacement de l'archive impossible", e);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
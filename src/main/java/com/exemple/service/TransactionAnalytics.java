@@ -0,0 +1,264 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.persistence.HistoryArchive;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Rapports sur l'historique des transactions, calculés en parallèle par fork-join.
+ *
+ * L'historique en mémoire est découpé par son Spliterator, sans copie préalable: chaque
+ * tâche agrège sa part dans ses propres tables, puis les résultats partiels sont
+ * fusionnés en remontant l'arbre des tâches, sans verrou partagé. L'archive éventuelle
+ * est relue en parallèle de l'historique en mémoire, par une sous-tâche par segment.
+ *
+ * Comme l'itération d'une ConcurrentHashMap, le calcul est faiblement cohérent: une
+ * transaction enregistrée ou archivée pendant l'analyse peut être ou non comptée.
+ */
+public class TransactionAnalytics {
+
+    /**
+     * Critère de regroupement des transactions
+     */
+    public enum GroupBy {
+        /** Par compte: un virement compte pour ses deux comptes */
+        ACCOUNT,
+        /** Par type de transaction */
+        TYPE,
+        /** Par jour (date ISO) */
+        DAY,
+        /** Par statut */
+        STATUS
+    }
+
+    static final int CHUNK_SIZE = 16_384;
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final TransactionService transactionService;
+    private final ForkJoinPool pool;
+
+    public TransactionAnalytics(TransactionService transactionService) {
+        this(transactionService, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool pool dans lequel les tâches d'analyse s'exécutent
+     */
+    public TransactionAnalytics(TransactionService transactionService, ForkJoinPool pool) {
+        if (transactionService == null) {
+            throw new IllegalArgumentException("Le service de transactions ne peut pas être nul");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Le pool ne peut pas être nul");
+        }
+        this.transactionService = transactionService;
+        this.pool = pool;
+    }
+
+    /**
+     * Agrège tout l'historique selon le critère
+     */
+    public Map<String, GroupStatistics> aggregate(GroupBy groupBy) {
+        return aggregate(groupBy, null, null);
+    }
+
+    /**
+     * Agrège les transactions de la période [from, to) selon le critère (bornes nulles:
+     * non limitées). Le résultat est trié par clé.
+     */
+    public Map<String, GroupStatistics> aggregate(GroupBy groupBy, LocalDateTime from, LocalDateTime to) {
+        if (groupBy == null) {
+            throw new IllegalArgumentException("Le critère de regroupement ne peut pas être nul");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+        }
+        Query query = new Query(groupBy, from, to);
+        Map<String, GroupStatistics> groups = pool.invoke(new RootTask(query));
+        return new TreeMap<>(groups);
+    }
+
+    /**
+     * Comptes ayant le plus grand volume (somme des montants reçus et débités) de
+     * transactions réussies, du plus grand au plus petit
+     */
+    public Map<String, GroupStatistics> topAccountsByVolume(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("La limite doit être positive");
+        }
+        Query query = new Query(GroupBy.ACCOUNT, null, null);
+        query.completedOnly = true;
+        List<Map.Entry<String, GroupStatistics>> entries =
+                new ArrayList<>(pool.invoke(new RootTask(query)).entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, GroupStatistics> e) -> e.getValue().getSumMinor())
+                .reversed()
+                .thenComparing(Map.Entry::getKey));
+
+        Map<String, GroupStatistics> top = new LinkedHashMap<>();
+        for (Map.Entry<String, GroupStatistics> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+        return top;
+    }
+
+    private static void merge(Map<String, GroupStatistics> target, Map<String, GroupStatistics> partial) {
+        for (Map.Entry<String, GroupStatistics> entry : partial.entrySet()) {
+            GroupStatistics existing = target.putIfAbsent(entry.getKey(), entry.getValue());
+            if (existing != null) {
+                existing.merge(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Critère et filtre d'une analyse; accumule une transaction dans une table partielle
+     */
+    private static final class Query {
+        final GroupBy groupBy;
+        final LocalDateTime from;
+        final LocalDateTime to;
+        boolean completedOnly;
+
+        Query(GroupBy groupBy, LocalDateTime from, LocalDateTime to) {
+            this.groupBy = groupBy;
+            this.from = from;
+            this.to = to;
+        }
+
+        void accumulate(Transaction transaction, Map<String, GroupStatistics> groups) {
+            LocalDateTime timestamp = transaction.getTimestamp();
+            if ((from != null && (timestamp == null || timestamp.isBefore(from)))
+                    || (to != null && (timestamp == null || !timestamp.isBefore(to)))
+                    || (completedOnly && !transaction.isSuccessful())) {
+                return;
+            }
+            long amount = transaction.getAmountMinor();
+            switch (groupBy) {
+                case ACCOUNT:
+                    String source = transaction.getSourceAccount();
+                    String destination = transaction.getDestinationAccount();
+                    if (source != null) {
+                        group(groups, source).add(amount);
+                    }
+                    if (destination != null && !destination.equals(source)) {
+                        group(groups, destination).add(amount);
+                    }
+                    break;
+                case TYPE:
+                    group(groups, transaction.getType()).add(amount);
+                    break;
+                case DAY:
+                    group(groups, timestamp == null ? null : timestamp.toLocalDate().toString()).add(amount);
+                    break;
+                default:
+                    group(groups, transaction.getStatus()).add(amount);
+            }
+        }
+
+        private static GroupStatistics group(Map<String, GroupStatistics> groups, String key) {
+            return groups.computeIfAbsent(key != null ? key : UNKNOWN, k -> new GroupStatistics());
+        }
+    }
+
+    /**
+     * Tâche racine: l'historique en mémoire et l'archive sont agrégés en parallèle
+     */
+    @SuppressWarnings("serial")
+    private final class RootTask extends RecursiveTask<Map<String, GroupStatistics>> {
+        private final Query query;
+
+        RootTask(Query query) {
+            this.query = query;
+        }
+
+        @Override
+        protected Map<String, GroupStatistics> compute() {
+            HistoryArchive archive = transactionService.getHistoryArchive();
+            ArchiveTask archived = null;
+            if (archive != null && archive.getTransactionCount() > 0) {
+                archived = new ArchiveTask(query, archive, 0, archive.getSegmentCount());
+                archived.fork();
+            }
+            Map<String, GroupStatistics> groups =
+                    new ChunkTask(query, transactionService.hotHistorySpliterator()).compute();
+            if (archived != null) {
+                merge(groups, archived.join());
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * Part de l'historique en mémoire; se divise tant qu'elle dépasse CHUNK_SIZE
+     */
+    @SuppressWarnings("serial")
+    private static final class ChunkTask extends RecursiveTask<Map<String, GroupStatistics>> {
+        private final Query query;
+        private final Spliterator<Transaction> chunk;
+
+        ChunkTask(Query query, Spliterator<Transaction> chunk) {
+            this.query = query;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected Map<String, GroupStatistics> compute() {
+            Spliterator<Transaction> half;
+            if (chunk.estimateSize() > CHUNK_SIZE && (half = chunk.trySplit()) != null) {
+                ChunkTask left = new ChunkTask(query, half);
+                left.fork();
+                Map<String, GroupStatistics> groups = new ChunkTask(query, chunk).compute();
+                merge(groups, left.join());
+                return groups;
+            }
+            Map<String, GroupStatistics> groups = new HashMap<>();
+            chunk.forEachRemaining(transaction -> query.accumulate(transaction, groups));
+            return groups;
+        }
+    }
+
+    /**
+     * Relecture d'une plage de segments de l'archive; se divise jusqu'à un segment par
+     * tâche. Une transaction encore en mémoire (archivage en cours) n'est comptée que
+     * par l'historique en mémoire.
+     */
+    @SuppressWarnings("serial")
+    private final class ArchiveTask extends RecursiveTask<Map<String, GroupStatistics>> {
+        private final Query query;
+        private final HistoryArchive archive;
+        private final int fromSegment;
+        private final int toSegment;
+
+        ArchiveTask(Query query, HistoryArchive archive, int fromSegment, int toSegment) {
+            this.query = query;
+            this.archive = archive;
+            this.fromSegment = fromSegment;
+            this.toSegment = toSegment;
+        }
+
+        @Override
+        protected Map<String, GroupStatistics> compute() {
+            if (toSegment - fromSegment > 1) {
+                int middle = (fromSegment + toSegment) >>> 1;
+                ArchiveTask left = new ArchiveTask(query, archive, fromSegment, middle);
+                left.fork();
+                Map<String, GroupStatistics> groups =
+                        new ArchiveTask(query, archive, middle, toSegment).compute();
+                merge(groups, left.join());
+                return groups;
+            }
+            Map<String, GroupStatistics> groups = new HashMap<>();
+            archive.forEachInSegments(fromSegment, toSegment, transaction -> {
+                if (!transactionService.isInMemory(transaction.getTransactionId())) {
+                    query.accumulate(transaction, groups);
+                }
+            });
+            return groups;
+        }
+    }
+}
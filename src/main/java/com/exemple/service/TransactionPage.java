@@ -0,0 +1,44 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Transaction;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page d'historique d'un compte, de la transaction la plus récente à la plus ancienne.
+ * Le curseur désigne la dernière transaction de la page: la page suivante commence
+ * strictement avant elle, de sorte que les transactions arrivées entre deux appels ne
+ * décalent pas la pagination.
+ */
+public class TransactionPage {
+
+    private final List<Transaction> transactions;
+    private final String nextCursor;
+
+    TransactionPage(List<Transaction> transactions, String nextCursor) {
+        this.transactions = Collections.unmodifiableList(transactions);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Curseur à passer pour obtenir la page suivante, ou null s'il n'y en a pas
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionPage{" + transactions.size() + " transactions, suite: " + hasMore() + "}";
+    }
+}
@@ -0,0 +1,57 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Account;
+import com.exemple.pattern.strategy.TransactionStrategy;
+
+/**
+ * Opération à exécuter dans un lot: stratégie, comptes concernés et montant
+ */
+public class TransactionRequest {
+
+    private final TransactionStrategy strategy;
+    private final Account source;
+    private final Account destination;
+    private final double amount;
+
+    public TransactionRequest(TransactionStrategy strategy, Account source,
+                              Account destination, double amount) {
+        this.strategy = strategy;
+        this.source = source;
+        this.destination = destination;
+        this.amount = amount;
+    }
+
+    public TransactionStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Account getSource() {
+        return source;
+    }
+
+    public Account getDestination() {
+        return destination;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Vérifie la requête avant exécution. Retourne la raison du rejet, ou null si
+     * la requête est valide; une requête sans stratégie est une erreur d'appel.
+     */
+    String validate() {
+        if (strategy == null) {
+            throw new IllegalArgumentException("La stratégie ne peut pas être nulle");
+        }
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            return "Montant invalide: " + amount;
+        }
+        if (!strategy.validate(source, destination, amount)) {
+            return "Paramètres invalides pour " + strategy.getTransactionType();
+        }
+        return null;
+    }
+}
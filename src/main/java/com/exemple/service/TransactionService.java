@@ -5,30 +5,106 @@ package com.exemple.service;
 import com.exemple.exception.InsufficientFundsException;
 import com.exemple.model.Account;
 import com.exemple.model.Transaction;
+import com.exemple.model.TransactionResult;
+import com.exemple.model.TransactionStatus;
+import com.exemple.model.TransactionStatusListener;
 import com.exemple.pattern.observer.TransactionObserver;
 import com.exemple.pattern.strategy.TransactionStrategy;
+import com.exemple.persistence.HistoryArchive;
+import com.exemple.persistence.Journal;
 
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
 
 /**
- * Service de gestion des transactions avec pattern Strategy et Observer
+ * Service de gestion des transactions avec pattern Strategy et Observer.
+ * Le service peut être partagé entre plusieurs threads: l'historique, les index et
+ * la liste des observateurs sont des structures concurrentes, et les stratégies
+ * verrouillent les comptes concernés pendant la vérification du solde et le débit.
+ *
+ * L'historique de chaque compte et de chaque type est une liste à enjambements triée par
+ * horodatage puis par ID: les requêtes par période et les dernières transactions se
+ * lisent sans tri ni parcours de l'historique complet. Les agrégats par compte et globaux sont tenus à
+ * jour à chaque enregistrement et changement de statut d'une transaction.
+ *
+ * Avec une archive, l'historique en mémoire est borné par une politique de rétention:
+ * les transactions les plus anciennes sont déplacées sur disque et les lectures par ID,
+ * par compte et par type les y retrouvent. L'archivage se fait dans un thread dédié,
+ * jamais dans celui qui enregistre. Une transaction relue depuis l'archive est une
+ * copie; le changement de statut d'une transaction déjà archivée y est réécrit.
  */
 public class TransactionService {
 
+    /** Nombre maximal de comptes verrouillés ensemble par une tranche de lot */
+    static final int BATCH_LOCKED_ACCOUNTS = 64;
+    /** Nombre maximal d'opérations appliquées sous les mêmes verrous */
+    private static final int BATCH_CHUNK_OPERATIONS = 1024;
+
     private Map<String, Transaction> transactionHistory;
-    private List<TransactionObserver> observers;
+    private Map<String, ConcurrentSkipListMap<HistoryKey, Transaction>> accountIndex;
+    private Map<String, ConcurrentSkipListMap<HistoryKey, Transaction>> typeIndex;
+    private Map<String, TransactionStatistics> accountStatistics;
+    private TransactionStatistics globalStatistics;
+    private CopyOnWriteArrayList<TransactionObserver> observers;
+    private Journal journal;
+    private TieredHistory tiers;
+
+    private final TransactionStatusListener statusListener = this::onStatusChanged;
 
     public TransactionService() {
-        this.transactionHistory = new HashMap<>();
-        this.observers = new ArrayList<>();
+        this.transactionHistory = new ConcurrentHashMap<>();
+        this.accountIndex = new ConcurrentHashMap<>();
+        this.typeIndex = new ConcurrentHashMap<>();
+        this.accountStatistics = new ConcurrentHashMap<>();
+        this.globalStatistics = new TransactionStatistics();
+        this.observers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Active la journalisation des transactions exécutées
+     */
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Borne l'historique en mémoire: au-delà de la politique de rétention, les
+     * transactions les plus anciennes sont déplacées vers l'archive. À appeler avant
+     * que le service soit partagé entre plusieurs threads.
+     */
+    public void setHistoryArchive(HistoryArchive archive, HistoryRetentionPolicy policy) {
+        if (archive == null || policy == null) {
+            throw new IllegalArgumentException("L'archive et la politique de rétention sont obligatoires");
+        }
+        TieredHistory tieredHistory = new TieredHistory(archive, policy, this::removeFromMemory);
+        for (Transaction transaction : transactionHistory.values()) {
+            tieredHistory.added(transaction);
+        }
+        this.tiers = tieredHistory;
+        enforceRetention();
+    }
+
+    /**
+     * Applique immédiatement la politique de rétention dans le thread appelant (utile
+     * pour la limite d'âge lorsqu'aucune transaction n'arrive); au retour, l'historique
+     * en mémoire la respecte et les statuts modifiés sont réécrits dans l'archive
+     */
+    public void enforceRetention() {
+        if (tiers != null) {
+            tiers.evict();
+        }
     }
 
     /**
      * Ajoute un observateur
      */
     public void addObserver(TransactionObserver observer) {
-        if (observer != null && !observers.contains(observer)) {
-            observers.add(observer);
+        if (observer != null && observers.addIfAbsent(observer)) {
             System.out.println("Observateur ajouté: " + observer.getObserverName());
         }
     }
@@ -41,7 +117,11 @@ public class TransactionService {
     }
 
     /**
-     * Exécute une transaction en utilisant une stratégie
+     * Exécute une transaction en utilisant une stratégie.
+     *
+     * Avec un journal, la transaction y est ajoutée avant d'être enregistrée ou notifiée,
+     * sous les verrous des comptes pris par la stratégie: si l'ajout échoue, les soldes
+     * sont rétablis avant que les comptes soient rendus et l'erreur du journal est propagée.
      */
     public Transaction executeTransaction(TransactionStrategy strategy,
                                           Account source,
@@ -50,11 +130,16 @@ public class TransactionService {
         Transaction transaction = null;
 
         try {
-            transaction = strategy.execute(source, destination, amount);
-
-            transactionHistory.put(transaction.getTransactionId(), transaction);
+            long journalOffset = 0L;
+            if (journal == null) {
+                transaction = strategy.execute(source, destination, amount);
+            } else {
+                long[] offset = new long[1];
+                transaction = executeJournaled(strategy, source, destination, amount, offset);
+                journalOffset = offset[0];
+            }
 
-            notifyObserversSuccess(transaction);
+            finishExecution(transaction, journalOffset);
 
             return transaction;
 
@@ -69,6 +154,437 @@ public class TransactionService {
         }
     }
 
+    /**
+     * Applique la stratégie et journalise la transaction sans rendre les verrous des
+     * comptes entre les deux (verrous réentrants, pris dans l'ordre des stratégies)
+     */
+    private Transaction executeJournaled(TransactionStrategy strategy, Account source,
+                                         Account destination, double amount, long[] journalOffset)
+            throws InsufficientFundsException {
+        Account first = source != null ? source : destination;
+        Account second = source != null && destination != null && destination != source ? destination : null;
+        if (second != null && second.getAccountNumber().compareTo(first.getAccountNumber()) < 0) {
+            Account swap = first;
+            first = second;
+            second = swap;
+        }
+
+        if (first == null) {
+            return appendOrRevert(strategy.execute(source, destination, amount), source, destination, journalOffset);
+        }
+        synchronized (first) {
+            if (second == null) {
+                return appendOrRevert(strategy.execute(source, destination, amount), source, destination, journalOffset);
+            }
+            synchronized (second) {
+                return appendOrRevert(strategy.execute(source, destination, amount), source, destination, journalOffset);
+            }
+        }
+    }
+
+    private Transaction appendOrRevert(Transaction transaction, Account source, Account destination,
+                                       long[] journalOffset) {
+        try {
+            journalOffset[0] = journal.appendTransaction(transaction);
+        } catch (RuntimeException e) {
+            revertBalances(transaction, source, destination);
+            throw e;
+        }
+        return transaction;
+    }
+
+    /**
+     * Annule l'effet sur les soldes d'une transaction qui n'a pas pu être journalisée;
+     * l'appelant tient les verrous des comptes
+     */
+    private static void revertBalances(Transaction transaction, Account source, Account destination) {
+        long amountMinor = transaction.getAmountMinor();
+        if (source != null && transaction.getSourceAccount() != null) {
+            source.refundMinor(amountMinor);
+        }
+        if (destination != null && transaction.getDestinationAccount() != null) {
+            destination.revertCreditMinor(amountMinor);
+        }
+    }
+
+    /**
+     * Exécute un lot d'opérations dans l'ordre et retourne un résultat par opération.
+     *
+     * Toutes les requêtes sont vérifiées avant la première exécution: une requête nulle
+     * ou sans stratégie rejette le lot entier, des paramètres invalides ne rejettent que
+     * l'opération concernée. Une opération qui échoue n'interrompt pas le lot.
+     *
+     * Le lot est découpé en tranches consécutives d'au plus {@value #BATCH_LOCKED_ACCOUNTS}
+     * comptes distincts: chaque compte d'une tranche est verrouillé une seule fois, dans
+     * l'ordre des numéros de compte (celui des stratégies, donc sans interblocage), puis
+     * toutes les opérations de la tranche sont appliquées; les verrous repris par les
+     * stratégies sont alors déjà détenus. Les transactions sont ajoutées au journal sous
+     * ces mêmes verrous (une opération qui ne peut pas être journalisée est annulée et
+     * rapportée en échec), sans attente individuelle: le lot attend une seule fois leur
+     * durabilité, puis les enregistre; les observateurs reçoivent ensuite un unique
+     * événement de lot.
+     */
+    public List<TransactionResult> executeBatch(List<TransactionRequest> requests) {
+        if (requests == null) {
+            throw new IllegalArgumentException("Le lot ne peut pas être nul");
+        }
+
+        String[] rejections = new String[requests.size()];
+        for (int i = 0; i < rejections.length; i++) {
+            TransactionRequest request = requests.get(i);
+            if (request == null) {
+                throw new IllegalArgumentException("Requête nulle à la position " + i);
+            }
+            rejections[i] = request.validate();
+        }
+
+        TransactionResult[] results = new TransactionResult[rejections.length];
+        Set<Account> chunkAccounts = Collections.newSetFromMap(new IdentityHashMap<>());
+        long journalOffset = 0L;
+
+        int start = 0;
+        while (start < rejections.length) {
+            chunkAccounts.clear();
+            int end = start;
+            while (end < rejections.length && end - start < BATCH_CHUNK_OPERATIONS) {
+                if (rejections[end] == null) {
+                    TransactionRequest request = requests.get(end);
+                    int added = countNew(chunkAccounts, request.getSource(), null)
+                            + countNew(chunkAccounts, request.getDestination(), request.getSource());
+                    if (end > start && chunkAccounts.size() + added > BATCH_LOCKED_ACCOUNTS) {
+                        break;
+                    }
+                    addIfPresent(chunkAccounts, request.getSource());
+                    addIfPresent(chunkAccounts, request.getDestination());
+                }
+                end++;
+            }
+
+            Account[] lockOrder = chunkAccounts.toArray(new Account[0]);
+            Arrays.sort(lockOrder, Comparator.comparing(Account::getAccountNumber));
+            int from = start;
+            int to = end;
+            long chunkOffset = executeLocked(lockOrder, 0, () -> {
+                executeChunk(requests, rejections, results, from, to);
+                return appendChunk(requests, results, from, to);
+            });
+            journalOffset = Math.max(journalOffset, chunkOffset);
+            start = end;
+        }
+
+        if (journal != null && journal.isDurable() && journalOffset > 0L) {
+            journal.awaitDurable(journalOffset);
+        }
+        for (TransactionResult result : results) {
+            if (result.isSuccessful()) {
+                recordTransaction(result.getTransaction());
+            }
+        }
+
+        List<TransactionResult> batchResults = Collections.unmodifiableList(Arrays.asList(results));
+        notifyObserversBatch(batchResults);
+        return batchResults;
+    }
+
+    /**
+     * Applique les opérations [from, to) d'un lot; les comptes de la tranche sont
+     * verrouillés par l'appelant
+     */
+    private static void executeChunk(List<TransactionRequest> requests, String[] rejections,
+                                     TransactionResult[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (rejections[i] != null) {
+                results[i] = TransactionResult.failure(rejections[i]);
+                continue;
+            }
+
+            TransactionRequest request = requests.get(i);
+            try {
+                results[i] = TransactionResult.success(request.getStrategy().execute(
+                        request.getSource(), request.getDestination(), request.getAmount()));
+            } catch (IllegalArgumentException | IllegalStateException | InsufficientFundsException e) {
+                results[i] = TransactionResult.failure(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Journalise les opérations réussies [from, to) d'un lot; une opération dont l'ajout
+     * échoue est annulée et passe en échec. Retourne la dernière position écrite.
+     */
+    private long appendChunk(List<TransactionRequest> requests, TransactionResult[] results,
+                             int from, int to) {
+        if (journal == null) {
+            return 0L;
+        }
+        long lastOffset = 0L;
+        for (int i = from; i < to; i++) {
+            if (!results[i].isSuccessful()) {
+                continue;
+            }
+            Transaction transaction = results[i].getTransaction();
+            try {
+                lastOffset = journal.appendTransaction(transaction);
+            } catch (RuntimeException e) {
+                TransactionRequest request = requests.get(i);
+                revertBalances(transaction, request.getSource(), request.getDestination());
+                results[i] = TransactionResult.failure("Journalisation impossible: " + e.getMessage());
+            }
+        }
+        return lastOffset;
+    }
+
+    /**
+     * Prend les verrous des comptes dans l'ordre du tableau, puis exécute l'action
+     */
+    private static long executeLocked(Account[] accounts, int index, LongSupplier action) {
+        if (index == accounts.length) {
+            return action.getAsLong();
+        }
+        synchronized (accounts[index]) {
+            return executeLocked(accounts, index + 1, action);
+        }
+    }
+
+    private static int countNew(Set<Account> accounts, Account account, Account other) {
+        return account != null && account != other && !accounts.contains(account) ? 1 : 0;
+    }
+
+    private static void addIfPresent(Set<Account> accounts, Account account) {
+        if (account != null) {
+            accounts.add(account);
+        }
+    }
+
+    /**
+     * Ajoute au journal une transaction dont les soldes viennent d'être appliqués, avant
+     * tout enregistrement: si l'ajout échoue, l'appelant rétablit les soldes. Retourne
+     * la position à passer à {@link #finishExecution(Transaction, long)}.
+     */
+    long appendExecution(Transaction transaction) {
+        Journal current = journal;
+        return current != null ? current.appendTransaction(transaction) : 0L;
+    }
+
+    /**
+     * Attend la durabilité d'une transaction journalisée, puis l'enregistre et la notifie.
+     * Si le journal échoue à ce stade, l'issue est incertaine: l'erreur est propagée et
+     * seule la reprise du journal fait foi.
+     */
+    void finishExecution(Transaction transaction, long journalOffset) {
+        Journal current = journal;
+        if (current != null && current.isDurable() && journalOffset > 0L) {
+            current.awaitDurable(journalOffset);
+        }
+
+        recordTransaction(transaction);
+
+        notifyObserversSuccess(transaction);
+    }
+
+    /**
+     * Notifie l'échec d'une opération qui n'a pas produit de transaction
+     */
+    void failExecution(String reason) {
+        notifyObserversFailure(null, reason);
+    }
+
+    /**
+     * Réinsère une transaction reconstruite depuis le journal, sans effet sur les soldes
+     * ni notification des observateurs
+     */
+    public void restoreTransaction(Transaction transaction) {
+        recordTransaction(transaction);
+    }
+
+    /**
+     * Rejoue un changement de statut journalisé. Une transaction de l'historique en
+     * mémoire est remplacée par sa version à jour; pour une transaction archivée ou
+     * couverte par un snapshot, les agrégats changent et l'archive reçoit la nouvelle
+     * version.
+     */
+    public void restoreStatus(Transaction transaction, String previousStatus) {
+        if (transactionHistory.containsKey(transaction.getTransactionId())) {
+            recordTransaction(transaction);
+        } else {
+            changeStatistics(transaction, previousStatus, transaction.getStatus());
+            if (tiers != null) {
+                tiers.statusChanged(transaction);
+            }
+        }
+    }
+
+    /**
+     * Ajoute aux agrégats d'un compte (accountNumber nul: agrégats globaux) ceux de
+     * transactions couvertes par un snapshot, qui ne sont pas remises dans l'historique
+     */
+    public void restoreStatistics(String accountNumber, long transactionCount, long inflowMinor,
+                                  long outflowMinor, Map<String, Long> countByType,
+                                  Map<String, Long> countByStatus) {
+        TransactionStatistics statistics = accountNumber == null
+                ? globalStatistics
+                : statisticsFor(accountNumber);
+        statistics.restore(transactionCount, inflowMinor, outflowMinor, countByType, countByStatus);
+    }
+
+    /**
+     * Enregistre une transaction dans l'historique et met à jour les index secondaires
+     * et les agrégats. L'indexation se fait sous le verrou de la clé dans l'historique,
+     * de sorte qu'un ID en doublon remplace proprement l'ancienne entrée.
+     */
+    private void recordTransaction(Transaction transaction) {
+        transactionHistory.compute(transaction.getTransactionId(), (id, previous) -> {
+            if (previous != null) {
+                unindexTransaction(previous);
+                detachStatistics(previous);
+            }
+            indexTransaction(transaction);
+            attachStatistics(transaction);
+            return transaction;
+        });
+
+        if (tiers != null && tiers.needsEviction()) {
+            tiers.scheduleEviction();
+        }
+    }
+
+    /**
+     * Retire de la mémoire des transactions déjà écrites dans l'archive. Une transaction
+     * remplacée entre-temps par un doublon d'ID reste en place. Les agrégats ne changent
+     * pas: ils portent sur tout l'historique, archive comprise.
+     */
+    private void removeFromMemory(List<Transaction> archived) {
+        for (Transaction transaction : archived) {
+            transactionHistory.computeIfPresent(transaction.getTransactionId(), (id, current) -> {
+                if (current != transaction) {
+                    return current;
+                }
+                unindexTransaction(transaction);
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Ajoute une transaction aux agrégats et s'abonne à ses changements de statut.
+     * Le verrou de la transaction garantit qu'aucun changement n'est compté deux fois
+     * ni perdu entre la lecture du statut et l'abonnement.
+     */
+    private void attachStatistics(Transaction transaction) {
+        synchronized (transaction) {
+            transaction.setStatusListener(statusListener);
+            addToStatistics(transaction, 1);
+        }
+    }
+
+    private void detachStatistics(Transaction transaction) {
+        synchronized (transaction) {
+            transaction.setStatusListener(null);
+            addToStatistics(transaction, -1);
+        }
+    }
+
+    private void addToStatistics(Transaction transaction, int sign) {
+        globalStatistics.add(transaction, null, sign);
+        String source = transaction.getSourceAccount();
+        String destination = transaction.getDestinationAccount();
+        if (source != null) {
+            statisticsFor(source).add(transaction, source, sign);
+        }
+        if (destination != null && !destination.equals(source)) {
+            statisticsFor(destination).add(transaction, destination, sign);
+        }
+    }
+
+    /**
+     * Changement de statut d'une transaction enregistrée: agrégats puis journal
+     */
+    private void onStatusChanged(Transaction transaction, String previousStatus, String newStatus) {
+        changeStatistics(transaction, previousStatus, newStatus);
+        Journal current = journal;
+        if (current != null) {
+            current.logTransactionStatus(transaction, previousStatus);
+        }
+        // Transaction déjà retirée de la mémoire: sa copie archivée porte l'ancien statut
+        if (tiers != null && transactionHistory.get(transaction.getTransactionId()) != transaction) {
+            tiers.statusChanged(transaction);
+        }
+    }
+
+    private void changeStatistics(Transaction transaction, String previousStatus, String newStatus) {
+        globalStatistics.changeStatus(transaction, null, previousStatus, newStatus);
+        String source = transaction.getSourceAccount();
+        String destination = transaction.getDestinationAccount();
+        if (source != null) {
+            statisticsFor(source).changeStatus(transaction, source, previousStatus, newStatus);
+        }
+        if (destination != null && !destination.equals(source)) {
+            statisticsFor(destination).changeStatus(transaction, destination, previousStatus, newStatus);
+        }
+    }
+
+    private TransactionStatistics statisticsFor(String accountNumber) {
+        TransactionStatistics statistics = accountStatistics.get(accountNumber);
+        return statistics != null
+                ? statistics
+                : accountStatistics.computeIfAbsent(accountNumber, k -> new TransactionStatistics());
+    }
+
+    /**
+     * Ajoute une transaction aux index par compte et par type
+     */
+    private void indexTransaction(Transaction transaction) {
+        String source = transaction.getSourceAccount();
+        String destination = transaction.getDestinationAccount();
+
+        addToIndex(accountIndex, source, transaction);
+        if (destination != null && !destination.equals(source)) {
+            addToIndex(accountIndex, destination, transaction);
+        }
+        addToIndex(typeIndex, transaction.getType(), transaction);
+
+        if (tiers != null) {
+            tiers.added(transaction);
+        }
+    }
+
+    /**
+     * Insère une transaction dans l'index chronologique d'un compte ou d'un type
+     */
+    private static void addToIndex(Map<String, ConcurrentSkipListMap<HistoryKey, Transaction>> index,
+                                   String key, Transaction transaction) {
+        if (key == null) {
+            return;
+        }
+
+        index.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>())
+                .put(HistoryKey.of(transaction), transaction);
+    }
+
+    /**
+     * Retire une transaction des index (ID en doublon ou transaction archivée)
+     */
+    private void unindexTransaction(Transaction transaction) {
+        removeFromIndex(accountIndex, transaction.getSourceAccount(), transaction);
+        removeFromIndex(accountIndex, transaction.getDestinationAccount(), transaction);
+        removeFromIndex(typeIndex, transaction.getType(), transaction);
+        if (tiers != null) {
+            tiers.removed(transaction);
+        }
+    }
+
+    private static void removeFromIndex(Map<String, ConcurrentSkipListMap<HistoryKey, Transaction>> index,
+                                        String key, Transaction transaction) {
+        if (key == null) {
+            return;
+        }
+
+        ConcurrentSkipListMap<HistoryKey, Transaction> entries = index.get(key);
+        if (entries != null) {
+            entries.remove(HistoryKey.of(transaction), transaction);
+        }
+    }
+
     /**
      * Notifie tous les observateurs du succès d'une transaction
      */
@@ -98,94 +614,355 @@ public class TransactionService {
     }
 
     /**
-     * Récupère une transaction par son ID
+     * Notifie tous les observateurs de l'exécution d'un lot
      */
-    public Transaction getTransaction(String transactionId) {
-        return transactionHistory.get(transactionId);
+    private void notifyObserversBatch(List<TransactionResult> results) {
+        for (TransactionObserver observer : observers) {
+            try {
+                observer.onBatchExecuted(results);
+            } catch (Exception e) {
+                System.err.println("Erreur dans l'observateur " +
+                        observer.getObserverName() + ": " + e.getMessage());
+            }
+        }
     }
 
     /**
-     * Récupère toutes les transactions d'un compte
+     * Récupère une transaction par son ID. Une copie relue depuis l'archive reste suivie:
+     * un changement de son statut met à jour les agrégats, le journal et l'archive.
      */
-    public List<Transaction> getAccountTransactions(String accountNumber) {
-        List<Transaction> accountTransactions = new ArrayList<>();
-
-        for (Transaction transaction : transactionHistory.values()) {
-            if (accountNumber.equals(transaction.getSourceAccount()) ||
-                    accountNumber.equals(transaction.getDestinationAccount())) {
-                accountTransactions.add(transaction);
+    public Transaction getTransaction(String transactionId) {
+        Transaction transaction = transactionHistory.get(transactionId);
+        if (transaction == null && tiers != null) {
+            transaction = tiers.getArchive().find(transactionId);
+            if (transaction != null) {
+                transaction.setStatusListener(statusListener);
             }
         }
+        return transaction;
+    }
 
-        accountTransactions.sort((t1, t2) -> t2.getTimestamp().compareTo(t1.getTimestamp()));
+    /**
+     * Récupère toutes les transactions d'un compte, de la plus récente à la plus ancienne,
+     * archive comprise
+     *
+     * @deprecated charge tout l'historique du compte en mémoire; utiliser
+     * {@link #getAccountTransactions(String, LocalDateTime, LocalDateTime, int, String)}
+     */
+    @Deprecated
+    public List<Transaction> getAccountTransactions(String accountNumber) {
+        return allOf(accountIndex.get(accountNumber), accountLookup(accountNumber));
+    }
 
-        return accountTransactions;
+    /**
+     * Récupère une page de l'historique d'un compte, de la plus récente à la plus ancienne.
+     *
+     * La période va de {@code from} inclus à {@code to} exclu; une borne nulle n'est pas
+     * limitée. Le curseur est null pour la première page, puis celui retourné par la page
+     * précédente: la pagination reste exacte pendant que de nouvelles transactions arrivent.
+     */
+    public TransactionPage getAccountTransactions(String accountNumber, LocalDateTime from,
+                                                  LocalDateTime to, int pageSize, String cursor) {
+        return page(accountIndex.get(accountNumber), accountLookup(accountNumber), from, to, pageSize, cursor);
     }
 
     /**
-     * Récupère toutes les transactions d'un certain type
+     * Récupère toutes les transactions d'un certain type, de la plus récente à la plus
+     * ancienne, archive comprise. Le nombre total par type se lit dans les agrégats
+     * globaux.
+     *
+     * @deprecated charge toutes les transactions du type en mémoire; utiliser
+     * {@link #getTransactionsByType(String, int, String)}
      */
+    @Deprecated
     public List<Transaction> getTransactionsByType(String type) {
-        List<Transaction> typeTransactions = new ArrayList<>();
+        return allOf(typeIndex.get(type), typeLookup(type));
+    }
 
-        for (Transaction transaction : transactionHistory.values()) {
-            if (type.equals(transaction.getType())) {
-                typeTransactions.add(transaction);
-            }
+    /**
+     * Récupère une page des transactions d'un type, de la plus récente à la plus
+     * ancienne; le curseur suit les mêmes règles que pour l'historique d'un compte
+     */
+    public TransactionPage getTransactionsByType(String type, int pageSize, String cursor) {
+        return page(typeIndex.get(type), typeLookup(type), null, null, pageSize, cursor);
+    }
+
+    private ArchiveLookup accountLookup(String accountNumber) {
+        TieredHistory current = tiers;
+        return current == null ? null : (from, to, filter, limit) ->
+                current.getArchive().findByAccount(accountNumber, from, to, filter, limit);
+    }
+
+    private ArchiveLookup typeLookup(String type) {
+        TieredHistory current = tiers;
+        return current == null ? null : (from, to, filter, limit) ->
+                current.getArchive().findByType(type, from, to, filter, limit);
+    }
+
+    /**
+     * Recherche dans l'archive pour un compte ou un type: transactions de {@code from} à
+     * {@code to} inclus qui satisfont le filtre, au plus {@code limit} les plus récentes
+     */
+    private interface ArchiveLookup {
+        List<Transaction> find(LocalDateTime from, LocalDateTime to, Predicate<Transaction> filter, int limit);
+    }
+
+    /**
+     * Réunit un index en mémoire (éventuellement absent) et la recherche correspondante
+     * dans l'archive (null sans archive), du plus récent au plus ancien
+     */
+    private static List<Transaction> allOf(ConcurrentSkipListMap<HistoryKey, Transaction> index,
+                                           ArchiveLookup archive) {
+        List<Transaction> hot = index == null
+                ? new ArrayList<>()
+                : new ArrayList<>(index.descendingMap().values());
+        if (archive == null) {
+            return hot;
         }
 
-        return typeTransactions;
+        List<Transaction> archived = archive.find(null, null, t -> true, Integer.MAX_VALUE);
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<Transaction> merged = withoutDuplicates(archived, hot);
+        merged.sort(Comparator.comparing(HistoryKey::of, Comparator.reverseOrder()));
+        return merged;
     }
 
     /**
-     * Calcule le total des transactions pour un compte
+     * Page d'un index en mémoire complétée par l'archive: la période va de {@code from}
+     * inclus à {@code to} exclu et la page s'arrête avant la clé du curseur
      */
-    public double getTotalTransactionAmount(String accountNumber) {
-        double total = 0.0;
+    private static TransactionPage page(ConcurrentSkipListMap<HistoryKey, Transaction> index,
+                                        ArchiveLookup archive, LocalDateTime from, LocalDateTime to,
+                                        int pageSize, String cursor) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être positive");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Le début de la période doit précéder sa fin");
+        }
+        HistoryKey after = cursor != null ? HistoryKey.parseCursor(cursor) : null;
 
-        for (Transaction transaction : transactionHistory.values()) {
-            if (accountNumber.equals(transaction.getDestinationAccount())) {
-                total += transaction.getAmount();
+        HistoryKey lower = from != null ? HistoryKey.lowest(from) : null;
+        HistoryKey upper = to != null ? HistoryKey.lowest(to) : null;
+        if (after != null && (upper == null || after.compareTo(upper) < 0)) {
+            upper = after;
+        }
+        if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+            return new TransactionPage(new ArrayList<>(), null);
+        }
+
+        List<Transaction> candidates = new ArrayList<>(Math.min(pageSize + 1, 64));
+        if (index != null) {
+            NavigableMap<HistoryKey, Transaction> window = index;
+            if (lower != null) {
+                window = window.tailMap(lower, true);
+            }
+            if (upper != null) {
+                window = window.headMap(upper, false);
             }
-            if (accountNumber.equals(transaction.getSourceAccount())) {
-                total -= transaction.getAmount();
+            for (Transaction transaction : window.descendingMap().values()) {
+                candidates.add(transaction);
+                if (candidates.size() > pageSize) {
+                    break;
+                }
             }
         }
 
-        return total;
+        if (archive != null) {
+            HistoryKey lowerKey = lower;
+            HistoryKey upperKey = upper;
+            List<Transaction> archived = archive.find(from,
+                    upper != null ? upper.getTimestamp() : null,
+                    t -> {
+                        HistoryKey key = HistoryKey.of(t);
+                        return (lowerKey == null || key.compareTo(lowerKey) >= 0)
+                                && (upperKey == null || key.compareTo(upperKey) < 0);
+                    },
+                    pageSize + 1);
+            if (!archived.isEmpty()) {
+                candidates = withoutDuplicates(archived, candidates);
+                candidates.sort(Comparator.comparing(HistoryKey::of, Comparator.reverseOrder()));
+            }
+        }
+
+        if (candidates.size() <= pageSize) {
+            return new TransactionPage(candidates, null);
+        }
+        List<Transaction> transactions = new ArrayList<>(candidates.subList(0, pageSize));
+        return new TransactionPage(transactions,
+                HistoryKey.of(transactions.get(pageSize - 1)).toCursor());
     }
 
     /**
-     * Retourne le nombre total de transactions
+     * Réunit des transactions archivées et en mémoire; une transaction présente dans
+     * les deux niveaux pendant son archivage n'est gardée qu'une fois
+     */
+    private static List<Transaction> withoutDuplicates(List<Transaction> archived,
+                                                       List<Transaction> hot) {
+        Set<String> hotIds = new HashSet<>();
+        for (Transaction transaction : hot) {
+            hotIds.add(transaction.getTransactionId());
+        }
+        List<Transaction> merged = new ArrayList<>(archived.size() + hot.size());
+        for (Transaction transaction : archived) {
+            if (hotIds.add(transaction.getTransactionId())) {
+                merged.add(transaction);
+            }
+        }
+        merged.addAll(hot);
+        return merged;
+    }
+
+    /**
+     * Retourne le flux net des transactions réussies d'un compte
+     */
+    public double getTotalTransactionAmount(String accountNumber) {
+        TransactionStatistics statistics = accountStatistics.get(accountNumber);
+        return statistics != null ? statistics.getNetFlow() : 0.0;
+    }
+
+    /**
+     * Retourne les agrégats d'un compte (vides si le compte n'a aucune transaction)
+     */
+    public TransactionStatistics getAccountStatistics(String accountNumber) {
+        TransactionStatistics statistics = accountStatistics.get(accountNumber);
+        return statistics != null ? statistics : new TransactionStatistics();
+    }
+
+    /**
+     * Retourne les agrégats de l'ensemble des transactions
+     */
+    public TransactionStatistics getGlobalStatistics() {
+        return globalStatistics;
+    }
+
+    /**
+     * Retourne le nombre total de transactions, archivées ou couvertes par un snapshot
+     * comprises, plafonné à Integer.MAX_VALUE (voir {@link #getTotalTransactionCountAsLong()})
      */
     public int getTotalTransactionCount() {
-        return transactionHistory.size();
+        return saturatedCount(getTotalTransactionCountAsLong());
     }
 
     /**
-     * Retourne le nombre de transactions réussies
+     * Retourne le nombre total de transactions, archivées ou couvertes par un snapshot
+     * comprises
+     */
+    public long getTotalTransactionCountAsLong() {
+        return globalStatistics.getTransactionCount();
+    }
+
+    /**
+     * Retourne le nombre de transactions réussies, plafonné à Integer.MAX_VALUE (voir
+     * {@link #getSuccessfulTransactionCountAsLong()})
      */
     public int getSuccessfulTransactionCount() {
-        int count = 0;
-        for (Transaction transaction : transactionHistory.values()) {
-            if (transaction.isSuccessful()) {
-                count++;
-            }
-        }
-        return count;
+        return saturatedCount(getSuccessfulTransactionCountAsLong());
+    }
+
+    /**
+     * Retourne le nombre de transactions réussies
+     */
+    public long getSuccessfulTransactionCountAsLong() {
+        return globalStatistics.getCountByStatus(TransactionStatus.COMPLETED.name());
+    }
+
+    private static int saturatedCount(long count) {
+        return (int) Math.min(count, Integer.MAX_VALUE);
     }
 
     /**
      * Retourne toutes les transactions
      */
     public List<Transaction> getAllTransactions() {
-        return new ArrayList<>(transactionHistory.values());
+        List<Transaction> hot = new ArrayList<>(transactionHistory.values());
+        if (tiers == null) {
+            return hot;
+        }
+        List<Transaction> archived = new ArrayList<>();
+        tiers.getArchive().forEach(archived::add);
+        return withoutDuplicates(archived, hot);
+    }
+
+    /**
+     * Découpage de l'historique en mémoire, sans copie, pour les analyses parallèles
+     */
+    Spliterator<Transaction> hotHistorySpliterator() {
+        return transactionHistory.values().spliterator();
+    }
+
+    /**
+     * Indique si la transaction est (encore) dans l'historique en mémoire
+     */
+    boolean isInMemory(String transactionId) {
+        return transactionHistory.containsKey(transactionId);
+    }
+
+    /**
+     * Nombre de transactions conservées en mémoire
+     */
+    public int getHotTransactionCount() {
+        return transactionHistory.size();
+    }
+
+    /**
+     * Taille estimée de l'historique en mémoire, en octets (0 sans archive configurée)
+     */
+    public long getHotHistoryBytes() {
+        return tiers != null ? tiers.getHotBytes() : 0L;
+    }
+
+    /**
+     * Nombre de transactions déplacées vers l'archive
+     */
+    public long getEvictedTransactionCount() {
+        return tiers != null ? tiers.getEvictedCount() : 0L;
+    }
+
+    /**
+     * Nombre de passes d'archivage
+     */
+    public long getEvictionRunCount() {
+        return tiers != null ? tiers.getEvictionRunCount() : 0L;
+    }
+
+    /**
+     * Nombre d'archivages ayant échoué (les transactions restent alors en mémoire)
+     */
+    public long getArchiveErrorCount() {
+        return tiers != null ? tiers.getArchiveErrorCount() : 0L;
+    }
+
+    /**
+     * Archive configurée (taille sur disque, segments, lectures), ou null
+     */
+    public HistoryArchive getHistoryArchive() {
+        return tiers != null ? tiers.getArchive() : null;
+    }
+
+    /**
+     * Politique de rétention en vigueur
+     */
+    public HistoryRetentionPolicy getRetentionPolicy() {
+        return tiers != null ? tiers.getPolicy() : HistoryRetentionPolicy.unbounded();
     }
 
     /**
      * Efface l'historique des transactions
      */
     public void clearHistory() {
+        for (Transaction transaction : transactionHistory.values()) {
+            transaction.setStatusListener(null);
+        }
         transactionHistory.clear();
+        accountIndex.clear();
+        typeIndex.clear();
+        accountStatistics.clear();
+        globalStatistics.clear();
+        if (tiers != null) {
+            tiers.clear();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Money;
+import com.exemple.model.Transaction;
+import com.exemple.model.TransactionStatus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrégats d'un compte ou de l'ensemble des transactions, tenus à jour à chaque
+ * enregistrement et changement de statut: les lectures sont en temps constant.
+ *
+ * Les flux entrants et sortants ne comptent que les transactions réussies. Chaque
+ * compteur est un LongAdder: les écritures concurrentes ne se disputent pas une même
+ * variable, et une lecture pendant des écritures peut refléter une mise à jour
+ * partiellement appliquée.
+ */
+public class TransactionStatistics {
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final LongAdder inflowMinor = new LongAdder();
+    private final LongAdder outflowMinor = new LongAdder();
+    private final LongAdder transactionCount = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> countByType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> countByStatus = new ConcurrentHashMap<>();
+
+    /**
+     * Total reçu, en unités majeures
+     */
+    public double getInflow() {
+        return Money.toMajorUnits(inflowMinor.sum());
+    }
+
+    /**
+     * Total débité, en unités majeures
+     */
+    public double getOutflow() {
+        return Money.toMajorUnits(outflowMinor.sum());
+    }
+
+    /**
+     * Flux net (reçu moins débité), en unités majeures
+     */
+    public double getNetFlow() {
+        return Money.toMajorUnits(getNetFlowMinor());
+    }
+
+    public long getInflowMinor() {
+        return inflowMinor.sum();
+    }
+
+    public long getOutflowMinor() {
+        return outflowMinor.sum();
+    }
+
+    public long getNetFlowMinor() {
+        return inflowMinor.sum() - outflowMinor.sum();
+    }
+
+    public long getTransactionCount() {
+        return transactionCount.sum();
+    }
+
+    public long getCountByType(String type) {
+        return sum(countByType, type);
+    }
+
+    public long getCountByStatus(String status) {
+        return sum(countByStatus, status);
+    }
+
+    /**
+     * Ajoute (sign = 1) ou retire (sign = -1) une transaction des agrégats
+     */
+    void add(Transaction transaction, String accountNumber, int sign) {
+        transactionCount.add(sign);
+        counter(countByType, transaction.getType()).add(sign);
+        counter(countByStatus, transaction.getStatus()).add(sign);
+        if (transaction.isSuccessful()) {
+            addFlows(transaction, accountNumber, sign);
+        }
+    }
+
+    /**
+     * Reporte un changement de statut: le compteur de statut et, si la transaction
+     * cesse ou redevient réussie, les flux
+     */
+    void changeStatus(Transaction transaction, String accountNumber,
+                      String previousStatus, String newStatus) {
+        counter(countByStatus, previousStatus).decrement();
+        counter(countByStatus, newStatus).increment();
+        boolean wasSuccessful = TransactionStatus.COMPLETED.name().equals(previousStatus);
+        boolean isSuccessful = TransactionStatus.COMPLETED.name().equals(newStatus);
+        if (wasSuccessful != isSuccessful) {
+            addFlows(transaction, accountNumber, isSuccessful ? 1 : -1);
+        }
+    }
+
+    /**
+     * Pour un compte, seuls les flux qui le concernent sont comptés; pour les agrégats
+     * globaux (accountNumber nul), tout débit est sortant et tout crédit entrant
+     */
+    private void addFlows(Transaction transaction, String accountNumber, int sign) {
+        long amount = sign * transaction.getAmountMinor();
+        String source = transaction.getSourceAccount();
+        String destination = transaction.getDestinationAccount();
+        if (source != null && (accountNumber == null || accountNumber.equals(source))) {
+            outflowMinor.add(amount);
+        }
+        if (destination != null && (accountNumber == null || accountNumber.equals(destination))) {
+            inflowMinor.add(amount);
+        }
+    }
+
+    /**
+     * Ajoute des agrégats relus depuis un snapshot, pour des transactions qui ne sont
+     * plus dans l'historique
+     */
+    void restore(long count, long inflow, long outflow,
+                 Map<String, Long> byType, Map<String, Long> byStatus) {
+        transactionCount.add(count);
+        inflowMinor.add(inflow);
+        outflowMinor.add(outflow);
+        byType.forEach((type, value) -> counter(countByType, type).add(value));
+        byStatus.forEach((status, value) -> counter(countByStatus, status).add(value));
+    }
+
+    /**
+     * Remet les agrégats à zéro
+     */
+    void clear() {
+        inflowMinor.reset();
+        outflowMinor.reset();
+        transactionCount.reset();
+        countByType.clear();
+        countByStatus.clear();
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        String name = key != null ? key : UNKNOWN;
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, k -> new LongAdder());
+    }
+
+    private static long sum(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        LongAdder counter = counters.get(key != null ? key : UNKNOWN);
+        return counter != null ? counter.sum() : 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionStatistics{transactions=" + getTransactionCount() +
+                ", entrées=" + getInflow() +
+                ", sorties=" + getOutflow() +
+                ", net=" + getNetFlow() +
+                '}';
+    }
+}
@@ -0,0 +1,232 @@
+package com.exemple.api;
+
+
+import com.exemple.model.User;
+import com.exemple.security.CredentialVerifier;
+import com.exemple.security.PasswordHasher;
+import com.exemple.service.BankingService;
+import com.exemple.service.TransactionService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour BankingHttpServer
+ */
+public class BankingHttpServerTest {
+
+    private BankingService bankingService;
+    private BankingHttpServer server;
+    private HttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        bankingService = new BankingService();
+        server = new BankingHttpServer(bankingService, new TransactionService(), 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    private HttpResponse<String> request(String method, String path, String token, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        assertEquals(201, request("POST", "/api/users", null, "{\"username\":\"" + username
+                + "\",\"password\":\"password123\",\"email\":\"" + username + "@email.com\"}").statusCode());
+        HttpResponse<String> response = request("POST", "/api/sessions", null,
+                "{\"username\":\"" + username + "\",\"password\":\"password123\"}");
+        assertEquals(201, response.statusCode());
+        return Json.string(Json.parseObject(response.body()), "token");
+    }
+
+    private String createAccount(String token, int initialBalance) throws IOException, InterruptedException {
+        HttpResponse<String> response = request("POST", "/api/accounts", token,
+                "{\"accountType\":\"CHECKING\",\"initialBalance\":" + initialBalance + "}");
+        assertEquals(201, response.statusCode());
+        return Json.string(Json.parseObject(response.body()), "accountNumber");
+    }
+
+    @Test
+    public void testOperations_DepositWithdrawTransferAndHistory() throws Exception {
+        String token = login("alice");
+        String checking = createAccount(token, 100);
+        String savings = createAccount(token, 0);
+
+        HttpResponse<String> deposit = request("POST", "/api/accounts/" + checking + "/deposits", token,
+                "{\"amount\": 50.25}");
+        assertEquals(201, deposit.statusCode());
+        assertEquals(150.25, Json.number(Json.parseObject(deposit.body()), "balance"), 0.0);
+
+        assertEquals(201, request("POST", "/api/accounts/" + checking + "/withdrawals", token,
+                "{\"amount\": 0.25}").statusCode());
+        HttpResponse<String> transfer = request("POST", "/api/transfers", token,
+                "{\"sourceAccount\":\"" + checking + "\",\"destinationAccount\":\"" + savings + "\",\"amount\":40}");
+        assertEquals(201, transfer.statusCode());
+        assertEquals(110.0, Json.number(Json.parseObject(transfer.body()), "balance"), 0.0);
+        assertEquals(40.0, bankingService.getAccount(savings).getBalance(), 0.0);
+
+        HttpResponse<String> history = request("GET", "/api/accounts/" + checking + "/transactions?limit=2",
+                token, null);
+        assertEquals(200, history.statusCode());
+        assertTrue(history.body().contains("\"type\":\"TRANSFER\""));
+        assertFalse("La limite doit être appliquée", history.body().contains("\"type\":\"DEPOSIT\""));
+        assertFalse(history.body().contains("\"nextCursor\":null"));
+
+        HttpResponse<String> accounts = request("GET", "/api/accounts", token, null);
+        assertEquals(200, accounts.statusCode());
+        assertTrue(accounts.body().contains(savings));
+    }
+
+    @Test
+    public void testErrors_MappedToHttpStatus() throws Exception {
+        String alice = login("alice");
+        String account = createAccount(alice, 10);
+        String bob = login("bob");
+
+        assertEquals(401, request("GET", "/api/accounts", null, null).statusCode());
+        assertEquals(401, request("GET", "/api/accounts", "jeton-inconnu", null).statusCode());
+        assertEquals(403, request("POST", "/api/accounts/" + account + "/deposits", bob,
+                "{\"amount\":1}").statusCode());
+        assertEquals(404, request("POST", "/api/accounts/ACC-INCONNU/deposits", alice,
+                "{\"amount\":1}").statusCode());
+        assertEquals(409, request("POST", "/api/accounts/" + account + "/withdrawals", alice,
+                "{\"amount\":1000}").statusCode());
+        assertEquals(400, request("POST", "/api/accounts/" + account + "/deposits", alice,
+                "{\"amount\":-5}").statusCode());
+        assertEquals(400, request("POST", "/api/accounts/" + account + "/deposits", alice,
+                "{\"amount\":").statusCode());
+        assertEquals(405, request("GET", "/api/transfers", alice, null).statusCode());
+
+        HttpResponse<String> badLogin = request("POST", "/api/sessions", null,
+                "{\"username\":\"alice\",\"password\":\"wrong\"}");
+        assertEquals(401, badLogin.statusCode());
+        assertEquals("Nom d'utilisateur ou mot de passe incorrect",
+                Json.string(Json.parseObject(badLogin.body()), "error"));
+        assertEquals(401, request("POST", "/api/sessions", null,
+                "{\"username\":\"inconnu\",\"password\":\"password123\"}").statusCode());
+        assertEquals(400, request("POST", "/api/sessions", null, "{\"username\":\"alice\"}").statusCode());
+
+        bankingService.deactivateUser(bankingService.getUserByUsername("bob").getUserId());
+        assertEquals(403, request("POST", "/api/sessions", null,
+                "{\"username\":\"bob\",\"password\":\"password123\"}").statusCode());
+        assertTrue(server.getClientErrorCount() >= 12);
+        assertEquals(0, server.getServerErrorCount());
+    }
+
+    @Test
+    public void testLogin_OverloadedVerifierReturns503WithRetryAfter() throws Exception {
+        login("alice");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHasher slowHasher = new PasswordHasher(1000, 16, 256) {
+            @Override
+            public boolean verify(String password, String storedHash) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.verify(password, storedHash);
+            }
+        };
+        CredentialVerifier verifier = new CredentialVerifier(slowHasher, 1, 1, Duration.ZERO, 0);
+        bankingService.setCredentialVerifier(verifier);
+        User alice = bankingService.getUserByUsername("alice");
+
+        Thread running = new Thread(() -> verifier.verify(alice, "password123"));
+        Thread queued = new Thread(() -> verifier.verify(alice, "password123"));
+        try {
+            running.start();
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            queued.start();
+            while (verifier.getQueueDepth() == 0) {
+                Thread.sleep(1);
+            }
+
+            HttpResponse<String> response = request("POST", "/api/sessions", null,
+                    "{\"username\":\"alice\",\"password\":\"password123\"}");
+            assertEquals(503, response.statusCode());
+            assertEquals("1", response.headers().firstValue("Retry-After").orElse(null));
+        } finally {
+            release.countDown();
+            running.join();
+            queued.join();
+            verifier.close();
+        }
+    }
+
+    @Test
+    public void testJson_AmountsIgnoreDefaultLocale() throws Exception {
+        Locale previous = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.FRANCE);
+            String json = Json.object().putAmount("balance", 15_025).putAmount("fee", -5).toString();
+            assertEquals("{\"balance\":150.25,\"fee\":-0.05}", json);
+            assertEquals(150.25, Json.number(Json.parseObject(json), "balance"), 0.0);
+
+            String token = login("alice");
+            String account = createAccount(token, 100);
+            HttpResponse<String> deposit = request("POST", "/api/accounts/" + account + "/deposits", token,
+                    "{\"amount\": 50.25}");
+            assertEquals(201, deposit.statusCode());
+            assertEquals(150.25, Json.number(Json.parseObject(deposit.body()), "balance"), 0.0);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void testLogout_RevokesToken() throws Exception {
+        String token = login("alice");
+
+        assertEquals(204, request("DELETE", "/api/sessions", token, null).statusCode());
+        assertEquals(401, request("GET", "/api/accounts", token, null).statusCode());
+    }
+
+    @Test
+    public void testJson_ParsesEscapesAndRejectsTrailingData() {
+        Map<String, Object> fields = Json.parseObject(
+                " {\"name\": \"a\\\"b\\u00e9\", \"amount\": -1.5e1, \"ok\": true, \"none\": null} ");
+
+        assertEquals("a\"bé", fields.get("name"));
+        assertEquals(-15.0, (Double) fields.get("amount"), 0.0);
+        assertEquals(Boolean.TRUE, fields.get("ok"));
+        assertTrue(fields.containsKey("none"));
+        assertEquals("{\"text\":\"a\\\"b\\n\",\"amount\":12.30}",
+                Json.object().put("text", "a\"b\n").putAmount("amount", 1230).toString());
+        try {
+            Json.parseObject("{} {}");
+            fail("Les données après l'objet doivent être refusées");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("JSON invalide"));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.exemple.model;
+
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour AccountDictionary
+ */
+public class AccountDictionaryTest {
+
+    @Test
+    public void testRegister_AssignsDenseStableIds() {
+        AccountDictionary dictionary = new AccountDictionary();
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, dictionary.register("CHK-" + i));
+        }
+
+        assertEquals(10_000, dictionary.size());
+        assertEquals(1234, dictionary.register("CHK-1234"));
+        assertEquals(1234, dictionary.idOf("CHK-1234"));
+        assertEquals("CHK-9999", dictionary.accountNumber(9999));
+        assertEquals(AccountDictionary.NO_ACCOUNT, dictionary.idOf("SAV-1"));
+        assertEquals(AccountDictionary.NO_ACCOUNT, dictionary.register(null));
+        assertNull(dictionary.accountNumber(AccountDictionary.NO_ACCOUNT));
+    }
+
+    @Test
+    public void testRegister_ConcurrentRegistrationsAgree() throws InterruptedException {
+        AccountDictionary dictionary = new AccountDictionary();
+        int[][] ids = new int[4][5_000];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < ids.length; t++) {
+            int[] seen = ids[t];
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < seen.length; i++) {
+                    seen[i] = dictionary.register("CHK-" + i);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(5_000, dictionary.size());
+        for (int i = 0; i < 5_000; i++) {
+            for (int[] seen : ids) {
+                assertEquals("Tous les threads voient le même identifiant", ids[0][i], seen[i]);
+            }
+            assertEquals("CHK-" + i, dictionary.accountNumber(ids[0][i]));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAccountNumber_RejectsUnknownId() {
+        new AccountDictionary().accountNumber(0);
+    }
+}
@@ -0,0 +1,206 @@
+package com.exemple.model;
+
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour Account
+ */
+public class AccountTest {
+
+    @Test
+    public void testCreditAndDebit_InMinorUnits() {
+        Account account = new Account("ACC-1", "USR-1", 100.10, "CHECKING");
+        assertEquals(10_010, account.getBalanceMinor());
+
+        account.credit(0.25);
+        account.debitMinor(1_035);
+
+        assertEquals(9_000, account.getBalanceMinor());
+        assertEquals(90.0, account.getBalance(), 0.0);
+    }
+
+    @Test
+    public void testTryDebit_InsufficientFundsLeavesBalanceUnchanged() {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 500, "CHECKING");
+
+        assertFalse(account.tryDebitMinor(501));
+        assertEquals(500, account.getBalanceMinor());
+        try {
+            account.debit(5.01);
+            fail("Le débit doit être refusé");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Solde insuffisant", e.getMessage());
+        }
+        assertEquals(500, account.getBalanceMinor());
+        assertTrue(account.tryDebitMinor(500));
+        assertEquals(0, account.getBalanceMinor());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeInitialBalance_Rejected() {
+        Account.ofMinorUnits("ACC-1", "USR-1", -1, "CHECKING");
+    }
+
+    @Test
+    public void testConcurrentDebits_NeverOverdraw() throws InterruptedException {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 1_000, "CHECKING");
+        int threads = 8;
+        long[] succeeded = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (account.tryDebitMinor(1)) {
+                        succeeded[index]++;
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long total = 0;
+        for (long count : succeeded) {
+            total += count;
+        }
+        assertEquals("Exactement le solde initial doit être débité", 1_000, total);
+        assertEquals(0, account.getBalanceMinor());
+    }
+
+    @Test
+    public void testConcurrentCreditsAndDebits_ConserveBalance() throws InterruptedException {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 0, "CHECKING");
+        int threads = 8;
+        int operationsPerThread = 20_000;
+        long[] debited = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            boolean crediting = t % 2 == 0;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operationsPerThread; i++) {
+                    if (crediting) {
+                        account.creditMinor(3);
+                    } else if (account.tryDebitMinor(2)) {
+                        debited[index] += 2;
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long credited = (threads / 2) * operationsPerThread * 3L;
+        long totalDebited = 0;
+        for (long amount : debited) {
+            totalDebited += amount;
+        }
+        assertEquals(credited - totalDebited, account.getBalanceMinor());
+        assertTrue(account.getBalanceMinor() >= 0);
+    }
+
+    @Test
+    public void testHotAccount_CreditsAreCountedInBalance() {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 1_000, "BUSINESS");
+        assertFalse(account.isHotAccount());
+
+        assertTrue(account.promoteToHotAccount());
+        account.creditMinor(250);
+        account.creditMinor(250);
+
+        assertTrue(account.isHotAccount());
+        assertEquals(1_500, account.getBalanceMinor());
+        assertEquals(15.0, account.getBalance(), 0.0);
+    }
+
+    @Test
+    public void testHotAccount_DebitConsolidatesPendingCredits() {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 100, "BUSINESS");
+        account.promoteToHotAccount();
+        account.creditMinor(400);
+
+        assertTrue("Le débit doit utiliser les crédits en attente", account.tryDebitMinor(450));
+        assertEquals(50, account.getBalanceMinor());
+        assertFalse(account.tryDebitMinor(51));
+        assertEquals(50, account.getBalanceMinor());
+    }
+
+    @Test
+    public void testConcurrentCredits_PromoteAndConserveBalance() throws InterruptedException {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 0, "BUSINESS");
+        int threads = 16;
+        int creditsPerThread = 20_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < creditsPerThread; i++) {
+                    account.creditMinor(1);
+                    if (i % 100 == 0) {
+                        account.tryDebitMinor(1);
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long debits = (long) threads * (creditsPerThread / 100);
+        assertEquals((long) threads * creditsPerThread - debits, account.getBalanceMinor());
+    }
+
+    @Test
+    public void testContention_PromotesAfterRepeatedFailures() {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 0, "BUSINESS");
+        for (int i = 0; i < Account.HOT_PROMOTION_FAILURES; i++) {
+            assertFalse(account.isHotAccount());
+            account.onCreditContention();
+        }
+        assertTrue(account.isHotAccount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testHotAccount_DeactivatedRejectsCredits() {
+        Account account = Account.ofMinorUnits("ACC-1", "USR-1", 0, "BUSINESS");
+        account.promoteToHotAccount();
+        account.deactivate();
+        account.creditMinor(1);
+    }
+}
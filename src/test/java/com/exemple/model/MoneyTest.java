@@ -0,0 +1,105 @@
+package com.exemple.model;
+
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour Money
+ */
+public class MoneyTest {
+
+    @Test
+    public void testToMinorUnits_RoundsToNearestCent() {
+        assertEquals(12_345, Money.toMinorUnits(123.45));
+        assertEquals(123, Money.toMinorUnits(1.234));
+        assertEquals(124, Money.toMinorUnits(1.236));
+        assertEquals(10, Money.toMinorUnits(0.1));
+        assertEquals(30, Money.toMinorUnits(0.1 + 0.2));
+        assertEquals(0, Money.toMinorUnits(0.004));
+        assertEquals(1, Money.toMinorUnits(0.006));
+    }
+
+    @Test
+    public void testToMinorUnits_NegativeAmounts() {
+        assertEquals(-12_345, Money.toMinorUnits(-123.45));
+        assertEquals(-123, Money.toMinorUnits(-1.234));
+        assertEquals(-124, Money.toMinorUnits(-1.236));
+        assertEquals(0, Money.toMinorUnits(-0.004));
+    }
+
+    @Test
+    public void testToMajorUnits() {
+        assertEquals(123.45, Money.toMajorUnits(12_345), 0.0);
+        assertEquals(-0.05, Money.toMajorUnits(-5), 0.0);
+        assertEquals(0.0, Money.toMajorUnits(0), 0.0);
+    }
+
+    @Test
+    public void testRoundTrip_MinorToMajorToMinor() {
+        long[] samples = {0, 1, -1, 99, 100, -100, 12_345, 999_999_999, -999_999_999,
+                1_000_000_000_000L, -1_000_000_000_000L};
+        for (long minor : samples) {
+            assertEquals(minor, Money.toMinorUnits(Money.toMajorUnits(minor)));
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long minor = random.nextLong(-10_000_000_000_000L, 10_000_000_000_000L);
+            assertEquals(minor, Money.toMinorUnits(Money.toMajorUnits(minor)));
+        }
+    }
+
+    @Test
+    public void testRoundTrip_MajorToMinorToMajor() {
+        double[] samples = {0.0, 0.01, 0.1, 1.99, 10.5, 150.25, 1_000_000.01, -42.42};
+        for (double major : samples) {
+            assertEquals(major, Money.toMajorUnits(Money.toMinorUnits(major)), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToMinorUnits_RejectsNaN() {
+        Money.toMinorUnits(Double.NaN);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToMinorUnits_RejectsInfinity() {
+        Money.toMinorUnits(Double.NEGATIVE_INFINITY);
+    }
+
+    @Test
+    public void testAppendMajorUnits_MatchesStringFormat() {
+        Locale previous = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            for (Locale locale : new Locale[]{Locale.US, Locale.FRANCE}) {
+                Locale.setDefault(Locale.Category.FORMAT, locale);
+                for (long minor : new long[]{0, 5, -5, 150, -150, 12_345, Long.MAX_VALUE, Long.MIN_VALUE + 1}) {
+                    StringBuilder builder = new StringBuilder();
+                    Money.appendMajorUnits(builder, minor);
+                    String expected = String.format("%.2f", BigDecimal.valueOf(minor, Money.SCALE));
+                    assertEquals(expected, builder.toString());
+                }
+            }
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previous);
+        }
+    }
+
+    @Test
+    public void testWriteMajorUnits_MinValue() {
+        char[] digits = new char[Money.MAX_FORMATTED_LENGTH];
+        Locale previous = Locale.getDefault(Locale.Category.FORMAT);
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, Locale.US);
+            int length = Money.writeMajorUnits(Long.MIN_VALUE, digits);
+            assertEquals("-92233720368547758.08", new String(digits, 0, length));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, previous);
+        }
+    }
+}
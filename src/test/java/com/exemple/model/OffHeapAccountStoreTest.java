@@ -0,0 +1,131 @@
+package com.exemple.model;
+
+
+import com.exemple.exception.InsufficientFundsException;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.service.BankingService;
+import com.exemple.service.TransactionService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour OffHeapAccountStore et ses vues OffHeapAccount
+ */
+public class OffHeapAccountStoreTest {
+
+    private OffHeapAccountStore store;
+
+    @Before
+    public void setUp() {
+        store = new OffHeapAccountStore();
+    }
+
+    @Test
+    public void testAdd_ViewExposesStoredState() {
+        Account view = store.add(Account.ofMinorUnits("CHK-1", "USR-1", 10_000L, "CHECKING"));
+
+        assertTrue(view instanceof OffHeapAccount);
+        assertEquals("CHK-1", view.getAccountNumber());
+        assertEquals("USR-1", view.getOwnerId());
+        assertEquals("CHECKING", view.getAccountType());
+        assertEquals(100.0, view.getBalance(), 0.0);
+        assertTrue(view.isActive());
+        assertNotNull(view.getCreatedAt());
+        assertEquals("Deux vues d'un même compte sont égales", view, store.get("CHK-1"));
+        assertNull(store.get("CHK-404"));
+    }
+
+    @Test
+    public void testCreditAndDebit_UpdateBalanceAndVersion() {
+        OffHeapAccount view = (OffHeapAccount) store.add(Account.ofMinorUnits("CHK-1", "USR-1", 0L, "CHECKING"));
+
+        view.credit(50.25);
+        assertTrue(view.tryDebitMinor(1_025L));
+        assertFalse("Un débit supérieur au solde est refusé", view.tryDebitMinor(10_000L));
+
+        assertEquals(4_000L, store.get("CHK-1").getBalanceMinor());
+        assertEquals(2, view.getVersion());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCredit_RejectsDeactivatedAccount() {
+        Account view = store.add(Account.ofMinorUnits("CHK-1", "USR-1", 0L, "CHECKING"));
+        view.deactivate();
+        assertFalse(store.get("CHK-1").isActive());
+        view.creditMinor(100L);
+    }
+
+    @Test
+    public void testAdd_GrowsAcrossChunks() {
+        int count = 200_000;
+        for (int i = 0; i < count; i++) {
+            store.add(Account.ofMinorUnits("CHK-" + i, "USR-" + (i % 100), i, "SAVINGS"));
+        }
+
+        assertEquals(count, store.size());
+        assertEquals(count - 1, store.get("CHK-" + (count - 1)).getBalanceMinor());
+        assertEquals(count - 1, store.idOf("CHK-" + (count - 1)));
+        assertEquals("USR-42", store.get(142).getOwnerId());
+        assertTrue(store.getOffHeapBytes() >= (long) count * OffHeapAccountStore.SLOT_SIZE);
+    }
+
+    @Test
+    public void testTransfer_ConcurrentTransfersConserveMoney() throws InterruptedException {
+        int accounts = 8;
+        for (int i = 0; i < accounts; i++) {
+            store.add(Account.ofMinorUnits("CHK-" + i, "USR-1", 100_000L, "CHECKING"));
+        }
+        TransferStrategy strategy = new TransferStrategy();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    Account source = store.get("CHK-" + ((i + offset) % accounts));
+                    Account destination = store.get("CHK-" + ((i + offset + 1 + i % 3) % accounts));
+                    try {
+                        strategy.execute(source, destination, 1.0);
+                    } catch (InsufficientFundsException e) {
+                        fail("Les soldes sont suffisants");
+                    }
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long total = 0;
+        for (int i = 0; i < accounts; i++) {
+            total += store.get("CHK-" + i).getBalanceMinor();
+        }
+        assertEquals("Les virements ne créent ni ne détruisent d'argent", accounts * 100_000L, total);
+    }
+
+    @Test
+    public void testBankingService_WorksWithOffHeapStore() {
+        BankingService bankingService = new BankingService(store);
+        TransactionService transactionService = new TransactionService();
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 100.0, "CHECKING");
+
+        transactionService.executeTransaction(new DepositStrategy(), null, checking, 50.0);
+
+        assertTrue(bankingService.getAccount(checking.getAccountNumber()) instanceof OffHeapAccount);
+        assertEquals(150.0, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(1, bankingService.getUserAccounts(alice.getUserId()).size());
+
+        bankingService.deactivateUser(alice.getUserId());
+        assertFalse(bankingService.getAccount(checking.getAccountNumber()).isActive());
+        assertEquals(0, bankingService.getActiveAccounts().size());
+    }
+}
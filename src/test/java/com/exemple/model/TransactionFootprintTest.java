@@ -0,0 +1,115 @@
+package com.exemple.model;
+
+
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour l'encodage compact de Transaction et son empreinte mémoire
+ */
+public class TransactionFootprintTest {
+
+    private static final int TRANSACTIONS = 10_000;
+    private static final int ACCOUNTS = 100;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    /**
+     * Ancienne représentation: chaînes propres à chaque transaction pour le type,
+     * le statut et les comptes
+     */
+    @SuppressWarnings("unused")
+    private static final class StringTransaction {
+        private final String transactionId;
+        private final String type;
+        private final String sourceAccount;
+        private final String destinationAccount;
+        private final long amountMinor;
+        private final LocalDateTime timestamp;
+        private final String description;
+        private volatile String status;
+        private TransactionStatusListener statusListener;
+
+        StringTransaction(String transactionId, String type, String sourceAccount,
+                          String destinationAccount, long amountMinor,
+                          LocalDateTime timestamp, String description, String status) {
+            this.transactionId = transactionId;
+            this.type = type;
+            this.sourceAccount = sourceAccount;
+            this.destinationAccount = destinationAccount;
+            this.amountMinor = amountMinor;
+            this.timestamp = timestamp;
+            this.description = description;
+            this.status = status;
+        }
+    }
+
+    /**
+     * Chaîne distincte, comme celles relues depuis le journal ou l'archive
+     */
+    private static String decoded(String value) {
+        return new String(value.toCharArray());
+    }
+
+    @Test
+    public void testFootprint_CompactTransactionIsSmallerThanStringFields() {
+        Object[] before = new Object[TRANSACTIONS];
+        Object[] after = new Object[TRANSACTIONS];
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            String id = "TXN-" + i;
+            String source = "CHK-" + (i % ACCOUNTS);
+            String destination = "CHK-" + ((i + 1) % ACCOUNTS);
+            LocalDateTime timestamp = START.plusSeconds(i);
+            before[i] = new StringTransaction(decoded(id), decoded("TRANSFER"), decoded(source),
+                    decoded(destination), 100L + i, timestamp, decoded("Virement"), decoded("COMPLETED"));
+            after[i] = Transaction.ofMinorUnits(decoded(id), decoded("TRANSFER"), decoded(source),
+                    decoded(destination), 100L + i, timestamp, decoded("Virement"), decoded("COMPLETED"));
+        }
+
+        long beforeBytes = GraphLayout.parseInstance(before).totalSize() / TRANSACTIONS;
+        long afterBytes = GraphLayout.parseInstance(after).totalSize() / TRANSACTIONS;
+        System.out.println(ClassLayout.parseClass(Transaction.class).toPrintable());
+        System.out.println("Octets par transaction (graphe complet): avant " + beforeBytes
+                + ", après " + afterBytes);
+
+        assertTrue("L'instance compacte ne doit pas dépasser l'ancienne",
+                ClassLayout.parseClass(Transaction.class).instanceSize()
+                        <= ClassLayout.parseClass(StringTransaction.class).instanceSize());
+        assertTrue("Les chaînes de compte, type et statut ne sont plus portées par transaction",
+                afterBytes < beforeBytes - 100);
+    }
+
+    @Test
+    public void testEncoding_GettersReturnCanonicalValues() {
+        Transaction first = Transaction.ofMinorUnits("TXN-1", decoded("TRANSFER"), decoded("CHK-7"),
+                decoded("CHK-8"), 100L, START, "Virement", decoded("FAILED"));
+        Transaction second = Transaction.ofMinorUnits("TXN-2", "WITHDRAW", "CHK-7", null, 100L, START, "Retrait");
+
+        assertEquals("TRANSFER", first.getType());
+        assertEquals(TransactionType.TRANSFER, first.getTransactionType());
+        assertEquals(TransactionStatus.FAILED, first.getTransactionStatus());
+        assertFalse(first.isSuccessful());
+        assertSame("Un même compte est partagé entre transactions",
+                first.getSourceAccount(), second.getSourceAccount());
+        assertEquals(first.getSourceAccountId(), second.getSourceAccountId());
+        assertEquals(AccountDictionary.NO_ACCOUNT, second.getDestinationAccountId());
+        assertNull(second.getDestinationAccount());
+
+        second.markAsCancelled();
+        assertEquals("CANCELLED", second.getStatus());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncoding_RejectsUnknownType() {
+        Transaction.ofMinorUnits("TXN-1", "PAYMENT", null, "CHK-1", 100L, START, "Paiement");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEncoding_RejectsUnknownStatus() {
+        Transaction.ofMinorUnits("TXN-1", "DEPOSIT", null, "CHK-1", 100L, START, "Dépôt", "PENDING");
+    }
+}
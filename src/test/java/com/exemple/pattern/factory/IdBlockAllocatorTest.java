@@ -0,0 +1,85 @@
+package com.exemple.pattern.factory;
+
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour IdBlockAllocator
+ */
+public class IdBlockAllocatorTest {
+
+    @Test
+    public void testFormat_MatchesStringFormat() {
+        long[] values = {0L, 7L, 1001L, 99_999_999L, 123_456_789L};
+        for (long value : values) {
+            assertEquals("CHK-" + String.format("%08d", value), IdBlockAllocator.format("CHK", value, 8));
+            assertEquals("USR-" + String.format("%06d", value), IdBlockAllocator.format("USR", value, 6));
+        }
+    }
+
+    @Test
+    public void testNext_SequentialWithinThread() {
+        IdBlockAllocator allocator = new IdBlockAllocator(1000);
+        for (long expected = 1001; expected <= 1500; expected++) {
+            assertEquals(expected, allocator.next());
+        }
+    }
+
+    @Test
+    public void testNext_UniqueAcrossThreads() throws InterruptedException {
+        IdBlockAllocator allocator = new IdBlockAllocator(1000);
+        Set<Long> issued = ConcurrentHashMap.newKeySet();
+        int threads = 16;
+        int perThread = 10_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    assertTrue("Numéro attribué deux fois", issued.add(allocator.next()));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, issued.size());
+    }
+
+    @Test
+    public void testNext_ShortLivedThreadsDoNotWasteNumbers() throws InterruptedException {
+        IdBlockAllocator allocator = new IdBlockAllocator(1000);
+        long[] last = new long[1];
+        for (int i = 0; i < 100; i++) {
+            Thread thread = new Thread(() -> last[0] = allocator.next());
+            thread.start();
+            thread.join();
+        }
+
+        assertEquals("Un thread qui ne crée qu'un numéro n'en réserve qu'un", 1100L, last[0]);
+    }
+
+    @Test
+    public void testAdvancePast_DiscardsReservedBlocks() {
+        IdBlockAllocator allocator = new IdBlockAllocator(1000);
+        for (int i = 0; i < 10; i++) {
+            allocator.next();
+        }
+
+        allocator.advancePast(5000);
+        assertEquals(5001L, allocator.next());
+
+        allocator.reset();
+        assertEquals(1001L, allocator.next());
+    }
+}
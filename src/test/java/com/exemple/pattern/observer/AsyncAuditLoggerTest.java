@@ -0,0 +1,165 @@
+package com.exemple.pattern.observer;
+
+
+import com.exemple.model.Transaction;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour AsyncAuditLogger
+ */
+public class AsyncAuditLoggerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Transaction deposit(int index) {
+        return Transaction.ofMinorUnits("DEP-" + index, "DEPOSIT", null, "CHK-00001001",
+                1_050L + index, LocalDateTime.of(2024, 1, 15, 10, 30, 0), "Dépôt effectué avec succès");
+    }
+
+    @Test
+    public void testLines_IdenticalToSynchronousLogger() throws IOException {
+        Path syncFile = folder.getRoot().toPath().resolve("sync.log");
+        Path asyncFile = folder.getRoot().toPath().resolve("async.log");
+        AuditLogger syncLogger = new AuditLogger(syncFile.toString());
+        Transaction transaction = deposit(1);
+
+        try (AsyncAuditLogger asyncLogger = new AsyncAuditLogger(asyncFile)) {
+            syncLogger.onTransactionExecuted(transaction);
+            asyncLogger.onTransactionExecuted(transaction);
+        }
+
+        assertEquals(Files.readAllLines(syncFile, StandardCharsets.UTF_8),
+                Files.readAllLines(asyncFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testConcurrentProducers_AllEntriesWrittenOnClose()
+            throws IOException, InterruptedException {
+        Path auditFile = folder.getRoot().toPath().resolve("audit.log");
+        int threads = 8;
+        int perThread = 2_000;
+
+        AsyncAuditLogger logger = new AsyncAuditLogger(auditFile, 64, true, 4096, 10);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logger.onTransactionExecuted(deposit(offset + i));
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        logger.close();
+
+        List<String> lines = Files.readAllLines(auditFile, StandardCharsets.UTF_8);
+        assertEquals("Chaque entrée doit être écrite", threads * perThread, lines.size());
+        Set<String> distinct = new HashSet<>(lines);
+        assertEquals("Aucune ligne ne doit être dupliquée", lines.size(), distinct.size());
+        assertEquals(threads * perThread, logger.getPublishedCount());
+        assertEquals(threads * perThread, logger.getWrittenCount());
+        assertEquals(0, logger.getDroppedCount());
+        assertTrue("Les lignes doivent être écrites par lots", logger.getFlushCount() < lines.size());
+    }
+
+    @Test
+    public void testIdleWriter_ParksUntilAnEntryArrives() throws IOException, InterruptedException {
+        Path auditFile = folder.getRoot().toPath().resolve("audit.log");
+        try (AsyncAuditLogger logger = new AsyncAuditLogger(auditFile, 64, true, 4096, 10)) {
+            awaitState(logger.writerThread(), Thread.State.WAITING);
+
+            logger.onTransactionExecuted(deposit(1));
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (logger.getFlushCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals("L'entrée doit être écrite à l'échéance du vidage", 1, logger.getFlushCount());
+            awaitState(logger.writerThread(), Thread.State.WAITING);
+        }
+        assertEquals(1, Files.readAllLines(auditFile, StandardCharsets.UTF_8).size());
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (thread.getState() != state && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals("Le thread d'écriture doit rester parqué sans délai", state, thread.getState());
+    }
+
+    @Test
+    public void testDropWhenFull_CountsDroppedEntries() throws IOException {
+        Path auditFile = folder.getRoot().toPath().resolve("audit.log");
+        AsyncAuditLogger logger = new AsyncAuditLogger(auditFile, 4, false, 4096, 10);
+        int total = 50_000;
+        for (int i = 0; i < total; i++) {
+            logger.onTransactionExecuted(deposit(i));
+        }
+        logger.close();
+
+        assertEquals("Chaque entrée est soit écrite soit comptée comme perdue",
+                total, logger.getWrittenCount() + logger.getDroppedCount());
+        assertEquals(logger.getWrittenCount(),
+                Files.readAllLines(auditFile, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testCloseDuringPublishing_WritesEveryAcceptedEntry()
+            throws IOException, InterruptedException {
+        Path auditFile = folder.getRoot().toPath().resolve("audit.log");
+        AsyncAuditLogger logger = new AsyncAuditLogger(auditFile, 16, true, 4096, 10);
+        int threads = 4;
+        int perThread = 5_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logger.onTransactionFailed(deposit(offset + i), "Refusée");
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        Thread.sleep(5);
+        logger.close();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(threads * perThread, logger.getPublishedCount() + logger.getDroppedCount());
+        assertEquals("Une entrée acceptée doit être écrite", logger.getPublishedCount(), logger.getWrittenCount());
+        assertEquals(logger.getWrittenCount(), Files.readAllLines(auditFile, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testClose_LaterEntriesAreDropped() throws IOException {
+        Path auditFile = folder.getRoot().toPath().resolve("audit.log");
+        AsyncAuditLogger logger = new AsyncAuditLogger(auditFile);
+        logger.close();
+
+        logger.onTransactionFailed(deposit(1), "Solde insuffisant");
+
+        assertEquals(1, logger.getDroppedCount());
+        assertEquals(0, Files.size(auditFile));
+    }
+}
@@ -0,0 +1,266 @@
+package com.exemple.pattern.observer;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.pattern.observer.AsyncTransactionObserver.OverflowPolicy;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour AsyncTransactionObserver
+ */
+public class AsyncTransactionObserverTest {
+
+    private AsyncTransactionObserver observer;
+
+    @After
+    public void tearDown() {
+        if (observer != null) {
+            observer.close();
+        }
+    }
+
+    /**
+     * Observateur qui bloque sur le premier événement jusqu'à l'ouverture de la barrière
+     */
+    private static class GatedObserver implements TransactionObserver {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onTransactionExecuted(Transaction transaction) {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(transaction.getTransactionId());
+        }
+
+        @Override
+        public void onTransactionFailed(Transaction transaction, String reason) {
+            received.add("FAILED " + reason);
+        }
+
+        @Override
+        public String getObserverName() {
+            return "Gated";
+        }
+    }
+
+    /**
+     * Observateur qui attend une autorisation avant chaque événement
+     */
+    private static class SteppedObserver implements TransactionObserver {
+        final Semaphore permits = new Semaphore(0);
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onTransactionExecuted(Transaction transaction) {
+            permits.acquireUninterruptibly();
+            received.add(transaction.getTransactionId());
+        }
+
+        @Override
+        public void onTransactionFailed(Transaction transaction, String reason) {
+            permits.acquireUninterruptibly();
+            received.add("FAILED " + reason);
+        }
+
+        @Override
+        public String getObserverName() {
+            return "Stepped";
+        }
+    }
+
+    private static Transaction transfer(String id, String source, String destination) {
+        return Transaction.ofMinorUnits(id, "TRANSFER", source, destination, 100L,
+                LocalDateTime.now(), "Transfert");
+    }
+
+    private static Transaction withdrawal(String id, String account) {
+        return Transaction.ofMinorUnits(id, "WITHDRAW", account, null, 100L,
+                LocalDateTime.now(), "Retrait");
+    }
+
+    private void awaitQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (observer.getQueueDepth() != depth) {
+            assertTrue("Profondeur de file attendue: " + depth, System.nanoTime() < deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private static Transaction deposit(String id, String account) {
+        return Transaction.ofMinorUnits(id, "DEPOSIT", null, account, 100L,
+                LocalDateTime.now(), "Dépôt");
+    }
+
+    private GatedObserver startBlocked(OverflowPolicy policy, int capacity) throws InterruptedException {
+        GatedObserver gated = new GatedObserver();
+        observer = new AsyncTransactionObserver(gated, capacity, policy);
+        observer.onTransactionExecuted(deposit("BLOCKER", "CHK-0"));
+        assertTrue(gated.started.await(5, TimeUnit.SECONDS));
+        return gated;
+    }
+
+    @Test
+    public void testBlock_AllEventsDeliveredInOrder() throws InterruptedException {
+        GatedObserver gated = startBlocked(OverflowPolicy.BLOCK, 2);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                observer.onTransactionExecuted(deposit("DEP-" + i, "CHK-1"));
+            }
+        });
+        producer.start();
+        Thread.sleep(50);
+        assertTrue("Le producteur doit attendre une place libre", producer.isAlive());
+
+        gated.gate.countDown();
+        producer.join();
+        assertTrue(observer.awaitIdle(5, TimeUnit.SECONDS));
+
+        assertEquals(21, gated.received.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("DEP-" + i, gated.received.get(i + 1));
+        }
+        assertTrue(observer.getBlockedCount() > 0);
+        assertEquals(0, observer.getDroppedCount());
+    }
+
+    @Test
+    public void testDrop_ExcessEventsAreCounted() throws InterruptedException {
+        GatedObserver gated = startBlocked(OverflowPolicy.DROP, 3);
+
+        for (int i = 0; i < 10; i++) {
+            observer.onTransactionExecuted(deposit("DEP-" + i, "CHK-1"));
+        }
+        assertEquals(3, observer.getQueueDepth());
+
+        gated.gate.countDown();
+        assertTrue(observer.awaitIdle(5, TimeUnit.SECONDS));
+
+        assertEquals(7, observer.getDroppedCount());
+        assertEquals(List.of("BLOCKER", "DEP-0", "DEP-1", "DEP-2"), gated.received);
+    }
+
+    @Test
+    public void testCoalesce_KeepsLatestEventPerAccountInOrder() throws InterruptedException {
+        GatedObserver gated = startBlocked(OverflowPolicy.COALESCE, 1);
+
+        observer.onTransactionExecuted(deposit("A-0", "CHK-A"));
+        for (int i = 1; i <= 5; i++) {
+            observer.onTransactionExecuted(deposit("A-" + i, "CHK-A"));
+            observer.onTransactionExecuted(deposit("B-" + i, "CHK-B"));
+        }
+        assertEquals("Une entrée en file et une entrée fusionnée par compte", 3, observer.getQueueDepth());
+
+        gated.gate.countDown();
+        assertTrue(observer.awaitIdle(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("BLOCKER", "A-0", "A-5", "B-5"), gated.received);
+        assertEquals(8, observer.getCoalescedCount());
+    }
+
+    @Test
+    public void testSlowObserver_DoesNotDelayCaller() throws InterruptedException {
+        TransactionObserver slow = new TransactionObserver() {
+            @Override
+            public void onTransactionExecuted(Transaction transaction) {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void onTransactionFailed(Transaction transaction, String reason) {
+                throw new IllegalStateException("panne");
+            }
+
+            @Override
+            public String getObserverName() {
+                return "Slow";
+            }
+        };
+        observer = new AsyncTransactionObserver(slow, 100, OverflowPolicy.BLOCK);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            observer.onTransactionExecuted(deposit("DEP-" + i, "CHK-1"));
+        }
+        observer.onTransactionFailed(null, "Solde insuffisant");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Le dépôt ne doit pas attendre l'observateur", elapsedMillis < 100);
+
+        observer.close();
+        assertEquals(11, observer.getDeliveredCount());
+        assertEquals(1, observer.getHandlerErrorCount());
+        assertTrue(observer.getMaxHandlerLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(observer.getAverageHandlerLatencyNanos() > 0);
+    }
+
+    @Test(timeout = 20_000)
+    public void testCoalesce_TransferIsNeverReplacedByLaterAccountEvent() throws InterruptedException {
+        SteppedObserver stepped = new SteppedObserver();
+        observer = new AsyncTransactionObserver(stepped, 1, OverflowPolicy.COALESCE);
+        observer.onTransactionExecuted(deposit("BLOCKER", "CHK-0"));
+        awaitQueueDepth(0);
+        observer.onTransactionExecuted(deposit("X-0", "CHK-X"));
+
+        Thread producer = new Thread(() -> observer.onTransactionExecuted(transfer("T-AB", "CHK-A", "CHK-B")));
+        producer.start();
+        Thread.sleep(50);
+        assertTrue("Un virement plein doit attendre une place, pas être fusionné", producer.isAlive());
+
+        stepped.permits.release();
+        producer.join(5_000);
+        assertFalse(producer.isAlive());
+
+        observer.onTransactionExecuted(deposit("B-1", "CHK-B"));
+        observer.onTransactionExecuted(withdrawal("A-1", "CHK-A"));
+        observer.onTransactionExecuted(deposit("A-2", "CHK-A"));
+
+        stepped.permits.release(100);
+        assertTrue(observer.awaitIdle(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of("BLOCKER", "X-0", "T-AB", "B-1", "A-2"), stepped.received);
+        assertEquals(1, observer.getCoalescedCount());
+        assertTrue(observer.getBlockedCount() > 0);
+    }
+
+    @Test(timeout = 20_000)
+    public void testCoalesce_ParkedEventDeliveredBeforeLaterQueuedEvent() throws InterruptedException {
+        SteppedObserver stepped = new SteppedObserver();
+        observer = new AsyncTransactionObserver(stepped, 1, OverflowPolicy.COALESCE);
+        observer.onTransactionExecuted(deposit("BLOCKER", "CHK-0"));
+        awaitQueueDepth(0);
+        observer.onTransactionExecuted(deposit("X-0", "CHK-X"));
+        observer.onTransactionExecuted(deposit("A-1", "CHK-A"));
+        assertEquals(2, observer.getQueueDepth());
+
+        stepped.permits.release();
+        awaitQueueDepth(1);
+        observer.onTransactionExecuted(transfer("T-AB", "CHK-A", "CHK-B"));
+
+        stepped.permits.release(100);
+        assertTrue(observer.awaitIdle(5, TimeUnit.SECONDS));
+
+        assertEquals("Le dépôt fusionné sur A précède le virement suivant de A",
+                List.of("BLOCKER", "X-0", "A-1", "T-AB"), stepped.received);
+    }
+}
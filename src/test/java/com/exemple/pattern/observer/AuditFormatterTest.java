@@ -0,0 +1,113 @@
+package com.exemple.pattern.observer;
+
+
+import com.exemple.model.Transaction;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour AuditFormatter
+ */
+public class AuditFormatterTest {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Locale originalLocale = Locale.getDefault(Locale.Category.FORMAT);
+    private final AuditFormatter formatter = new AuditFormatter();
+
+    @After
+    public void restoreLocale() {
+        Locale.setDefault(Locale.Category.FORMAT, originalLocale);
+    }
+
+    private static String expectedSuccess(Transaction t) {
+        return String.format(
+                "[SUCCESS] %s | Type: %s | From: %s | To: %s | Amount: %.2f | ID: %s",
+                t.getTimestamp().format(DATE_FORMATTER),
+                t.getType(),
+                t.getSourceAccount() != null ? t.getSourceAccount() : "N/A",
+                t.getDestinationAccount() != null ? t.getDestinationAccount() : "N/A",
+                t.getAmount(),
+                t.getTransactionId());
+    }
+
+    private static String expectedFailure(Transaction t, String reason, LocalDateTime at) {
+        return String.format(
+                "[FAILED] %s | Type: %s | From: %s | To: %s | Amount: %.2f | Reason: %s",
+                at.format(DATE_FORMATTER),
+                t != null ? t.getType() : "UNKNOWN",
+                t != null && t.getSourceAccount() != null ? t.getSourceAccount() : "N/A",
+                t != null && t.getDestinationAccount() != null ? t.getDestinationAccount() : "N/A",
+                t != null ? t.getAmount() : 0.0,
+                reason);
+    }
+
+    private String success(Transaction transaction) {
+        ByteBuffer buffer = ByteBuffer.allocate(AuditFormatter.maxSuccessLength(transaction));
+        formatter.writeSuccess(transaction, buffer);
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private String failure(Transaction transaction, String reason, LocalDateTime at) {
+        ByteBuffer buffer = ByteBuffer.allocate(AuditFormatter.maxFailureLength(transaction, reason));
+        formatter.writeFailure(transaction, reason, at, buffer);
+        return new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+    }
+
+    private static Transaction transaction(long amountMinor, LocalDateTime timestamp) {
+        return Transaction.ofMinorUnits("TRF-1700000000000-42", "TRANSFER", "CHK-00001001",
+                "SAV-00001002", amountMinor, timestamp, "Transfert effectué avec succès");
+    }
+
+    @Test
+    public void testWriteSuccess_MatchesStringFormat() {
+        long[] amounts = {1L, 9L, 10L, 99L, 100L, 105L, 123_456_789L, 100_000_000_000L};
+        for (long amount : amounts) {
+            Transaction t = transaction(amount, LocalDateTime.of(2024, 3, 7, 9, 5, 2, 123_000_000));
+            assertEquals("Montant " + amount, expectedSuccess(t), success(t));
+        }
+    }
+
+    @Test
+    public void testWriteSuccess_NullAccountsAndTimestampCacheRefresh() {
+        LocalDateTime base = LocalDateTime.of(2023, 12, 31, 23, 59, 59);
+        for (int i = 0; i < 3; i++) {
+            Transaction t = Transaction.ofMinorUnits("DEP-" + i, "DEPOSIT", null, "CHK-00001001",
+                    2_500L, base.plusNanos(i * 400_000_000L), "Dépôt");
+            assertEquals(expectedSuccess(t), success(t));
+        }
+    }
+
+    @Test
+    public void testWriteFailure_MatchesStringFormatWithAccents() {
+        LocalDateTime at = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+        Transaction t = transaction(75_050L, at);
+        String reason = "Le compte est désactivé — réessayez 💶";
+
+        assertEquals(expectedFailure(t, reason, at), failure(t, reason, at));
+        assertEquals(expectedFailure(null, reason, at), failure(null, reason, at));
+    }
+
+    @Test
+    public void testWriteSuccess_UsesLocaleDecimalSeparator() {
+        Locale.setDefault(Locale.Category.FORMAT, Locale.FRANCE);
+        Transaction t = transaction(123_456L, LocalDateTime.of(2024, 1, 15, 10, 30, 0));
+
+        assertEquals(expectedSuccess(t), success(t));
+        assertTrue(success(t).contains("Amount: 1234,56"));
+        assertEquals(t.getFormattedTransaction(), String.format(
+                "[%s] %s | %s | Montant: %.2f | De: %s | Vers: %s | Statut: %s",
+                t.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")),
+                t.getTransactionId(), t.getType(), t.getAmount(),
+                t.getSourceAccount(), t.getDestinationAccount(), t.getStatus()));
+    }
+}
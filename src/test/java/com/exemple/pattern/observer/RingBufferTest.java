@@ -0,0 +1,101 @@
+package com.exemple.pattern.observer;
+
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour RingBuffer
+ */
+public class RingBufferTest {
+
+    @Test
+    public void testCapacity_RoundedToPowerOfTwo() {
+        assertEquals(8, new RingBuffer<String>(5).capacity());
+        assertEquals(8, new RingBuffer<String>(8).capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacity_TooSmall() {
+        new RingBuffer<String>(1);
+    }
+
+    @Test
+    public void testOfferAndDrain_PreservesOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(round * 4 + i));
+            }
+            assertFalse("La file pleine doit refuser l'élément", buffer.offer(-1));
+            assertEquals(4, buffer.size());
+            assertEquals(4, buffer.drain(drained::add, Integer.MAX_VALUE));
+        }
+
+        for (int i = 0; i < 12; i++) {
+            assertEquals(Integer.valueOf(i), drained.get(i));
+        }
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testDrain_RespectsMaximum() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(8);
+        for (int i = 0; i < 5; i++) {
+            buffer.offer(i);
+        }
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drain(drained::add, 2));
+        assertEquals(3, buffer.size());
+        assertEquals(Integer.valueOf(1), drained.get(1));
+    }
+
+    @Test
+    public void testConcurrentProducers_EveryElementDrainedOnce() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 20_000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(256);
+        boolean[] seen = new boolean[producers * perProducer];
+        int[] lastPerProducer = new int[producers];
+        Arrays.fill(lastPerProducer, -1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(producer * perProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        int received = 0;
+        while (received < seen.length) {
+            received += buffer.drain(value -> {
+                assertFalse("Un élément ne doit être reçu qu'une fois", seen[value]);
+                seen[value] = true;
+                int producer = value / perProducer;
+                assertTrue("L'ordre d'un producteur doit être conservé",
+                        value % perProducer > lastPerProducer[producer]);
+                lastPerProducer[producer] = value % perProducer;
+            }, 64);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, buffer.size());
+    }
+}
@@ -0,0 +1,91 @@
+package com.exemple.pattern.strategy;
+
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour SnowflakeIdGenerator
+ */
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    public void testNextId_FixedWidthAndSortable() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        String previous = generator.nextId("DEP");
+
+        for (int i = 0; i < 100_000; i++) {
+            String next = generator.nextId("DEP");
+            assertEquals("Longueur fixe", "DEP-".length() + 16, next.length());
+            assertTrue("Les identifiants doivent être croissants", next.compareTo(previous) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void testNextId_EncodesTimestampAndNode() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        long before = System.currentTimeMillis();
+        String id = generator.nextId("TRF");
+        long after = System.currentTimeMillis();
+
+        long timestamp = SnowflakeIdGenerator.timestampMillis(id);
+        assertTrue(timestamp >= before && timestamp <= after);
+        assertEquals(42, SnowflakeIdGenerator.nodeId(id));
+        assertEquals(-1L, SnowflakeIdGenerator.timestampMillis("DEP-1700000000000-42"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidNode() {
+        new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1);
+    }
+
+    @Test
+    public void testNextId_UniqueAcrossThreads() throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 50_000;
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                String previous = "";
+                for (int i = 0; i < perThread; i++) {
+                    String id = generator.nextId("WTH");
+                    assertTrue(id.compareTo(previous) > 0);
+                    ids.add(id);
+                    previous = id;
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals("Aucune collision", threads * perThread, ids.size());
+    }
+
+    @Test
+    public void testAdvancePast_NextIdsFollowRecoveredOnes() {
+        SnowflakeIdGenerator previousRun = new SnowflakeIdGenerator(0);
+        String last = null;
+        for (int i = 0; i < 10_000; i++) {
+            last = previousRun.nextId("DEP");
+        }
+
+        SnowflakeIdGenerator restarted = new SnowflakeIdGenerator(0);
+        restarted.advancePast(last);
+        restarted.advancePast("DEP-1700000000000-42");
+
+        assertTrue(restarted.nextId("DEP").compareTo(last) > 0);
+    }
+}
@@ -0,0 +1,162 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.AccountDictionary;
+import com.exemple.model.Transaction;
+import com.exemple.service.TransactionService;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour ColumnarSegment et ColumnarStore
+ */
+public class ColumnarSegmentTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Transaction transaction(int i, String source, String destination) {
+        String type = source == null ? "DEPOSIT" : destination == null ? "WITHDRAW" : "TRANSFER";
+        return Transaction.ofMinorUnits("TXN-" + i, type, source, destination,
+                100L + i, START.plusMinutes(i), "Opération " + i);
+    }
+
+    private static List<Transaction> history(int size) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String account = "CHK-" + (i % 4);
+            String counterpart = "CHK-" + ((i + 1) % 4);
+            Transaction transaction;
+            switch (i % 3) {
+                case 0:
+                    transaction = transaction(i, null, account);
+                    break;
+                case 1:
+                    transaction = transaction(i, account, null);
+                    break;
+                default:
+                    transaction = transaction(i, account, counterpart);
+            }
+            if (i % 7 == 0) {
+                transaction.markAsFailed("Refusée");
+            }
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    @Test
+    public void testScan_ReadsColumnsBackInTimestampOrder() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("segment.col");
+        List<Transaction> transactions = history(50);
+        List<Transaction> shuffled = new ArrayList<>(transactions);
+        Collections.reverse(shuffled);
+        ColumnarSegment.write(file, shuffled);
+
+        try (ColumnarSegment segment = ColumnarSegment.open(file)) {
+            assertEquals(50, segment.getRowCount());
+            assertEquals(START, segment.getMinTimestamp());
+            assertEquals(START.plusMinutes(49), segment.getMaxTimestamp());
+
+            List<Integer> rows = new ArrayList<>();
+            segment.scan(null, null, (timestampNanos, amountMinor, sourceId, destinationId, typeCode, statusCode) -> {
+                Transaction expected = transactions.get(rows.size());
+                assertEquals(expected.getTimestamp(), ColumnarSegment.fromNanos(timestampNanos));
+                assertEquals(expected.getAmountMinor(), amountMinor);
+                assertEquals(expected.getType(), segment.typeName(typeCode));
+                assertEquals(expected.getStatus(), segment.statusName(statusCode));
+                assertEquals(expected.getSourceAccount(), accountOrNull(segment, sourceId));
+                assertEquals(expected.getDestinationAccount(), accountOrNull(segment, destinationId));
+                rows.add(rows.size());
+            });
+            assertEquals(50, rows.size());
+        }
+    }
+
+    @Test
+    public void testScan_TimeWindowIsInclusiveExclusive() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("segment.col");
+        ColumnarSegment.write(file, history(100));
+
+        try (ColumnarSegment segment = ColumnarSegment.open(file)) {
+            long[] count = new long[1];
+            segment.scan(START.plusMinutes(10), START.plusMinutes(20),
+                    (timestampNanos, amountMinor, sourceId, destinationId, typeCode, statusCode) -> count[0]++);
+            assertEquals(10, count[0]);
+            assertEquals(10, segment.firstRowAtOrAfter(START.plusMinutes(10)));
+            assertEquals(100, segment.firstRowAtOrAfter(START.plusDays(1)));
+        }
+    }
+
+    @Test
+    public void testAccountFlows_MatchTransactionServiceTotals() throws IOException {
+        List<Transaction> transactions = history(500);
+        TransactionService transactionService = new TransactionService();
+        for (Transaction transaction : transactions) {
+            transactionService.restoreTransaction(transaction);
+        }
+
+        try (ColumnarStore store = ColumnarStore.open(folder.getRoot().toPath().resolve("columns"))) {
+            store.append(transactions.subList(0, 200));
+            store.append(transactions.subList(200, 500));
+            assertEquals(500, store.getRowCount());
+
+            for (int a = 0; a < 4; a++) {
+                String account = "CHK-" + a;
+                assertEquals("Les flux du compte " + account + " doivent correspondre",
+                        transactionService.getTotalTransactionAmount(account),
+                        store.getTotalTransactionAmount(account), 0.0);
+                assertEquals(transactionService.getAccountStatistics(account).getCountByStatus("COMPLETED"),
+                        store.accountFlows(account, null, null).getTransactionCount());
+            }
+            assertEquals("Un compte inconnu n'a aucun flux",
+                    0.0, store.getTotalTransactionAmount("CHK-404"), 0.0);
+        }
+    }
+
+    @Test
+    public void testOpen_ReloadsExistingSegmentsAndExcludesFailedTransactions() throws IOException {
+        Path directory = folder.getRoot().toPath().resolve("columns");
+        Transaction failed = transaction(1, null, "CHK-1");
+        failed.markAsFailed("Refusée");
+        try (ColumnarStore store = ColumnarStore.open(directory)) {
+            store.append(List.of(transaction(0, null, "CHK-1"), failed));
+        }
+
+        try (ColumnarStore store = ColumnarStore.open(directory)) {
+            store.append(List.of(transaction(2, "CHK-1", null)));
+            assertEquals(2, store.getSegments().size());
+
+            AccountFlows flows = store.accountFlows("CHK-1", null, null);
+            assertEquals(100L, flows.getInflowMinor());
+            assertEquals(102L, flows.getOutflowMinor());
+            assertEquals(2, flows.getTransactionCount());
+            assertEquals(0, store.accountFlows("CHK-1", START.plusMinutes(1), START.plusMinutes(2))
+                    .getTransactionCount());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testOpen_RejectsFileWithoutMagic() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("garbage.col");
+        Files.write(file, new byte[128]);
+        ColumnarSegment.open(file);
+    }
+
+    private static String accountOrNull(ColumnarSegment segment, int id) {
+        return id == AccountDictionary.NO_ACCOUNT ? null : segment.getAccounts().accountNumber(id);
+    }
+}
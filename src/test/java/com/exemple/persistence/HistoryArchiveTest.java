@@ -0,0 +1,182 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour HistoryArchive
+ */
+public class HistoryArchiveTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private HistoryArchive archive;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.getRoot().toPath().resolve("history");
+        archive = HistoryArchive.open(directory, 4096);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        archive.close();
+    }
+
+    private static Transaction transaction(int i, String source, String destination) {
+        return Transaction.ofMinorUnits("TXN-" + i, source == null ? "DEPOSIT" : "TRANSFER",
+                source, destination, 100L + i, START.plusMinutes(i), "Opération " + i);
+    }
+
+    @Test
+    public void testFind_ReadsBackArchivedTransactionWithStatus() throws IOException {
+        Transaction failed = transaction(1, "CHK-1", "CHK-2");
+        failed.markAsFailed("Refusée");
+        archive.append(List.of(transaction(0, null, "CHK-1"), failed));
+
+        Transaction read = archive.find("TXN-1");
+        assertNotNull(read);
+        assertEquals("FAILED", read.getStatus());
+        assertEquals(failed.getDescription(), read.getDescription());
+        assertEquals(101L, read.getAmountMinor());
+        assertEquals(START.plusMinutes(1), read.getTimestamp());
+        assertNull("Une transaction absente doit donner null", archive.find("TXN-9"));
+        assertEquals(2, archive.getTransactionCount());
+    }
+
+    @Test
+    public void testAppend_RollsSegmentsAndKeepsEveryTransactionReadable() throws IOException {
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            batch.add(transaction(i, i % 2 == 0 ? null : "CHK-1", "CHK-" + (i % 3)));
+        }
+        archive.append(batch);
+
+        assertTrue("La taille de segment doit provoquer plusieurs segments", archive.getSegmentCount() > 1);
+        assertEquals(archive.getSizeBytes(), totalFileSize());
+        for (int i = 0; i < 200; i++) {
+            assertEquals("TXN-" + i, archive.find("TXN-" + i).getTransactionId());
+        }
+
+        Set<String> scanned = new HashSet<>();
+        archive.forEach(t -> scanned.add(t.getTransactionId()));
+        assertEquals(200, scanned.size());
+        assertEquals(100, archive.findByType("DEPOSIT", Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testFindByAccount_FiltersByTimeAndReturnsOnlyTheNewest() throws IOException {
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(transaction(i, null, i % 2 == 0 ? "CHK-1" : "CHK-2"));
+        }
+        archive.append(batch);
+
+        List<Transaction> window = archive.findByAccount("CHK-1",
+                START.plusMinutes(10), START.plusMinutes(20), t -> true, Integer.MAX_VALUE);
+        assertEquals(6, window.size());
+
+        List<Transaction> newest = archive.findByAccount("CHK-1", null, null, t -> true, 3);
+        Set<String> ids = new HashSet<>();
+        newest.forEach(t -> ids.add(t.getTransactionId()));
+        assertEquals(Set.of("TXN-98", "TXN-96", "TXN-94"), ids);
+    }
+
+    @Test
+    public void testFindByType_UsesIndexAndReturnsOnlyTheNewest() throws IOException {
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            batch.add(transaction(i, i % 2 == 0 ? null : "CHK-2", "CHK-1"));
+        }
+        archive.append(batch);
+
+        List<Transaction> newest = archive.findByType("DEPOSIT", 2);
+        Set<String> ids = new HashSet<>();
+        newest.forEach(t -> ids.add(t.getTransactionId()));
+        assertEquals(Set.of("TXN-198", "TXN-196"), ids);
+        assertTrue(archive.findByType("INCONNU", 10).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindByAccount_RejectsNonPositiveLimit() throws IOException {
+        archive.append(List.of(transaction(0, null, "CHK-1")));
+        archive.findByAccount("CHK-1", null, null, t -> true, 0);
+    }
+
+    @Test
+    public void testOpenDurable_ReindexesSegmentsAndTruncatesIncompleteTail() throws IOException {
+        Path durableDirectory = folder.getRoot().toPath().resolve("durable");
+        List<Transaction> batch = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batch.add(transaction(i, null, "CHK-1"));
+        }
+        try (HistoryArchive durable = HistoryArchive.openDurable(durableDirectory, 4096)) {
+            durable.append(batch);
+            Transaction cancelled = transaction(3, null, "CHK-1");
+            cancelled.markAsCancelled();
+            durable.append(List.of(cancelled));
+            durable.appendMissing(List.of(transaction(4, null, "CHK-1"), transaction(100, null, "CHK-1")));
+        }
+        List<Path> segments = HistoryArchive.listSegments(durableDirectory);
+        Path last = segments.get(segments.size() - 1);
+        long completeSize = Files.size(last);
+        Files.write(last, new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+
+        try (HistoryArchive durable = HistoryArchive.openDurable(durableDirectory, 4096)) {
+            assertTrue(durable.isDurable());
+            assertEquals("Une nouvelle version ne compte qu'une fois", 101, durable.getTransactionCount());
+            assertEquals(completeSize, Files.size(last));
+            assertEquals("CANCELLED", durable.find("TXN-3").getStatus());
+            assertEquals("COMPLETED", durable.find("TXN-4").getStatus());
+            assertEquals(101, durable.findByAccount("CHK-1", null, null, t -> true, Integer.MAX_VALUE).size());
+
+            durable.append(List.of(transaction(101, null, "CHK-2")));
+            assertNotNull(durable.find("TXN-101"));
+        }
+    }
+
+    @Test
+    public void testOpenAndClear_RemoveSegments() throws IOException {
+        archive.append(List.of(transaction(0, null, "CHK-1")));
+        archive.close();
+
+        archive = HistoryArchive.open(directory, 4096);
+        assertEquals("Les segments d'une exécution précédente sont supprimés",
+                0, HistoryArchive.listSegments(directory).size());
+
+        archive.append(List.of(transaction(1, null, "CHK-1")));
+        archive.clear();
+        assertEquals(0, archive.getTransactionCount());
+        assertNull(archive.find("TXN-1"));
+        assertEquals(0, HistoryArchive.listSegments(directory).size());
+    }
+
+    private long totalFileSize() throws IOException {
+        long size = 0L;
+        for (Path segment : HistoryArchive.listSegments(directory)) {
+            size += Files.size(segment);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,306 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.pattern.strategy.WithdrawStrategy;
+import com.exemple.service.BankingService;
+import com.exemple.service.PartitionedTransactionEngine;
+import com.exemple.service.TransactionRequest;
+import com.exemple.service.TransactionService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour Journal et JournalRecovery
+ */
+public class JournalRecoveryTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path journalPath;
+    private BankingService bankingService;
+    private TransactionService transactionService;
+    private Journal journal;
+
+    @Before
+    public void setUp() throws IOException {
+        journalPath = folder.getRoot().toPath().resolve("journal");
+        openServices();
+    }
+
+    private void openServices() throws IOException {
+        bankingService = new BankingService();
+        transactionService = new TransactionService();
+        JournalRecovery.recover(journalPath, bankingService, transactionService);
+        journal = Journal.open(journalPath, true);
+        bankingService.setJournal(journal);
+        transactionService.setJournal(journal);
+    }
+
+    private void restart() throws IOException {
+        journal.close();
+        openServices();
+    }
+
+    @Test
+    public void testRecover_RebuildsUsersAccountsAndHistory() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 1000.0, "CHECKING");
+        Account savings = bankingService.createAccount(alice.getUserId(), 0.0, "SAVINGS");
+
+        Transaction deposit = transactionService.executeTransaction(
+                new DepositStrategy(), null, checking, 250.50);
+        transactionService.executeTransaction(new WithdrawStrategy(), checking, null, 100.25);
+        transactionService.executeTransaction(new TransferStrategy(), checking, savings, 300.0);
+
+        restart();
+
+        User recovered = bankingService.getUserByUsername("alice");
+        assertNotNull("L'utilisateur doit être reconstruit", recovered);
+        assertEquals(alice.getUserId(), recovered.getUserId());
+        assertEquals(alice.getPasswordHash(), recovered.getPasswordHash());
+
+        assertEquals("Le solde doit être reconstruit au centime près",
+                850.25, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(300.0, bankingService.getAccount(savings.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(2, bankingService.getUserAccounts(alice.getUserId()).size());
+
+        assertEquals(3, transactionService.getTotalTransactionCount());
+        Transaction recoveredDeposit = transactionService.getTransaction(deposit.getTransactionId());
+        assertNotNull("La transaction doit être reconstruite", recoveredDeposit);
+        assertEquals(deposit.getAmountMinor(), recoveredDeposit.getAmountMinor());
+        assertEquals(deposit.getTimestamp(), recoveredDeposit.getTimestamp());
+        assertEquals(deposit.getDescription(), recoveredDeposit.getDescription());
+        assertEquals(3, transactionService.getAccountTransactions(checking.getAccountNumber()).size());
+    }
+
+    @Test
+    public void testRecover_NewIdentifiersDoNotCollideWithRecoveredOnes() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account first = bankingService.createAccount(alice.getUserId(), 10.0, "CHECKING");
+
+        restart();
+
+        User bob = bankingService.registerUser("bob", "password456", "bob@email.com", "STANDARD");
+        Account second = bankingService.createAccount(bob.getUserId(), 10.0, "CHECKING");
+
+        assertNotEquals(alice.getUserId(), bob.getUserId());
+        assertNotEquals(first.getAccountNumber(), second.getAccountNumber());
+    }
+
+    @Test
+    public void testRecover_TruncatesTornTail() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 100.0, "CHECKING");
+        transactionService.executeTransaction(new DepositStrategy(), null, checking, 50.0);
+        journal.close();
+
+        Path segment = Journal.listSegments(journalPath).get(0);
+        long completeSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(completeSize - 3);
+        }
+
+        openServices();
+
+        assertEquals("Le dernier enregistrement incomplet doit être ignoré",
+                0, transactionService.getTotalTransactionCount());
+        assertEquals(100.0, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+
+        transactionService.executeTransaction(new DepositStrategy(), null,
+                bankingService.getAccount(checking.getAccountNumber()), 20.0);
+        restart();
+
+        assertEquals("Les écritures après troncature doivent être relues",
+                1, transactionService.getTotalTransactionCount());
+        assertEquals(120.0, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+    }
+
+    @Test
+    public void testGroupCommit_ConcurrentDurableWritesAreAllRecovered()
+            throws IOException, InterruptedException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 0.0, "CHECKING");
+
+        int threads = 16;
+        int depositsPerThread = 50;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < depositsPerThread; i++) {
+                    transactionService.executeTransaction(new DepositStrategy(), null, checking, 1.0);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int executed = transactionService.getTotalTransactionCount();
+        restart();
+
+        assertEquals(executed, transactionService.getTotalTransactionCount());
+        assertEquals(checking.getBalance(),
+                bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+    }
+
+    @Test
+    public void testExecuteBatch_AllSuccessfulItemsAreRecovered() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 100.0, "CHECKING");
+        Account savings = bankingService.createAccount(alice.getUserId(), 0.0, "SAVINGS");
+
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(new TransactionRequest(new DepositStrategy(), null, checking, 1.0));
+        }
+        requests.add(new TransactionRequest(new WithdrawStrategy(), checking, null, 10_000.0));
+        requests.add(new TransactionRequest(new TransferStrategy(), checking, savings, 50.0));
+        transactionService.executeBatch(requests);
+
+        restart();
+
+        assertEquals(101, transactionService.getTotalTransactionCount());
+        assertEquals(150.0, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(50.0, bankingService.getAccount(savings.getAccountNumber()).getBalance(), 0.0);
+    }
+
+    @Test
+    public void testPartitionedEngine_AsyncOperationsAreRecovered() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 100.0, "CHECKING");
+        Account savings = bankingService.createAccount(alice.getUserId(), 0.0, "SAVINGS");
+
+        CompletableFuture<Transaction> transfer;
+        try (PartitionedTransactionEngine engine = new PartitionedTransactionEngine(4, bankingService::getAccount)) {
+            engine.setTransactionService(transactionService);
+            transfer = engine.submitTransfer(checking.getAccountNumber(), savings.getAccountNumber(), 4_000);
+            engine.submitDeposit(savings.getAccountNumber(), 500).join();
+            transfer.join();
+        }
+
+        restart();
+
+        assertEquals(60.0, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(45.0, bankingService.getAccount(savings.getAccountNumber()).getBalance(), 0.0);
+        assertNotNull("Le virement asynchrone doit être journalisé",
+                transactionService.getTransaction(transfer.join().getTransactionId()));
+        assertEquals(2, transactionService.getTotalTransactionCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void testJournal_InterruptedFlusherFailsWritersInsteadOfHanging() throws Exception {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+
+        Thread flusher = journal.flusherThread();
+        flusher.interrupt();
+        flusher.join();
+
+        try {
+            bankingService.createAccount(alice.getUserId(), 10.0, "CHECKING");
+            fail("Une écriture après l'arrêt du thread d'écriture doit échouer");
+        } catch (UncheckedIOException e) {
+            assertNotNull(e.getCause());
+        }
+    }
+
+    @Test
+    public void testJournalFailure_RevertsBalancesBeforeAnythingIsRecorded() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 100.0, "CHECKING");
+        Account savings = bankingService.createAccount(alice.getUserId(), 0.0, "SAVINGS");
+        journal.close();
+
+        try {
+            transactionService.executeTransaction(new TransferStrategy(), checking, savings, 40.0);
+            fail("Une transaction non journalisée doit échouer");
+        } catch (IllegalStateException e) {
+            assertEquals("Le journal est fermé", e.getMessage());
+        }
+
+        List<TransactionRequest> batch = new ArrayList<>();
+        batch.add(new TransactionRequest(new DepositStrategy(), null, savings, 10.0));
+        assertFalse(transactionService.executeBatch(batch).get(0).isSuccessful());
+
+        try (PartitionedTransactionEngine engine = new PartitionedTransactionEngine(2, bankingService::getAccount)) {
+            engine.setTransactionService(transactionService);
+            CompletableFuture<Transaction> transfer =
+                    engine.submitTransfer(checking.getAccountNumber(), savings.getAccountNumber(), 2_000);
+            assertTrue(transfer.handle((transaction, failure) -> failure != null).join());
+        }
+
+        assertEquals("Aucun solde ne doit bouger sans enregistrement au journal",
+                10_000, checking.getBalanceMinor());
+        assertEquals(0, savings.getBalanceMinor());
+        assertEquals(0, transactionService.getTotalTransactionCount());
+    }
+
+    @Test
+    public void testRecover_ReplaysDeactivationsAndStatusChanges() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        User bob = bankingService.registerUser("bob", "password456", "bob@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 100.0, "CHECKING");
+        Account closed = bankingService.createAccount(alice.getUserId(), 0.0, "SAVINGS");
+        Account business = bankingService.createAccount(bob.getUserId(), 10.0, "CHECKING");
+        Transaction deposit = transactionService.executeTransaction(new DepositStrategy(), null, checking, 25.0);
+
+        bankingService.closeAccount(closed.getAccountNumber());
+        bankingService.deactivateUser(bob.getUserId());
+        deposit.markAsFailed("contestation");
+
+        restart();
+
+        assertTrue(bankingService.getAccount(checking.getAccountNumber()).isActive());
+        assertFalse("Un compte fermé doit le rester après reprise",
+                bankingService.getAccount(closed.getAccountNumber()).isActive());
+        assertFalse(bankingService.getAccount(business.getAccountNumber()).isActive());
+        assertFalse(bankingService.getUserById(bob.getUserId()).isActive());
+        assertTrue(bankingService.getUserById(alice.getUserId()).isActive());
+
+        Transaction recovered = transactionService.getTransaction(deposit.getTransactionId());
+        assertEquals("FAILED", recovered.getStatus());
+        assertEquals(deposit.getDescription(), recovered.getDescription());
+        assertEquals(0, transactionService.getSuccessfulTransactionCount());
+        assertEquals(1, transactionService.getGlobalStatistics().getCountByStatus("FAILED"));
+        assertEquals(0, transactionService.getAccountStatistics(checking.getAccountNumber()).getInflowMinor());
+    }
+
+    @Test
+    public void testRecover_KeepsPasswordHashUpgradedAtLogin() throws IOException {
+        User legacy = new User("USR-009997", "dave", "HASHED_" + "password123".hashCode(),
+                "dave@email.com", "STANDARD");
+        bankingService.restoreUser(legacy);
+        journal.logUserCreated(legacy);
+
+        bankingService.authenticate("dave", "password123");
+        String upgradedHash = legacy.getPasswordHash();
+        assertFalse(upgradedHash.startsWith("HASHED_"));
+
+        restart();
+
+        assertEquals("Le hachage mis à niveau doit survivre au redémarrage",
+                upgradedHash, bankingService.getUserByUsername("dave").getPasswordHash());
+        assertNotNull(bankingService.authenticate("dave", "password123"));
+    }
+}
@@ -0,0 +1,311 @@
+package com.exemple.persistence;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import com.exemple.model.User;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.pattern.strategy.WithdrawStrategy;
+import com.exemple.service.BankingService;
+import com.exemple.service.HistoryRetentionPolicy;
+import com.exemple.service.TransactionService;
+import com.exemple.service.TransactionStatistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour SnapshotManager
+ */
+public class SnapshotManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path journalDirectory;
+    private BankingService bankingService;
+    private TransactionService transactionService;
+    private Journal journal;
+    private HistoryArchive history;
+    private SnapshotManager snapshotManager;
+    private boolean durableHistory = true;
+
+    @Before
+    public void setUp() throws IOException {
+        journalDirectory = folder.getRoot().toPath().resolve("journal");
+        openServices();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        snapshotManager.close();
+        journal.close();
+        if (history != null) {
+            history.close();
+        }
+    }
+
+    private void openServices() throws IOException {
+        bankingService = new BankingService();
+        transactionService = new TransactionService();
+        history = null;
+        if (durableHistory) {
+            history = HistoryArchive.openDurable(folder.getRoot().toPath().resolve("history"));
+            transactionService.setHistoryArchive(history, HistoryRetentionPolicy.unbounded());
+        }
+        JournalRecovery.recover(journalDirectory, bankingService, transactionService);
+        journal = Journal.open(journalDirectory, true);
+        bankingService.setJournal(journal);
+        transactionService.setJournal(journal);
+        snapshotManager = durableHistory
+                ? new SnapshotManager(journal, history)
+                : new SnapshotManager(journal);
+    }
+
+    private void restart() throws IOException {
+        snapshotManager.close();
+        journal.close();
+        if (history != null) {
+            history.close();
+        }
+        openServices();
+    }
+
+    @Test
+    public void testRestart_LoadsSnapshotAndReplaysTail() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 1000.0, "CHECKING");
+        Account savings = bankingService.createAccount(alice.getUserId(), 0.0, "SAVINGS");
+        transactionService.executeTransaction(new DepositStrategy(), null, checking, 100.10);
+        transactionService.executeTransaction(new TransferStrategy(), checking, savings, 200.0);
+
+        long covered = snapshotManager.takeSnapshot();
+        assertEquals("Les segments couverts doivent être supprimés",
+                1, Journal.listSegments(journalDirectory).size());
+        assertEquals(covered, Journal.segmentBase(Journal.listSegments(journalDirectory).get(0)));
+
+        User bob = bankingService.registerUser("bob", "password456", "bob@email.com", "PREMIUM");
+        Account business = bankingService.createAccount(bob.getUserId(), 5000.0, "BUSINESS");
+        transactionService.executeTransaction(new WithdrawStrategy(), checking, null, 50.0);
+        transactionService.executeTransaction(new TransferStrategy(), business, savings, 1000.0);
+
+        restart();
+
+        assertEquals(2, bankingService.getTotalUsers());
+        assertEquals(3, bankingService.getTotalAccounts());
+        assertEquals(850.10, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(1200.0, bankingService.getAccount(savings.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(4000.0, bankingService.getAccount(business.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(4, transactionService.getTotalTransactionCount());
+        assertEquals("Seule la fin du journal revient en mémoire",
+                2, transactionService.getHotTransactionCount());
+        assertEquals("L'historique couvert par le snapshot se lit dans l'archive",
+                3, transactionService.getAccountTransactions(checking.getAccountNumber(), null, null, 10, null)
+                        .getTransactions().size());
+
+        TransactionStatistics statistics = transactionService.getAccountStatistics(checking.getAccountNumber());
+        assertEquals(3, statistics.getTransactionCount());
+        assertEquals(10_010, statistics.getInflowMinor());
+        assertEquals(25_000, statistics.getOutflowMinor());
+        assertEquals(1, statistics.getCountByType("DEPOSIT"));
+        assertEquals(1, statistics.getCountByType("TRANSFER"));
+        assertEquals(1, statistics.getCountByType("WITHDRAW"));
+        assertEquals(3, statistics.getCountByStatus("COMPLETED"));
+        assertEquals(2, transactionService.getAccountStatistics(savings.getAccountNumber()).getTransactionCount());
+        assertEquals(4, transactionService.getGlobalStatistics().getTransactionCount());
+    }
+
+    @Test
+    public void testSuccessiveSnapshots_AreIncremental() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 0.0, "CHECKING");
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 10; i++) {
+                transactionService.executeTransaction(new DepositStrategy(), null, checking, 1.0);
+            }
+            snapshotManager.takeSnapshot();
+        }
+
+        restart();
+
+        assertEquals(30.0, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(30, transactionService.getTotalTransactionCount());
+        assertEquals(30, transactionService.getAccountStatistics(checking.getAccountNumber()).getTransactionCount());
+        assertEquals(3000, transactionService.getAccountStatistics(checking.getAccountNumber()).getNetFlowMinor());
+        assertEquals(0, transactionService.getHotTransactionCount());
+        assertEquals(30, history.getTransactionCount());
+    }
+
+    @Test
+    public void testRestart_ReadsPreSnapshotHistoryAndLatestStatus() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 0.0, "CHECKING");
+        Transaction first = transactionService.executeTransaction(new DepositStrategy(), null, checking, 10.0);
+        Transaction second = transactionService.executeTransaction(new DepositStrategy(), null, checking, 20.0);
+        snapshotManager.takeSnapshot();
+        first.markAsCancelled();
+        snapshotManager.takeSnapshot();
+        transactionService.executeTransaction(new DepositStrategy(), null, checking, 30.0);
+
+        restart();
+        restart();
+
+        assertEquals(1, Journal.listSegments(journalDirectory).size());
+        assertEquals("CANCELLED", transactionService.getTransaction(first.getTransactionId()).getStatus());
+        assertEquals("COMPLETED", transactionService.getTransaction(second.getTransactionId()).getStatus());
+        assertEquals(3, transactionService.getAccountTransactions(checking.getAccountNumber(), null, null, 10, null)
+                .getTransactions().size());
+        assertEquals(3, transactionService.getAccountStatistics(checking.getAccountNumber()).getTransactionCount());
+        assertEquals(5000, transactionService.getAccountStatistics(checking.getAccountNumber()).getInflowMinor());
+    }
+
+    @Test
+    public void testWithoutArchive_KeepsCoveredSegmentsAndRebuildsHistory() throws IOException {
+        snapshotManager.close();
+        journal.close();
+        history.close();
+        durableHistory = false;
+        openServices();
+
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 0.0, "CHECKING");
+        Transaction first = transactionService.executeTransaction(new DepositStrategy(), null, checking, 10.0);
+        transactionService.executeTransaction(new DepositStrategy(), null, checking, 20.0);
+        first.markAsFailed("contestation");
+        long covered = snapshotManager.takeSnapshot();
+        transactionService.executeTransaction(new DepositStrategy(), null, checking, 30.0);
+
+        assertEquals("Les segments couverts sont conservés",
+                0L, Journal.segmentBase(Journal.listSegments(journalDirectory).get(0)));
+        assertTrue(covered > 0);
+
+        restart();
+
+        assertEquals(60.0, bankingService.getAccount(checking.getAccountNumber()).getBalance(), 0.0);
+        assertEquals(3, transactionService.getHotTransactionCount());
+        assertEquals("FAILED", transactionService.getTransaction(first.getTransactionId()).getStatus());
+        TransactionStatistics statistics = transactionService.getAccountStatistics(checking.getAccountNumber());
+        assertEquals("Les agrégats ne sont pas comptés deux fois", 3, statistics.getTransactionCount());
+        assertEquals(5000, statistics.getInflowMinor());
+        assertEquals(1, statistics.getCountByStatus("FAILED"));
+        assertEquals(3, transactionService.getGlobalStatistics().getTransactionCount());
+    }
+
+    @Test
+    public void testSnapshotSize_DoesNotGrowWithHistory() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 0.0, "CHECKING");
+
+        long[] sizes = new long[3];
+        for (int round = 0; round < sizes.length; round++) {
+            for (int i = 0; i < 500; i++) {
+                transactionService.executeTransaction(new DepositStrategy(), null, checking, 1.0);
+            }
+            long covered = snapshotManager.takeSnapshot();
+            sizes[round] = Files.size(journalDirectory.resolve(
+                    String.format("snapshot-%020d.snap", covered)));
+        }
+
+        // Seuls les compteurs gagnent quelques chiffres
+        assertTrue(sizes[2] - sizes[0] < 64);
+        assertTrue("Le snapshot ne doit pas contenir les transactions", sizes[0] < 500 * 50);
+    }
+
+    @Test
+    public void testSnapshot_DoesNotStopConcurrentTransactions()
+            throws IOException, InterruptedException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accounts.add(bankingService.createAccount(alice.getUserId(), 1000.0, "CHECKING"));
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int offset = t;
+            Thread writer = new Thread(() -> {
+                int i = 0;
+                while (running.get()) {
+                    Account source = accounts.get((offset + i) % accounts.size());
+                    Account destination = accounts.get((offset + i + 1) % accounts.size());
+                    try {
+                        transactionService.executeTransaction(
+                                new TransferStrategy(), source, destination, 1.0);
+                    } catch (RuntimeException e) {
+                        // Fonds insuffisants
+                    }
+                    i++;
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            snapshotManager.takeSnapshot();
+        }
+        running.set(false);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        double[] balances = new double[accounts.size()];
+        for (int i = 0; i < accounts.size(); i++) {
+            balances[i] = accounts.get(i).getBalance();
+        }
+        int count = transactionService.getTotalTransactionCount();
+
+        restart();
+
+        for (int i = 0; i < accounts.size(); i++) {
+            assertEquals(balances[i],
+                    bankingService.getAccount(accounts.get(i).getAccountNumber()).getBalance(), 0.0);
+        }
+        assertEquals(count, transactionService.getTotalTransactionCount());
+    }
+
+    @Test
+    public void testSnapshot_KeepsDeactivationsAndStatusChanges() throws IOException {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        User bob = bankingService.registerUser("bob", "password456", "bob@email.com", "STANDARD");
+        Account checking = bankingService.createAccount(alice.getUserId(), 0.0, "CHECKING");
+        Account closed = bankingService.createAccount(alice.getUserId(), 0.0, "SAVINGS");
+        bankingService.createAccount(bob.getUserId(), 0.0, "CHECKING");
+        Transaction first = transactionService.executeTransaction(new DepositStrategy(), null, checking, 10.0);
+        Transaction second = transactionService.executeTransaction(new DepositStrategy(), null, checking, 20.0);
+
+        bankingService.closeAccount(closed.getAccountNumber());
+        bankingService.deactivateUser(bob.getUserId());
+        first.markAsCancelled();
+        snapshotManager.takeSnapshot();
+        second.markAsFailed("contestation");
+
+        restart();
+
+        assertFalse(bankingService.getAccount(closed.getAccountNumber()).isActive());
+        assertFalse(bankingService.getUserById(bob.getUserId()).isActive());
+        for (Account account : bankingService.getUserAccounts(bob.getUserId())) {
+            assertFalse(account.isActive());
+        }
+        TransactionStatistics statistics = transactionService.getAccountStatistics(checking.getAccountNumber());
+        assertEquals(2, statistics.getTransactionCount());
+        assertEquals(0, statistics.getCountByStatus("COMPLETED"));
+        assertEquals(1, statistics.getCountByStatus("CANCELLED"));
+        assertEquals(1, statistics.getCountByStatus("FAILED"));
+        assertEquals("Les flux ne comptent que les transactions réussies", 0, statistics.getInflowMinor());
+    }
+}
@@ -0,0 +1,112 @@
+package com.exemple.security;
+
+
+import com.exemple.model.User;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour CredentialVerifier
+ */
+public class CredentialVerifierTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1000, 16, 256);
+    private CredentialVerifier verifier;
+
+    @After
+    public void tearDown() {
+        if (verifier != null) {
+            verifier.close();
+        }
+    }
+
+    private User user(String userId, String passwordHash) {
+        return new User(userId, "user" + userId, passwordHash, userId + "@email.com", "STANDARD");
+    }
+
+    @Test
+    public void testVerify_CachesSuccessfulLogins() {
+        verifier = new CredentialVerifier(hasher, 2, 16, Duration.ofMinutes(1), 100);
+        User alice = user("USR-1", hasher.hash("password123"));
+
+        assertTrue(verifier.verify(alice, "password123"));
+        assertTrue(verifier.verify(alice, "password123"));
+        assertFalse("Un mauvais mot de passe n'est jamais servi par le cache",
+                verifier.verify(alice, "wrong-password"));
+
+        assertEquals(2, verifier.getVerificationCount());
+        assertEquals(1, verifier.getCacheHitCount());
+    }
+
+    @Test
+    public void testVerify_PasswordChangeInvalidatesCachedLogin() {
+        verifier = new CredentialVerifier(hasher, 2, 16, Duration.ofMinutes(1), 100);
+        User alice = user("USR-1", hasher.hash("password123"));
+        assertTrue(verifier.verify(alice, "password123"));
+
+        alice.changePassword(hasher.hash("new-password"));
+
+        assertFalse(verifier.verify(alice, "password123"));
+        assertTrue(verifier.verify(alice, "new-password"));
+        assertEquals(0, verifier.getCacheHitCount());
+    }
+
+    @Test
+    public void testVerify_UpgradesLegacyHash() {
+        verifier = new CredentialVerifier(hasher, 1, 16, Duration.ZERO, 0);
+        User legacy = user("USR-2", "HASHED_" + "password123".hashCode());
+
+        assertTrue(verifier.verify(legacy, "password123"));
+
+        assertTrue(legacy.getPasswordHash().startsWith("PBKDF2$"));
+        assertEquals(1, verifier.getUpgradedCount());
+        assertTrue(verifier.verify(legacy, "password123"));
+        assertEquals(1, verifier.getUpgradedCount());
+    }
+
+    @Test
+    public void testVerify_RejectsWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHasher slowHasher = new PasswordHasher(1000, 16, 256) {
+            @Override
+            public boolean verify(String password, String storedHash) {
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.verify(password, storedHash);
+            }
+        };
+        verifier = new CredentialVerifier(slowHasher, 1, 1, Duration.ZERO, 0);
+        User alice = user("USR-1", hasher.hash("password123"));
+
+        Thread running = new Thread(() -> verifier.verify(alice, "password123"));
+        running.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Thread queued = new Thread(() -> verifier.verify(alice, "password123"));
+        queued.start();
+        while (verifier.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+
+        try {
+            verifier.verify(alice, "password123");
+            fail("La connexion doit être refusée quand la file est pleine");
+        } catch (IllegalStateException e) {
+            assertEquals(1, verifier.getRejectedCount());
+        } finally {
+            release.countDown();
+            running.join();
+            queued.join();
+        }
+    }
+}
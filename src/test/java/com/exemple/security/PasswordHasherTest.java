@@ -0,0 +1,55 @@
+package com.exemple.security;
+
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour PasswordHasher
+ */
+public class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1000, 16, 256);
+
+    @Test
+    public void testHash_VerifiesOnlyTheOriginalPassword() {
+        String hash = hasher.hash("password123");
+
+        assertTrue(hash.startsWith("PBKDF2$1000$"));
+        assertTrue(hasher.verify("password123", hash));
+        assertFalse(hasher.verify("password124", hash));
+        assertNotEquals("Chaque hachage a son propre sel", hash, hasher.hash("password123"));
+        assertFalse(hasher.needsRehash(hash));
+    }
+
+    @Test
+    public void testVerify_AcceptsLegacyHashAndRequestsRehash() {
+        String legacy = "HASHED_" + "password123".hashCode();
+
+        assertTrue(hasher.verify("password123", legacy));
+        assertFalse(hasher.verify("password456", legacy));
+        assertTrue(hasher.needsRehash(legacy));
+    }
+
+    @Test
+    public void testNeedsRehash_WhenConfiguredCostIncreases() {
+        String cheap = new PasswordHasher(500, 16, 256).hash("password123");
+
+        assertTrue("Un hachage de coût inférieur reste vérifiable", hasher.verify("password123", cheap));
+        assertTrue(hasher.needsRehash(cheap));
+    }
+
+    @Test
+    public void testVerify_RejectsMalformedHashes() {
+        assertFalse(hasher.verify("password123", "PBKDF2$abc$$"));
+        assertFalse(hasher.verify("password123", "PBKDF2$1000$!!$!!"));
+        assertFalse(hasher.verify("password123", "texte"));
+        assertFalse(hasher.verify(null, hasher.hash("password123")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_RejectsNonPositiveIterations() {
+        new PasswordHasher(0, 16, 256);
+    }
+}
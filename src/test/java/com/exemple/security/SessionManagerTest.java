@@ -0,0 +1,136 @@
+package com.exemple.security;
+
+
+import com.exemple.model.User;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour SessionManager
+ */
+public class SessionManagerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SessionManager manager = new SessionManager(
+            Duration.ofSeconds(10), Duration.ofSeconds(1), 4, clock::get);
+
+    private User user(String userId) {
+        return new User(userId, "user" + userId, "hash", userId + "@email.com", "STANDARD");
+    }
+
+    @Test
+    public void testValidate_ReturnsSessionOfToken() {
+        User alice = user("USR-1");
+        Session session = manager.createSession(alice);
+
+        assertSame(session, manager.validate(session.getToken()));
+        assertSame(alice, session.getUser());
+        assertNull(manager.validate("jeton-inconnu"));
+        assertNull(manager.validate(null));
+    }
+
+    @Test
+    public void testCreateSession_TokensAreUniqueAndOpaque() {
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String token = manager.createSession(user("USR-1")).getToken();
+            assertFalse("Le jeton ne doit pas contenir l'utilisateur", token.contains("USR-1"));
+            tokens.add(token);
+        }
+        assertEquals(1000, tokens.size());
+        assertEquals(1000, manager.getActiveSessionCount());
+    }
+
+    @Test
+    public void testExpireSessions_EvictsIdleSessions() {
+        Session idle = manager.createSession(user("USR-1"));
+        clock.addAndGet(5 * SECOND);
+        Session recent = manager.createSession(user("USR-2"));
+
+        clock.addAndGet(6 * SECOND);
+        assertEquals(1, manager.expireSessions());
+
+        assertEquals(1, manager.getActiveSessionCount());
+        assertNull(manager.validate(idle.getToken()));
+        assertSame(recent, manager.validate(recent.getToken()));
+        assertEquals(1, manager.getEvictedCount());
+        assertTrue(manager.getEvictionRunCount() > 0);
+    }
+
+    @Test
+    public void testValidate_ExtendsExpiry() {
+        Session session = manager.createSession(user("USR-1"));
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(8 * SECOND);
+            assertNotNull("Une session utilisée ne doit pas expirer", manager.validate(session.getToken()));
+            manager.expireSessions();
+        }
+        assertEquals(0, manager.getExpiredCount());
+
+        clock.addAndGet(11 * SECOND);
+        manager.expireSessions();
+        assertNull(manager.validate(session.getToken()));
+        assertEquals(1, manager.getExpiredCount());
+    }
+
+    @Test
+    public void testExpireSessions_LongPauseEvictsAllBuckets() {
+        for (int i = 0; i < 100; i++) {
+            manager.createSession(user("USR-" + i));
+            clock.addAndGet(SECOND / 10);
+        }
+        clock.addAndGet(1000 * SECOND);
+
+        assertEquals(100, manager.expireSessions());
+        assertEquals(0, manager.getActiveSessionCount());
+    }
+
+    @Test
+    public void testValidate_RejectsExpiredSessionBeforeEviction() {
+        Session session = manager.createSession(user("USR-1"));
+        clock.addAndGet(10 * SECOND);
+
+        assertNull(manager.validate(session.getToken()));
+        assertEquals(0, manager.getActiveSessionCount());
+        assertEquals(1, manager.getExpiredCount());
+        assertEquals(0, manager.expireSessions());
+    }
+
+    @Test
+    public void testInvalidate_RevokesSessions() {
+        Session first = manager.createSession(user("USR-1"));
+        Session second = manager.createSession(user("USR-1"));
+        Session other = manager.createSession(user("USR-2"));
+
+        assertTrue(manager.invalidate(first.getToken()));
+        assertFalse(manager.invalidate(first.getToken()));
+        assertNull(manager.validate(first.getToken()));
+
+        assertEquals(1, manager.invalidateUser("USR-1"));
+        assertNull(manager.validate(second.getToken()));
+        assertSame(other, manager.validate(other.getToken()));
+        assertEquals(2, manager.getInvalidatedCount());
+
+        clock.addAndGet(20 * SECOND);
+        assertEquals("Les sessions révoquées ne sont pas comptées comme évincées",
+                1, manager.expireSessions());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateSession_NullUser() {
+        manager.createSession(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_InvalidTtl() {
+        new SessionManager(Duration.ZERO, Duration.ofSeconds(1), 16);
+    }
+}
@@ -0,0 +1,199 @@
+package com.exemple.service;
+
+
+import com.exemple.model.User;
+import com.exemple.security.CredentialVerifier;
+import com.exemple.security.PasswordHasher;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour BankingService
+ */
+public class BankingServiceTest {
+
+    private BankingService bankingService;
+
+    @Before
+    public void setUp() {
+        bankingService = new BankingService();
+    }
+
+    @Test
+    public void testRegisterUser_IndexedByUsernameAndEmail() {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+
+        assertSame(alice, bankingService.getUserByUsername("alice"));
+        assertSame(alice, bankingService.getUserByEmail("alice@email.com"));
+        assertNull(bankingService.getUserByUsername("bob"));
+        assertNull(bankingService.getUserByUsername(null));
+    }
+
+    @Test
+    public void testRegisterUser_DuplicateUsername() {
+        bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        try {
+            bankingService.registerUser("alice", "password456", "other@email.com", "STANDARD");
+            fail("Le nom d'utilisateur doit être unique");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Le nom d'utilisateur existe déjà", e.getMessage());
+        }
+        assertNull(bankingService.getUserByEmail("other@email.com"));
+    }
+
+    @Test
+    public void testRegisterUser_DuplicateEmailReleasesUsername() {
+        bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        try {
+            bankingService.registerUser("bob", "password456", "alice@email.com", "STANDARD");
+            fail("L'email doit être unique");
+        } catch (IllegalArgumentException e) {
+            assertEquals("L'email est déjà utilisé", e.getMessage());
+        }
+
+        assertNull("Le nom ne doit pas rester réservé", bankingService.getUserByUsername("bob"));
+        User bob = bankingService.registerUser("bob", "password456", "bob@email.com", "STANDARD");
+        assertSame(bob, bankingService.getUserByUsername("bob"));
+        assertEquals(2, bankingService.getTotalUsers());
+    }
+
+    @Test
+    public void testRegisterUser_HashesInVerifierPoolAfterReservation() {
+        List<String> hashingThreads = new ArrayList<>();
+        PasswordHasher countingHasher = new PasswordHasher() {
+            @Override
+            public String hash(String password) {
+                synchronized (hashingThreads) {
+                    hashingThreads.add(Thread.currentThread().getName());
+                }
+                return super.hash(password);
+            }
+        };
+        CredentialVerifier verifier = new CredentialVerifier(countingHasher, 1, 4, Duration.ZERO, 0);
+        bankingService.setCredentialVerifier(verifier);
+        try {
+            bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+            try {
+                bankingService.registerUser("alice", "password456", "other@email.com", "STANDARD");
+                fail("Le nom d'utilisateur doit être refusé");
+            } catch (IllegalArgumentException e) {
+                assertEquals("Le nom d'utilisateur existe déjà", e.getMessage());
+            }
+
+            assertEquals("Un doublon ne doit pas être haché", 1, hashingThreads.size());
+            assertTrue(hashingThreads.get(0).startsWith("password-verifier-"));
+            assertNotNull(bankingService.authenticate("alice", "password123"));
+        } finally {
+            verifier.close();
+        }
+    }
+
+    @Test
+    public void testAuthenticate_UsesUsernameIndex() {
+        bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+
+        assertEquals("alice", bankingService.authenticate("alice", "password123").getUsername());
+    }
+
+    @Test
+    public void testAuthenticate_UpgradesLegacyPasswordHash() {
+        User restored = new User("USR-009998", "dave", "HASHED_" + "password123".hashCode(),
+                "dave@email.com", "STANDARD");
+        bankingService.restoreUser(restored);
+
+        assertSame(restored, bankingService.authenticate("dave", "password123"));
+        assertTrue("Le hachage doit passer au format PBKDF2",
+                restored.getPasswordHash().startsWith("PBKDF2$"));
+        try {
+            bankingService.authenticate("dave", "wrong-password");
+            fail("Un mauvais mot de passe doit être refusé");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Nom d'utilisateur ou mot de passe incorrect", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testLogin_SessionTokenIdentifiesUserUntilLogout() {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+
+        String token = bankingService.login("alice", "password123").getToken();
+
+        assertSame(alice, bankingService.requireSession(token));
+        bankingService.logout(token);
+        try {
+            bankingService.requireSession(token);
+            fail("Une session fermée doit être refusée");
+        } catch (IllegalStateException e) {
+            assertEquals("Session invalide ou expirée", e.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDeactivateUser_RevokesSessions() {
+        User alice = bankingService.registerUser("alice", "password123", "alice@email.com", "STANDARD");
+        String token = bankingService.login("alice", "password123").getToken();
+
+        bankingService.deactivateUser(alice.getUserId());
+
+        bankingService.requireSession(token);
+    }
+
+    @Test
+    public void testRestoreUser_IsIndexed() {
+        User restored = new User("USR-009999", "carol", "HASHED_1", "carol@email.com", "STANDARD");
+        bankingService.restoreUser(restored);
+
+        assertSame(restored, bankingService.getUserByUsername("carol"));
+        try {
+            bankingService.registerUser("carol", "password123", "new@email.com", "STANDARD");
+            fail("Un utilisateur restauré doit bloquer son nom");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Le nom d'utilisateur existe déjà", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testRegisterUser_ConcurrentSignupsWithSameIdentity() throws InterruptedException {
+        int threads = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    // La moitié des threads réutilise le nom, l'autre moitié l'email
+                    String username = index % 2 == 0 ? "shared" : "user" + index;
+                    String email = index % 2 == 0 ? "user" + index + "@email.com" : "shared@email.com";
+                    bankingService.registerUser(username, "password123", email, "STANDARD");
+                    successes.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // doublon attendu
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertTrue("Au plus deux inscriptions peuvent réussir", successes.get() <= 2);
+        assertEquals(successes.get(), bankingService.getTotalUsers());
+        assertNotNull(bankingService.getUserByUsername("shared"));
+        assertNotNull(bankingService.getUserByEmail("shared@email.com"));
+    }
+}
@@ -0,0 +1,213 @@
+package com.exemple.service;
+
+
+import com.exemple.exception.InsufficientFundsException;
+import com.exemple.model.Account;
+import com.exemple.model.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour PartitionedTransactionEngine
+ */
+public class PartitionedTransactionEngineTest {
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private PartitionedTransactionEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new PartitionedTransactionEngine(4, accounts::get);
+    }
+
+    @After
+    public void tearDown() {
+        engine.close();
+    }
+
+    private Account account(String accountNumber, double balance) {
+        Account account = new Account(accountNumber, "USR-1", balance, "CHECKING");
+        accounts.put(accountNumber, account);
+        return account;
+    }
+
+    /**
+     * Numéro de compte placé dans la partition demandée (ou hors de celle-ci)
+     */
+    private String accountNumber(String prefix, int partition, boolean inside) {
+        for (int i = 0; ; i++) {
+            String candidate = prefix + i;
+            if ((engine.partitionOf(candidate) == partition) == inside) {
+                return candidate;
+            }
+        }
+    }
+
+    @Test
+    public void testDepositAndWithdraw_AppliedByOwningPartition() {
+        Account account = account("ACC-1", 100.0);
+
+        Transaction deposit = engine.deposit("ACC-1", 50.25);
+        engine.withdraw("ACC-1", 30.0);
+
+        assertEquals("DEPOSIT", deposit.getType());
+        assertEquals("ACC-1", deposit.getDestinationAccount());
+        assertEquals(120.25, account.getBalance(), 0.0);
+        assertEquals(2, engine.getProcessedCount(engine.partitionOf("ACC-1")));
+    }
+
+    @Test
+    public void testTransfer_WithinAndAcrossPartitions() {
+        Account source = account(accountNumber("SRC-", 0, true), 100.0);
+        Account local = account(accountNumber("LOC-", 0, true), 0.0);
+        Account remote = account(accountNumber("REM-", 0, false), 0.0);
+
+        engine.transfer(source.getAccountNumber(), local.getAccountNumber(), 10.0);
+        Transaction transfer = engine.transfer(source.getAccountNumber(), remote.getAccountNumber(), 25.0);
+
+        assertEquals("TRANSFER", transfer.getType());
+        assertEquals(65.0, source.getBalance(), 0.0);
+        assertEquals(10.0, local.getBalance(), 0.0);
+        assertEquals(25.0, remote.getBalance(), 0.0);
+        assertEquals(1, engine.getCrossPartitionTransferCount());
+        assertEquals(0, engine.getPendingReservationCount());
+    }
+
+    @Test
+    public void testTransfer_InsufficientFundsLeavesBalancesUnchanged() {
+        Account source = account(accountNumber("SRC-", 0, true), 10.0);
+        Account remote = account(accountNumber("REM-", 0, false), 0.0);
+
+        CompletableFuture<Transaction> result = engine.submitTransfer(
+                source.getAccountNumber(), remote.getAccountNumber(), 5_000);
+        try {
+            result.join();
+            fail("Le virement doit être refusé");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof InsufficientFundsException);
+        }
+        assertEquals(10.0, source.getBalance(), 0.0);
+        assertEquals(0.0, remote.getBalance(), 0.0);
+    }
+
+    @Test
+    public void testTransfer_RejectedByDestinationRefundsReservation() {
+        Account source = account(accountNumber("SRC-", 0, true), 100.0);
+        Account closed = account(accountNumber("CLO-", 0, false), 0.0);
+        closed.deactivate();
+        String unknown = accountNumber("UNK-", 0, false);
+
+        try {
+            engine.transfer(source.getAccountNumber(), closed.getAccountNumber(), 40.0);
+            fail("Un compte désactivé ne peut pas recevoir de virement");
+        } catch (IllegalStateException e) {
+            assertEquals("Le compte est désactivé", e.getMessage());
+        }
+        try {
+            engine.transfer(source.getAccountNumber(), unknown, 40.0);
+            fail("Le compte destination doit exister");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("Compte non trouvé"));
+        }
+
+        assertEquals(100.0, source.getBalance(), 0.0);
+        assertEquals(2, engine.getAbortedTransferCount());
+        assertEquals(0, engine.getPendingReservationCount());
+    }
+
+    @Test
+    public void testConcurrentTransfers_ConserveTotalBalance() throws InterruptedException {
+        int accountCount = 32;
+        for (int i = 0; i < accountCount; i++) {
+            account("ACC-" + i, 100.0);
+        }
+
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                List<CompletableFuture<Transaction>> results = new ArrayList<>();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 2000; i++) {
+                    int from = random.nextInt(accountCount);
+                    int to = (from + 1 + random.nextInt(accountCount - 1)) % accountCount;
+                    results.add(engine.submitTransfer("ACC-" + from, "ACC-" + to, 1 + random.nextInt(5000)));
+                }
+                for (CompletableFuture<Transaction> result : results) {
+                    result.handle((transaction, error) -> null).join();
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        long total = 0;
+        for (Account account : accounts.values()) {
+            assertTrue("Aucun solde ne doit devenir négatif", account.getBalanceMinor() >= 0);
+            total += account.getBalanceMinor();
+        }
+        assertEquals(accountCount * 10_000L, total);
+        assertEquals(8000, engine.getSubmittedCount());
+        assertEquals(0, engine.getPendingReservationCount());
+    }
+
+    @Test
+    public void testSynchronousOperations_RecordedInTransactionService() {
+        TransactionService transactionService = new TransactionService();
+        engine.setTransactionService(transactionService);
+        account(accountNumber("SRC-", 0, true), 100.0);
+        String source = accountNumber("SRC-", 0, true);
+        String remote = account(accountNumber("REM-", 0, false), 0.0).getAccountNumber();
+
+        Transaction transfer = engine.transfer(source, remote, 10.0);
+        engine.deposit(remote, 5.0);
+
+        assertSame(transfer, transactionService.getTransaction(transfer.getTransactionId()));
+        assertEquals(2, transactionService.getAccountTransactions(remote).size());
+    }
+
+    @Test
+    public void testAsyncOperations_RecordedBeforeCompletion() {
+        TransactionService transactionService = new TransactionService();
+        engine.setTransactionService(transactionService);
+        String source = account(accountNumber("SRC-", 0, true), 100.0).getAccountNumber();
+        String remote = account(accountNumber("REM-", 0, false), 0.0).getAccountNumber();
+
+        Transaction transfer = engine.submitTransfer(source, remote, 1_000).join();
+        assertSame(transfer, transactionService.getTransaction(transfer.getTransactionId()));
+
+        CompletableFuture<Transaction> refused = engine.submitWithdrawal(remote, 100_000);
+        try {
+            refused.join();
+            fail("Le retrait doit être refusé");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof InsufficientFundsException);
+        }
+        assertEquals(1, transactionService.getTotalTransactionCount());
+        assertEquals(1, transactionService.getAccountTransactions(remote).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSubmitTransfer_SameAccount() {
+        engine.submitTransfer("ACC-1", "ACC-1", 100);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmit_AfterClose() {
+        engine.close();
+        engine.submitDeposit("ACC-1", 100);
+    }
+}
@@ -0,0 +1,241 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.persistence.HistoryArchive;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour l'historique à deux niveaux de TransactionService
+ */
+public class TieredHistoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TransactionService transactionService;
+    private HistoryArchive archive;
+
+    @Before
+    public void setUp() throws IOException {
+        transactionService = new TransactionService();
+        archive = HistoryArchive.open(folder.getRoot().toPath().resolve("history"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        archive.close();
+    }
+
+    private void restore(int count, String account) {
+        for (int i = 0; i < count; i++) {
+            transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-" + i, "DEPOSIT",
+                    null, account, 100L, START.plusMinutes(i), "Dépôt " + i));
+        }
+        // L'archivage se fait en tâche de fond: on attend qu'il ait rattrapé les ajouts
+        transactionService.enforceRetention();
+    }
+
+    @Test
+    public void testCountLimit_EvictsOldestAndReadsThrough() {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxTransactions(100));
+        restore(250, "CHK-1");
+
+        assertTrue("Le niveau chaud doit rester borné", transactionService.getHotTransactionCount() <= 100);
+        assertEquals(250, transactionService.getTotalTransactionCount());
+        assertEquals(250 - transactionService.getHotTransactionCount(),
+                transactionService.getEvictedTransactionCount());
+        assertEquals(transactionService.getEvictedTransactionCount(), archive.getTransactionCount());
+
+        Transaction oldest = transactionService.getTransaction("TXN-0");
+        assertNotNull("La transaction archivée doit être relue", oldest);
+        assertEquals(START, oldest.getTimestamp());
+
+        List<Transaction> all = transactionService.getAccountTransactions("CHK-1");
+        assertEquals(250, all.size());
+        assertEquals("TXN-249", all.get(0).getTransactionId());
+        assertEquals("TXN-0", all.get(249).getTransactionId());
+        assertEquals(250, transactionService.getTransactionsByType("DEPOSIT").size());
+        assertEquals(250, transactionService.getAllTransactions().size());
+        assertEquals("Les agrégats couvrent tout l'historique",
+                250.0, transactionService.getTotalTransactionAmount("CHK-1"), 0.0);
+    }
+
+    @Test
+    public void testPagination_CrossesFromMemoryToArchive() {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxTransactions(20));
+        restore(60, "CHK-1");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage page = transactionService.getAccountTransactions("CHK-1", null, null, 7, cursor);
+            page.getTransactions().forEach(t -> seen.add(t.getTransactionId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(60, seen.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals("TXN-" + (59 - i), seen.get(i));
+        }
+
+        TransactionPage window = transactionService.getAccountTransactions("CHK-1",
+                START.plusMinutes(5), START.plusMinutes(8), 10, null);
+        assertEquals(3, window.getTransactions().size());
+        assertEquals("TXN-7", window.getTransactions().get(0).getTransactionId());
+    }
+
+    @Test
+    public void testTypePagination_CrossesFromMemoryToArchive() {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxTransactions(20));
+        restore(60, "CHK-1");
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPage page = transactionService.getTransactionsByType("DEPOSIT", 7, cursor);
+            page.getTransactions().forEach(t -> seen.add(t.getTransactionId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(60, seen.size());
+        for (int i = 0; i < 60; i++) {
+            assertEquals("TXN-" + (59 - i), seen.get(i));
+        }
+        assertTrue(transactionService.getTransactionsByType("INCONNU", 7, null).getTransactions().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testUnpagedQueries_ReturnTheWholeArchive() {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxTransactions(100));
+        restore(10_050, "CHK-1");
+
+        List<Transaction> all = transactionService.getAccountTransactions("CHK-1");
+        assertEquals(10_050, all.size());
+        assertEquals("TXN-10049", all.get(0).getTransactionId());
+        assertEquals("TXN-0", all.get(10_049).getTransactionId());
+        assertEquals(10_050, transactionService.getTransactionsByType("DEPOSIT").size());
+    }
+
+    @Test
+    public void testBytesAndAgeLimits() {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxBytes(50 * TieredHistory.ENTRY_OVERHEAD_BYTES));
+        restore(200, "CHK-1");
+        assertTrue(transactionService.getHotHistoryBytes() <= 50 * TieredHistory.ENTRY_OVERHEAD_BYTES);
+        assertTrue(transactionService.getHotTransactionCount() < 50);
+
+        TransactionService recent = new TransactionService();
+        for (int i = 0; i < 10; i++) {
+            recent.restoreTransaction(Transaction.ofMinorUnits("OLD-" + i, "DEPOSIT", null, "CHK-2",
+                    100L, LocalDateTime.now().minusDays(2), "Ancien"));
+            recent.restoreTransaction(Transaction.ofMinorUnits("NEW-" + i, "DEPOSIT", null, "CHK-2",
+                    100L, LocalDateTime.now(), "Récent"));
+        }
+        recent.setHistoryArchive(archive, HistoryRetentionPolicy.unbounded().withMaxAge(Duration.ofDays(1)));
+
+        assertEquals("Les transactions de plus d'un jour sont archivées",
+                10, recent.getHotTransactionCount());
+        assertNotNull(recent.getTransaction("OLD-3"));
+        assertEquals(20, recent.getAccountTransactions("CHK-2").size());
+    }
+
+    @Test
+    public void testConcurrentReads_NeverMissATransactionDuringEviction() throws InterruptedException {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxTransactions(50));
+        int total = 5_000;
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger misses = new AtomicInteger();
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-" + i, "DEPOSIT",
+                        null, "CHK-1", 100L, START.plusSeconds(i), "Dépôt"));
+                written.set(i + 1);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            while (written.get() < total) {
+                int available = written.get();
+                if (available > 0) {
+                    int id = ThreadLocalRandom.current().nextInt(available);
+                    if (transactionService.getTransaction("TXN-" + id) == null) {
+                        misses.incrementAndGet();
+                    }
+                }
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertEquals("Une transaction doit toujours être dans l'un des deux niveaux", 0, misses.get());
+        assertEquals(total, transactionService.getTotalTransactionCount());
+    }
+
+    @Test
+    public void testStatusChange_RewritesArchivedTransaction() throws IOException {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxTransactions(10));
+        Transaction first = Transaction.ofMinorUnits("TXN-FIRST", "DEPOSIT", null, "CHK-1",
+                100L, START.minusDays(1), "Dépôt");
+        transactionService.restoreTransaction(first);
+        restore(50, "CHK-1");
+        assertNotSame("La transaction doit être archivée", first, transactionService.getTransaction("TXN-FIRST"));
+
+        first.markAsFailed("Rejet tardif");
+        transactionService.enforceRetention();
+
+        assertEquals("FAILED", transactionService.getTransaction("TXN-FIRST").getStatus());
+        assertEquals("FAILED", transactionService.getAccountTransactions("CHK-1").get(50).getStatus());
+        assertEquals("La nouvelle version remplace l'ancienne", 51, archive.getTransactionCount()
+                + transactionService.getHotTransactionCount());
+
+        Transaction copy = transactionService.getTransaction("TXN-1");
+        copy.markAsCancelled();
+        transactionService.enforceRetention();
+        assertEquals("CANCELLED", transactionService.getTransaction("TXN-1").getStatus());
+        assertEquals(1L, transactionService.getGlobalStatistics().getCountByStatus("CANCELLED"));
+    }
+
+    @Test
+    public void testClearHistory_EmptiesBothTiers() {
+        transactionService.setHistoryArchive(archive,
+                HistoryRetentionPolicy.unbounded().withMaxTransactions(10));
+        restore(50, "CHK-1");
+
+        transactionService.clearHistory();
+
+        assertEquals(0, transactionService.getTotalTransactionCount());
+        assertNull(transactionService.getTransaction("TXN-0"));
+        assertEquals(0, transactionService.getHotHistoryBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPolicy_RejectsNonPositiveLimit() {
+        HistoryRetentionPolicy.unbounded().withMaxTransactions(0);
+    }
+}
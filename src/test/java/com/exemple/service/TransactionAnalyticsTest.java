@@ -0,0 +1,182 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Transaction;
+import com.exemple.persistence.HistoryArchive;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests unitaires pour TransactionAnalytics
+ */
+public class TransactionAnalyticsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int HISTORY_SIZE = 100_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TransactionService transactionService;
+    private ForkJoinPool pool;
+    private TransactionAnalytics analytics;
+
+    @Before
+    public void setUp() {
+        transactionService = new TransactionService();
+        pool = new ForkJoinPool(4);
+        analytics = new TransactionAnalytics(transactionService, pool);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private void restore(int count) {
+        for (int i = 0; i < count; i++) {
+            String account = "CHK-" + (i % 10);
+            String counterpart = "CHK-" + ((i + 3) % 10);
+            Transaction transaction;
+            switch (i % 3) {
+                case 0:
+                    transaction = Transaction.ofMinorUnits("TXN-" + i, "DEPOSIT", null, account,
+                            100L + i % 1000, START.plusMinutes(i), "Dépôt");
+                    break;
+                case 1:
+                    transaction = Transaction.ofMinorUnits("TXN-" + i, "WITHDRAW", account, null,
+                            100L + i % 1000, START.plusMinutes(i), "Retrait");
+                    break;
+                default:
+                    transaction = Transaction.ofMinorUnits("TXN-" + i, "TRANSFER", account, counterpart,
+                            100L + i % 1000, START.plusMinutes(i), "Virement");
+            }
+            if (i % 11 == 0) {
+                transaction.markAsFailed("Refusée");
+            }
+            transactionService.restoreTransaction(transaction);
+        }
+    }
+
+    @Test
+    public void testAggregateByType_MatchesSequentialComputation() {
+        restore(HISTORY_SIZE);
+
+        Map<String, GroupStatistics> byType = analytics.aggregate(TransactionAnalytics.GroupBy.TYPE);
+
+        assertEquals(3, byType.size());
+        for (String type : new String[]{"DEPOSIT", "WITHDRAW", "TRANSFER"}) {
+            long count = 0;
+            long sum = 0;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (Transaction transaction : transactionService.getAllTransactions()) {
+                if (type.equals(transaction.getType())) {
+                    count++;
+                    sum += transaction.getAmountMinor();
+                    min = Math.min(min, transaction.getAmountMinor());
+                    max = Math.max(max, transaction.getAmountMinor());
+                }
+            }
+            GroupStatistics statistics = byType.get(type);
+            assertEquals(count, statistics.getCount());
+            assertEquals(sum, statistics.getSumMinor());
+            assertEquals(min, statistics.getMinMinor());
+            assertEquals(max, statistics.getMaxMinor());
+        }
+    }
+
+    @Test
+    public void testAggregateByAccountAndStatus_CountEveryTransactionOnce() {
+        restore(HISTORY_SIZE);
+
+        Map<String, GroupStatistics> byStatus = analytics.aggregate(TransactionAnalytics.GroupBy.STATUS);
+        assertEquals(transactionService.getSuccessfulTransactionCount(), byStatus.get("COMPLETED").getCount());
+        assertEquals(HISTORY_SIZE, byStatus.values().stream().mapToLong(GroupStatistics::getCount).sum());
+
+        Map<String, GroupStatistics> byAccount = analytics.aggregate(TransactionAnalytics.GroupBy.ACCOUNT);
+        assertEquals(10, byAccount.size());
+        for (Map.Entry<String, GroupStatistics> entry : byAccount.entrySet()) {
+            assertEquals("Le compte " + entry.getKey() + " doit compter toutes ses transactions",
+                    transactionService.getAccountTransactions(entry.getKey()).size(),
+                    entry.getValue().getCount());
+        }
+    }
+
+    @Test
+    public void testAggregateByDay_FiltersTimeWindow() {
+        restore(3 * 24 * 60);
+
+        Map<String, GroupStatistics> byDay = analytics.aggregate(TransactionAnalytics.GroupBy.DAY);
+        assertEquals(List.of("2024-01-01", "2024-01-02", "2024-01-03"), new ArrayList<>(byDay.keySet()));
+        assertEquals(24 * 60, byDay.get("2024-01-02").getCount());
+
+        Map<String, GroupStatistics> window = analytics.aggregate(TransactionAnalytics.GroupBy.DAY,
+                START.plusHours(12), START.plusHours(36));
+        assertEquals(12 * 60, window.get("2024-01-01").getCount());
+        assertEquals(12 * 60, window.get("2024-01-02").getCount());
+        assertNull(window.get("2024-01-03"));
+    }
+
+    @Test
+    public void testTopAccountsByVolume_OrdersByCompletedVolume() {
+        transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-1", "DEPOSIT",
+                null, "CHK-A", 500L, START, "Dépôt"));
+        transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-2", "TRANSFER",
+                "CHK-A", "CHK-B", 300L, START.plusMinutes(1), "Virement"));
+        Transaction failed = Transaction.ofMinorUnits("TXN-3", "DEPOSIT",
+                null, "CHK-C", 10_000L, START.plusMinutes(2), "Dépôt");
+        failed.markAsFailed("Refusée");
+        transactionService.restoreTransaction(failed);
+
+        Map<String, GroupStatistics> top = analytics.topAccountsByVolume(2);
+
+        assertEquals(List.of("CHK-A", "CHK-B"), new ArrayList<>(top.keySet()));
+        assertEquals(800L, top.get("CHK-A").getSumMinor());
+    }
+
+    @Test
+    public void testAggregate_IncludesArchivedTransactions() throws IOException {
+        try (HistoryArchive archive = HistoryArchive.open(folder.getRoot().toPath().resolve("history"))) {
+            transactionService.setHistoryArchive(archive,
+                    HistoryRetentionPolicy.unbounded().withMaxTransactions(1000));
+            restore(10_000);
+            transactionService.enforceRetention();
+
+            assertTrue(archive.getTransactionCount() > 0);
+            Map<String, GroupStatistics> byType = analytics.aggregate(TransactionAnalytics.GroupBy.TYPE);
+            assertEquals(10_000, byType.values().stream().mapToLong(GroupStatistics::getCount).sum());
+        }
+    }
+
+    @Test
+    public void testAggregate_SplitsArchiveAcrossSegments() throws IOException {
+        try (HistoryArchive archive = HistoryArchive.open(folder.getRoot().toPath().resolve("history"), 16 * 1024)) {
+            transactionService.setHistoryArchive(archive,
+                    HistoryRetentionPolicy.unbounded().withMaxTransactions(100));
+            restore(5_000);
+            transactionService.enforceRetention();
+
+            assertTrue("L'archive doit compter plusieurs segments", archive.getSegmentCount() > 4);
+            Map<String, GroupStatistics> byStatus = analytics.aggregate(TransactionAnalytics.GroupBy.STATUS);
+            assertEquals(5_000, byStatus.values().stream().mapToLong(GroupStatistics::getCount).sum());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregate_RejectsInvertedWindow() {
+        analytics.aggregate(TransactionAnalytics.GroupBy.DAY, START.plusDays(1), START);
+    }
+}
@@ -0,0 +1,149 @@
+package com.exemple.service;
+
+
+import com.exemple.model.Account;
+import com.exemple.model.User;
+import com.exemple.pattern.factory.AccountFactory;
+import com.exemple.pattern.factory.UserFactory;
+import com.exemple.pattern.strategy.DepositStrategy;
+import com.exemple.pattern.strategy.TransferStrategy;
+import com.exemple.pattern.strategy.WithdrawStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests de charge concurrente pour TransactionService
+ */
+public class TransactionServiceConcurrencyTest {
+
+    private static final int THREADS = 2000;
+    private static final int OPERATIONS_PER_THREAD = 20;
+    private static final int ACCOUNTS = 10;
+    private static final double INITIAL_BALANCE = 100.0;
+
+    private TransactionService transactionService;
+    private List<Account> accounts;
+
+    @Before
+    public void setUp() {
+        transactionService = new TransactionService();
+        User testUser = UserFactory.createStandardUser("stress", "password123", "stress@email.com");
+
+        accounts = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(AccountFactory.createCheckingAccount(testUser, INITIAL_BALANCE));
+        }
+    }
+
+    @Test
+    public void testTransfers_ConserveTotalMoney() throws InterruptedException {
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Account source = accounts.get(random.nextInt(ACCOUNTS));
+                Account destination = accounts.get(random.nextInt(ACCOUNTS));
+                if (source == destination) {
+                    continue;
+                }
+                try {
+                    transactionService.executeTransaction(
+                            new TransferStrategy(), source, destination, 1 + random.nextInt(30));
+                } catch (RuntimeException e) {
+                    // Fonds insuffisants: attendu sous forte contention
+                }
+            }
+        });
+
+        assertEquals("Le total des soldes doit être conservé",
+                ACCOUNTS * INITIAL_BALANCE, totalBalance(), 0.001);
+        assertNoOverdraft();
+    }
+
+    @Test
+    public void testMixedOperations_BalanceMatchesAcceptedOperations()
+            throws InterruptedException {
+        AtomicLong deposited = new AtomicLong();
+        AtomicLong withdrawn = new AtomicLong();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                Account first = accounts.get(random.nextInt(ACCOUNTS));
+                Account second = accounts.get(random.nextInt(ACCOUNTS));
+                int amount = 1 + random.nextInt(50);
+                try {
+                    switch (random.nextInt(3)) {
+                        case 0:
+                            transactionService.executeTransaction(
+                                    new DepositStrategy(), null, first, amount);
+                            deposited.addAndGet(amount);
+                            break;
+                        case 1:
+                            transactionService.executeTransaction(
+                                    new WithdrawStrategy(), first, null, amount);
+                            withdrawn.addAndGet(amount);
+                            break;
+                        default:
+                            if (first != second) {
+                                transactionService.executeTransaction(
+                                        new TransferStrategy(), first, second, amount);
+                            }
+                    }
+                } catch (RuntimeException e) {
+                    // Fonds insuffisants: attendu sous forte contention
+                }
+            }
+        });
+
+        assertEquals("Le total doit refléter exactement les dépôts et retraits acceptés",
+                ACCOUNTS * INITIAL_BALANCE + deposited.get() - withdrawn.get(),
+                totalBalance(), 0.001);
+        assertNoOverdraft();
+    }
+
+    private void runConcurrently(Runnable task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private double totalBalance() {
+        double total = 0.0;
+        for (Account account : accounts) {
+            total += account.getBalance();
+        }
+        return total;
+    }
+
+    private void assertNoOverdraft() {
+        for (Account account : accounts) {
+            assertTrue("Aucun compte ne doit être à découvert: " + account,
+                    account.getBalance() >= 0);
+        }
+    }
+}
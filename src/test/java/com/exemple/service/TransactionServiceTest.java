@@ -3,6 +3,7 @@ package com.exemple.service;
 
 import com.exemple.model.Account;
 import com.exemple.model.Transaction;
+import com.exemple.model.TransactionResult;
 import com.exemple.model.User;
 import com.exemple.pattern.factory.AccountFactory;
 import com.exemple.pattern.factory.UserFactory;
@@ -14,7 +15,16 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -165,6 +175,80 @@ public class TransactionServiceTest {
         assertEquals("Devrait y avoir 3 transactions", 3, transactions.size());
     }
 
+    @Test
+    public void testGetAccountTransactions_PagesFromNewestWithStableCursor() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < 5; i++) {
+            transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-" + i, "DEPOSIT",
+                    null, "CHK-1", 100L, start.plusMinutes(i), "Dépôt"));
+        }
+
+        TransactionPage first = transactionService.getAccountTransactions("CHK-1", null, null, 2, null);
+        assertEquals(List.of("TXN-4", "TXN-3"), ids(first));
+        assertTrue("Il doit rester des transactions", first.hasMore());
+
+        transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-5", "DEPOSIT",
+                null, "CHK-1", 100L, start.plusMinutes(5), "Dépôt"));
+
+        TransactionPage second = transactionService.getAccountTransactions(
+                "CHK-1", null, null, 2, first.getNextCursor());
+        assertEquals("Une nouvelle transaction ne doit pas décaler la pagination",
+                List.of("TXN-2", "TXN-1"), ids(second));
+
+        TransactionPage last = transactionService.getAccountTransactions(
+                "CHK-1", null, null, 2, second.getNextCursor());
+        assertEquals(List.of("TXN-0"), ids(last));
+        assertFalse(last.hasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    public void testGetAccountTransactions_TimeWindowAndEqualTimestamps() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < 6; i++) {
+            transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-" + i, "DEPOSIT",
+                    null, "CHK-1", 100L, start.plusHours(i / 2), "Dépôt"));
+        }
+
+        TransactionPage window = transactionService.getAccountTransactions(
+                "CHK-1", start.plusHours(1), start.plusHours(2), 10, null);
+        assertEquals("La période inclut le début et exclut la fin",
+                List.of("TXN-3", "TXN-2"), ids(window));
+
+        TransactionPage first = transactionService.getAccountTransactions(
+                "CHK-1", start.plusHours(1), null, 3, null);
+        TransactionPage second = transactionService.getAccountTransactions(
+                "CHK-1", start.plusHours(1), null, 3, first.getNextCursor());
+        assertEquals(List.of("TXN-5", "TXN-4", "TXN-3"), ids(first));
+        assertEquals("Les horodatages égaux sont départagés par l'ID",
+                List.of("TXN-2"), ids(second));
+    }
+
+    @Test
+    public void testGetAccountTransactions_UnknownAccountReturnsEmptyPage() {
+        TransactionPage page = transactionService.getAccountTransactions("INCONNU", null, null, 5, null);
+        assertTrue(page.getTransactions().isEmpty());
+        assertFalse(page.hasMore());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetAccountTransactions_InvalidPageSize() {
+        transactionService.getAccountTransactions("CHK-1", null, null, 0, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetAccountTransactions_InvalidCursor() {
+        transactionService.getAccountTransactions("CHK-1", null, null, 5, "pas-un-curseur");
+    }
+
+    private static List<String> ids(TransactionPage page) {
+        List<String> ids = new ArrayList<>();
+        for (Transaction transaction : page.getTransactions()) {
+            ids.add(transaction.getTransactionId());
+        }
+        return ids;
+    }
+
     @Test
     public void testGetTransactionsByType() {
         transactionService.executeTransaction(
@@ -239,6 +323,92 @@ public class TransactionServiceTest {
         assertEquals("Devrait y avoir 2 transactions réussies", 2, count);
     }
 
+    @Test
+    public void testTransactionCounts_SaturateAsIntAndStayExactAsLong() {
+        long covered = 3_000_000_000L;
+        transactionService.restoreStatistics(null, covered, 0L, 0L,
+                Collections.singletonMap("DEPOSIT", covered),
+                Collections.singletonMap("COMPLETED", covered));
+
+        assertEquals(Integer.MAX_VALUE, transactionService.getTotalTransactionCount());
+        assertEquals(Integer.MAX_VALUE, transactionService.getSuccessfulTransactionCount());
+        assertEquals(covered, transactionService.getTotalTransactionCountAsLong());
+        assertEquals(covered, transactionService.getSuccessfulTransactionCountAsLong());
+    }
+
+    @Test
+    public void testStatistics_TrackFlowsAndCountsPerAccount() {
+        transactionService.executeTransaction(new DepositStrategy(), null, destAccount, 100.0);
+        transactionService.executeTransaction(new TransferStrategy(), sourceAccount, destAccount, 40.0);
+        transactionService.executeTransaction(new WithdrawStrategy(), destAccount, null, 15.5);
+
+        TransactionStatistics dest = transactionService.getAccountStatistics(destAccount.getAccountNumber());
+        assertEquals(3, dest.getTransactionCount());
+        assertEquals(140.0, dest.getInflow(), 0.0);
+        assertEquals(15.5, dest.getOutflow(), 0.0);
+        assertEquals(124.5, dest.getNetFlow(), 0.0);
+        assertEquals(1, dest.getCountByType("TRANSFER"));
+
+        TransactionStatistics source = transactionService.getAccountStatistics(sourceAccount.getAccountNumber());
+        assertEquals(-40.0, source.getNetFlow(), 0.0);
+
+        TransactionStatistics global = transactionService.getGlobalStatistics();
+        assertEquals(3, global.getTransactionCount());
+        assertEquals("Un virement compte à la fois en entrée et en sortie",
+                140.0, global.getInflow(), 0.0);
+        assertEquals(55.5, global.getOutflow(), 0.0);
+        assertEquals(3, global.getCountByStatus("COMPLETED"));
+        assertEquals(0, transactionService.getAccountStatistics("INCONNU").getTransactionCount());
+    }
+
+    @Test
+    public void testStatistics_FollowStatusChanges() {
+        Transaction deposit = transactionService.executeTransaction(
+                new DepositStrategy(), null, destAccount, 100.0);
+        Transaction withdraw = transactionService.executeTransaction(
+                new WithdrawStrategy(), destAccount, null, 30.0);
+
+        withdraw.markAsCancelled();
+
+        assertEquals("Un retrait annulé ne compte plus dans le flux",
+                100.0, transactionService.getTotalTransactionAmount(destAccount.getAccountNumber()), 0.0);
+        assertEquals(1, transactionService.getSuccessfulTransactionCount());
+
+        deposit.markAsFailed("Rejet de la banque");
+        deposit.markAsFailed("Rejet répété");
+
+        TransactionStatistics statistics = transactionService.getAccountStatistics(destAccount.getAccountNumber());
+        assertEquals(0.0, statistics.getNetFlow(), 0.0);
+        assertEquals(2, statistics.getTransactionCount());
+        assertEquals(1, statistics.getCountByStatus("FAILED"));
+        assertEquals(1, statistics.getCountByStatus("CANCELLED"));
+        assertEquals(0, statistics.getCountByStatus("COMPLETED"));
+        assertEquals(0, transactionService.getSuccessfulTransactionCount());
+    }
+
+    @Test
+    public void testStatistics_ReplacedOrClearedTransactionsAreNoLongerCounted() {
+        Transaction original = Transaction.ofMinorUnits("TXN-1", "DEPOSIT", null,
+                "CHK-1", 10_000L, LocalDateTime.now(), "Dépôt");
+        transactionService.restoreTransaction(original);
+        transactionService.restoreTransaction(Transaction.ofMinorUnits("TXN-1", "DEPOSIT", null,
+                "CHK-1", 2_500L, LocalDateTime.now(), "Dépôt"));
+
+        assertEquals(25.0, transactionService.getTotalTransactionAmount("CHK-1"), 0.0);
+        assertEquals(1, transactionService.getGlobalStatistics().getTransactionCount());
+
+        original.markAsFailed("Remplacée");
+        assertEquals("La transaction remplacée ne doit plus modifier les agrégats",
+                25.0, transactionService.getTotalTransactionAmount("CHK-1"), 0.0);
+
+        Transaction current = transactionService.getTransaction("TXN-1");
+        transactionService.clearHistory();
+        current.markAsCancelled();
+        assertEquals(0, transactionService.getGlobalStatistics().getTransactionCount());
+        assertEquals(0, transactionService.getGlobalStatistics().getCountByStatus("COMPLETED"));
+        assertEquals(0, transactionService.getGlobalStatistics().getCountByStatus("CANCELLED"));
+    }
+
     @Test
     public void testClearHistory() {
         transactionService.executeTransaction(
@@ -253,4 +423,242 @@ public class TransactionServiceTest {
         assertEquals("L'historique devrait être vide", 0,
                 transactionService.getTotalTransactionCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIndexesMatchFullScan_UnderConcurrentWrites() throws InterruptedException {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accounts.add(AccountFactory.createCheckingAccount(testUser, 100000.0));
+        }
+
+        int threads = 8;
+        int operationsPerThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            final int offset = t;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < operationsPerThread; i++) {
+                    Account first = accounts.get((offset + i) % accounts.size());
+                    Account second = accounts.get((offset + i + 1) % accounts.size());
+                    switch (i % 3) {
+                        case 0:
+                            transactionService.executeTransaction(
+                                    new DepositStrategy(), null, first, 10.0);
+                            break;
+                        case 1:
+                            transactionService.executeTransaction(
+                                    new WithdrawStrategy(), first, null, 1.0);
+                            break;
+                        default:
+                            transactionService.executeTransaction(
+                                    new TransferStrategy(), first, second, 2.0);
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue("Les écritures concurrentes doivent se terminer",
+                executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<Transaction> all = transactionService.getAllTransactions();
+
+        for (Account account : accounts) {
+            String number = account.getAccountNumber();
+            Set<Transaction> scanned = new HashSet<>();
+            double scannedTotal = 0.0;
+            for (Transaction transaction : all) {
+                if (number.equals(transaction.getDestinationAccount())) {
+                    scanned.add(transaction);
+                    scannedTotal += transaction.getAmount();
+                }
+                if (number.equals(transaction.getSourceAccount())) {
+                    scanned.add(transaction);
+                    scannedTotal -= transaction.getAmount();
+                }
+            }
+
+            List<Transaction> indexed = transactionService.getAccountTransactions(number);
+
+            assertEquals("L'index doit contenir exactement les transactions du compte",
+                    scanned, new HashSet<>(indexed));
+            assertEquals("L'index ne doit pas contenir de doublons",
+                    scanned.size(), indexed.size());
+            assertEquals("Le total indexé doit correspondre au parcours complet",
+                    scannedTotal, transactionService.getTotalTransactionAmount(number), 0.01);
+
+            for (int i = 1; i < indexed.size(); i++) {
+                assertFalse("L'historique doit être trié du plus récent au plus ancien",
+                        indexed.get(i).getTimestamp().isAfter(indexed.get(i - 1).getTimestamp()));
+            }
+        }
+
+        for (String type : new String[]{"DEPOSIT", "WITHDRAW", "TRANSFER"}) {
+            Set<Transaction> scanned = new HashSet<>();
+            for (Transaction transaction : all) {
+                if (type.equals(transaction.getType())) {
+                    scanned.add(transaction);
+                }
+            }
+            List<Transaction> indexed = transactionService.getTransactionsByType(type);
+
+            assertEquals("L'index par type doit correspondre au parcours complet",
+                    scanned, new HashSet<>(indexed));
+            assertEquals(scanned.size(), indexed.size());
+        }
+    }
+
+    @Test
+    public void testExecuteBatch_PerItemResultsInOrder() {
+        List<TransactionRequest> requests = new ArrayList<>();
+        requests.add(new TransactionRequest(new DepositStrategy(), null, destAccount, 100.0));
+        requests.add(new TransactionRequest(new WithdrawStrategy(), sourceAccount, null, 5000.0));
+        requests.add(new TransactionRequest(new TransferStrategy(), sourceAccount, destAccount, -1.0));
+        requests.add(new TransactionRequest(new TransferStrategy(), sourceAccount, destAccount, 250.0));
+
+        List<TransactionResult> results = transactionService.executeBatch(requests);
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccessful());
+        assertEquals("DEPOSIT", results.get(0).getTransaction().getType());
+        assertFalse("Le retrait sans provision doit échouer", results.get(1).isSuccessful());
+        assertNotNull(results.get(1).getFailureReason());
+        assertFalse("Le montant négatif doit être rejeté avant exécution", results.get(2).isSuccessful());
+        assertTrue("Un échec ne doit pas interrompre le lot", results.get(3).isSuccessful());
+
+        assertEquals(2, transactionService.getTotalTransactionCount());
+        assertEquals(750.0, sourceAccount.getBalance(), 0.0);
+        assertEquals(850.0, destAccount.getBalance(), 0.0);
+    }
+
+    @Test
+    public void testExecuteBatch_NullStrategyRejectsWholeBatch() {
+        List<TransactionRequest> requests = new ArrayList<>();
+        requests.add(new TransactionRequest(new DepositStrategy(), null, destAccount, 100.0));
+        requests.add(new TransactionRequest(null, null, destAccount, 100.0));
+
+        try {
+            transactionService.executeBatch(requests);
+            fail("Une requête sans stratégie doit rejeter le lot");
+        } catch (IllegalArgumentException e) {
+            // Exception attendue
+        }
+
+        assertEquals("Aucune opération ne doit être exécutée", 0, transactionService.getTotalTransactionCount());
+        assertEquals(500.0, destAccount.getBalance(), 0.0);
+    }
+
+    @Test
+    public void testExecuteBatch_ObserversNotifiedOncePerBatch() {
+        TransactionObserver mockObserver = Mockito.mock(TransactionObserver.class);
+        when(mockObserver.getObserverName()).thenReturn("MockObserver");
+        transactionService.addObserver(mockObserver);
+
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(new TransactionRequest(new DepositStrategy(), null, destAccount, 10.0));
+        }
+        List<TransactionResult> results = transactionService.executeBatch(requests);
+
+        verify(mockObserver, times(1)).onBatchExecuted(results);
+        verify(mockObserver, never()).onTransactionExecuted(any(Transaction.class));
+    }
+
+    @Test
+    public void testExecuteBatch_DefaultBatchHandlerForwardsEachResult() {
+        List<String> events = new ArrayList<>();
+        transactionService.addObserver(new TransactionObserver() {
+            @Override
+            public void onTransactionExecuted(Transaction transaction) {
+                events.add("OK " + transaction.getType());
+            }
+
+            @Override
+            public void onTransactionFailed(Transaction transaction, String reason) {
+                events.add("KO");
+            }
+
+            @Override
+            public String getObserverName() {
+                return "Collecteur";
+            }
+        });
+
+        List<TransactionRequest> requests = new ArrayList<>();
+        requests.add(new TransactionRequest(new DepositStrategy(), null, destAccount, 10.0));
+        requests.add(new TransactionRequest(new WithdrawStrategy(), sourceAccount, null, 99999.0));
+        transactionService.executeBatch(requests);
+
+        assertEquals(List.of("OK DEPOSIT", "KO"), events);
+    }
+
+    @Test
+    public void testExecuteBatch_SpansSeveralLockChunks() {
+        int accountCount = TransactionService.BATCH_LOCKED_ACCOUNTS * 3 + 7;
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            accounts.add(AccountFactory.createCheckingAccount(testUser, 100.0));
+        }
+
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < accountCount; i++) {
+            requests.add(new TransactionRequest(new TransferStrategy(),
+                    accounts.get(i), accounts.get((i + 1) % accountCount), 60.0));
+            requests.add(new TransactionRequest(new DepositStrategy(), null, accounts.get(i), 1.0));
+        }
+        List<TransactionResult> results = transactionService.executeBatch(requests);
+
+        assertEquals(requests.size(), results.size());
+        long total = 0;
+        for (int i = 0; i < accountCount; i++) {
+            assertTrue(results.get(2 * i).isSuccessful());
+            assertEquals(accounts.get(i).getAccountNumber(),
+                    results.get(2 * i).getTransaction().getSourceAccount());
+            total += accounts.get(i).getBalanceMinor();
+        }
+        assertEquals(accountCount * 10_100L, total);
+        assertEquals(requests.size(), transactionService.getTotalTransactionCount());
+    }
+
+    @Test(timeout = 30_000)
+    public void testExecuteBatch_ConcurrentWithCrossedTransfers() throws InterruptedException {
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            accounts.add(AccountFactory.createCheckingAccount(testUser, 1000.0));
+        }
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            requests.add(new TransactionRequest(new TransferStrategy(),
+                    accounts.get(i % 8), accounts.get((i + 3) % 8), 1.0));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 2; t++) {
+            executor.submit(() -> transactionService.executeBatch(requests));
+            executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        transactionService.executeTransaction(new TransferStrategy(),
+                                accounts.get((i + 3) % 8), accounts.get(i % 8), 1.0);
+                    } catch (RuntimeException e) {
+                        // Fonds insuffisants
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue("Le lot et les transferts croisés ne doivent pas s'interbloquer",
+                executor.awaitTermination(20, TimeUnit.SECONDS));
+
+        long total = 0;
+        for (Account account : accounts) {
+            total += account.getBalanceMinor();
+        }
+        assertEquals(8 * 100_000L, total);
+    }
+}